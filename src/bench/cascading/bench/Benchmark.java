@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2007-2009 Concurrent, Inc. All Rights Reserved.
+ *
+ * Project and contact information: http://www.cascading.org/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Cascading is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Cascading is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cascading.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package cascading.bench;
+
+/**
+ * Class Benchmark is the base class for all micro and end-to-end benchmarks run by {@link BenchmarkRunner}.
+ * <p/>
+ * {@link #run()} is called once per iteration, and must return the number of operations it performed so the
+ * runner can report the time per operation. Any value computed by an operation should be handed to
+ * {@link #consume(Object)} or {@link #consume(long)} so the JIT cannot remove the work as dead code.
+ */
+public abstract class Benchmark
+  {
+  /** Field name */
+  private final String name;
+  /** Field consumed */
+  private long consumed;
+
+  protected Benchmark( String name )
+    {
+    this.name = name;
+    }
+
+  /**
+   * Method getName returns the name of this Benchmark object, used in reports and to filter benchmarks.
+   *
+   * @return the name (type String) of this Benchmark object.
+   */
+  public String getName()
+    {
+    return name;
+    }
+
+  /**
+   * Method setUp is called once before the warmup iterations.
+   *
+   * @throws Exception when
+   */
+  public void setUp() throws Exception
+    {
+    }
+
+  /**
+   * Method run performs one iteration of this benchmark.
+   *
+   * @return the number of operations performed
+   * @throws Exception when
+   */
+  public abstract long run() throws Exception;
+
+  /**
+   * Method tearDown is called once after the measured iterations.
+   *
+   * @throws Exception when
+   */
+  public void tearDown() throws Exception
+    {
+    }
+
+  protected final void consume( Object value )
+    {
+    consumed += value == null ? 0 : value.hashCode();
+    }
+
+  protected final void consume( long value )
+    {
+    consumed += value;
+    }
+
+  /**
+   * Method getConsumed returns the accumulated consumed values, reported so they are observably used.
+   *
+   * @return long
+   */
+  long getConsumed()
+    {
+    return consumed;
+    }
+
+  @Override
+  public String toString()
+    {
+    return name;
+    }
+  }
@@ -0,0 +1,224 @@
+/*
+ * Copyright (c) 2007-2009 Concurrent, Inc. All Rights Reserved.
+ *
+ * Project and contact information: http://www.cascading.org/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Cascading is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Cascading is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cascading.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package cascading.bench;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Properties;
+import java.util.regex.Pattern;
+
+import cascading.cascade.Cascade;
+
+/**
+ * Class BenchmarkRunner runs all known {@link Benchmark} instances and writes their results as CSV, one row per
+ * benchmark, so results can be tracked and compared over releases.
+ * <p/>
+ * Each benchmark is run for a number of warmup iterations that are not measured, then for a number of measured
+ * iterations. The mean, standard deviation, minimum and maximum time per operation over the measured iterations are
+ * reported.
+ * <p/>
+ * Usage: {@code BenchmarkRunner [-o results.csv] [-f regex] [-w warmups] [-i iterations]}
+ */
+public class BenchmarkRunner
+  {
+  /** Field HEADER */
+  static final String HEADER = "benchmark,version,date,iterations,operations,mean_ns_per_op,stddev_ns_per_op,min_ns_per_op,max_ns_per_op,ops_per_sec";
+
+  /** Field output */
+  private File output = new File( "build/bench/results.csv" );
+  /** Field filter */
+  private Pattern filter = Pattern.compile( ".*" );
+  /** Field warmups */
+  private int warmups = 5;
+  /** Field iterations */
+  private int iterations = 10;
+
+  public static void main( String[] args ) throws Exception
+    {
+    BenchmarkRunner runner = new BenchmarkRunner();
+
+    for( int i = 0; i < args.length; i++ )
+      {
+      if( "-o".equals( args[ i ] ) )
+        runner.output = new File( args[ ++i ] );
+      else if( "-f".equals( args[ i ] ) )
+        runner.filter = Pattern.compile( args[ ++i ] );
+      else if( "-w".equals( args[ i ] ) )
+        runner.warmups = Integer.parseInt( args[ ++i ] );
+      else if( "-i".equals( args[ i ] ) )
+        runner.iterations = Integer.parseInt( args[ ++i ] );
+      else
+        throw new IllegalArgumentException( "unknown argument: " + args[ i ] + ", usage: [-o results.csv] [-f regex] [-w warmups] [-i iterations]" );
+      }
+
+    runner.run( getBenchmarks() );
+    }
+
+  /**
+   * Method getBenchmarks returns all known benchmarks. New benchmark classes must be added here.
+   *
+   * @return List<Benchmark>
+   */
+  static List<Benchmark> getBenchmarks()
+    {
+    List<Benchmark> benchmarks = new ArrayList<Benchmark>();
+
+    benchmarks.addAll( TupleBenchmarks.getBenchmarks() );
+    benchmarks.addAll( SerializationBenchmarks.getBenchmarks() );
+    benchmarks.addAll( SpillBenchmarks.getBenchmarks() );
+    benchmarks.addAll( FlowBenchmarks.getBenchmarks() );
+    benchmarks.addAll( PlannerBenchmarks.getBenchmarks() );
+
+    return benchmarks;
+    }
+
+  void run( List<Benchmark> benchmarks ) throws Exception
+    {
+    output.getAbsoluteFile().getParentFile().mkdirs();
+
+    PrintWriter writer = new PrintWriter( new FileWriter( output ) );
+
+    try
+      {
+      writer.println( HEADER );
+
+      for( Benchmark benchmark : benchmarks )
+        {
+        if( !filter.matcher( benchmark.getName() ).find() )
+          continue;
+
+        String result = run( benchmark );
+
+        System.out.println( result );
+        writer.println( result );
+        writer.flush();
+        }
+      }
+    finally
+      {
+      writer.close();
+      }
+
+    System.out.println( "wrote results to: " + output );
+    }
+
+  private String run( Benchmark benchmark ) throws Exception
+    {
+    benchmark.setUp();
+
+    double[] nanosPerOp = new double[iterations];
+    long operations = 0;
+
+    try
+      {
+      for( int i = 0; i < warmups; i++ )
+        benchmark.run();
+
+      for( int i = 0; i < iterations; i++ )
+        {
+        long start = System.nanoTime();
+        long ops = benchmark.run();
+        long duration = System.nanoTime() - start;
+
+        nanosPerOp[ i ] = (double) duration / Math.max( ops, 1 );
+        operations += ops;
+        }
+      }
+    finally
+      {
+      benchmark.tearDown();
+      }
+
+    return format( benchmark, nanosPerOp, operations );
+    }
+
+  private String format( Benchmark benchmark, double[] nanosPerOp, long operations )
+    {
+    double sum = 0;
+    double min = Double.MAX_VALUE;
+    double max = 0;
+
+    for( double value : nanosPerOp )
+      {
+      sum += value;
+      min = Math.min( min, value );
+      max = Math.max( max, value );
+      }
+
+    double mean = sum / nanosPerOp.length;
+    double squares = 0;
+
+    for( double value : nanosPerOp )
+      squares += ( value - mean ) * ( value - mean );
+
+    double stddev = Math.sqrt( squares / nanosPerOp.length );
+
+    if( benchmark.getConsumed() == 42 ) // never true in practice, keeps consumed values alive
+      System.out.print( "" );
+
+    return String.format( "%s,%s,%tF,%d,%d,%.2f,%.2f,%.2f,%.2f,%.0f", benchmark.getName(), getVersion(), new Date(),
+      nanosPerOp.length, operations, mean, stddev, min, max, 1.0e9 / mean );
+    }
+
+  private static String getVersion()
+    {
+    InputStream stream = Cascade.class.getClassLoader().getResourceAsStream( "cascading/version.properties" );
+
+    if( stream == null )
+      return "dev";
+
+    try
+      {
+      Properties properties = new Properties();
+      properties.load( stream );
+
+      return properties.getProperty( "cascading.release.version", "dev" );
+      }
+    catch( IOException exception )
+      {
+      return "dev";
+      }
+    }
+
+  /**
+   * Method getDataDir returns a directory benchmarks may write their input and output data to.
+   *
+   * @param name of type String
+   * @return File
+   * @throws IOException when the directory cannot be created
+   */
+  static File getDataDir( String name ) throws IOException
+    {
+    File dir = new File( "build/bench/data", name );
+
+    if( !dir.exists() && !dir.mkdirs() )
+      throw new IOException( "unable to create: " + dir );
+
+    return dir;
+    }
+  }
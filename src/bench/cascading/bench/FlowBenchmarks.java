@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2007-2009 Concurrent, Inc. All Rights Reserved.
+ *
+ * Project and contact information: http://www.cascading.org/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Cascading is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Cascading is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cascading.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package cascading.bench;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import cascading.flow.Flow;
+import cascading.flow.FlowConnector;
+import cascading.operation.Identity;
+import cascading.operation.aggregator.Count;
+import cascading.operation.aggregator.Sum;
+import cascading.operation.regex.RegexSplitter;
+import cascading.pipe.CoGroup;
+import cascading.pipe.Each;
+import cascading.pipe.Every;
+import cascading.pipe.GroupBy;
+import cascading.pipe.Pipe;
+import cascading.scheme.TextLine;
+import cascading.tap.Lfs;
+import cascading.tap.SinkMode;
+import cascading.tap.Tap;
+import cascading.tuple.Fields;
+
+/**
+ * Class FlowBenchmarks measures end-to-end {@link Flow} execution in Hadoop local mode, exercising the
+ * {@link Each} and {@link Every} stacks, the shuffle, and {@link GroupBy} and {@link CoGroup} reducers over
+ * generated data.
+ */
+public class FlowBenchmarks
+  {
+  /** Field LINES */
+  static final int LINES = 20000;
+
+  static List<Benchmark> getBenchmarks()
+    {
+    List<Benchmark> benchmarks = new ArrayList<Benchmark>();
+
+    benchmarks.add( new FlowBenchmark( "flow.each" )
+    {
+    Flow createFlow( Tap lhs, Tap rhs, Tap sink )
+      {
+      Pipe pipe = new Pipe( "each" );
+
+      pipe = new Each( pipe, new Fields( "line" ), new RegexSplitter( new Fields( "key", "value" ), "\t" ) );
+      pipe = new Each( pipe, new Fields( "value", "key" ), new Identity() );
+
+      return new FlowConnector( getProperties() ).connect( lhs, sink, pipe );
+      }
+    } );
+
+    benchmarks.add( new FlowBenchmark( "flow.groupby" )
+    {
+    Flow createFlow( Tap lhs, Tap rhs, Tap sink )
+      {
+      Pipe pipe = new Pipe( "groupby" );
+
+      pipe = new Each( pipe, new Fields( "line" ), new RegexSplitter( new Fields( "key", "value" ), "\t" ) );
+      pipe = new GroupBy( pipe, new Fields( "key" ) );
+      pipe = new Every( pipe, new Fields( "value" ), new Count() );
+      pipe = new Every( pipe, new Fields( "value" ), new Sum() );
+
+      return new FlowConnector( getProperties() ).connect( lhs, sink, pipe );
+      }
+    } );
+
+    benchmarks.add( new FlowBenchmark( "flow.cogroup" )
+    {
+    Flow createFlow( Tap lhs, Tap rhs, Tap sink )
+      {
+      Map<String, Tap> sources = new HashMap<String, Tap>();
+
+      sources.put( "lhs", lhs );
+      sources.put( "rhs", rhs );
+
+      Pipe pipeLhs = new Each( new Pipe( "lhs" ), new Fields( "line" ), new RegexSplitter( new Fields( "key", "value" ), "\t" ) );
+      Pipe pipeRhs = new Each( new Pipe( "rhs" ), new Fields( "line" ), new RegexSplitter( new Fields( "key2", "value2" ), "\t" ) );
+      Pipe pipe = new CoGroup( pipeLhs, new Fields( "key" ), pipeRhs, new Fields( "key2" ) );
+
+      return new FlowConnector( getProperties() ).connect( sources, sink, pipe );
+      }
+    } );
+
+    return benchmarks;
+    }
+
+  static Map<Object, Object> getProperties()
+    {
+    Map<Object, Object> properties = new HashMap<Object, Object>();
+
+    properties.put( "mapred.job.tracker", "local" );
+    properties.put( "fs.default.name", "file:///" );
+    FlowConnector.setApplicationJarClass( properties, FlowBenchmarks.class );
+
+    return properties;
+    }
+
+  abstract static class FlowBenchmark extends Benchmark
+    {
+    /** Field dataDir */
+    private File dataDir;
+    /** Field lhs */
+    private Tap lhs;
+    /** Field rhs */
+    private Tap rhs;
+    /** Field count */
+    private int count;
+
+    FlowBenchmark( String name )
+      {
+      super( name );
+      }
+
+    abstract Flow createFlow( Tap lhs, Tap rhs, Tap sink );
+
+    @Override
+    public void setUp() throws IOException
+      {
+      dataDir = BenchmarkRunner.getDataDir( getName() );
+
+      File lhsFile = new File( dataDir, "lhs.txt" );
+      File rhsFile = new File( dataDir, "rhs.txt" );
+
+      writeLines( lhsFile, 1 );
+      writeLines( rhsFile, 7 );
+
+      lhs = new Lfs( new TextLine( new Fields( "offset", "line" ) ), lhsFile.getPath() );
+      rhs = new Lfs( new TextLine( new Fields( "offset", "line" ) ), rhsFile.getPath() );
+      }
+
+    public long run() throws IOException
+      {
+      Tap sink = new Lfs( new TextLine(), new File( dataDir, "output" + count++ ).getPath(), SinkMode.REPLACE );
+      Flow flow = createFlow( lhs, rhs, sink );
+
+      flow.complete();
+
+      sink.deletePath( flow.getJobConf() );
+
+      return LINES;
+      }
+
+    private void writeLines( File file, int seed ) throws IOException
+      {
+      PrintWriter writer = new PrintWriter( new FileWriter( file ) );
+
+      try
+        {
+        for( int i = 0; i < LINES; i++ )
+          writer.println( "key-" + ( ( i * seed ) % 1000 ) + "\t" + i );
+        }
+      finally
+        {
+        writer.close();
+        }
+      }
+    }
+  }
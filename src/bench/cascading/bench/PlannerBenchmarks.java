@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2007-2009 Concurrent, Inc. All Rights Reserved.
+ *
+ * Project and contact information: http://www.cascading.org/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Cascading is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Cascading is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cascading.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package cascading.bench;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import cascading.flow.Flow;
+import cascading.flow.FlowConnector;
+import cascading.operation.Identity;
+import cascading.operation.aggregator.Count;
+import cascading.operation.regex.RegexSplitter;
+import cascading.pipe.CoGroup;
+import cascading.pipe.Each;
+import cascading.pipe.Every;
+import cascading.pipe.GroupBy;
+import cascading.pipe.Pipe;
+import cascading.scheme.TextLine;
+import cascading.tap.Lfs;
+import cascading.tap.SinkMode;
+import cascading.tap.Tap;
+import cascading.tuple.Fields;
+
+/**
+ * Class PlannerBenchmarks measures {@link FlowConnector#connect} over generated assemblies of 10 to 10,000 pipes.
+ * <p/>
+ * Each generated unit of ten pipes reads its own source, splits it into a grouped and an ungrouped branch, joins
+ * them, and joins the result with the previous unit before writing it to its own sink. So every unit adds splits
+ * after groups, merge joins, and head to tail paths through all previous units. Times are reported per pipe, so
+ * planning time should stay flat as the assemblies grow.
+ */
+public class PlannerBenchmarks
+  {
+  /** Field PIPES_PER_UNIT */
+  static final int PIPES_PER_UNIT = 10;
+
+  static List<Benchmark> getBenchmarks()
+    {
+    List<Benchmark> benchmarks = new ArrayList<Benchmark>();
+
+    for( int numPipes : new int[]{10, 100, 1000, 10000} )
+      benchmarks.add( new PlannerBenchmark( numPipes ) );
+
+    return benchmarks;
+    }
+
+  static class PlannerBenchmark extends Benchmark
+    {
+    /** Field numUnits */
+    private final int numUnits;
+    /** Field sources */
+    private final Map<String, Tap> sources = new HashMap<String, Tap>();
+    /** Field sinks */
+    private final Map<String, Tap> sinks = new HashMap<String, Tap>();
+    /** Field tails */
+    private final List<Pipe> tails = new ArrayList<Pipe>();
+
+    PlannerBenchmark( int numPipes )
+      {
+      super( "planner.connect." + numPipes );
+
+      this.numUnits = numPipes / PIPES_PER_UNIT;
+      }
+
+    @Override
+    public void setUp()
+      {
+      Pipe previous = null;
+
+      for( int i = 0; i < numUnits; i++ )
+        {
+        previous = createUnit( i, previous );
+
+        tails.add( new Pipe( "sink" + i, previous ) );
+        }
+      }
+
+    /** Creates ten pipes, joined with the previous unit if any. */
+    private Pipe createUnit( int unit, Pipe previous )
+      {
+      sources.put( "source" + unit, new Lfs( new TextLine( new Fields( "offset", "line" ) ), "build/bench/planner/source" + unit ) );
+      sinks.put( "sink" + unit, new Lfs( new TextLine(), "build/bench/planner/sink" + unit, SinkMode.REPLACE ) );
+
+      Pipe pipe = new Each( new Pipe( "source" + unit ), new Fields( "line" ), new RegexSplitter( new Fields( "key", "value" ), "\t" ) );
+
+      Pipe lhs = new Each( new Pipe( "lhs" + unit, pipe ), new Identity() );
+      Pipe rhs = new GroupBy( new Pipe( "rhs" + unit, pipe ), new Fields( "key" ) );
+
+      rhs = new Every( rhs, new Fields( "value" ), new Count() );
+
+      Fields declared = new Fields( "key", "value", "key2", "count" );
+
+      pipe = new CoGroup( "join" + unit, lhs, new Fields( "key" ), rhs, new Fields( "key" ), declared );
+      pipe = new Each( pipe, new Fields( "key", "value" ), new Identity() );
+
+      if( previous == null )
+        return pipe;
+
+      pipe = new CoGroup( "chain" + unit, pipe, new Fields( "key" ), previous, new Fields( "key" ), new Fields( "key", "value", "key2", "value2" ) );
+
+      return new Each( pipe, new Fields( "key", "value" ), new Identity() );
+      }
+
+    public long run()
+      {
+      Flow flow = new FlowConnector( FlowBenchmarks.getProperties() ).connect( sources, sinks, tails.toArray( new Pipe[tails.size()] ) );
+
+      consume( flow.getSteps().size() );
+
+      return numUnits * PIPES_PER_UNIT;
+      }
+    }
+  }
@@ -0,0 +1,202 @@
+/*
+ * Copyright (c) 2007-2009 Concurrent, Inc. All Rights Reserved.
+ *
+ * Project and contact information: http://www.cascading.org/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Cascading is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Cascading is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cascading.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package cascading.bench;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import cascading.tuple.Tuple;
+import cascading.tuple.TupleInputStream;
+import cascading.tuple.TupleOutputStream;
+import cascading.tuple.TypedTuple;
+import cascading.tuple.hadoop.TupleComparator;
+import cascading.tuple.hadoop.TupleSerialization;
+import org.apache.hadoop.mapred.JobConf;
+
+/**
+ * Class SerializationBenchmarks measures {@link TupleOutputStream} and {@link TupleInputStream} throughput, in the
+ * tagged and the {@link TypedTuple} layouts, and the raw byte comparison performed by {@link TupleComparator} during
+ * the shuffle.
+ */
+public class SerializationBenchmarks
+  {
+  /** Field SIZE */
+  static final int SIZE = 10000;
+  /** Field TYPES, the types of the values made by {@link TupleBenchmarks#createTuples(int)} */
+  static final Class[] TYPES = new Class[]{String.class, Integer.class, Long.class, Double.class};
+
+  static List<Benchmark> getBenchmarks()
+    {
+    List<Benchmark> benchmarks = new ArrayList<Benchmark>();
+
+    benchmarks.add( new Benchmark( "serialization.write" )
+    {
+    Tuple[] tuples = TupleBenchmarks.createTuples( SIZE );
+    TupleSerialization serialization = new TupleSerialization( new JobConf() );
+    ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+
+    public long run() throws IOException
+      {
+      buffer.reset();
+
+      TupleOutputStream output = new TupleOutputStream( buffer, serialization.getElementWriter() );
+
+      for( Tuple tuple : tuples )
+        output.writeTuple( tuple );
+
+      output.flush();
+      consume( buffer.size() );
+
+      return SIZE;
+      }
+    } );
+
+    benchmarks.add( new Benchmark( "serialization.read" )
+    {
+    TupleSerialization serialization = new TupleSerialization( new JobConf() );
+    byte[] bytes;
+
+    @Override
+    public void setUp() throws IOException
+      {
+      bytes = serialize( serialization, TupleBenchmarks.createTuples( SIZE ) );
+      }
+
+    public long run() throws IOException
+      {
+      TupleInputStream input = new TupleInputStream( new ByteArrayInputStream( bytes ), serialization.getElementReader( false ) );
+      Tuple tuple = new Tuple();
+
+      for( int i = 0; i < SIZE; i++ )
+        consume( input.readTuple( tuple ).size() );
+
+      return SIZE;
+      }
+    } );
+
+    benchmarks.add( new Benchmark( "serialization.write.typed" )
+    {
+    Tuple[] tuples = TupleBenchmarks.createTuples( SIZE );
+    TupleSerialization serialization = new TupleSerialization( new JobConf() );
+    ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    int[] tokens = TupleOutputStream.getTypeTokens( TYPES );
+
+    public long run() throws IOException
+      {
+      buffer.reset();
+
+      TupleOutputStream output = new TupleOutputStream( buffer, serialization.getElementWriter() );
+
+      for( Tuple tuple : tuples )
+        output.writeTypedTuple( tuple, tokens );
+
+      output.flush();
+      consume( buffer.size() );
+
+      return SIZE;
+      }
+    } );
+
+    benchmarks.add( new Benchmark( "serialization.read.typed" )
+    {
+    TupleSerialization serialization = new TupleSerialization( new JobConf() );
+    int[] tokens = TupleOutputStream.getTypeTokens( TYPES );
+    byte[] bytes;
+
+    @Override
+    public void setUp() throws IOException
+      {
+      ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+      TupleOutputStream output = new TupleOutputStream( buffer, serialization.getElementWriter() );
+
+      for( Tuple tuple : TupleBenchmarks.createTuples( SIZE ) )
+        output.writeTypedTuple( tuple, tokens );
+
+      output.close();
+
+      bytes = buffer.toByteArray();
+      }
+
+    public long run() throws IOException
+      {
+      TupleInputStream input = new TupleInputStream( new ByteArrayInputStream( bytes ), serialization.getElementReader( false ) );
+      Tuple tuple = new Tuple();
+
+      for( int i = 0; i < SIZE; i++ )
+        consume( input.readTypedTuple( tuple, tokens ).size() );
+
+      return SIZE;
+      }
+    } );
+
+    benchmarks.add( new Benchmark( "serialization.compare.raw" )
+    {
+    TupleComparator comparator = new TupleComparator();
+    byte[][] keys;
+
+    @Override
+    public void setUp() throws IOException
+      {
+      JobConf jobConf = new JobConf();
+      TupleSerialization serialization = new TupleSerialization( jobConf );
+      Tuple[] tuples = TupleBenchmarks.createTuples( 1024 );
+
+      comparator.setConf( jobConf );
+      keys = new byte[tuples.length][];
+
+      for( int i = 0; i < tuples.length; i++ )
+        keys[ i ] = serialize( serialization, new Tuple[]{tuples[ i ]} );
+      }
+
+    public long run()
+      {
+      for( int i = 0; i < SIZE; i++ )
+        {
+        byte[] lhs = keys[ i & 1023 ];
+        byte[] rhs = keys[ ( i + 7 ) & 1023 ];
+
+        consume( comparator.compare( lhs, 0, lhs.length, rhs, 0, rhs.length ) );
+        }
+
+      return SIZE;
+      }
+    } );
+
+    return benchmarks;
+    }
+
+  static byte[] serialize( TupleSerialization serialization, Tuple[] tuples ) throws IOException
+    {
+    ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    TupleOutputStream output = new TupleOutputStream( buffer, serialization.getElementWriter() );
+
+    for( Tuple tuple : tuples )
+      output.writeTuple( tuple );
+
+    output.close();
+
+    return buffer.toByteArray();
+    }
+  }
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2007-2009 Concurrent, Inc. All Rights Reserved.
+ *
+ * Project and contact information: http://www.cascading.org/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Cascading is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Cascading is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cascading.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package cascading.bench;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import cascading.tuple.SpillableTupleList;
+import cascading.tuple.Tuple;
+import cascading.tuple.hadoop.FastBlockCodec;
+import org.apache.hadoop.io.compress.CompressionCodec;
+import org.apache.hadoop.io.compress.GzipCodec;
+import org.apache.hadoop.mapred.JobConf;
+import org.apache.hadoop.util.ReflectionUtils;
+
+/**
+ * Class SpillBenchmarks measures {@link SpillableTupleList} add and iteration cost, both when the list stays in
+ * memory and when it spills to disk. The repeated pass benchmarks iterate the spilled list many times, as a join
+ * does, with and without the decoded spill file cache. The codec benchmarks spill through the gzip and fast block
+ * codecs.
+ */
+public class SpillBenchmarks
+  {
+  /** Field SIZE */
+  static final int SIZE = 50000;
+
+  static List<Benchmark> getBenchmarks()
+    {
+    List<Benchmark> benchmarks = new ArrayList<Benchmark>();
+
+    benchmarks.add( new SpillBenchmark( "spill.memory", Long.MAX_VALUE, 0, 1, null ) );
+    benchmarks.add( new SpillBenchmark( "spill.disk", 5000, 0, 1, null ) );
+    benchmarks.add( new SpillBenchmark( "spill.disk.passes", 5000, 0, 5, null ) );
+    benchmarks.add( new SpillBenchmark( "spill.disk.passes.cached", 5000, Long.MAX_VALUE, 5, null ) );
+    benchmarks.add( new SpillBenchmark( "spill.disk.gzip", 5000, 0, 1, GzipCodec.class ) );
+    benchmarks.add( new SpillBenchmark( "spill.disk.fastblock", 5000, 0, 1, FastBlockCodec.class ) );
+
+    return benchmarks;
+    }
+
+  static class SpillBenchmark extends Benchmark
+    {
+    /** Field threshold */
+    private final long threshold;
+    /** Field cacheLimit */
+    private final long cacheLimit;
+    /** Field passes */
+    private final int passes;
+    /** Field codecClass */
+    private final Class<? extends CompressionCodec> codecClass;
+    /** Field codec */
+    private CompressionCodec codec;
+    /** Field tuples */
+    private Tuple[] tuples;
+    /** Field jobConf */
+    private JobConf jobConf = new JobConf();
+
+    SpillBenchmark( String name, long threshold, long cacheLimit, int passes, Class<? extends CompressionCodec> codecClass )
+      {
+      super( name );
+      this.threshold = threshold;
+      this.cacheLimit = cacheLimit;
+      this.passes = passes;
+      this.codecClass = codecClass;
+      }
+
+    @Override
+    public void setUp()
+      {
+      tuples = TupleBenchmarks.createTuples( SIZE );
+
+      if( codecClass != null )
+        codec = ReflectionUtils.newInstance( codecClass, jobConf );
+      }
+
+    public long run()
+      {
+      SpillableTupleList list = new SpillableTupleList( threshold, Long.MAX_VALUE, cacheLimit, jobConf, codec );
+
+      for( Tuple tuple : tuples )
+        list.add( tuple );
+
+      for( int i = 0; i < passes; i++ )
+        {
+        for( Tuple tuple : list )
+          consume( tuple.size() );
+        }
+
+      list.clear();
+
+      return (long) SIZE * passes;
+      }
+    }
+  }
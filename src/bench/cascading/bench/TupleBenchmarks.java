@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) 2007-2009 Concurrent, Inc. All Rights Reserved.
+ *
+ * Project and contact information: http://www.cascading.org/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Cascading is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Cascading is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cascading.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package cascading.bench;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import cascading.tuple.Fields;
+import cascading.tuple.Tuple;
+import cascading.tuple.TupleEntry;
+import cascading.tuple.TupleSelector;
+
+/** Class TupleBenchmarks measures {@link Tuple}, {@link TupleEntry} and {@link Fields} selection hot paths. */
+public class TupleBenchmarks
+  {
+  /** Field OPERATIONS */
+  static final int OPERATIONS = 100000;
+
+  static List<Benchmark> getBenchmarks()
+    {
+    List<Benchmark> benchmarks = new ArrayList<Benchmark>();
+
+    benchmarks.add( new Benchmark( "tuple.create" )
+    {
+    public long run()
+      {
+      for( int i = 0; i < OPERATIONS; i++ )
+        consume( new Tuple( i, "value", (long) i, (double) i ) );
+
+      return OPERATIONS;
+      }
+    } );
+
+    benchmarks.add( new Benchmark( "tuple.append" )
+    {
+    Tuple lhs = new Tuple( 1, "two" );
+    Tuple rhs = new Tuple( 3L, 4.0d );
+
+    public long run()
+      {
+      for( int i = 0; i < OPERATIONS; i++ )
+        consume( lhs.append( rhs ) );
+
+      return OPERATIONS;
+      }
+    } );
+
+    benchmarks.add( new Benchmark( "tuple.equals.hashcode" )
+    {
+    Tuple[] tuples = createTuples( 1024 );
+
+    public long run()
+      {
+      for( int i = 0; i < OPERATIONS; i++ )
+        {
+        Tuple tuple = tuples[ i & 1023 ];
+
+        consume( tuple.hashCode() );
+        consume( tuple.equals( tuples[ ( i + 1 ) & 1023 ] ) ? 1 : 0 );
+        }
+
+      return OPERATIONS;
+      }
+    } );
+
+    benchmarks.add( new Benchmark( "tuple.compareto" )
+    {
+    Tuple[] tuples = createTuples( 1024 );
+
+    public long run()
+      {
+      for( int i = 0; i < OPERATIONS; i++ )
+        consume( tuples[ i & 1023 ].compareTo( tuples[ ( i + 7 ) & 1023 ] ) );
+
+      return OPERATIONS;
+      }
+    } );
+
+    benchmarks.add( new Benchmark( "fields.select" )
+    {
+    Fields declarator = new Fields( "a", "b", "c", "d" );
+    Fields selector = new Fields( "d", "b" );
+
+    public long run()
+      {
+      for( int i = 0; i < OPERATIONS; i++ )
+        consume( declarator.select( selector ) );
+
+      return OPERATIONS;
+      }
+    } );
+
+    benchmarks.add( new Benchmark( "tupleentry.selecttuple" )
+    {
+    Fields selector = new Fields( "d", "b" );
+    TupleEntry entry = new TupleEntry( new Fields( "a", "b", "c", "d" ), new Tuple( 1, "two", 3L, 4.0d ) );
+
+    public long run()
+      {
+      for( int i = 0; i < OPERATIONS; i++ )
+        consume( entry.selectTuple( selector ) );
+
+      return OPERATIONS;
+      }
+    } );
+
+    benchmarks.add( new Benchmark( "tupleentry.selecttuple.reuse" )
+    {
+    Fields selector = new Fields( "d", "b" );
+    TupleEntry entry = new TupleEntry( new Fields( "a", "b", "c", "d" ), new Tuple( 1, "two", 3L, 4.0d ) );
+    Tuple result = new Tuple();
+
+    public long run()
+      {
+      for( int i = 0; i < OPERATIONS; i++ )
+        consume( entry.selectTuple( selector, result ) );
+
+      return OPERATIONS;
+      }
+    } );
+
+    benchmarks.add( new Benchmark( "tupleselector.select.reuse" )
+    {
+    TupleSelector selector = new TupleSelector( new Fields( "d", "b" ) );
+    TupleEntry entry = new TupleEntry( new Fields( "a", "b", "c", "d" ), new Tuple( 1, "two", 3L, 4.0d ) );
+    Tuple result = new Tuple();
+
+    public long run()
+      {
+      for( int i = 0; i < OPERATIONS; i++ )
+        consume( selector.select( entry, result ) );
+
+      return OPERATIONS;
+      }
+    } );
+
+    return benchmarks;
+    }
+
+  /**
+   * Method createTuples returns the given number of Tuples with a mix of String and numeric values.
+   *
+   * @param size of type int
+   * @return Tuple[]
+   */
+  static Tuple[] createTuples( int size )
+    {
+    Tuple[] tuples = new Tuple[size];
+
+    for( int i = 0; i < size; i++ )
+      tuples[ i ] = new Tuple( "key-" + ( i % 97 ), i % 13, (long) i, i * 0.5d );
+
+    return tuples;
+    }
+  }
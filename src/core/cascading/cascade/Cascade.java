@@ -25,12 +25,18 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.PriorityQueue;
 import java.util.Properties;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
@@ -53,7 +59,12 @@ import org.jgrapht.traverse.TopologicalOrderIterator;
  * a single group. The most common case is where one Flow instance depends on a Tap created by a second Flow instance. This
  * dependency chain can continue as practical.
  * <p/>
- * Note Flow instances that have no shared dependencies will be executed in parallel.
+ * Note Flow instances that have no shared dependencies will be executed in parallel. A Flow is started as soon as all
+ * the Flows it depends on complete. The number of Flows executing at once may be bounded with
+ * {@link #setMaxConcurrentFlows(java.util.Map, int)}, in which case Flows that are ready are started in order of
+ * the longest remaining path through the Cascade, so Flows on the critical path are not held behind shorter work.
+ * The length of a path is estimated from the duration of each Flow's previous run, as given by
+ * {@link #setFlowDuration(java.util.Map, String, long)} or {@link #setFlowDurations(java.util.Map, Cascade)}.
  * <p/>
  * Additionally, a Cascade allows for incremental builds of complex data processing processes. If a given source {@link Tap} is newer than
  * a subsequent sink {@link Tap} in the assembly, the connecting {@link Flow}(s) will be executed
@@ -96,18 +107,115 @@ public class Cascade implements Runnable
   /** Field jobsMap */
   private Map<String, Callable<Throwable>> jobsMap;
   /** Field stop */
-  private boolean stop;
+  private volatile boolean stop;
   /** Field flowSkipStrategy */
   private FlowSkipStrategy flowSkipStrategy = null;
+  /** Field maxConcurrentFlows */
+  private int maxConcurrentFlows = 0;
+  /** Field flowDurations holds the duration of the previous run of each Flow, by name, if known */
+  private final Map<String, Long> flowDurations = new HashMap<String, Long>();
+
+  /**
+   * Property maxConcurrentFlows sets the maximum number of Flows a Cascade will execute at once. Zero, the default,
+   * allows all Flows without shared dependencies to execute concurrently.
+   *
+   * @param properties         of type Map
+   * @param maxConcurrentFlows of type int
+   */
+  public static void setMaxConcurrentFlows( Map<Object, Object> properties, int maxConcurrentFlows )
+    {
+    properties.put( "cascading.cascade.maxconcurrentflows", Integer.toString( maxConcurrentFlows ) );
+    }
+
+  /**
+   * Returns property maxConcurrentFlows.
+   *
+   * @param properties of type Map
+   * @return an int
+   */
+  public static int getMaxConcurrentFlows( Map<Object, Object> properties )
+    {
+    return Integer.parseInt( Util.getProperty( properties, "cascading.cascade.maxconcurrentflows", "0" ) );
+    }
+
+  /**
+   * Property flowDuration sets the duration, in milliseconds, of a previous run of the named Flow. When the number of
+   * concurrent Flows is bounded, Flows on the longest path of known durations are started first.
+   *
+   * @param properties of type Map
+   * @param flowName   of type String
+   * @param duration   of type long
+   */
+  public static void setFlowDuration( Map<Object, Object> properties, String flowName, long duration )
+    {
+    properties.put( "cascading.cascade.flowduration." + flowName, Long.toString( duration ) );
+    }
+
+  /**
+   * Returns property flowDuration for the named Flow, zero if not known.
+   *
+   * @param properties of type Map
+   * @param flowName   of type String
+   * @return a long
+   */
+  public static long getFlowDuration( Map<Object, Object> properties, String flowName )
+    {
+    return Long.parseLong( Util.getProperty( properties, "cascading.cascade.flowduration." + flowName, "0" ) );
+    }
+
+  /**
+   * Method setFlowDurations sets the flowDuration property of every Flow of the given Cascade that completed
+   * successfully, see {@link #setFlowDuration(java.util.Map, String, long)}. Use this to schedule a new Cascade
+   * of the same Flows, by name, from the run times of a previous one.
+   *
+   * @param properties of type Map
+   * @param cascade    of type Cascade
+   */
+  public static void setFlowDurations( Map<Object, Object> properties, Cascade cascade )
+    {
+    for( Flow flow : cascade.getFlows() )
+      {
+      if( flow.getFlowStats().isSuccessful() && flow.getFlowStats().getDuration() > 0 )
+        setFlowDuration( properties, flow.getName(), flow.getFlowStats().getDuration() );
+      }
+    }
 
   Cascade( String name, SimpleDirectedGraph<Flow, Integer> jobGraph )
+    {
+    this( name, jobGraph, null );
+    }
+
+  Cascade( String name, SimpleDirectedGraph<Flow, Integer> jobGraph, Map<Object, Object> properties )
     {
     this.name = name;
     this.jobGraph = jobGraph;
+    this.maxConcurrentFlows = getMaxConcurrentFlows( properties );
+
+    if( maxConcurrentFlows < 0 )
+      throw new IllegalArgumentException( "maxConcurrentFlows may not be negative, got: " + maxConcurrentFlows );
+
+    for( Flow flow : jobGraph.vertexSet() )
+      {
+      long duration = getFlowDuration( properties, flow.getName() );
+
+      if( duration > 0 )
+        flowDurations.put( flow.getName(), duration );
+      }
 
     setIDOnFlow();
     }
 
+  /**
+   * Method getMaxConcurrentFlows returns the maximum number of Flows this Cascade will execute at once, zero if
+   * unbounded.
+   *
+   * @return the maxConcurrentFlows (type int) of this Cascade object.
+   */
+  public int getMaxConcurrentFlows()
+    {
+    return maxConcurrentFlows;
+    }
+
   /**
    * Method getName returns the name of this Cascade object.
    *
@@ -267,31 +375,29 @@ public class Cascade implements Runnable
 
       int numThreads = jobsMap.size();
 
+      if( maxConcurrentFlows != 0 )
+        numThreads = Math.min( numThreads, maxConcurrentFlows );
+
       if( LOG.isInfoEnabled() )
         {
-        logInfo( " starting flows: " + numThreads );
+        logInfo( " starting flows: " + jobsMap.size() );
         logInfo( " allocating threads: " + numThreads );
         }
 
-      executor = Executors.newFixedThreadPool( numThreads );
-      List<Future<Throwable>> futures = executor.invokeAll( jobsMap.values() );
+      executor = Executors.newFixedThreadPool( Math.max( numThreads, 1 ) );
+
+      throwable = scheduleJobs( numThreads );
 
       executor.shutdown(); // don't accept any more work
 
-      for( Future<Throwable> future : futures )
+      if( throwable != null )
         {
-        throwable = future.get();
-
-        if( throwable != null )
-          {
-          cascadeStats.markFailed( throwable );
+        cascadeStats.markFailed( throwable );
 
-          if( !stop )
-            internalStopAllFlows();
+        if( !stop )
+          internalStopAllFlows();
 
-          handleExecutorShutdown();
-          break;
-          }
+        handleExecutorShutdown();
         }
       }
     catch( Throwable throwable )
@@ -317,7 +423,7 @@ public class Cascade implements Runnable
 
       cascadeStats.addFlowStats( flow.getFlowStats() );
 
-      CascadeJob job = new CascadeJob( flow );
+      CascadeJob job = new CascadeJob( flow, jobsMap.size() );
 
       jobsMap.put( flow.getName(), job );
 
@@ -330,6 +436,136 @@ public class Cascade implements Runnable
       }
     }
 
+  /**
+   * Method scheduleJobs submits each CascadeJob once all its predecessors have completed, keeping at most
+   * numThreads running, and returns the first failure, if any.
+   *
+   * @param numThreads of type int
+   * @return Throwable
+   * @throws InterruptedException when
+   * @throws ExecutionException   when
+   */
+  private Throwable scheduleJobs( int numThreads ) throws InterruptedException, ExecutionException
+    {
+    final Map<Flow, Long> remainingPaths = getRemainingPaths();
+    Map<Flow, Integer> waitingOn = new HashMap<Flow, Integer>();
+    PriorityQueue<CascadeJob> ready = new PriorityQueue<CascadeJob>( Math.max( jobsMap.size(), 1 ), new Comparator<CascadeJob>()
+    {
+    public int compare( CascadeJob lhs, CascadeJob rhs )
+      {
+      int result = remainingPaths.get( rhs.flow ).compareTo( remainingPaths.get( lhs.flow ) );
+
+      return result != 0 ? result : lhs.order - rhs.order;
+      }
+    } );
+
+    for( Callable<Throwable> callable : jobsMap.values() )
+      {
+      CascadeJob job = (CascadeJob) callable;
+      int inDegree = jobGraph.inDegreeOf( job.flow );
+
+      if( inDegree == 0 )
+        ready.add( job );
+      else
+        waitingOn.put( job.flow, inDegree );
+      }
+
+    CompletionService<Throwable> completionService = new ExecutorCompletionService<Throwable>( executor );
+    Map<Future<Throwable>, CascadeJob> running = new HashMap<Future<Throwable>, CascadeJob>();
+
+    while( !ready.isEmpty() || !running.isEmpty() )
+      {
+      while( !stop && !ready.isEmpty() && running.size() < numThreads )
+        {
+        CascadeJob job = ready.poll();
+
+        if( LOG.isDebugEnabled() )
+          logDebug( "scheduling flow: " + job.getName() + ", remaining path: " + remainingPaths.get( job.flow ) );
+
+        running.put( completionService.submit( job ), job );
+        }
+
+      if( running.isEmpty() )
+        break;
+
+      Future<Throwable> future = completionService.take();
+      CascadeJob job = running.remove( future );
+      Throwable throwable = future.get();
+
+      if( throwable != null )
+        return throwable;
+
+      for( Flow successor : Graphs.successorListOf( jobGraph, job.flow ) )
+        {
+        int count = waitingOn.get( successor ) - 1;
+
+        waitingOn.put( successor, count );
+
+        if( count == 0 )
+          ready.add( (CascadeJob) jobsMap.get( successor.getName() ) );
+        }
+      }
+
+    return null;
+    }
+
+  /**
+   * Method getRemainingPaths returns, for every Flow, the estimated duration of the longest path from the start of
+   * that Flow to the end of the Cascade.
+   * <p/>
+   * A Flow is estimated to take as long as its previous run, see {@link #setFlowDuration(java.util.Map, String, long)}.
+   * If its duration is not known, it is estimated to take the average of the Flows that are known, or if none are,
+   * its number of steps.
+   *
+   * @return Map<Flow, Long>
+   */
+  private Map<Flow, Long> getRemainingPaths()
+    {
+    Map<Flow, Long> durations = new HashMap<Flow, Long>();
+    long total = 0;
+    int count = 0;
+
+    for( Flow flow : jobGraph.vertexSet() )
+      {
+      Long duration = flowDurations.get( flow.getName() );
+
+      if( duration != null )
+        {
+        durations.put( flow, duration );
+        total += duration;
+        count++;
+        }
+      }
+
+    for( Flow flow : jobGraph.vertexSet() )
+      {
+      if( !durations.containsKey( flow ) )
+        durations.put( flow, count == 0 ? flow.getSteps().size() : total / count );
+      }
+
+    List<Flow> flows = new ArrayList<Flow>();
+    TopologicalOrderIterator<Flow, Integer> topoIterator = new TopologicalOrderIterator<Flow, Integer>( jobGraph );
+
+    while( topoIterator.hasNext() )
+      flows.add( topoIterator.next() );
+
+    Collections.reverse( flows );
+
+    Map<Flow, Long> remainingPaths = new HashMap<Flow, Long>();
+
+    for( Flow flow : flows )
+      {
+      long longest = 0;
+
+      for( Flow successor : Graphs.successorListOf( jobGraph, flow ) )
+        longest = Math.max( longest, remainingPaths.get( successor ) );
+
+      remainingPaths.put( flow, durations.get( flow ) + longest );
+      }
+
+    return remainingPaths;
+    }
+
   public synchronized void stop()
     {
     if( stop )
@@ -337,7 +573,7 @@ public class Cascade implements Runnable
 
     stop = true;
 
-    if( !cascadeStats.isFailed() )
+    if( !cascadeStats.isFinished() )
       cascadeStats.markStopped();
 
     internalStopAllFlows();
@@ -388,6 +624,11 @@ public class Cascade implements Runnable
     LOG.info( "[" + Util.truncate( getName(), 25 ) + "] " + message );
     }
 
+  private void logDebug( String message )
+    {
+    LOG.debug( "[" + Util.truncate( getName(), 25 ) + "] " + message );
+    }
+
   private void logWarn( String message )
     {
     logWarn( message, null );
@@ -435,13 +676,21 @@ public class Cascade implements Runnable
     /** Field latch */
     private CountDownLatch latch = new CountDownLatch( 1 );
     /** Field stop */
-    private boolean stop = false;
+    private volatile boolean stop = false;
     /** Field failed */
     private boolean failed = false;
+    /** Field order is the topological order of this job, used to break ties when scheduling */
+    final int order;
 
     public CascadeJob( Flow flow )
+      {
+      this( flow, 0 );
+      }
+
+    CascadeJob( Flow flow, int order )
       {
       this.flow = flow;
+      this.order = order;
       }
 
     public String getName()
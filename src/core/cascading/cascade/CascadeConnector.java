@@ -103,7 +103,7 @@ public class CascadeConnector
     makeFlowGraph( flowGraph, tapGraph );
 
 
-    return new Cascade( name, flowGraph );
+    return new Cascade( name, flowGraph, properties );
     }
 
   private void verifyUniqueFlowNames( Flow[] flows )
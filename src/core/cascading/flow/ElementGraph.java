@@ -25,9 +25,12 @@ import java.io.FileWriter;
 import java.io.IOException;
 import java.io.Writer;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -42,9 +45,12 @@ import cascading.pipe.Operator;
 import cascading.pipe.Pipe;
 import cascading.pipe.SubAssembly;
 import cascading.tap.Tap;
+import cascading.tap.TempHfs;
+import cascading.tuple.Fields;
 import cascading.util.Util;
 import org.apache.log4j.Logger;
 import org.jgrapht.GraphPath;
+import org.jgrapht.Graph;
 import org.jgrapht.Graphs;
 import org.jgrapht.alg.KShortestPaths;
 import org.jgrapht.ext.EdgeNameProvider;
@@ -440,22 +446,8 @@ public class ElementGraph extends SimpleDirectedGraph<FlowElement, Scope>
   /** Method removeEmptyPipes performs a depth first traversal and removes instance of {@link cascading.pipe.Pipe} or {@link cascading.pipe.SubAssembly}. */
   public void removeUnnecessaryPipes()
     {
-    while( !internalRemoveUnnecessaryPipes() )
-      ;
-
-    int numPipes = 0;
-    for( FlowElement flowElement : vertexSet() )
-      {
-      if( flowElement instanceof Pipe )
-        numPipes++;
-      }
-
-    if( numPipes == 0 )
-      throw new ElementGraphException( "resulting graph has no pipe elements after removing empty Pipe, assertions, and SubAssembly containers" );
-    }
-
-  private boolean internalRemoveUnnecessaryPipes()
-    {
+    // removing an element does not change if any other element may be removed, so one traversal suffices
+    List<FlowElement> removals = new ArrayList<FlowElement>();
     DepthFirstIterator<FlowElement, Scope> iterator = getDepthFirstIterator();
 
     while( iterator.hasNext() )
@@ -463,15 +455,22 @@ public class ElementGraph extends SimpleDirectedGraph<FlowElement, Scope>
       FlowElement flowElement = iterator.next();
 
       if( flowElement.getClass() == Pipe.class || flowElement instanceof SubAssembly || testPlannerLevel( flowElement ) )
-        {
-        // Pipe class is guaranteed to have one input
-        removeElement( flowElement );
+        removals.add( flowElement );
+      }
 
-        return false;
-        }
+    // Pipe class is guaranteed to have one input
+    for( FlowElement flowElement : removals )
+      removeElement( flowElement );
+
+    int numPipes = 0;
+    for( FlowElement flowElement : vertexSet() )
+      {
+      if( flowElement instanceof Pipe )
+        numPipes++;
       }
 
-    return true;
+    if( numPipes == 0 )
+      throw new ElementGraphException( "resulting graph has no pipe elements after removing empty Pipe, assertions, and SubAssembly containers" );
     }
 
   private void removeElement( FlowElement flowElement )
@@ -564,6 +563,237 @@ public class ElementGraph extends SimpleDirectedGraph<FlowElement, Scope>
       scope.copyFields( outgoingScope );
     }
 
+  /**
+   * Method resolveUnusedFields finds the fields no downstream element reads, working backwards from the sinks, and
+   * marks their positions on each Scope, see {@link Scope#getUnusedPositions()}. Those values are nulled before being
+   * shuffled to a {@link Group} or written to a {@link TempHfs}, and are skipped when reading a TempHfs.
+   * <p/>
+   * Values are nulled rather than removed, so the positions every downstream element resolved against its Scope still
+   * hold. A null costs a single bit in the typed layout, see {@link cascading.tuple.TypedTuple}, and a one byte token
+   * otherwise.
+   * <p/>
+   * Fields read by an Each are its argument fields and the incoming fields it passes on. Fields read through a Group
+   * are its grouping and sorting fields, the argument and outgoing fields of any following Every pipes, or the fields
+   * read after the Group. Fields are kept whenever this can not be determined, as with positional fields, traps,
+   * self joins, and sinks other than intermediate files.
+   */
+  public void resolveUnusedFields()
+    {
+    if( !resolved )
+      throw new IllegalStateException( "element graph not resolved" );
+
+    LinkedList<FlowElement> elements = new LinkedList<FlowElement>();
+    TopologicalOrderIterator<FlowElement, Scope> iterator = getTopologicalIterator();
+
+    while( iterator.hasNext() )
+      elements.addFirst( iterator.next() );
+
+    // fields read after each scope, a missing scope reads all its fields
+    Map<Scope, Set<Comparable>> readFields = new IdentityHashMap<Scope, Set<Comparable>>();
+
+    for( FlowElement flowElement : elements )
+      {
+      for( Scope incomingScope : incomingEdgesOf( flowElement ) )
+        {
+        Set<Comparable> fields = getReadFields( flowElement, incomingScope, readFields );
+
+        if( fields == null )
+          continue;
+
+        readFields.put( incomingScope, fields );
+        incomingScope.setUnusedPositions( getUnusedPositions( getScopeFields( incomingScope ), fields ) );
+        }
+      }
+    }
+
+  private Set<Comparable> getReadFields( FlowElement flowElement, Scope incomingScope, Map<Scope, Set<Comparable>> readFields )
+    {
+    Fields incomingFields = getScopeFields( incomingScope );
+
+    if( !isNamed( incomingFields ) || flowElement instanceof Pipe && traps.containsKey( ( (Pipe) flowElement ).getName() ) )
+      return null;
+
+    Set<Comparable> fields = new HashSet<Comparable>();
+
+    if( flowElement instanceof TempHfs )
+      {
+      Set<Comparable> nextFields = getNextReadFields( flowElement, readFields );
+
+      if( nextFields == null )
+        return null;
+
+      addAll( fields, incomingFields, nextFields );
+      }
+    else if( flowElement instanceof Each )
+      {
+      Scope outgoingScope = outgoingEdgesOf( flowElement ).iterator().next();
+      Fields argumentFields = outgoingScope.getArgumentFields();
+      Fields outgoingFields = outgoingScope.getOutValuesFields();
+
+      if( !isNamed( argumentFields ) || !isNamed( outgoingFields ) )
+        return null;
+
+      Set<Comparable> nextFields = getNextReadFields( flowElement, readFields );
+
+      addAll( fields, argumentFields, null );
+      addAll( fields, incomingFields, nextFields == null ? asSet( outgoingFields ) : nextFields );
+      }
+    else if( flowElement instanceof Group )
+      {
+      Group group = (Group) flowElement;
+      Scope outgoingScope = outgoingEdgesOf( flowElement ).iterator().next();
+      Fields valuesFields = group.getOutgoingValuesFieldsFor( incomingEdgesOf( group ), incomingScope, outgoingScope.getOutValuesFields() );
+      Set<Comparable> nextFields = getGroupReadFields( group, outgoingScope.getOutValuesFields(), readFields );
+
+      if( valuesFields == null || nextFields == null )
+        return null;
+
+      Fields groupingFields = outgoingScope.getGroupingSelectors().get( incomingScope.getName() );
+      Fields sortingFields = outgoingScope.getSortingSelectors() == null ? null : outgoingScope.getSortingSelectors().get( incomingScope.getName() );
+
+      if( !isNamed( groupingFields ) || sortingFields != null && !isNamed( sortingFields ) )
+        return null;
+
+      addAll( fields, groupingFields, null );
+
+      if( sortingFields != null )
+        addAll( fields, sortingFields, null );
+
+      for( int i = 0; i < valuesFields.size(); i++ )
+        {
+        if( nextFields.contains( valuesFields.get( i ) ) )
+          fields.add( incomingFields.get( i ) );
+        }
+      }
+    else
+      {
+      return null;
+      }
+
+    return fields;
+    }
+
+  /** Method getGroupReadFields returns the outgoing values of the given group read after it, including by any Every pipes. */
+  private Set<Comparable> getGroupReadFields( Group group, Fields valuesFields, Map<Scope, Set<Comparable>> readFields )
+    {
+    if( !isNamed( valuesFields ) || traps.containsKey( group.getName() ) )
+      return null;
+
+    Set<Comparable> fields = new HashSet<Comparable>();
+
+    for( Scope scope : outgoingEdgesOf( group ) )
+      {
+      FlowElement next = getEdgeTarget( scope );
+
+      if( !( next instanceof Every ) )
+        {
+        Set<Comparable> nextFields = readFields.get( scope );
+
+        if( nextFields == null )
+          return null;
+
+        fields.addAll( nextFields );
+        continue;
+        }
+
+      // every values are the group values, the chain outputs grouping and declared fields
+      while( next instanceof Every )
+        {
+        if( traps.containsKey( ( (Every) next ).getName() ) )
+          return null;
+
+        Scope outgoingScope = outgoingEdgesOf( next ).iterator().next();
+
+        if( !isNamed( outgoingScope.getArgumentFields() ) || !isNamed( getScopeFields( outgoingScope ) ) )
+          return null;
+
+        addAll( fields, valuesFields, asSet( outgoingScope.getArgumentFields() ) );
+        addAll( fields, valuesFields, asSet( getScopeFields( outgoingScope ) ) );
+
+        next = getEdgeTarget( outgoingScope );
+        }
+      }
+
+    return fields;
+    }
+
+  private Set<Comparable> getNextReadFields( FlowElement flowElement, Map<Scope, Set<Comparable>> readFields )
+    {
+    Set<Comparable> fields = new HashSet<Comparable>();
+
+    for( Scope outgoingScope : outgoingEdgesOf( flowElement ) )
+      {
+      Set<Comparable> nextFields = readFields.get( outgoingScope );
+
+      if( nextFields == null )
+        return null;
+
+      fields.addAll( nextFields );
+      }
+
+    return fields.isEmpty() && outgoingEdgesOf( flowElement ).isEmpty() ? null : fields;
+    }
+
+  /** Method addAll adds the given fields to the given set, only those also in the filter if not null. */
+  private static void addAll( Set<Comparable> set, Fields fields, Set<Comparable> filter )
+    {
+    for( int i = 0; i < fields.size(); i++ )
+      {
+      if( filter == null || filter.contains( fields.get( i ) ) )
+        set.add( fields.get( i ) );
+      }
+    }
+
+  private static Set<Comparable> asSet( Fields fields )
+    {
+    Set<Comparable> set = new HashSet<Comparable>();
+
+    addAll( set, fields, null );
+
+    return set;
+    }
+
+  private static int[] getUnusedPositions( Fields fields, Set<Comparable> readFields )
+    {
+    List<Integer> positions = new ArrayList<Integer>();
+
+    for( int i = 0; i < fields.size(); i++ )
+      {
+      if( !readFields.contains( fields.get( i ) ) )
+        positions.add( i );
+      }
+
+    if( positions.isEmpty() )
+      return null;
+
+    int[] result = new int[positions.size()];
+
+    for( int i = 0; i < result.length; i++ )
+      result[ i ] = positions.get( i );
+
+    return result;
+    }
+
+  private static Fields getScopeFields( Scope scope )
+    {
+    return scope.isEvery() ? scope.getOutGroupingFields() : scope.getOutValuesFields();
+    }
+
+  /** Method isNamed returns true if the given fields are declared and hold no positions. */
+  private static boolean isNamed( Fields fields )
+    {
+    if( fields == null || !fields.isDefined() || fields.size() == 0 )
+      return false;
+
+    for( int i = 0; i < fields.size(); i++ )
+      {
+      if( fields.get( i ) instanceof Number )
+        return false;
+      }
+
+    return true;
+    }
+
   /**
    * Finds all groups that merge/join streams. returned in topological order.
    *
@@ -658,75 +888,220 @@ public class ElementGraph extends SimpleDirectedGraph<FlowElement, Scope>
       }
     }
 
-  /** Simple class that acts in as the root of the graph */
   /**
-   * Method makeTapGraph returns a directed graph of all taps in the current element graph.
+   * Method makeTapGraph returns a directed graph of all taps in the current element graph. A Tap is connected to each
+   * Tap reachable from it without passing through another Tap.
    *
    * @return SimpleDirectedGraph<Tap, Integer>
    */
   public SimpleDirectedGraph<Tap, Integer> makeTapGraph()
     {
     SimpleDirectedGraph<Tap, Integer> tapGraph = new SimpleDirectedGraph<Tap, Integer>( Integer.class );
-    List<GraphPath<FlowElement, Scope>> paths = getAllShortestPathsBetweenExtents();
     int count = 0;
 
-    if( LOG.isDebugEnabled() )
-      LOG.debug( "found num paths: " + paths.size() );
-
-    for( GraphPath<FlowElement, Scope> element : paths )
+    for( Tap tap : findAllOfType( 0, 0, Tap.class, new ArrayList<Tap>() ) )
       {
-      List<Scope> path = element.getEdgeList();
-      Tap lastTap = null;
+      tapGraph.addVertex( tap );
 
-      for( Scope scope : path )
+      for( Tap nextTap : findAllNextTaps( tap ) )
         {
-        FlowElement target = getEdgeTarget( scope );
+        tapGraph.addVertex( nextTap );
 
-        if( target instanceof Extent )
-          continue;
+        if( LOG.isDebugEnabled() )
+          LOG.debug( "adding tap edge: " + tap + " -> " + nextTap );
 
-        if( !( target instanceof Tap ) )
-          continue;
+        if( tapGraph.getEdge( tap, nextTap ) == null && !tapGraph.addEdge( tap, nextTap, count++ ) )
+          throw new ElementGraphException( "could not add graph edge: " + tap + " -> " + nextTap );
+        }
+      }
 
-        tapGraph.addVertex( (Tap) target );
+    return tapGraph;
+    }
 
-        if( lastTap != null )
-          {
-          if( LOG.isDebugEnabled() )
-            LOG.debug( "adding tap edge: " + lastTap + " -> " + target );
+  private Set<Tap> findAllNextTaps( Tap tap )
+    {
+    Set<Tap> nextTaps = new LinkedHashSet<Tap>();
+    Set<FlowElement> visited = new HashSet<FlowElement>();
+    LinkedList<FlowElement> stack = new LinkedList<FlowElement>( getAllSuccessors( tap ) );
 
-          if( tapGraph.getEdge( lastTap, (Tap) target ) == null && !tapGraph.addEdge( lastTap, (Tap) target, count++ ) )
-            throw new ElementGraphException( "could not add graph edge: " + lastTap + " -> " + target );
-          }
+    while( !stack.isEmpty() )
+      {
+      FlowElement flowElement = stack.removeFirst();
+
+      if( flowElement instanceof Extent || !visited.add( flowElement ) )
+        continue;
+
+      if( flowElement instanceof Tap )
+        nextTaps.add( (Tap) flowElement );
+      else
+        stack.addAll( 0, getAllSuccessors( flowElement ) );
+      }
 
-        lastTap = (Tap) target;
+    return nextTaps;
+    }
+
+  /**
+   * Method getAllDirectPathsBetween returns all paths between the given elements that do not pass through any other
+   * {@link Tap}. Unlike {@link #getAllShortestPathsBetween(FlowElement, FlowElement)}, only elements that may reach
+   * the to element are visited, so the cost is bounded by the number of paths returned.
+   *
+   * @param from of type FlowElement
+   * @param to   of type FlowElement
+   * @return List<GraphPath<FlowElement, Scope>>
+   */
+  public List<GraphPath<FlowElement, Scope>> getAllDirectPathsBetween( FlowElement from, FlowElement to )
+    {
+    // find all elements that reach the to element without passing through a tap
+    Set<FlowElement> reaching = new HashSet<FlowElement>();
+    LinkedList<FlowElement> stack = new LinkedList<FlowElement>();
+
+    reaching.add( to );
+    stack.add( to );
+
+    while( !stack.isEmpty() )
+      {
+      for( FlowElement previous : Graphs.predecessorListOf( this, stack.removeFirst() ) )
+        {
+        if( previous == from || ( !( previous instanceof Tap ) && !( previous instanceof Extent ) ) )
+          {
+          if( reaching.add( previous ) && previous != from )
+            stack.add( previous );
+          }
         }
       }
 
-    return tapGraph;
+    List<GraphPath<FlowElement, Scope>> paths = new ArrayList<GraphPath<FlowElement, Scope>>();
+
+    if( reaching.contains( from ) )
+      collectDirectPaths( from, to, reaching, new LinkedList<Scope>(), paths );
+
+    return paths;
+    }
+
+  private void collectDirectPaths( FlowElement current, FlowElement to, Set<FlowElement> reaching, LinkedList<Scope> edges, List<GraphPath<FlowElement, Scope>> paths )
+    {
+    for( Scope scope : outgoingEdgesOf( current ) )
+      {
+      FlowElement target = getEdgeTarget( scope );
+
+      if( !reaching.contains( target ) )
+        continue;
+
+      edges.addLast( scope );
+
+      if( target == to )
+        paths.add( new ElementPath( this, new ArrayList<Scope>( edges ) ) );
+      else
+        collectDirectPaths( target, to, reaching, edges, paths );
+
+      edges.removeLast();
+      }
     }
 
+  /**
+   * Method getMaxNumPathsBetweenElementAndMergJoin returns the greatest number of paths between the given element and
+   * any Group that merges or joins streams.
+   *
+   * @param flowElement of type FlowElement
+   * @return int
+   */
   public int getMaxNumPathsBetweenElementAndMergJoin( FlowElement flowElement )
     {
-    List<Group> groups = findAllMergeJoinGroups();
+    // count the paths from the given element to every element below it, in topological order
+    Map<FlowElement, Long> counts = new HashMap<FlowElement, Long>();
+    TopologicalOrderIterator<FlowElement, Scope> iterator = getTopologicalIterator();
+    long maxPaths = 0;
+
+    counts.put( flowElement, 1L );
+
+    while( iterator.hasNext() )
+      {
+      FlowElement current = iterator.next();
+      Long count = counts.get( current );
+
+      if( count == null )
+        continue;
+
+      if( current != flowElement && current instanceof Group && inDegreeOf( current ) >= 2 && outDegreeOf( current ) >= 1 )
+        maxPaths = Math.max( maxPaths, count );
 
-    int maxPaths = 0;
+      for( FlowElement successor : getAllSuccessors( current ) )
+        {
+        Long successorCount = counts.get( successor );
 
-    if( groups == null )
-      return 0;
+        counts.put( successor, Math.min( Integer.MAX_VALUE, count + ( successorCount == null ? 0 : successorCount ) ) );
+        }
+      }
 
-    for( Group group : groups )
+    return (int) maxPaths;
+    }
+
+  /**
+   * Method findAllMultiPathElements returns all elements that reach any Group that merges or joins streams by more
+   * than one path.
+   * <p/>
+   * There are two paths from an element to a Group if some element at or below it has two successors that both reach
+   * the Group. So the reachable merge/join Groups of each element are found in one pass in reverse topological order,
+   * instead of counting the paths from each element.
+   *
+   * @return Set<FlowElement>
+   */
+  public Set<FlowElement> findAllMultiPathElements()
+    {
+    List<FlowElement> flowElements = findAllOfType( 0, 0, FlowElement.class, new ArrayList<FlowElement>() );
+    Map<FlowElement, Integer> mergeJoins = new HashMap<FlowElement, Integer>();
+
+    for( Group group : findAllMergeJoinGroups() )
+      mergeJoins.put( group, mergeJoins.size() );
+
+    Map<FlowElement, BitSet> reachable = new HashMap<FlowElement, BitSet>();
+    Set<FlowElement> multiPathElements = new HashSet<FlowElement>();
+
+    for( int i = flowElements.size() - 1; i >= 0; i-- )
       {
-      if( flowElement != group )
+      FlowElement flowElement = flowElements.get( i );
+      BitSet reaches = new BitSet();
+      boolean isMultiPath = false;
+
+      for( FlowElement successor : getAllSuccessors( flowElement ) )
         {
-        List<GraphPath<FlowElement, Scope>> paths = getAllShortestPathsBetween( flowElement, group );
+        BitSet successorReaches = reachable.get( successor );
 
-        if( paths != null )
-          maxPaths = Math.max( maxPaths, paths.size() );
+        if( mergeJoins.containsKey( successor ) )
+          {
+          successorReaches = (BitSet) successorReaches.clone();
+          successorReaches.set( mergeJoins.get( successor ) );
+          }
+
+        isMultiPath |= multiPathElements.contains( successor ) || reaches.intersects( successorReaches );
+
+        reaches.or( successorReaches );
         }
+
+      reachable.put( flowElement, reaches );
+
+      if( isMultiPath )
+        multiPathElements.add( flowElement );
       }
 
-    return maxPaths;
+    return multiPathElements;
+    }
+
+  /**
+   * Method getPreviousElement returns the only element before the given element, or null if there are none or many.
+   * Only Group instances merge streams, so all other pipes have exactly one previous element.
+   *
+   * @param flowElement of type FlowElement
+   * @return FlowElement
+   */
+  public FlowElement getPreviousElement( FlowElement flowElement )
+    {
+    Set<Scope> incoming = incomingEdgesOf( flowElement );
+
+    if( incoming.size() != 1 )
+      return null;
+
+    return getEdgeSource( incoming.iterator().next() );
     }
 
   public List<FlowElement> getAllSuccessors( FlowElement element )
@@ -787,6 +1162,46 @@ public class ElementGraph extends SimpleDirectedGraph<FlowElement, Scope>
       }
     }
 
+  /** Class ElementPath is a path of Scope edges returned by {@link ElementGraph#getAllDirectPathsBetween}. */
+  private static class ElementPath implements GraphPath<FlowElement, Scope>
+    {
+    /** Field graph */
+    private final ElementGraph graph;
+    /** Field edges */
+    private final List<Scope> edges;
+
+    ElementPath( ElementGraph graph, List<Scope> edges )
+      {
+      this.graph = graph;
+      this.edges = edges;
+      }
+
+    public Graph<FlowElement, Scope> getGraph()
+      {
+      return graph;
+      }
+
+    public FlowElement getStartVertex()
+      {
+      return graph.getEdgeSource( edges.get( 0 ) );
+      }
+
+    public FlowElement getEndVertex()
+      {
+      return graph.getEdgeTarget( edges.get( edges.size() - 1 ) );
+      }
+
+    public List<Scope> getEdgeList()
+      {
+      return edges;
+      }
+
+    public double getWeight()
+      {
+      return edges.size();
+      }
+    }
+
   public static class Extent extends Pipe
     {
 
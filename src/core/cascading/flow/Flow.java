@@ -69,6 +69,7 @@ import org.jgrapht.traverse.TopologicalOrderIterator;
  * <ul>
  * <li>cascading.flow.preservetemporaryfiles</li>
  * <li>cascading.flow.stopjobsonexit</li>
+ * <li>cascading.flow.reusetuples</li>
  * </ul>
  *
  * @see cascading.flow.FlowConnector
@@ -174,8 +175,12 @@ public class Flow implements Runnable
     }
 
   /**
-   * Property jobPollingInterval will set the time to wait between polling the remote server for the status of a job.
-   * The default value is 5000 msec (5 seconds).   *
+   * Property jobPollingInterval will set the maximum time to wait between polling the remote server for the status
+   * of a job. The default value is 5000 msec (5 seconds).
+   * <p/>
+   * Polling starts at the {@link #setJobPollingInitialInterval(java.util.Map, long)} interval and doubles after each
+   * poll until this interval is reached, so short jobs are noticed as complete quickly while long running jobs are
+   * not polled aggressively.
    *
    * @param properties of type Map
    * @param interval   of type long
@@ -201,6 +206,129 @@ public class Flow implements Runnable
     return jobConf.getLong( "cascading.flow.job.pollinginterval", 5000 );
     }
 
+  /**
+   * Property jobPollingInitialInterval will set the time to wait before first polling the remote server for the
+   * status of a newly submitted job. The default value is 100 msec. Set it to the same value as jobPollingInterval
+   * to poll at a fixed interval.
+   *
+   * @param properties of type Map
+   * @param interval   of type long
+   */
+  public static void setJobPollingInitialInterval( Map<Object, Object> properties, long interval )
+    {
+    properties.put( "cascading.flow.job.pollinginterval.initial", Long.toString( interval ) );
+    }
+
+  /**
+   * Returns property jobPollingInitialInterval. The default is 100 msec.
+   *
+   * @param properties of type Map
+   * @return a long
+   */
+  public static long getJobPollingInitialInterval( Map<Object, Object> properties )
+    {
+    return Long.parseLong( Util.getProperty( properties, "cascading.flow.job.pollinginterval.initial", "100" ) );
+    }
+
+  public static long getJobPollingInitialInterval( JobConf jobConf )
+    {
+    return jobConf.getLong( "cascading.flow.job.pollinginterval.initial", 100 );
+    }
+
+  /**
+   * Property localInProcess will, when {@code true}, run every step executing in Hadoop local mode
+   * ({@code mapred.job.tracker} is "local") directly in the current JVM, instead of submitting it to Hadoop's
+   * LocalJobRunner. Map and reduce tasks are run concurrently and independent steps run in parallel.
+   * Defaults to {@code false}.
+   *
+   * @param properties     of type Map
+   * @param localInProcess of type boolean
+   * @see LocalStepRunner
+   */
+  public static void setLocalInProcess( Map<Object, Object> properties, boolean localInProcess )
+    {
+    properties.put( "cascading.flow.local.inprocess", Boolean.toString( localInProcess ) );
+    }
+
+  /**
+   * Returns property localInProcess.
+   *
+   * @param properties of type Map
+   * @return a boolean
+   */
+  public static boolean getLocalInProcess( Map<Object, Object> properties )
+    {
+    return Boolean.parseBoolean( Util.getProperty( properties, "cascading.flow.local.inprocess", "false" ) );
+    }
+
+  public static boolean getLocalInProcess( JobConf jobConf )
+    {
+    return jobConf.getBoolean( "cascading.flow.local.inprocess", false );
+    }
+
+  /**
+   * Property localThreads sets the number of threads used to run the map and reduce tasks of a single step when
+   * localInProcess is enabled. Defaults to the number of available processors.
+   *
+   * @param properties   of type Map
+   * @param localThreads of type int
+   */
+  public static void setLocalThreads( Map<Object, Object> properties, int localThreads )
+    {
+    properties.put( "cascading.flow.local.threads", Integer.toString( localThreads ) );
+    }
+
+  public static int getLocalThreads( JobConf jobConf )
+    {
+    return Math.max( 1, jobConf.getInt( "cascading.flow.local.threads", Runtime.getRuntime().availableProcessors() ) );
+    }
+
+  /**
+   * Property localSortBufferSize sets the number of bytes of map output a task run in-process may buffer before it
+   * is sorted and spilled to disk. Completed map tasks may hold this many bytes per localThreads in memory for the
+   * reducers. Defaults to 32MB.
+   *
+   * @param properties of type Map
+   * @param size       of type long
+   */
+  public static void setLocalSortBufferSize( Map<Object, Object> properties, long size )
+    {
+    properties.put( "cascading.flow.local.sortbuffer", Long.toString( size ) );
+    }
+
+  public static long getLocalSortBufferSize( JobConf jobConf )
+    {
+    return jobConf.getLong( "cascading.flow.local.sortbuffer", 32 * 1024 * 1024 );
+    }
+
+  /**
+   * Property reuseTuples will tell the map and reduce tasks to recycle the argument and result {@link cascading.tuple.Tuple}
+   * instances created by {@link cascading.pipe.Each} and {@link cascading.pipe.CoGroup} operations, instead of allocating
+   * new ones for every value. Defaults to {@code false}.
+   * <p/>
+   * When enabled, custom {@link cascading.operation.Operation} instances must not hold on to argument Tuples between calls,
+   * they must copy them instead. Built in elements that keep Tuples, like {@link cascading.operation.Buffer} pipes and
+   * map side partial aggregation, are always handed copies.
+   *
+   * @param properties  of type Map
+   * @param reuseTuples of type boolean
+   */
+  public static void setReuseTuples( Map<Object, Object> properties, boolean reuseTuples )
+    {
+    properties.put( "cascading.flow.reusetuples", Boolean.toString( reuseTuples ) );
+    }
+
+  /**
+   * Returns property reuseTuples.
+   *
+   * @param jobConf of type JobConf
+   * @return a boolean
+   */
+  public static boolean getReuseTuples( JobConf jobConf )
+    {
+    return jobConf.getBoolean( "cascading.flow.reusetuples", false );
+    }
+
   /** Used for testing. */
   protected Flow()
     {
@@ -901,15 +1029,15 @@ public class Flow implements Runnable
 
       initializeNewJobsMap();
 
-      // if jobs are run local, then only use one thread to force execution serially
-      int numThreads = jobsAreLocal() ? 1 : jobsMap.size();
+      // if jobs are run by the LocalJobRunner, then only use one thread to force execution serially
+      int numThreads = jobsAreLocal() && !getLocalInProcess( getJobConf() ) ? 1 : jobsMap.size();
 
       if( numThreads == 0 )
         throw new IllegalStateException( "no jobs rendered for flow: " + getName() );
 
       if( LOG.isInfoEnabled() )
         {
-        logInfo( " parallel execution is enabled: " + !jobsAreLocal() );
+        logInfo( " parallel execution is enabled: " + ( !jobsAreLocal() || getLocalInProcess( getJobConf() ) ) );
         logInfo( " starting jobs: " + jobsMap.size() );
         logInfo( " allocating threads: " + numThreads );
         }
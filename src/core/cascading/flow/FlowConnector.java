@@ -21,6 +21,7 @@
 
 package cascading.flow;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -33,7 +34,7 @@ import cascading.operation.Assertion;
 import cascading.operation.AssertionLevel;
 import cascading.operation.DebugLevel;
 import cascading.pipe.Pipe;
-import cascading.scheme.SequenceFile;
+import cascading.scheme.BlockSequenceFile;
 import cascading.tap.Tap;
 import cascading.util.Util;
 import org.apache.hadoop.mapred.JobConf;
@@ -136,7 +137,7 @@ public class FlowConnector
 
 
   /**
-   * Method setIntermediateSchemeClass is used for debugging. The default Scheme for intermediate files is {@link SequenceFile}.
+   * Method setIntermediateSchemeClass is used for debugging. The default Scheme for intermediate files is {@link BlockSequenceFile}.
    *
    * @param properties              of type Map<Object, Object>
    * @param intermediateSchemeClass of type Class
@@ -147,7 +148,7 @@ public class FlowConnector
     }
 
   /**
-   * Method setIntermediateSchemeClass is used for debugging. The default Scheme for intermediate files is {@link SequenceFile}.
+   * Method setIntermediateSchemeClass is used for debugging. The default Scheme for intermediate files is {@link BlockSequenceFile}.
    *
    * @param properties              of type Map<Object, Object>
    * @param intermediateSchemeClass of type String
@@ -158,7 +159,7 @@ public class FlowConnector
     }
 
   /**
-   * Method getIntermediateSchemeClass is used for debugging. The default Scheme for intermediate files is {@link SequenceFile}.
+   * Method getIntermediateSchemeClass is used for debugging. The default Scheme for intermediate files is {@link BlockSequenceFile}.
    *
    * @param properties of type Map<Object, Object>
    * @return Class
@@ -169,7 +170,7 @@ public class FlowConnector
     Object type = Util.getProperty( properties, "cascading.flowconnector.intermediateschemeclass", (Object) null );
 
     if( type == null )
-      return SequenceFile.class;
+      return BlockSequenceFile.class;
 
     if( type instanceof Class )
       return (Class) type;
@@ -423,10 +424,7 @@ public class FlowConnector
    */
   public Flow connect( String name, Tap source, Map<String, Tap> sinks, Pipe... tails )
     {
-    Set<Pipe> heads = new HashSet<Pipe>();
-
-    for( Pipe pipe : tails )
-      Collections.addAll( heads, pipe.getHeads() );
+    Set<Pipe> heads = new HashSet<Pipe>( Arrays.asList( Pipe.getHeads( tails ) ) );
 
     if( heads.isEmpty() )
       throw new IllegalArgumentException( "no pipe instance found" );
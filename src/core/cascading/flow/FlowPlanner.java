@@ -23,7 +23,6 @@ package cascading.flow;
 
 import java.util.Arrays;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -39,8 +38,6 @@ import cascading.pipe.SubAssembly;
 import cascading.tap.Tap;
 import cascading.util.Util;
 import org.apache.log4j.Logger;
-import org.jgrapht.GraphPath;
-import org.jgrapht.Graphs;
 
 /** Class FlowPlanner is the base class for all planner implementations. */
 public class FlowPlanner
@@ -182,22 +179,19 @@ public class FlowPlanner
     Set<Pipe> heads = new HashSet<Pipe>();
     Set<String> headNames = new HashSet<String>();
 
-    for( Pipe pipe : pipes )
+    for( Pipe head : Pipe.getHeads( pipes ) )
       {
-      for( Pipe head : pipe.getHeads() )
-        {
-        String headName = head.getName();
+      String headName = head.getName();
 
-        if( !tapNames.contains( headName ) )
-          throw new PlannerException( head, "pipe name not found in either sink or source map: " + headName );
+      if( !tapNames.contains( headName ) )
+        throw new PlannerException( head, "pipe name not found in either sink or source map: " + headName );
 
-        if( headNames.contains( headName ) && !heads.contains( head ) )
-          LOG.warn( "duplicate tail name found, not an error but heads should have unique names: " + headName );
+      if( headNames.contains( headName ) && !heads.contains( head ) )
+        LOG.warn( "duplicate tail name found, not an error but heads should have unique names: " + headName );
 //          throw new PlannerException( pipe, "duplicate head name found: " + headName );
 
-        headNames.add( headName );
-        heads.add( head );
-        }
+      headNames.add( headName );
+      heads.add( head );
       }
 
     headNames.removeAll( sources.keySet() );
@@ -231,15 +225,24 @@ public class FlowPlanner
    * @param names of type Set<String>
    */
   private void collectNames( Pipe[] pipes, Set<String> names )
+    {
+    collectNames( pipes, names, new HashSet<Pipe>() );
+    }
+
+  private void collectNames( Pipe[] pipes, Set<String> names, Set<Pipe> visited )
     {
     for( Pipe pipe : pipes )
       {
+      // branches share previous pipes, so only visit each once
+      if( !visited.add( pipe ) )
+        continue;
+
       if( pipe instanceof SubAssembly )
         names.addAll( Arrays.asList( ( (SubAssembly) pipe ).getTailNames() ) );
       else
         names.add( pipe.getName() );
 
-      collectNames( SubAssembly.unwind( pipe.getPrevious() ), names );
+      collectNames( SubAssembly.unwind( pipe.getPrevious() ), names, visited );
       }
     }
 
@@ -268,33 +271,29 @@ public class FlowPlanner
 
     // walk Every instances after Group
     for( Group group : groups )
+      verifyGroupAssertions( elementGraph, group, 0, 0 );
+    }
+
+  private void verifyGroupAssertions( ElementGraph elementGraph, FlowElement previous, int everies, int assertions )
+    {
+    for( FlowElement flowElement : elementGraph.getAllSuccessors( previous ) )
       {
-      for( GraphPath<FlowElement, Scope> path : elementGraph.getAllShortestPathsFrom( group ) )
+      if( flowElement instanceof Group )
         {
-        List<FlowElement> flowElements = Graphs.getPathVertexList( path ); // last element is tail
-
-        int everies = 0;
-        int assertions = 0;
-
-        for( FlowElement flowElement : flowElements )
-          {
-          if( flowElement instanceof Group )
-            continue;
-
-          if( !( flowElement instanceof Every ) )
-            break;
-
-          everies++;
-
-          Every every = (Every) flowElement;
+        verifyGroupAssertions( elementGraph, flowElement, everies, assertions );
+        continue;
+        }
 
-          if( every.getPlannerLevel() != null )
-            assertions++;
-          }
+      if( flowElement instanceof Every )
+        {
+        Every every = (Every) flowElement;
 
-        if( everies != 0 && everies == assertions )
-          throw new PlannerException( "group assertions must be accompanied by aggregator operations" );
+        verifyGroupAssertions( elementGraph, every, everies + 1, assertions + ( every.getPlannerLevel() != null ? 1 : 0 ) );
+        continue;
         }
+
+      if( everies != 0 && everies == assertions )
+        throw new PlannerException( "group assertions must be accompanied by aggregator operations" );
       }
     }
 
@@ -302,25 +301,17 @@ public class FlowPlanner
     {
     List<Every> everies = elementGraph.findAllEveries();
 
-    // walk Every instances after Group
+    // walk Every instances after Group, only Group instances have more than one previous element
     for( Every every : everies )
       {
-      for( GraphPath<FlowElement, Scope> path : elementGraph.getAllShortestPathsTo( every ) )
-        {
-        List<FlowElement> flowElements = Graphs.getPathVertexList( path ); // last element is every
-        Collections.reverse( flowElements ); // first element is every
-
-        for( FlowElement flowElement : flowElements )
-          {
-          if( flowElement instanceof Each )
-            throw new PlannerException( (Pipe) flowElement, "Every may only be preceeded by another Every or a Group pipe, found: " + flowElement );
+      FlowElement flowElement = every;
 
-          if( flowElement instanceof Every )
-            continue;
+      while( flowElement != null && !( flowElement instanceof Group ) )
+        {
+        if( flowElement instanceof Each )
+          throw new PlannerException( (Pipe) flowElement, "Every may only be preceeded by another Every or a Group pipe, found: " + flowElement );
 
-          if( flowElement instanceof Group )
-            break;
-          }
+        flowElement = elementGraph.getPreviousElement( flowElement );
         }
       }
     }
@@ -329,41 +320,35 @@ public class FlowPlanner
     {
     List<Every> everies = elementGraph.findAllEveries();
 
-    // walk Every instances after Group
+    // walk Every instances after Group, only Group instances have more than one previous element
     for( Every every : everies )
       {
-      for( GraphPath<FlowElement, Scope> path : elementGraph.getAllShortestPathsTo( every ) )
-        {
-        List<FlowElement> flowElements = Graphs.getPathVertexList( path ); // last element is every
-        Collections.reverse( flowElements ); // first element is every
+      FlowElement flowElement = every;
+      Every last = null;
+      boolean foundBuffer = false;
+      int foundEveries = -1;
 
-        Every last = null;
-        boolean foundBuffer = false;
-        int foundEveries = -1;
+      while( flowElement != null && !( flowElement instanceof Group ) )
+        {
+        if( flowElement instanceof Each )
+          throw new PlannerException( (Pipe) flowElement, "Every may only be preceeded by another Every or a Group pipe, found: " + flowElement );
 
-        for( FlowElement flowElement : flowElements )
+        if( flowElement instanceof Every )
           {
-          if( flowElement instanceof Each )
-            throw new PlannerException( (Pipe) flowElement, "Every may only be preceeded by another Every or a Group pipe, found: " + flowElement );
-
-          if( flowElement instanceof Every )
-            {
-            foundEveries++;
+          foundEveries++;
 
-            boolean isBuffer = ( (Every) flowElement ).isBuffer();
+          boolean isBuffer = ( (Every) flowElement ).isBuffer();
 
-            if( foundEveries != 0 && ( isBuffer || foundBuffer ) )
-              throw new PlannerException( (Pipe) flowElement, "Only one Every Buffer may follow a Group pipe, found: " + flowElement + " before: " + last );
+          if( foundEveries != 0 && ( isBuffer || foundBuffer ) )
+            throw new PlannerException( (Pipe) flowElement, "Only one Every Buffer may follow a Group pipe, found: " + flowElement + " before: " + last );
 
-            if( !foundBuffer )
-              foundBuffer = isBuffer;
+          if( !foundBuffer )
+            foundBuffer = isBuffer;
 
-            last = (Every) flowElement;
-            }
-
-          if( flowElement instanceof Group )
-            break;
+          last = (Every) flowElement;
           }
+
+        flowElement = elementGraph.getPreviousElement( flowElement );
         }
       }
     }
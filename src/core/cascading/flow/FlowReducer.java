@@ -26,6 +26,7 @@ import java.util.Iterator;
 
 import cascading.CascadingException;
 import cascading.flow.hadoop.HadoopFlowProcess;
+import cascading.flow.hadoop.HadoopStepStats;
 import cascading.flow.hadoop.HadoopUtil;
 import cascading.flow.stack.FlowReducerStack;
 import org.apache.hadoop.mapred.JobConf;
@@ -41,6 +42,14 @@ public class FlowReducer extends MapReduceBase implements Reducer
   private FlowReducerStack flowReducerStack;
   /** Field currentProcess */
   private HadoopFlowProcess currentProcess;
+  /** Field reporter */
+  private Reporter reporter;
+  /** Field partition */
+  private int partition;
+  /** Field values */
+  private final CountingIterator values = new CountingIterator();
+  /** Field maxGroupSize */
+  private long maxGroupSize = 0;
 
   /** Constructor FlowReducer creates a new FlowReducer instance. */
   public FlowReducer()
@@ -55,6 +64,7 @@ public class FlowReducer extends MapReduceBase implements Reducer
       super.configure( jobConf );
       HadoopUtil.initLog4j( jobConf );
       currentProcess = new HadoopFlowProcess( new FlowSession(), jobConf, false );
+      partition = currentProcess.getCurrentTaskNum();
       flowReducerStack = new FlowReducerStack( currentProcess );
       }
     catch( Throwable throwable )
@@ -69,10 +79,14 @@ public class FlowReducer extends MapReduceBase implements Reducer
   public void reduce( Object key, Iterator values, OutputCollector output, Reporter reporter ) throws IOException
     {
     currentProcess.setReporter( reporter );
+    this.reporter = reporter;
+    this.values.reset( values );
+
+    long count = this.values.count;
 
     try
       {
-      flowReducerStack.reduce( key, values, output );
+      flowReducerStack.reduce( key, this.values, output );
       }
     catch( Throwable throwable )
       {
@@ -81,6 +95,15 @@ public class FlowReducer extends MapReduceBase implements Reducer
 
       throw new FlowException( "internal error during reducer execution", throwable );
       }
+
+    long groupSize = this.values.count - count;
+
+    // grows the counter to the largest grouping seen by this task
+    if( groupSize > maxGroupSize )
+      {
+      currentProcess.increment( StepCounters.Max_Group_Size, (int) ( groupSize - maxGroupSize ) );
+      maxGroupSize = groupSize;
+      }
     }
 
   @Override
@@ -94,5 +117,40 @@ public class FlowReducer extends MapReduceBase implements Reducer
       {
       flowReducerStack.close();
       }
+
+    // counted by partition so skewed partitions may be found, see HadoopStepStats#getPartitionRecordCounts
+    if( reporter != null )
+      reporter.incrCounter( HadoopStepStats.PARTITION_COUNTER_GROUP, Integer.toString( partition ), values.count );
+    }
+
+  /** Class CountingIterator counts the values read by this reducer. */
+  private static class CountingIterator implements Iterator
+    {
+    /** Field iterator */
+    private Iterator iterator;
+    /** Field count */
+    private long count = 0;
+
+    private void reset( Iterator iterator )
+      {
+      this.iterator = iterator;
+      }
+
+    public boolean hasNext()
+      {
+      return iterator.hasNext();
+      }
+
+    public Object next()
+      {
+      count++;
+
+      return iterator.next();
+      }
+
+    public void remove()
+      {
+      iterator.remove();
+      }
     }
   }
@@ -22,9 +22,11 @@
 package cascading.flow;
 
 import cascading.operation.Operation;
+import cascading.pipe.Each;
 import cascading.pipe.Group;
 import cascading.pipe.Operator;
 import cascading.pipe.Pipe;
+import cascading.scheme.SequenceFile;
 import cascading.tap.Tap;
 import cascading.tap.TempHfs;
 import cascading.tap.hadoop.Hadoop18TapUtil;
@@ -81,6 +83,8 @@ public class FlowStep implements Serializable
   TempHfs tempSink; // used if we need to bypass
   /** Field group */
   public Group group;
+  /** Field partialAggregation */
+  boolean partialAggregation = false;
 
   protected FlowStep( String name, int id )
     {
@@ -185,6 +189,32 @@ public class FlowStep implements Serializable
     return properties != null && !properties.isEmpty();
     }
 
+  /**
+   * Method isPartialAggregation returns true if the planner determined every {@link cascading.pipe.Every} following
+   * the {@link Group} in this step can be partially aggregated map side.
+   *
+   * @return boolean
+   */
+  public boolean isPartialAggregation()
+    {
+    return partialAggregation;
+    }
+
+  /**
+   * Method getGroupValueTypes returns the types of the values each pipe sends to the {@link Group} in this step, see
+   * {@link Group#getValueTypes(Set)}. Returns null if there is no Group, no values are typed, or the values are
+   * partially aggregated.
+   *
+   * @return Class[][]
+   */
+  public Class[][] getGroupValueTypes()
+    {
+    if( group == null || isPartialAggregation() )
+      return null;
+
+    return group.getValueTypes( getPreviousScopes( group ) );
+    }
+
   protected JobConf getJobConf() throws IOException
     {
     return getJobConf( null );
@@ -264,6 +294,29 @@ public class FlowStep implements Serializable
         // no need to supply a reverse comparator, only equality is checked
         conf.setOutputValueGroupingComparator( GroupingComparator.class );
         }
+
+      // typed values are written without type tokens, see TypedTuple
+      Class[][] valueTypes = getGroupValueTypes();
+
+      if( valueTypes != null )
+        {
+        TupleSerialization.setTupleTypes( conf, valueTypes );
+
+        if( group.isGroupBy() )
+          conf.setMapOutputValueClass( TypedTuple.class );
+        }
+
+      // split points are sampled by the FlowStepJob before the job is submitted
+      if( group.isGroupBy() && group.isTotalOrder() )
+        conf.setPartitionerClass( RangePartitioner.class );
+
+      // heavy groupings are salted, each salt is reduced on its own, see GroupSampler
+      if( group.isSkewJoin() )
+        {
+        conf.setPartitionerClass( SkewPartitioner.class );
+        conf.setMapOutputKeyClass( TuplePair.class );
+        conf.setOutputKeyComparatorClass( TuplePairComparator.class );
+        }
       }
 
     // perform last so init above will pass to tasks
@@ -314,6 +367,12 @@ public class FlowStep implements Serializable
       {
       fromJobs[ i ] = new JobConf( conf );
       tap.sourceInit( fromJobs[ i ] );
+
+      int[] unread = getUnreadSourcePositions( tap );
+
+      if( unread != null )
+        TupleSerialization.setSkippedTuplePositions( fromJobs[ i ], unread );
+
       fromJobs[ i ].set( "cascading.step.source", Util.serializeBase64( tap ) );
       i++;
       }
@@ -321,6 +380,104 @@ public class FlowStep implements Serializable
     MultiInputFormat.addInputFormat( conf, fromJobs );
     }
 
+  /**
+   * Method getUnreadSourcePositions returns the positions of the given typed intermediate source no pipe in this step
+   * references, or null if every position may be read. Outgoing scopes with resolved unused positions, see
+   * {@link Scope#getUnusedPositions()}, are honored, otherwise only Each pipes reading directly from the source are
+   * considered, since they reference only their argument and outgoing fields.
+   *
+   * @param source of type Tap
+   * @return int[]
+   */
+  int[] getUnreadSourcePositions( Tap source )
+    {
+    if( !( source instanceof TempHfs ) || !mapperTraps.isEmpty() )
+      return null;
+
+    if( !( source.getScheme() instanceof SequenceFile ) || !( (SequenceFile) source.getScheme() ).isTyped() )
+      return null;
+
+    Fields sourceFields = source.getSourceFields();
+    boolean[] read = new boolean[sourceFields.size()];
+
+    for( int i = 0; i < sourceFields.size(); i++ )
+      {
+      if( sourceFields.get( i ) instanceof Number )
+        return null;
+      }
+
+    for( Scope scope : getNextScopes( source ) )
+      {
+      if( scope.getUnusedPositions() != null )
+        {
+        markUsed( scope.getUnusedPositions(), read );
+        continue;
+        }
+
+      FlowElement next = getNextFlowElement( scope );
+
+      if( !( next instanceof Each ) )
+        return null;
+
+      for( Scope outgoing : getNextScopes( next ) )
+        {
+        if( !markRead( sourceFields, outgoing.getArgumentFields(), read ) )
+          return null;
+
+        if( !markRead( sourceFields, outgoing.getOutValuesFields(), read ) )
+          return null;
+        }
+      }
+
+    int count = 0;
+
+    for( boolean isRead : read )
+      count += isRead ? 0 : 1;
+
+    if( count == 0 )
+      return null;
+
+    int[] unread = new int[count];
+
+    for( int i = 0, j = 0; i < read.length; i++ )
+      {
+      if( !read[ i ] )
+        unread[ j++ ] = i;
+      }
+
+    return unread;
+    }
+
+  private void markUsed( int[] unusedPositions, boolean[] read )
+    {
+    boolean[] unused = new boolean[read.length];
+
+    for( int pos : unusedPositions )
+      unused[ pos ] = true;
+
+    for( int i = 0; i < read.length; i++ )
+      read[ i ] |= !unused[ i ];
+    }
+
+  private boolean markRead( Fields sourceFields, Fields fields, boolean[] read )
+    {
+    if( fields == null || !fields.isDefined() )
+      return false;
+
+    for( int i = 0; i < fields.size(); i++ )
+      {
+      Comparable field = fields.get( i );
+
+      if( field instanceof Number )
+        return false;
+
+      if( sourceFields.contains( new Fields( field ) ) )
+        read[ sourceFields.getPos( field ) ] = true;
+      }
+
+    return true;
+    }
+
   private void initFromSink( JobConf conf ) throws IOException
     {
     // init sink first so tempSink can take precedence
@@ -45,16 +45,20 @@ public class FlowStepJob implements Callable<Throwable>
   /** Field jobClient */
   private JobClient jobClient;
   /** Field runningJob */
-  private RunningJob runningJob;
+  private volatile RunningJob runningJob;
   /** Field pollingInterval */
   private long pollingInterval = 5000;
+  /** Field initialPollingInterval */
+  private long initialPollingInterval = 100;
+  /** Field currentPollingInterval */
+  private long currentPollingInterval;
 
   /** Field predecessors */
   protected List<FlowStepJob> predecessors;
   /** Field latch */
   private final CountDownLatch latch = new CountDownLatch( 1 );
   /** Field stop */
-  private boolean stop = false;
+  private volatile boolean stop = false;
   /** Field flowStep */
   private FlowStep flowStep;
   /** Field stepStats */
@@ -69,11 +73,12 @@ public class FlowStepJob implements Callable<Throwable>
     this.stepName = stepName;
     this.currentConf = currentConf;
     this.pollingInterval = Flow.getJobPollingInterval( currentConf );
+    this.initialPollingInterval = Math.min( Flow.getJobPollingInitialInterval( currentConf ), pollingInterval );
 
     if( flowStep.isDebugEnabled() )
-      flowStep.logDebug( "using polling interval: " + pollingInterval );
+      flowStep.logDebug( "using polling interval: " + initialPollingInterval + " to " + pollingInterval );
 
-    stepStats = new HadoopStepStats()
+    stepStats = new HadoopStepStats( stepName )
     {
     @Override
     protected JobClient getJobClient()
@@ -86,6 +91,15 @@ public class FlowStepJob implements Callable<Throwable>
       {
       return runningJob;
       }
+
+    @Override
+    protected long getReducerMaxGroupSize()
+      {
+      if( runningJob instanceof LocalStepRunner )
+        return ( (LocalStepRunner) runningJob ).getMaxGroupSize();
+
+      return super.getReducerMaxGroupSize();
+      }
     };
     }
 
@@ -96,6 +110,11 @@ public class FlowStepJob implements Callable<Throwable>
 
     stop = true;
 
+    synchronized( this )
+      {
+      notifyAll(); // wake the polling thread so it notices the stop immediately
+      }
+
     if( !stepStats.isPending() && !stepStats.isFinished() )
       stepStats.markStopped();
 
@@ -128,6 +147,8 @@ public class FlowStepJob implements Callable<Throwable>
       {
       blockOnPredecessors();
 
+      markReady();
+
       blockOnJob();
       }
     catch( Throwable throwable )
@@ -151,8 +172,28 @@ public class FlowStepJob implements Callable<Throwable>
 
     stepStats.markRunning();
 
-    jobClient = new JobClient( currentConf );
-    runningJob = jobClient.submitJob( currentConf );
+    // predecessors have completed, so the step input may now be sampled
+    if( flowStep.group != null && flowStep.group.isGroupBy() && flowStep.group.isTotalOrder() )
+      new GroupSampler( flowStep, currentConf ).sample();
+
+    if( flowStep.group != null && flowStep.group.isSkewJoin() )
+      new GroupSampler( flowStep, currentConf ).sampleSkew();
+
+    if( stop ) // stopped while sampling
+      return;
+
+    if( isLocalInProcess() )
+      {
+      runningJob = new LocalStepRunner( flowStep, currentConf ).submit();
+      }
+    else
+      {
+      jobClient = new JobClient( currentConf );
+      runningJob = jobClient.submitJob( currentConf );
+      }
+
+    if( stop ) // stop() may have been called before runningJob was assigned
+      runningJob.killJob();
 
     blockTillCompleteOrStopped();
 
@@ -163,7 +204,10 @@ public class FlowStepJob implements Callable<Throwable>
 
       dumpCompletionEvents();
 
-      throwable = new FlowException( "step failed: " + stepName );
+      if( runningJob instanceof LocalStepRunner )
+        throwable = new FlowException( "step failed: " + stepName, ( (LocalStepRunner) runningJob ).getThrowable() );
+      else
+        throwable = new FlowException( "step failed: " + stepName );
       }
     else
       {
@@ -171,11 +215,44 @@ public class FlowStepJob implements Callable<Throwable>
         stepStats.markSuccessful();
       }
 
-    stepStats.captureJobStats();
+    if( runningJob instanceof LocalStepRunner )
+      {
+      stepStats.setNumMapTasks( ( (LocalStepRunner) runningJob ).getNumMapTasks() );
+      stepStats.setNumReducerTasks( ( (LocalStepRunner) runningJob ).getNumReduceTasks() );
+      }
+    else
+      {
+      stepStats.captureJobStats();
+      }
+    }
+
+  private boolean isLocalInProcess()
+    {
+    return currentConf.get( "mapred.job.tracker", "" ).equalsIgnoreCase( "local" ) && Flow.getLocalInProcess( currentConf );
     }
 
   protected void blockTillCompleteOrStopped() throws IOException
     {
+    currentPollingInterval = initialPollingInterval;
+
+    // in-process steps notify on completion, the stop flag is checked between waits as the job may not be
+    // assigned yet when stop() is called
+    if( runningJob instanceof LocalStepRunner )
+      {
+      LocalStepRunner runner = (LocalStepRunner) runningJob;
+
+      while( !runner.waitForCompletion( initialPollingInterval ) )
+        {
+        if( stop )
+          {
+          runner.killJob();
+          break;
+          }
+        }
+
+      return;
+      }
+
     while( true )
       {
       if( stop || runningJob.isComplete() )
@@ -185,16 +262,45 @@ public class FlowStepJob implements Callable<Throwable>
       }
     }
 
+  /**
+   * Method sleep waits the current polling interval, then doubles it up to the configured polling interval.
+   * Returns early if {@link #stop()} is called.
+   */
   protected void sleep()
     {
     try
       {
-      Thread.sleep( pollingInterval );
+      synchronized( this )
+        {
+        if( !stop )
+          wait( currentPollingInterval );
+        }
       }
     catch( InterruptedException exception )
       {
       // do nothing
       }
+
+    currentPollingInterval = Math.min( currentPollingInterval * 2, pollingInterval );
+    }
+
+  /**
+   * Method markReady records in the step stats when the last predecessor finished, or now if there are none, so
+   * the latency between a predecessor finishing and this step starting can be reported.
+   * <p/>
+   * Predecessors signal completion through their latch, so this step is released as soon as they finish.
+   */
+  private void markReady()
+    {
+    long readyTime = 0;
+
+    for( FlowStepJob predecessor : predecessors )
+      readyTime = Math.max( readyTime, predecessor.getStepStats().getFinishedTime() );
+
+    if( readyTime == 0 )
+      readyTime = System.currentTimeMillis();
+
+    stepStats.markReady( readyTime );
     }
 
   protected void blockOnPredecessors()
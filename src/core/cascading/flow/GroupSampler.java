@@ -0,0 +1,335 @@
+/*
+ * Copyright (c) 2007-2009 Concurrent, Inc. All Rights Reserved.
+ *
+ * Project and contact information: http://www.cascading.org/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Cascading is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Cascading is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cascading.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package cascading.flow;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import cascading.tuple.IndexTuple;
+import cascading.tuple.Tuple;
+import cascading.tuple.TuplePair;
+import cascading.tuple.hadoop.RangePartitioner;
+import cascading.tuple.hadoop.SkewPartitioner;
+import cascading.util.Util;
+import org.apache.hadoop.mapred.InputSplit;
+import org.apache.hadoop.mapred.JobConf;
+import org.apache.hadoop.mapred.JobID;
+import org.apache.hadoop.mapred.Mapper;
+import org.apache.hadoop.mapred.OutputCollector;
+import org.apache.hadoop.mapred.RecordReader;
+import org.apache.hadoop.mapred.Reporter;
+import org.apache.hadoop.mapred.TaskAttemptID;
+import org.apache.hadoop.mapred.TaskID;
+import org.apache.hadoop.util.ReflectionUtils;
+
+/**
+ * Class GroupSampler samples the groupings of a {@link FlowStep} ending with a total order {@link cascading.pipe.GroupBy}
+ * and sets the split points used by the {@link RangePartitioner} to order groupings across all reducers. For a
+ * {@link FlowStep} ending with a skew join {@link cascading.pipe.CoGroup}, it finds the heavy groupings of the first
+ * pipe and sets the number of reducers each is spread over by the {@link SkewPartitioner}.
+ * <p/>
+ * Records are read from up to {@link MultiMapReducePlanner#getTotalOrderSampleSplits(JobConf)} input splits, spread
+ * evenly over the input, and passed through the step mapper, so the sampled groupings are the actual keys the
+ * mappers will emit. {@link MultiMapReducePlanner#getTotalOrderSampleSize(JobConf)} groupings are kept, and the
+ * split points are chosen so each reducer receives about the same number of them.
+ * <p/>
+ * Traps are removed from the sampled step, so sampling has no side effects. Records that fail are not sampled.
+ */
+class GroupSampler
+  {
+  /** Field RECORDS_PER_SAMPLE, the number of records read from a split for every grouping sampled from it */
+  private static final int RECORDS_PER_SAMPLE = 10;
+
+  /** Field flowStep */
+  private final FlowStep flowStep;
+  /** Field jobConf */
+  private final JobConf jobConf;
+
+  GroupSampler( FlowStep flowStep, JobConf jobConf )
+    {
+    this.flowStep = flowStep;
+    this.jobConf = jobConf;
+    }
+
+  /**
+   * Method sample samples the step input and sets the resulting split points on the JobConf. Does nothing if
+   * fewer than two reducers are configured.
+   *
+   * @throws IOException when the input cannot be read
+   */
+  void sample() throws IOException
+    {
+    int numReducers = jobConf.getNumReduceTasks();
+
+    if( numReducers < 2 )
+      return;
+
+    long startTime = System.currentTimeMillis();
+    List<Tuple> samples = readSamples( -1 );
+    Comparator<Tuple> comparator = RangePartitioner.getGroupingComparator( jobConf );
+
+    Collections.sort( samples, comparator );
+
+    Tuple[] splitPoints = getSplitPoints( samples, comparator, numReducers );
+
+    if( flowStep.isInfoEnabled() )
+      flowStep.logInfo( "sampled " + samples.size() + " groupings in " + ( System.currentTimeMillis() - startTime ) + "ms, using " + splitPoints.length + " split points for " + numReducers + " reducers" );
+
+    RangePartitioner.setSplitPoints( jobConf, splitPoints );
+    }
+
+  /**
+   * Method sampleSkew sets the heavy groupings of the first pipe of the step skew join on the JobConf, either those
+   * given to the join, or those found by sampling the step input. Does nothing if fewer than two reducers are
+   * configured.
+   *
+   * @throws IOException when the input cannot be read
+   */
+  void sampleSkew() throws IOException
+    {
+    int numReducers = jobConf.getNumReduceTasks();
+
+    if( numReducers < 2 )
+      return;
+
+    long startTime = System.currentTimeMillis();
+    Tuple[] groupings = flowStep.group.getSkewedGroupings();
+    Map<Tuple, Integer> skewedGroupings = new HashMap<Tuple, Integer>();
+
+    if( groupings != null )
+      {
+      for( Tuple grouping : groupings )
+        skewedGroupings.put( grouping, numReducers );
+      }
+    else
+      {
+      List<Tuple> samples = readSamples( 0 );
+
+      skewedGroupings = getSkewedGroupings( samples, numReducers );
+
+      if( flowStep.isInfoEnabled() )
+        flowStep.logInfo( "sampled " + samples.size() + " groupings in " + ( System.currentTimeMillis() - startTime ) + "ms, found " + skewedGroupings.size() + " heavy groupings for " + numReducers + " reducers" );
+      }
+
+    SkewPartitioner.setSkewedGroupings( jobConf, skewedGroupings );
+    }
+
+  /**
+   * Method getSkewedGroupings finds the groupings in the given samples holding more than a single reducers share of
+   * the samples, each is given a number of salts in proportion to its share, up to one per reducer.
+   *
+   * @param samples     of type List<Tuple>
+   * @param numReducers of type int
+   * @return Map<Tuple, Integer>
+   */
+  static Map<Tuple, Integer> getSkewedGroupings( List<Tuple> samples, int numReducers )
+    {
+    Map<Tuple, Integer> counts = new HashMap<Tuple, Integer>();
+
+    for( Tuple sample : samples )
+      {
+      Integer count = counts.get( sample );
+
+      counts.put( sample, count == null ? 1 : count + 1 );
+      }
+
+    Map<Tuple, Integer> skewedGroupings = new HashMap<Tuple, Integer>();
+
+    for( Map.Entry<Tuple, Integer> entry : counts.entrySet() )
+      {
+      long numSalts = ( (long) entry.getValue() * numReducers + samples.size() - 1 ) / samples.size();
+
+      if( numSalts > 1 )
+        skewedGroupings.put( entry.getKey(), (int) Math.min( numSalts, numReducers ) );
+      }
+
+    return skewedGroupings;
+    }
+
+  /**
+   * Method getSplitPoints picks the split points from the given sorted samples. Duplicate split points are dropped,
+   * as all the values of a grouping must be sent to the same reducer.
+   *
+   * @param samples     of type List<Tuple>
+   * @param comparator  of type Comparator<Tuple>
+   * @param numReducers of type int
+   * @return Tuple[]
+   */
+  static Tuple[] getSplitPoints( List<Tuple> samples, Comparator<Tuple> comparator, int numReducers )
+    {
+    List<Tuple> splitPoints = new ArrayList<Tuple>();
+
+    for( int i = 1; i < numReducers && !samples.isEmpty(); i++ )
+      {
+      Tuple splitPoint = samples.get( (int) ( (long) i * samples.size() / numReducers ) );
+
+      if( !splitPoints.isEmpty() && comparator.compare( splitPoints.get( splitPoints.size() - 1 ), splitPoint ) >= 0 )
+        continue;
+
+      splitPoints.add( splitPoint );
+      }
+
+    return splitPoints.toArray( new Tuple[splitPoints.size()] );
+    }
+
+  /** Method readSamples reads the sampled groupings, only those of the given pipe position if not -1. */
+  private List<Tuple> readSamples( int pipePos ) throws IOException
+    {
+    JobConf sampleConf = getSampleConf();
+    InputSplit[] splits = sampleConf.getInputFormat().getSplits( sampleConf, sampleConf.getNumMapTasks() );
+    int numSplits = Math.min( splits.length, MultiMapReducePlanner.getTotalOrderSampleSplits( jobConf ) );
+    int sampleSize = MultiMapReducePlanner.getTotalOrderSampleSize( jobConf );
+    List<Tuple> samples = new ArrayList<Tuple>();
+
+    if( numSplits <= 0 )
+      return samples;
+
+    int splitSampleSize = Math.max( 1, sampleSize / numSplits );
+    Random random = new Random( splits.length ); // repeatable for the same input
+
+    for( int i = 0; i < numSplits; i++ )
+      {
+      int partition = (int) ( (long) i * splits.length / numSplits );
+
+      samples.addAll( readSplit( sampleConf, partition, splits[ partition ], pipePos, splitSampleSize, random ) );
+      }
+
+    return samples;
+    }
+
+  private List<Tuple> readSplit( JobConf sampleConf, int partition, InputSplit split, int pipePos, int splitSampleSize, Random random ) throws IOException
+    {
+    JobConf taskConf = new JobConf( sampleConf );
+
+    taskConf.setBoolean( "mapred.task.is.map", true );
+    taskConf.setInt( "mapred.task.partition", partition );
+    taskConf.set( "mapred.task.id", new TaskAttemptID( new TaskID( new JobID( "sample", jobConf.getInt( "cascading.flow.step.id", 0 ) ), true, partition ), 0 ).toString() );
+
+    InputSplit taskSplit = LocalStepRunner.getTaskSplit( split, taskConf );
+    RecordReader reader = taskConf.getInputFormat().getRecordReader( taskSplit, taskConf, Reporter.NULL );
+    SampleCollector collector = new SampleCollector( pipePos, splitSampleSize, random );
+    Mapper mapper = null;
+
+    try
+      {
+      mapper = (Mapper) ReflectionUtils.newInstance( taskConf.getMapperClass(), taskConf );
+
+      Object key = reader.createKey();
+      Object value = reader.createValue();
+      long maxRecords = (long) splitSampleSize * RECORDS_PER_SAMPLE;
+
+      for( long count = 0; count < maxRecords && reader.next( key, value ); count++ )
+        {
+        try
+          {
+          mapper.map( key, value, collector, Reporter.NULL );
+          }
+        catch( Exception exception )
+          {
+          if( flowStep.isDebugEnabled() )
+            flowStep.logDebug( "not sampling failed record: " + exception.getMessage() );
+          }
+        }
+      }
+    finally
+      {
+      try
+        {
+        if( mapper != null )
+          mapper.close();
+        }
+      finally
+        {
+        reader.close();
+        }
+      }
+
+    return collector.samples;
+    }
+
+  /** Method getSampleConf returns a copy of the JobConf whose step has no traps. */
+  private JobConf getSampleConf() throws IOException
+    {
+    JobConf sampleConf = new JobConf( jobConf );
+    FlowStep sampleStep = (FlowStep) Util.deserializeBase64( jobConf.getRaw( "cascading.flow.step" ) );
+
+    sampleStep.mapperTraps.clear();
+    sampleStep.reducerTraps.clear();
+
+    sampleConf.set( "cascading.flow.step", Util.serializeBase64( sampleStep ) );
+
+    return sampleConf;
+    }
+
+  /**
+   * Class SampleCollector keeps a uniform random sample of the groupings collected, see reservoir sampling. If a
+   * pipe position is given, only the groupings of the values collected from that {@link cascading.pipe.CoGroup}
+   * pipe are sampled.
+   */
+  private static class SampleCollector implements OutputCollector<Tuple, Object>
+    {
+    /** Field pipePos */
+    private final int pipePos;
+    /** Field size */
+    private final int size;
+    /** Field random */
+    private final Random random;
+    /** Field samples */
+    private final List<Tuple> samples;
+    /** Field seen */
+    private long seen = 0;
+
+    private SampleCollector( int pipePos, int size, Random random )
+      {
+      this.pipePos = pipePos;
+      this.size = size;
+      this.random = random;
+      this.samples = new ArrayList<Tuple>( size );
+      }
+
+    public void collect( Tuple key, Object value )
+      {
+      if( pipePos != -1 && ( !( value instanceof IndexTuple ) || ( (IndexTuple) value ).getIndex() != pipePos ) )
+        return;
+
+      seen++;
+
+      int pos = samples.size() < size ? -1 : (int) ( random.nextDouble() * seen );
+
+      if( pos >= size )
+        return;
+
+      Tuple grouping = new Tuple( key instanceof TuplePair ? ( (TuplePair) key ).getLhs() : key );
+
+      if( pos == -1 )
+        samples.add( grouping );
+      else
+        samples.set( pos, grouping );
+      }
+    }
+  }
@@ -0,0 +1,584 @@
+/*
+ * Copyright (c) 2007-2009 Concurrent, Inc. All Rights Reserved.
+ *
+ * Project and contact information: http://www.cascading.org/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Cascading is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Cascading is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cascading.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package cascading.flow;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import cascading.flow.hadoop.LocalReporter;
+import cascading.flow.hadoop.LocalShuffle;
+import cascading.tap.Tap;
+import cascading.tap.hadoop.Hadoop18TapUtil;
+import cascading.tap.hadoop.TapCollector;
+import org.apache.hadoop.io.DataInputBuffer;
+import org.apache.hadoop.io.DataOutputBuffer;
+import org.apache.hadoop.mapred.Counters;
+import org.apache.hadoop.mapred.InputSplit;
+import org.apache.hadoop.mapred.JobConf;
+import org.apache.hadoop.mapred.JobID;
+import org.apache.hadoop.mapred.JobStatus;
+import org.apache.hadoop.mapred.Mapper;
+import org.apache.hadoop.mapred.OutputCollector;
+import org.apache.hadoop.mapred.RecordReader;
+import org.apache.hadoop.mapred.Reducer;
+import org.apache.hadoop.mapred.RunningJob;
+import org.apache.hadoop.mapred.TaskAttemptID;
+import org.apache.hadoop.mapred.TaskCompletionEvent;
+import org.apache.hadoop.mapred.TaskID;
+import org.apache.hadoop.util.ReflectionUtils;
+import org.apache.log4j.Logger;
+
+/**
+ * Class LocalStepRunner executes a {@link FlowStep} in the current JVM without submitting it to Hadoop's
+ * LocalJobRunner.
+ * <p/>
+ * Map tasks, one per input split, and then reduce tasks, one per reduce partition, are run concurrently on a pool of
+ * {@link Flow#getLocalThreads(JobConf)} threads. Map output is sorted in memory and spilled to local disk when
+ * larger than {@link Flow#getLocalSortBufferSize(JobConf)}, see {@link LocalShuffle}.
+ * <p/>
+ * It is used by {@link FlowStepJob} when the step runs in local mode and {@link Flow#setLocalInProcess(java.util.Map, boolean)}
+ * is enabled. It implements {@link RunningJob} so the step is tracked and its counters read like any other job.
+ */
+public class LocalStepRunner implements RunningJob
+  {
+  /** Field LOG */
+  private static final Logger LOG = Logger.getLogger( LocalStepRunner.class );
+
+  /** Field jobCount */
+  private static final AtomicInteger jobCount = new AtomicInteger();
+
+  /** Field flowStep */
+  private final FlowStep flowStep;
+  /** Field jobConf */
+  private final JobConf jobConf;
+  /** Field jobID */
+  private final JobID jobID;
+  /** Field reporter */
+  private final LocalReporter reporter = new LocalReporter();
+  /** Field latch */
+  private final CountDownLatch latch = new CountDownLatch( 1 );
+
+  /** Field executor */
+  private ExecutorService executor;
+  /** Field state */
+  private volatile int state = JobStatus.PREP;
+  /** Field throwable */
+  private Throwable throwable;
+  /** Field numMapTasks */
+  private int numMapTasks;
+  /** Field numReduceTasks */
+  private int numReduceTasks;
+  /** Field maxGroupSize is the largest {@link StepCounters#Max_Group_Size} of any reduce task, -1 if none ran */
+  private long maxGroupSize = -1;
+
+  public LocalStepRunner( FlowStep flowStep, JobConf jobConf )
+    {
+    this.flowStep = flowStep;
+    this.jobConf = jobConf;
+    this.jobID = new JobID( "local", jobCount.incrementAndGet() );
+    }
+
+  /**
+   * Method submit starts running the step in a new thread and returns immediately.
+   *
+   * @return this LocalStepRunner
+   */
+  public LocalStepRunner submit()
+    {
+    state = JobStatus.RUNNING;
+
+    Thread thread = new Thread( new Runnable()
+    {
+    public void run()
+      {
+      execute();
+      }
+    }, "local step: " + flowStep.getName() );
+
+    thread.setDaemon( true );
+    thread.start();
+
+    return this;
+    }
+
+  private void execute()
+    {
+    LocalShuffle shuffle = null;
+
+    try
+      {
+      InputSplit[] splits = jobConf.getInputFormat().getSplits( jobConf, jobConf.getNumMapTasks() );
+
+      numMapTasks = splits.length;
+      numReduceTasks = jobConf.getNumReduceTasks();
+
+      if( numReduceTasks != 0 )
+        shuffle = new LocalShuffle( jobConf, Flow.getLocalSortBufferSize( jobConf ), Flow.getLocalSortBufferSize( jobConf ) * Flow.getLocalThreads( jobConf ) );
+
+      synchronized( this )
+        {
+        if( state == JobStatus.KILLED )
+          return;
+
+        executor = Executors.newFixedThreadPool( Flow.getLocalThreads( jobConf ) );
+        }
+
+      List<Callable<Void>> mapTasks = new ArrayList<Callable<Void>>();
+
+      for( int i = 0; i < splits.length; i++ )
+        mapTasks.add( new MapTask( i, splits[ i ], shuffle ) );
+
+      invokeAll( mapTasks );
+
+      if( shuffle != null )
+        {
+        if( flowStep.isDebugEnabled() )
+          flowStep.logDebug( "map output spills: " + shuffle.getNumSpills() );
+
+        List<Callable<Void>> reduceTasks = new ArrayList<Callable<Void>>();
+
+        for( int i = 0; i < numReduceTasks; i++ )
+          reduceTasks.add( new ReduceTask( i, shuffle ) );
+
+        invokeAll( reduceTasks );
+        }
+
+      Hadoop18TapUtil.cleanupTap( jobConf, getSink() );
+
+      synchronized( this )
+        {
+        if( state == JobStatus.RUNNING )
+          state = JobStatus.SUCCEEDED;
+        }
+      }
+    catch( Throwable throwable )
+      {
+      synchronized( this )
+        {
+        if( state != JobStatus.KILLED )
+          {
+          LOG.warn( "local step failed: " + flowStep.getName(), throwable );
+
+          this.throwable = throwable;
+          state = JobStatus.FAILED;
+          }
+        }
+      }
+    finally
+      {
+      synchronized( this )
+        {
+        if( executor != null )
+          shutdownExecutor();
+        }
+
+      if( shuffle != null )
+        shuffle.close();
+
+      latch.countDown();
+      }
+    }
+
+  private void invokeAll( List<Callable<Void>> tasks ) throws Throwable
+    {
+    List<Future<Void>> futures = new ArrayList<Future<Void>>();
+
+    for( Callable<Void> task : tasks )
+      futures.add( executor.submit( task ) );
+
+    try
+      {
+      for( Future<Void> future : futures )
+        future.get();
+      }
+    catch( ExecutionException exception )
+      {
+      for( Future<Void> future : futures )
+        future.cancel( true );
+
+      throw exception.getCause();
+      }
+    }
+
+  private Tap getSink()
+    {
+    // the tempSink takes precedence as the job output if the actual sink writes directly
+    return flowStep.tempSink != null ? flowStep.tempSink : flowStep.sink;
+    }
+
+  private JobConf getTaskConf( boolean isMap, int partition )
+    {
+    JobConf taskConf = new JobConf( jobConf );
+
+    taskConf.setBoolean( "mapred.task.is.map", isMap );
+    taskConf.setInt( "mapred.task.partition", partition );
+    taskConf.set( "mapred.task.id", new TaskAttemptID( new TaskID( jobID, isMap, partition ), 0 ).toString() );
+
+    return taskConf;
+    }
+
+  private static void checkInterrupted() throws InterruptedIOException
+    {
+    if( Thread.currentThread().isInterrupted() )
+      throw new InterruptedIOException( "local task interrupted" );
+    }
+
+  /** Class MapTask runs the job Mapper over a single input split. */
+  private class MapTask implements Callable<Void>
+    {
+    /** Field partition */
+    private final int partition;
+    /** Field split */
+    private final InputSplit split;
+    /** Field shuffle */
+    private final LocalShuffle shuffle;
+
+    MapTask( int partition, InputSplit split, LocalShuffle shuffle )
+      {
+      this.partition = partition;
+      this.split = split;
+      this.shuffle = shuffle;
+      }
+
+    public Void call() throws Exception
+      {
+      JobConf taskConf = getTaskConf( true, partition );
+      InputSplit taskSplit = getTaskSplit( split, taskConf );
+      RecordReader reader = taskConf.getInputFormat().getRecordReader( taskSplit, taskConf, reporter );
+      Mapper mapper = null;
+      OutputCollector output = null;
+
+      try
+        {
+        mapper = (Mapper) ReflectionUtils.newInstance( taskConf.getMapperClass(), taskConf );
+
+        if( shuffle != null )
+          output = shuffle.openMapOutput( taskConf );
+        else
+          output = new TapCollector( getSink(), taskConf );
+
+        Object key = reader.createKey();
+        Object value = reader.createValue();
+
+        while( reader.next( key, value ) )
+          {
+          checkInterrupted();
+          mapper.map( key, value, output, reporter );
+          }
+        }
+      finally
+        {
+        try
+          {
+          if( mapper != null )
+            mapper.close();
+          }
+        finally
+          {
+          reader.close();
+          closeOutput( output );
+          }
+        }
+
+      return null;
+      }
+    }
+
+  /**
+   * Method getTaskSplit copies the given split the way Hadoop hands it to a map task, so the split can configure the
+   * task, see {@link cascading.tap.hadoop.MultiInputSplit}.
+   */
+  static InputSplit getTaskSplit( InputSplit split, JobConf taskConf ) throws IOException
+    {
+    DataOutputBuffer outputBuffer = new DataOutputBuffer();
+    split.write( outputBuffer );
+
+    DataInputBuffer inputBuffer = new DataInputBuffer();
+    inputBuffer.reset( outputBuffer.getData(), outputBuffer.getLength() );
+
+    InputSplit taskSplit = (InputSplit) ReflectionUtils.newInstance( split.getClass(), taskConf );
+    taskSplit.readFields( inputBuffer );
+
+    return taskSplit;
+    }
+
+  private static void closeOutput( OutputCollector output ) throws IOException
+    {
+    if( output instanceof LocalShuffle.MapOutput )
+      ( (LocalShuffle.MapOutput) output ).close();
+    else if( output instanceof TapCollector )
+      ( (TapCollector) output ).close();
+    }
+
+  /** Class ReduceTask runs the job Reducer over a single reduce partition. */
+  private class ReduceTask implements Callable<Void>
+    {
+    /** Field partition */
+    private final int partition;
+    /** Field shuffle */
+    private final LocalShuffle shuffle;
+
+    ReduceTask( int partition, LocalShuffle shuffle )
+      {
+      this.partition = partition;
+      this.shuffle = shuffle;
+      }
+
+    public Void call() throws Exception
+      {
+      JobConf taskConf = getTaskConf( false, partition );
+      Reducer reducer = (Reducer) ReflectionUtils.newInstance( taskConf.getReducerClass(), taskConf );
+      LocalReporter taskReporter = new LocalReporter(); // so the max group size of this task is known
+      TapCollector output = null;
+
+      try
+        {
+        output = new TapCollector( getSink(), taskConf );
+
+        shuffle.reduce( partition, reducer, output, taskReporter );
+        }
+      finally
+        {
+        try
+          {
+          reducer.close();
+          }
+        finally
+          {
+          closeOutput( output );
+          addTaskCounters( taskReporter );
+          }
+        }
+
+      return null;
+      }
+    }
+
+  /**
+   * Method getThrowable returns the cause of the failure, if this step failed.
+   *
+   * @return the throwable (type Throwable) of this LocalStepRunner object.
+   */
+  public Throwable getThrowable()
+    {
+    return throwable;
+    }
+
+  private synchronized void addTaskCounters( LocalReporter taskReporter )
+    {
+    reporter.incrAllCounters( taskReporter.getCounters() );
+    maxGroupSize = Math.max( maxGroupSize, taskReporter.getCounter( StepCounters.Max_Group_Size ).getCounter() );
+    }
+
+  /**
+   * Method getMaxGroupSize returns the largest number of values read for a single grouping by any reduce task of
+   * this step, or -1 if no reduce task completed.
+   *
+   * @return the maxGroupSize (type long) of this LocalStepRunner object.
+   */
+  public synchronized long getMaxGroupSize()
+    {
+    return maxGroupSize;
+    }
+
+  /**
+   * Method getNumMapTasks returns the number of map tasks run.
+   *
+   * @return the numMapTasks (type int) of this LocalStepRunner object.
+   */
+  public int getNumMapTasks()
+    {
+    return numMapTasks;
+    }
+
+  /**
+   * Method getNumReduceTasks returns the number of reduce tasks run.
+   *
+   * @return the numReduceTasks (type int) of this LocalStepRunner object.
+   */
+  public int getNumReduceTasks()
+    {
+    return numReduceTasks;
+    }
+
+  public JobID getID()
+    {
+    return jobID;
+    }
+
+  public String getJobID()
+    {
+    return jobID.toString();
+    }
+
+  public String getJobName()
+    {
+    return jobConf.getJobName();
+    }
+
+  public String getJobFile()
+    {
+    return null;
+    }
+
+  public String getTrackingURL()
+    {
+    return null;
+    }
+
+  public float mapProgress() throws IOException
+    {
+    return isComplete() ? 1.0f : 0.0f;
+    }
+
+  public float reduceProgress() throws IOException
+    {
+    return isComplete() ? 1.0f : 0.0f;
+    }
+
+  public float cleanupProgress() throws IOException
+    {
+    return isComplete() ? 1.0f : 0.0f;
+    }
+
+  public float setupProgress() throws IOException
+    {
+    return 1.0f;
+    }
+
+  public boolean isComplete() throws IOException
+    {
+    return latch.getCount() == 0;
+    }
+
+  public boolean isSuccessful() throws IOException
+    {
+    return state == JobStatus.SUCCEEDED;
+    }
+
+  /**
+   * Method waitForCompletion blocks until the step completes or is killed.
+   *
+   * @throws IOException when interrupted
+   */
+  public void waitForCompletion() throws IOException
+    {
+    try
+      {
+      latch.await();
+      }
+    catch( InterruptedException exception )
+      {
+      throw new InterruptedIOException( "interrupted waiting for local step: " + flowStep.getName() );
+      }
+    }
+
+  /**
+   * Method waitForCompletion blocks until the step completes or is killed, or the given timeout elapses.
+   *
+   * @param timeout the number of milliseconds to wait
+   * @return true if the step completed
+   * @throws IOException when interrupted
+   */
+  public boolean waitForCompletion( long timeout ) throws IOException
+    {
+    try
+      {
+      return latch.await( timeout, TimeUnit.MILLISECONDS );
+      }
+    catch( InterruptedException exception )
+      {
+      throw new InterruptedIOException( "interrupted waiting for local step: " + flowStep.getName() );
+      }
+    }
+
+  public int getJobState() throws IOException
+    {
+    return state;
+    }
+
+  public void killJob() throws IOException
+    {
+    synchronized( this )
+      {
+      if( latch.getCount() == 0 )
+        return;
+
+      state = JobStatus.KILLED;
+
+      if( executor != null )
+        shutdownExecutor();
+      }
+    }
+
+  /**
+   * Method shutdownExecutor interrupts running tasks and cancels queued ones, so a pending
+   * {@link Future#get()} in {@link #invokeAll(List)} never waits on a task that will never run.
+   */
+  private void shutdownExecutor()
+    {
+    for( Runnable runnable : executor.shutdownNow() )
+      {
+      if( runnable instanceof Future )
+        ( (Future) runnable ).cancel( false );
+      }
+    }
+
+  public void setJobPriority( String priority ) throws IOException
+    {
+    }
+
+  public TaskCompletionEvent[] getTaskCompletionEvents( int startFrom ) throws IOException
+    {
+    return new TaskCompletionEvent[0];
+    }
+
+  public void killTask( TaskAttemptID taskId, boolean shouldFail ) throws IOException
+    {
+    throw new UnsupportedOperationException( "tasks may not be killed individually" );
+    }
+
+  public void killTask( String taskId, boolean shouldFail ) throws IOException
+    {
+    throw new UnsupportedOperationException( "tasks may not be killed individually" );
+    }
+
+  public Counters getCounters() throws IOException
+    {
+    return reporter.getCounters();
+    }
+
+  public String[] getTaskDiagnostics( TaskAttemptID taskId ) throws IOException
+    {
+    return new String[0];
+    }
+  }
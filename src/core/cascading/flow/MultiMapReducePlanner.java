@@ -24,30 +24,34 @@ package cascading.flow;
 import java.io.IOException;
 import java.net.URI;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
 import cascading.flow.hadoop.HadoopUtil;
+import cascading.operation.Filter;
+import cascading.operation.PushableFilter;
 import cascading.pipe.Each;
 import cascading.pipe.Every;
 import cascading.pipe.Group;
 import cascading.pipe.OperatorException;
 import cascading.pipe.Pipe;
+import cascading.scheme.BlockSequenceFile;
+import cascading.scheme.SequenceFile;
 import cascading.tap.Hfs;
 import cascading.tap.Tap;
 import cascading.tap.TapException;
 import cascading.tap.TempHfs;
+import cascading.tuple.Fields;
 import cascading.util.Util;
 import org.apache.hadoop.mapred.JobConf;
 import org.apache.log4j.Logger;
-import org.jgrapht.GraphPath;
 import org.jgrapht.Graphs;
-import org.jgrapht.alg.KShortestPaths;
 
 /**
  * Class MultiMapReducePlanner is the core Hadoop MapReduce planner.
@@ -69,6 +73,10 @@ import org.jgrapht.alg.KShortestPaths;
  * <ul>
  * <li>cascading.hadoop.jobconf</li>
  * <li>cascading.multimapreduceplanner.job.status.pollinterval</li>
+ * <li>cascading.multimapreduceplanner.partialaggregation</li>
+ * <li>cascading.multimapreduceplanner.partialaggregation.capacity</li>
+ * <li>cascading.multimapreduceplanner.prunefields</li>
+ * <li>cascading.multimapreduceplanner.pushfilters</li>
  * </ul>
  */
 public class MultiMapReducePlanner extends FlowPlanner
@@ -130,6 +138,154 @@ public class MultiMapReducePlanner extends FlowPlanner
     return Util.getProperty( properties, "cascading.multimapreduceplanner.normalizesources", false );
     }
 
+  /**
+   * Method setPartialAggregation adds the given doPartial boolean to the given properties object.
+   * <p/>
+   * When enabled, the default, a {@link cascading.pipe.GroupBy} followed only by {@link cascading.operation.PartialAggregator}
+   * operations will have its values partially aggregated in the mapper, reducing the number of tuples shuffled
+   * to the reducers.
+   *
+   * @param properties of type Map
+   * @param doPartial  of type boolean
+   */
+  public static void setPartialAggregation( Map<Object, Object> properties, boolean doPartial )
+    {
+    properties.put( "cascading.multimapreduceplanner.partialaggregation", Boolean.toString( doPartial ) );
+    }
+
+  /**
+   * Method getPartialAggregation returns if this planner will plan map side partial aggregation.
+   *
+   * @param properties of type Map
+   * @return a boolean
+   */
+  public static boolean getPartialAggregation( Map<Object, Object> properties )
+    {
+    return Boolean.parseBoolean( Util.getProperty( properties, "cascading.multimapreduceplanner.partialaggregation", "true" ) );
+    }
+
+  /**
+   * Method setPruneFields adds the given doPrune boolean to the given properties object.
+   * <p/>
+   * When enabled, the default, values no downstream pipe or sink reads are nulled before they are shuffled or written
+   * to an intermediate file, see {@link ElementGraph#resolveUnusedFields()}.
+   *
+   * @param properties of type Map
+   * @param doPrune    of type boolean
+   */
+  public static void setPruneFields( Map<Object, Object> properties, boolean doPrune )
+    {
+    properties.put( "cascading.multimapreduceplanner.prunefields", Boolean.toString( doPrune ) );
+    }
+
+  /**
+   * Method getPruneFields returns if this planner will prune unread values.
+   *
+   * @param properties of type Map
+   * @return a boolean
+   */
+  public static boolean getPruneFields( Map<Object, Object> properties )
+    {
+    return Boolean.parseBoolean( Util.getProperty( properties, "cascading.multimapreduceplanner.prunefields", "true" ) );
+    }
+
+  /**
+   * Method setPushFilters adds the given doPush boolean to the given properties object.
+   * <p/>
+   * When enabled, the default, any {@link cascading.operation.PushableFilter} Each pipe following a Group is evaluated
+   * ahead of the Group in the mapper when its arguments are available there, so the Tuples it removes are never
+   * shuffled.
+   *
+   * @param properties of type Map
+   * @param doPush     of type boolean
+   */
+  public static void setPushFilters( Map<Object, Object> properties, boolean doPush )
+    {
+    properties.put( "cascading.multimapreduceplanner.pushfilters", Boolean.toString( doPush ) );
+    }
+
+  /**
+   * Method getPushFilters returns if this planner will push filters ahead of Groups.
+   *
+   * @param properties of type Map
+   * @return a boolean
+   */
+  public static boolean getPushFilters( Map<Object, Object> properties )
+    {
+    return Boolean.parseBoolean( Util.getProperty( properties, "cascading.multimapreduceplanner.pushfilters", "true" ) );
+    }
+
+  /**
+   * Method setPartialAggregationCapacity sets the maximum number of unique groupings each mapper will hold in
+   * memory while partially aggregating. When exceeded, the least recently seen grouping is emitted.
+   *
+   * @param properties of type Map
+   * @param capacity   of type int
+   */
+  public static void setPartialAggregationCapacity( Map<Object, Object> properties, int capacity )
+    {
+    properties.put( "cascading.multimapreduceplanner.partialaggregation.capacity", Integer.toString( capacity ) );
+    }
+
+  /**
+   * Method getPartialAggregationCapacity returns the maximum number of unique groupings held in memory while
+   * partially aggregating.
+   *
+   * @param jobConf of type JobConf
+   * @return an int
+   */
+  public static int getPartialAggregationCapacity( JobConf jobConf )
+    {
+    return jobConf.getInt( "cascading.multimapreduceplanner.partialaggregation.capacity", 10 * 1000 );
+    }
+
+  /**
+   * Method setTotalOrderSampleSize sets the number of groupings sampled from the input of a step with a total order
+   * {@link cascading.pipe.GroupBy} to find the grouping boundaries of each reducer.
+   *
+   * @param properties of type Map
+   * @param sampleSize of type int
+   */
+  public static void setTotalOrderSampleSize( Map<Object, Object> properties, int sampleSize )
+    {
+    properties.put( "cascading.multimapreduceplanner.totalorder.samplesize", Integer.toString( sampleSize ) );
+    }
+
+  /**
+   * Method getTotalOrderSampleSize returns the number of groupings sampled for a total order GroupBy.
+   *
+   * @param jobConf of type JobConf
+   * @return an int
+   */
+  public static int getTotalOrderSampleSize( JobConf jobConf )
+    {
+    return jobConf.getInt( "cascading.multimapreduceplanner.totalorder.samplesize", 10 * 1000 );
+    }
+
+  /**
+   * Method setTotalOrderSampleSplits sets the maximum number of input splits read when sampling for a total order
+   * {@link cascading.pipe.GroupBy}.
+   *
+   * @param properties   of type Map
+   * @param sampleSplits of type int
+   */
+  public static void setTotalOrderSampleSplits( Map<Object, Object> properties, int sampleSplits )
+    {
+    properties.put( "cascading.multimapreduceplanner.totalorder.samplesplits", Integer.toString( sampleSplits ) );
+    }
+
+  /**
+   * Method getTotalOrderSampleSplits returns the maximum number of input splits read when sampling for a total order
+   * GroupBy.
+   *
+   * @param jobConf of type JobConf
+   * @return an int
+   */
+  public static int getTotalOrderSampleSplits( JobConf jobConf )
+    {
+    return jobConf.getInt( "cascading.multimapreduceplanner.totalorder.samplesplits", 10 );
+    }
+
   /**
    * Constructor MultiMapReducePlanner creates a new MultiMapReducePlanner instance.
    *
@@ -193,11 +349,23 @@ public class MultiMapReducePlanner extends FlowPlanner
       elementGraph.removeUnnecessaryPipes(); // groups must be added before removing pipes
       elementGraph.resolveFields();
 
+      // m/r specific
+      if( getPushFilters( properties ) )
+        handleFilterPushdown( elementGraph, traps );
+
       // m/r specific
       handleAdjacentTaps( elementGraph );
 
+      // generic
+      if( getPruneFields( properties ) )
+        elementGraph.resolveUnusedFields();
+
       StepGraph stepGraph = new StepGraph( flowName, elementGraph, traps );
 
+      // m/r specific
+      if( getPartialAggregation( properties ) )
+        handlePartialAggregation( stepGraph );
+
       // clone data
       sources = new HashMap<String, Tap>( sources );
       sinks = new HashMap<String, Tap>( sinks );
@@ -265,103 +433,80 @@ public class MultiMapReducePlanner extends FlowPlanner
    */
   private void handleSplit( ElementGraph elementGraph )
     {
-    // if there was a graph change, iterate paths again.
-    while( !internalSplit( elementGraph ) )
-      ;
-    }
+    // paths are not changed by inserting temp taps, so this may be found once up front
+    Set<FlowElement> multiPathElements = elementGraph.findAllMultiPathElements();
 
-  private boolean internalSplit( ElementGraph elementGraph )
-    {
-    List<GraphPath<FlowElement, Scope>> paths = elementGraph.getAllShortestPathsBetweenExtents();
+    // the last Tap, Group, or Every at or before each element. elements are visited in topological order, so a temp
+    // tap inserted after an element is seen by all the elements below it
+    Map<FlowElement, FlowElement> lastInsertables = new HashMap<FlowElement, FlowElement>();
 
-    for( GraphPath<FlowElement, Scope> path : paths )
+    for( FlowElement flowElement : elementGraph.findAllOfType( 0, 0, FlowElement.class, new ArrayList<FlowElement>() ) )
       {
-      List<FlowElement> flowElements = Graphs.getPathVertexList( path );
-      Set<Pipe> tapInsertions = new HashSet<Pipe>();
-      FlowElement lastInsertable = null;
-
-      for( int i = 0; i < flowElements.size(); i++ )
-        {
-        FlowElement flowElement = flowElements.get( i );
+      if( flowElement instanceof ElementGraph.Extent ) // is an extent: head or tail
+        continue;
 
-        if( flowElement instanceof ElementGraph.Extent ) // is an extent: head or tail
-          continue;
+      FlowElement previous = elementGraph.getPreviousElement( flowElement );
+      FlowElement lastInsertable;
 
-        // if Tap, Group, or Every - we insert the tap here
-        if( flowElement instanceof Tap || flowElement instanceof Group || flowElement instanceof Every )
-          lastInsertable = flowElement;
+      // if Tap, Group, or Every - we insert the tap here
+      if( isInsertable( flowElement ) )
+        lastInsertable = flowElement;
+      else if( isInsertable( previous ) )
+        lastInsertable = previous;
+      else
+        lastInsertable = lastInsertables.get( previous );
 
-        // support splits on Pipe unless the previous is a Tap
-        if( flowElement.getClass() == Pipe.class && flowElements.get( i - 1 ) instanceof Tap )
-          continue;
+      lastInsertables.put( flowElement, lastInsertable );
 
-        if( flowElement instanceof Tap )
-          continue;
+      // support splits on Pipe unless the previous is a Tap
+      if( flowElement.getClass() == Pipe.class && previous instanceof Tap )
+        continue;
 
-        if( elementGraph.outDegreeOf( flowElement ) <= 1 )
-          continue;
+      if( flowElement instanceof Tap )
+        continue;
 
-        // we are at the root of a split here
+      if( elementGraph.outDegreeOf( flowElement ) <= 1 )
+        continue;
 
-        // do any split paths converge on a single Group?
-        int maxPaths = elementGraph.getMaxNumPathsBetweenElementAndMergJoin( flowElement );
-        if( maxPaths <= 1 && lastInsertable instanceof Tap )
-          continue;
+      // we are at the root of a split here
 
-        tapInsertions.add( (Pipe) flowElement );
-        }
-
-      for( Pipe pipe : tapInsertions )
-        insertTempTapAfter( elementGraph, pipe );
+      // do any split paths converge on a single Group?
+      if( lastInsertable instanceof Tap && !multiPathElements.contains( flowElement ) )
+        continue;
 
-      if( !tapInsertions.isEmpty() )
-        return false;
+      insertTempTapAfter( elementGraph, (Pipe) flowElement );
       }
-
-    return true;
     }
 
-  private void handleNonSafeOperations( ElementGraph elementGraph )
+  private boolean isInsertable( FlowElement flowElement )
     {
-    // if there was a graph change, iterate paths again.
-    while( !internalNonSafeOperations( elementGraph ) )
-      ;
+    return flowElement instanceof Tap || flowElement instanceof Group || flowElement instanceof Every;
     }
 
-  private boolean internalNonSafeOperations( ElementGraph elementGraph )
+  private void handleNonSafeOperations( ElementGraph elementGraph )
     {
-    Set<Pipe> tapInsertions = new HashSet<Pipe>();
-
-    List<Each> splits = elementGraph.findAllEachSplits();
+    // true if the given Each, or any Each directly before it, is not safe
+    Map<FlowElement, Boolean> unsafeChains = new HashMap<FlowElement, Boolean>();
 
-    // if any predecessor is safe, insert temp
-    for( Each split : splits )
+    for( Each each : elementGraph.findAllOfType( 1, 1, Each.class, new ArrayList<Each>() ) )
       {
-      List<GraphPath<FlowElement, Scope>> paths = elementGraph.getAllShortestPathsTo( split );
+      Boolean unsafePrevious = unsafeChains.get( elementGraph.getPreviousElement( each ) );
 
-      for( GraphPath<FlowElement, Scope> path : paths )
-        {
-        List<FlowElement> elements = Graphs.getPathVertexList( path );
-        Collections.reverse( elements );
+      unsafeChains.put( each, !each.getOperation().isSafe() || unsafePrevious != null && unsafePrevious );
+      }
 
-        for( FlowElement element : elements )
-          {
-          if( !( element instanceof Each ) )
-            break;
-
-          if( !( (Each) element ).getOperation().isSafe() )
-            {
-            tapInsertions.add( split );
-            break;
-            }
-          }
-        }
+    Set<Pipe> tapInsertions = new HashSet<Pipe>();
+
+    // if any predecessor is safe, insert temp
+    for( Each split : elementGraph.findAllEachSplits() )
+      {
+      if( unsafeChains.get( split ) )
+        tapInsertions.add( split );
       }
 
+    // the temp taps end each chain of Each splits, so no further splits become unsafe
     for( Pipe pipe : tapInsertions )
       insertTempTapAfter( elementGraph, pipe );
-
-    return tapInsertions.isEmpty();
     }
 
   /**
@@ -376,48 +521,58 @@ public class MultiMapReducePlanner extends FlowPlanner
    */
   private void handleAdjacentTaps( ElementGraph elementGraph )
     {
-    // if there was a graph change, iterate paths again.
-    while( !internalAdjacentTaps( elementGraph ) )
-      ;
-    }
+    LinkedList<Tap> taps = new LinkedList<Tap>( elementGraph.findAllTaps() );
 
-  private boolean internalAdjacentTaps( ElementGraph elementGraph )
-    {
-    List<Tap> taps = elementGraph.findAllTaps();
-
-    for( Tap tap : taps )
+    while( !taps.isEmpty() )
       {
-      if( !( tap instanceof TempHfs ) )
+      Tap tap = taps.removeFirst();
+
+      if( !( tap instanceof TempHfs ) || !elementGraph.containsVertex( tap ) )
         continue;
 
-      for( FlowElement successor : elementGraph.getAllSuccessors( tap ) )
+      FlowElement successor = findAdjacentTap( elementGraph, tap );
+
+      if( successor == null )
+        continue;
+
+      elementGraph.replaceElementWith( tap, successor );
+
+      // any temp taps before the successor are now adjacent to it
+      for( FlowElement previous : Graphs.predecessorListOf( elementGraph, successor ) )
         {
-        if( !( successor instanceof Hfs ) )
-          continue;
+        if( previous instanceof TempHfs )
+          taps.add( (Tap) previous );
+        }
+      }
+    }
 
-        Hfs successorTap = (Hfs) successor;
+  private FlowElement findAdjacentTap( ElementGraph elementGraph, Tap tap )
+    {
+    for( FlowElement successor : elementGraph.getAllSuccessors( tap ) )
+      {
+      if( !( successor instanceof Hfs ) )
+        continue;
 
-        // does this scheme source what it sinks
-        if( !successorTap.getScheme().isSymetrical() )
-          continue;
+      Hfs successorTap = (Hfs) successor;
 
-        URI tempURIScheme = getDefaultURIScheme( tap ); // temp uses default fs
-        URI successorURIScheme = getURIScheme( successorTap );
+      // does this scheme source what it sinks
+      if( !successorTap.getScheme().isSymetrical() )
+        continue;
 
-        if( !tempURIScheme.equals( successorURIScheme ) )
-          continue;
+      URI tempURIScheme = getDefaultURIScheme( tap ); // temp uses default fs
+      URI successorURIScheme = getURIScheme( successorTap );
 
-        // safe, both are symetrical
-        if( !tap.getScheme().getSourceFields().equals( successorTap.getScheme().getSourceFields() ) )
-          continue;
+      if( !tempURIScheme.equals( successorURIScheme ) )
+        continue;
 
-        elementGraph.replaceElementWith( tap, successor );
+      // safe, both are symetrical
+      if( !tap.getScheme().getSourceFields().equals( successorTap.getScheme().getSourceFields() ) )
+        continue;
 
-        return false;
-        }
+      return successor;
       }
 
-    return true;
+    return null;
     }
 
   private URI getDefaultURIScheme( Tap tap )
@@ -447,136 +602,350 @@ public class MultiMapReducePlanner extends FlowPlanner
 
   private void handleHeterogeneousSources( ElementGraph elementGraph )
     {
-    while( !internalHeterogeneousSources( elementGraph ) )
-      ;
+    // find all Groups
+    for( Group group : elementGraph.findAllMergeJoinGroups() )
+      {
+      // find the tap sourcing each branch of the merge/join, groups are always preceded by a tap at this point
+      Map<FlowElement, Tap> previousTaps = new HashMap<FlowElement, Tap>();
+      Set<Class> schemeClasses = new HashSet<Class>();
+
+      for( FlowElement previous : Graphs.predecessorListOf( elementGraph, group ) )
+        {
+        FlowElement flowElement = previous;
+
+        while( flowElement != null && !( flowElement instanceof Tap ) )
+          flowElement = elementGraph.getPreviousElement( flowElement );
+
+        if( flowElement == null )
+          continue;
+
+        previousTaps.put( previous, (Tap) flowElement );
+        schemeClasses.add( getInputSchemeClass( (Tap) flowElement ) );
+        }
+
+      // making assumption hadoop can handle multiple filesytems, but not multiple inputformats
+      // in the same job
+      if( schemeClasses.size() <= 1 )
+        continue;
+
+      // if incompatible, insert Tap after its join/merge pipe
+      for( Map.Entry<FlowElement, Tap> entry : previousTaps.entrySet() )
+        {
+        Tap tap = entry.getValue();
+
+        if( tap instanceof TempHfs || getSchemeClass( tap ).equals( intermediateSchemeClass ) ) // we normalize to TempHfs
+          continue;
+
+        if( !( entry.getKey() instanceof Pipe ) )
+          continue;
+
+        LOG.warn( "inserting step to normalize incompatible sources: " + tap );
+
+        insertTempTapAfter( elementGraph, (Pipe) entry.getKey() );
+        }
+      }
     }
 
-  private boolean internalHeterogeneousSources( ElementGraph elementGraph )
+  /**
+   * Since all joins are at groups, depth first search is safe.
+   * <p/>
+   * The temp tap is inserted directly before the downstream group, so any Each pipes between two
+   * groups are executed in the upstream reducer and the downstream mapper only reads and groups.
+   *
+   * @param elementGraph of type PipeGraph
+   */
+  private void handleGroupPartitioning( ElementGraph elementGraph )
     {
-    // find all Groups
-    List<Group> groups = elementGraph.findAllMergeJoinGroups();
+    // groups are visited in topological order, so a temp tap inserted before a group is seen by the groups below it
+    for( Group group : elementGraph.findAllGroups() )
+      {
+      for( FlowElement previous : Graphs.predecessorListOf( elementGraph, group ) )
+        {
+        FlowElement flowElement = previous;
+
+        while( flowElement != null && !( flowElement instanceof Tap ) && !( flowElement instanceof Group ) )
+          flowElement = elementGraph.getPreviousElement( flowElement );
+
+        if( flowElement instanceof Group ) // add tap between groups
+          insertTempTapAfter( elementGraph, (Pipe) previous );
+        }
+      }
+    }
+
+  /**
+   * Moves every {@link PushableFilter} Each directly following a Group, or following the Every pipes of a GroupBy,
+   * ahead of the Group so it is evaluated in the mapper. A copy of the filter is inserted before each incoming pipe
+   * that provides its arguments under the same names.
+   * <p/>
+   * After a GroupBy, the filter is copied to every incoming pipe. If Every pipes come first, it may only read grouping
+   * fields. After a CoGroup, the filter is copied to the one pipe that provides its arguments, if that pipe is inner
+   * joined, see {@link Group#isInnerJoined(int)}, since otherwise removing its values would add rows padded with
+   * nulls.
+   * <p/>
+   * Must be run after fields are resolved, the pushed Each pipes are resolved as they are inserted.
+   *
+   * @param elementGraph of type ElementGraph
+   * @param traps        of type Map<String, Tap>
+   */
+  private void handleFilterPushdown( ElementGraph elementGraph, Map<String, Tap> traps )
+    {
+    for( Group group : elementGraph.findAllGroups() )
+      {
+      while( pushFilter( elementGraph, traps, group ) )
+        ;
+      }
+    }
 
-    // compare group sources
-    Map<Group, Set<Tap>> normalizeGroups = new HashMap<Group, Set<Tap>>();
+  private boolean pushFilter( ElementGraph elementGraph, Map<String, Tap> traps, Group group )
+    {
+    List<Every> everies = new ArrayList<Every>();
+    FlowElement tail = group;
 
-    for( Group group : groups )
+    while( elementGraph.outDegreeOf( tail ) == 1 && getNextElement( elementGraph, tail ) instanceof Every )
       {
+      tail = getNextElement( elementGraph, tail );
+      everies.add( (Every) tail );
+      }
 
-      Set<Tap> taps = new HashSet<Tap>();
+    Each each = null;
+    Scope incomingScope = null;
+    Set<Scope> pushScopes = null;
 
-      // iterate each shortest path to current group finding each tap sourcing the merge/join
-      for( GraphPath<FlowElement, Scope> path : elementGraph.getAllShortestPathsTo( group ) )
-        {
-        List<FlowElement> flowElements = Graphs.getPathVertexList( path ); // last element is group
-        Collections.reverse( flowElements ); // first element is group
+    // filters commute, so any in a chain of pushable filters may be pushed
+    while( elementGraph.outDegreeOf( tail ) == 1 && getNextElement( elementGraph, tail ) instanceof Each )
+      {
+      each = (Each) getNextElement( elementGraph, tail );
+      incomingScope = elementGraph.outgoingEdgesOf( tail ).iterator().next();
 
-        for( FlowElement previousElement : flowElements )
-          {
-          if( previousElement instanceof Tap )
-            {
-            taps.add( (Tap) previousElement );
-            break; // stop finding taps in this path
-            }
-          }
-        }
+      if( !isPushable( elementGraph, traps, each, incomingScope ) )
+        return false;
 
-      if( taps.size() == 1 )
-        continue;
+      pushScopes = findPushScopes( elementGraph, traps, group, everies, getArgumentFields( elementGraph, each ) );
+
+      if( !pushScopes.isEmpty() )
+        break;
+
+      tail = each;
+      }
+
+    if( pushScopes == null || pushScopes.isEmpty() )
+      return false;
+
+    Fields argumentFields = getArgumentFields( elementGraph, each );
+
+    if( LOG.isDebugEnabled() )
+      LOG.debug( "pushing filter: " + each + ", ahead of: " + group );
+
+    for( Scope scope : pushScopes )
+      insertFilterBefore( elementGraph, group, scope, argumentFields, (Filter) each.getOperation() );
+
+    // the previous element emits the same fields the filter did
+    for( Scope scope : new ArrayList<Scope>( elementGraph.outgoingEdgesOf( each ) ) )
+      elementGraph.addEdge( tail, elementGraph.getEdgeTarget( scope ), new Scope( incomingScope ) );
+
+    elementGraph.removeVertex( each );
+
+    return true;
+    }
+
+  private Fields getArgumentFields( ElementGraph elementGraph, Each each )
+    {
+    return elementGraph.outgoingEdgesOf( each ).iterator().next().getArgumentFields();
+    }
+
+  private FlowElement getNextElement( ElementGraph elementGraph, FlowElement flowElement )
+    {
+    return elementGraph.getEdgeTarget( elementGraph.outgoingEdgesOf( flowElement ).iterator().next() );
+    }
+
+  private boolean isPushable( ElementGraph elementGraph, Map<String, Tap> traps, Each each, Scope incomingScope )
+    {
+    if( !( each.getOperation() instanceof PushableFilter ) || !( (PushableFilter) each.getOperation() ).isPushable() )
+      return false;
+
+    if( !each.getOperation().isSafe() || traps.containsKey( each.getName() ) )
+      return false;
+
+    // downstream elements may know the filter by name, so it must be the name of the stream it filters
+    for( Scope scope : elementGraph.outgoingEdgesOf( each ) )
+      {
+      if( !scope.getName().equals( incomingScope.getName() ) || !isNamed( scope.getArgumentFields() ) )
+        return false;
+      }
+
+    return true;
+    }
 
-      Iterator<Tap> iterator = taps.iterator();
-      Tap commonTap = iterator.next();
+  private Set<Scope> findPushScopes( ElementGraph elementGraph, Map<String, Tap> traps, Group group, List<Every> everies, Fields argumentFields )
+    {
+    Set<Scope> incomingScopes = elementGraph.incomingEdgesOf( group );
+    Scope groupScope = elementGraph.outgoingEdgesOf( group ).iterator().next();
+    List<Pipe> previous = Arrays.asList( group.getPrevious() );
+    Set<Scope> pushScopes = new HashSet<Scope>();
+
+    if( incomingScopes.size() != previous.size() )
+      return pushScopes;
+
+    for( Scope scope : incomingScopes )
+      {
+      if( traps.containsKey( scope.getName() ) )
+        return pushScopes;
+      }
 
-      while( iterator.hasNext() )
+    if( !everies.isEmpty() )
+      {
+      // the values are gone after the Every pipes, only the groupings remain
+      if( !group.isGroupBy() )
+        return pushScopes;
+
+      for( Every every : everies )
         {
-        Tap tap = iterator.next();
+        Fields declaredFields = elementGraph.outgoingEdgesOf( every ).iterator().next().getDeclaredFields();
+
+        if( every.isBuffer() || declaredFields == null )
+          return pushScopes;
 
-        // making assumption hadoop can handle multiple filesytems, but not multiple inputformats
-        // in the same job
-        // possibly could test for common input format
-        if( getSchemeClass( tap ) != getSchemeClass( commonTap ) )
+        for( int i = 0; i < argumentFields.size(); i++ )
           {
-          normalizeGroups.put( group, taps );
-          break;
+          if( declaredFields.contains( new Fields( argumentFields.get( i ) ) ) )
+            return pushScopes;
           }
         }
+
+      for( Scope scope : incomingScopes )
+        {
+        Fields groupingFields = groupScope.getGroupingSelectors().get( scope.getName() );
+
+        if( groupingFields == null || !groupingFields.contains( argumentFields ) )
+          return new HashSet<Scope>();
+
+        pushScopes.add( scope );
+        }
+
+      return pushScopes;
       }
 
-    // if incompatible, insert Tap after its join/merge pipe
-    for( Group group : normalizeGroups.keySet() )
+    for( Scope scope : incomingScopes )
       {
-      Set<Tap> taps = normalizeGroups.get( group );
+      Fields incomingFields = scope.getOutValuesFields();
+      Fields valuesFields = group.getOutgoingValuesFieldsFor( incomingScopes, scope, groupScope.getOutValuesFields() );
 
-      for( Tap tap : taps )
+      if( valuesFields == null || !isNamed( incomingFields ) || !isSameFields( incomingFields, valuesFields, argumentFields ) )
         {
-        if( tap instanceof TempHfs || getSchemeClass( tap ).equals( intermediateSchemeClass ) ) // we normalize to TempHfs
-          continue;
+        if( group.isGroupBy() )
+          return new HashSet<Scope>();
 
-        // handle case where there is a split on a pipe between the tap and group
-        for( GraphPath<FlowElement, Scope> path : elementGraph.getAllShortestPathsBetween( tap, group ) )
-          {
-          List<FlowElement> flowElements = Graphs.getPathVertexList( path ); // shortest path tap -> group
-          Collections.reverse( flowElements ); // group -> tap
+        continue;
+        }
 
-          FlowElement flowElement = flowElements.get( 1 );
+      // a cogroup only needs the one incoming pipe providing the arguments filtered
+      if( !group.isGroupBy() )
+        {
+        if( group.isInnerJoined( previous.indexOf( findPipe( previous, scope.getName() ) ) ) )
+          pushScopes.add( scope );
 
-          if( flowElement instanceof TempHfs )
-            continue;
+        return pushScopes;
+        }
 
-          LOG.warn( "inserting step to normalize incompatible sources: " + tap );
+      pushScopes.add( scope );
+      }
 
-          insertTempTapAfter( elementGraph, (Pipe) flowElement );
+    return pushScopes;
+    }
 
-          return false;
-          }
-        }
+  private Pipe findPipe( List<Pipe> pipes, String name )
+    {
+    for( Pipe pipe : pipes )
+      {
+      if( pipe.getName().equals( name ) )
+        return pipe;
+      }
+
+    return null;
+    }
+
+  /** Method isSameFields returns true if the given incoming and outgoing fields hold the given fields at the same positions. */
+  private boolean isSameFields( Fields incomingFields, Fields valuesFields, Fields argumentFields )
+    {
+    if( !incomingFields.contains( argumentFields ) || !valuesFields.contains( argumentFields ) )
+      return false;
+
+    for( int i = 0; i < argumentFields.size(); i++ )
+      {
+      if( incomingFields.getPos( argumentFields.get( i ) ) != valuesFields.getPos( argumentFields.get( i ) ) )
+        return false;
       }
 
-    return normalizeGroups.isEmpty();
+    return true;
+    }
+
+  private boolean isNamed( Fields fields )
+    {
+    if( fields == null || !fields.isDefined() || fields.size() == 0 )
+      return false;
+
+    for( int i = 0; i < fields.size(); i++ )
+      {
+      if( fields.get( i ) instanceof Number )
+        return false;
+      }
+
+    return true;
+    }
+
+  private void insertFilterBefore( ElementGraph elementGraph, Group group, Scope scope, Fields argumentFields, Filter filter )
+    {
+    FlowElement previous = elementGraph.getEdgeSource( scope );
+    Each each = new Each( scope.getName(), argumentFields, filter );
+    Scope incomingScope = new Scope( scope );
+    Scope outgoingScope = each.outgoingScopeFor( Collections.singleton( incomingScope ) );
+
+    outgoingScope.setName( scope.getName() );
+
+    elementGraph.removeEdge( scope );
+    elementGraph.addVertex( each );
+    elementGraph.addEdge( previous, each, incomingScope );
+    elementGraph.addEdge( each, group, outgoingScope );
     }
 
   /**
-   * Since all joins are at groups, depth first search is safe
+   * Marks every step whose Group is a GroupBy followed solely by PartialAggregator Every pipes,
+   * so values can be partially aggregated map side.
    *
-   * @param elementGraph of type PipeGraph
+   * @param stepGraph of type StepGraph
    */
-  private void handleGroupPartitioning( ElementGraph elementGraph )
+  private void handlePartialAggregation( StepGraph stepGraph )
     {
-    // if there was a graph change, iterate paths again. prevents many temp taps from being inserted infront of a group
-    while( !internalGroupPartitioning( elementGraph ) )
-      ;
+    for( FlowStep step : stepGraph.vertexSet() )
+      {
+      step.partialAggregation = isPartialAggregation( step );
+
+      if( step.partialAggregation && LOG.isDebugEnabled() )
+        LOG.debug( "planning partial aggregation for: " + step.group );
+      }
     }
 
-  private boolean internalGroupPartitioning( ElementGraph elementGraph )
+  private boolean isPartialAggregation( FlowStep step )
     {
-    for( GraphPath<FlowElement, Scope> path : elementGraph.getAllShortestPathsBetweenExtents() )
-      {
-      List<FlowElement> flowElements = Graphs.getPathVertexList( path );
-      List<Pipe> tapInsertions = new ArrayList<Pipe>();
-
-      boolean foundGroup = false;
+    Group group = step.group;
 
-      for( int i = 0; i < flowElements.size(); i++ )
-        {
-        FlowElement flowElement = flowElements.get( i );
+    // cogroups must see all values to join, and secondary sorting is meaningless to partials
+    if( group == null || !group.isGroupBy() || group.isSorted() )
+      return false;
 
-        if( flowElement instanceof ElementGraph.Extent ) // is an extent: head or tail
-          continue;
-        else if( flowElement instanceof Tap && flowElements.get( i - 1 ) instanceof ElementGraph.Extent )  // is a source tap
-          continue;
+    FlowElement flowElement = step.getNextFlowElement( step.getNextScope( group ) );
 
-        if( flowElement instanceof Group && !foundGroup )
-          foundGroup = true;
-        else if( flowElement instanceof Group && foundGroup ) // add tap between groups
-          tapInsertions.add( (Pipe) flowElements.get( i - 1 ) );
-        else if( flowElement instanceof Tap )
-            foundGroup = false;
-        }
+    if( !( flowElement instanceof Every ) )
+      return false;
 
-      for( Pipe pipe : tapInsertions )
-        insertTempTapAfter( elementGraph, pipe );
+    while( flowElement instanceof Every )
+      {
+      Every every = (Every) flowElement;
 
-      if( !tapInsertions.isEmpty() )
+      if( every.isAssertion() || !every.isPartialAggregator() )
         return false;
+
+      flowElement = step.getNextFlowElement( step.getNextScope( every ) );
       }
 
     return true;
@@ -612,6 +981,23 @@ public class MultiMapReducePlanner extends FlowPlanner
     return new TempHfs( name + "/" + (int) ( Math.random() * 100000 ) + "/", intermediateSchemeClass );
     }
 
+  /**
+   * Method getInputSchemeClass returns the scheme class of the given Tap, where a {@link BlockSequenceFile} is
+   * treated as a {@link SequenceFile}, as both read Tuple values with the same input format.
+   *
+   * @param tap of type Tap
+   * @return Class
+   */
+  private Class getInputSchemeClass( Tap tap )
+    {
+    Class schemeClass = getSchemeClass( tap );
+
+    if( BlockSequenceFile.class.isAssignableFrom( schemeClass ) )
+      return SequenceFile.class;
+
+    return schemeClass;
+    }
+
   private Class getSchemeClass( Tap tap )
     {
     if( tap instanceof TempHfs )
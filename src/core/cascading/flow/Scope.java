@@ -22,7 +22,9 @@
 package cascading.flow;
 
 import cascading.tuple.Fields;
+import cascading.tuple.Tuple;
 import cascading.tuple.TupleEntry;
+import cascading.tuple.TupleSelector;
 
 import java.io.Serializable;
 import java.util.Map;
@@ -62,10 +64,21 @@ public class Scope implements Serializable
   /** Field outValuesFields */
   private Fields outValuesFields; // all value fields, includes keys
 
+  /** Field unusedPositions */
+  private int[] unusedPositions; // value positions no downstream element reads
+
   /** Field argumentsEntry */
   private transient TupleEntry argumentsEntry; // caches entry
   /** Field declaredEntry */
   private transient TupleEntry declaredEntry; // caches entry
+  /** Field argumentsSelector */
+  private transient TupleSelector argumentsSelector; // caches compiled selector
+  /** Field remainderSelector */
+  private transient TupleSelector remainderSelector; // caches compiled selector
+  /** Field outGroupingTupleSelector */
+  private transient TupleSelector outGroupingTupleSelector; // caches compiled selector
+  /** Field outValuesTupleSelector */
+  private transient TupleSelector outValuesTupleSelector; // caches compiled selector
 
   /** Default constructor. */
   public Scope()
@@ -257,6 +270,32 @@ public class Scope implements Serializable
     return argumentFields;
     }
 
+  /**
+   * Method getArgumentsTupleSelector returns the compiled form of the argument selector of this Scope object.
+   *
+   * @return the argumentsTupleSelector (type TupleSelector) of this Scope object.
+   */
+  public TupleSelector getArgumentsTupleSelector()
+    {
+    if( argumentsSelector == null )
+      argumentsSelector = new TupleSelector( argumentFields );
+
+    return argumentsSelector;
+    }
+
+  /**
+   * Method getRemainderTupleSelector returns the compiled form of the remainderFields of this Scope object.
+   *
+   * @return the remainderTupleSelector (type TupleSelector) of this Scope object.
+   */
+  public TupleSelector getRemainderTupleSelector()
+    {
+    if( remainderSelector == null )
+      remainderSelector = new TupleSelector( remainderFields );
+
+    return remainderSelector;
+    }
+
   /**
    * Method getArguments returns the arguments of this Scope object.
    *
@@ -292,7 +331,28 @@ public class Scope implements Serializable
     {
     TupleEntry entry = getArgumentsEntry();
 
-    entry.setTuple( input.selectTuple( getArgumentFields() ) );
+    entry.setTuple( getArgumentsTupleSelector().select( input ) );
+
+    return entry;
+    }
+
+  /**
+   * Method getArgumentsEntry returns a cached {@link TupleEntry} for the declared arguments of this scope, holding
+   * the given result Tuple populated with the argument values. The incoming Tuple is used as is if all its values
+   * are arguments.
+   *
+   * @param input  of type TupleEntry
+   * @param result of type Tuple
+   * @return TupleEntry
+   */
+  public TupleEntry getArgumentsEntry( TupleEntry input, Tuple result )
+    {
+    TupleEntry entry = getArgumentsEntry();
+
+    if( getArgumentFields().isAll() )
+      entry.setTuple( input.getTuple() );
+    else
+      entry.setTuple( getArgumentsTupleSelector().select( input, result ) );
 
     return entry;
     }
@@ -352,6 +412,19 @@ public class Scope implements Serializable
     return outGroupingSelector;
     }
 
+  /**
+   * Method getOutGroupingTupleSelector returns the compiled form of the outGroupingSelector of this Scope object.
+   *
+   * @return the outGroupingTupleSelector (type TupleSelector) of this Scope object.
+   */
+  public TupleSelector getOutGroupingTupleSelector()
+    {
+    if( outGroupingTupleSelector == null )
+      outGroupingTupleSelector = new TupleSelector( outGroupingSelector );
+
+    return outGroupingTupleSelector;
+    }
+
   /**
    * Method getOutGroupingFields returns the outGroupingFields of this Scope object.
    *
@@ -380,6 +453,19 @@ public class Scope implements Serializable
     return outValuesSelector;
     }
 
+  /**
+   * Method getOutValuesTupleSelector returns the compiled form of the outValuesSelector of this Scope object.
+   *
+   * @return the outValuesTupleSelector (type TupleSelector) of this Scope object.
+   */
+  public TupleSelector getOutValuesTupleSelector()
+    {
+    if( outValuesTupleSelector == null )
+      outValuesTupleSelector = new TupleSelector( outValuesSelector );
+
+    return outValuesTupleSelector;
+    }
+
   /**
    * Method getOutValuesFields returns the outValuesFields of this Scope object.
    *
@@ -390,6 +476,27 @@ public class Scope implements Serializable
     return outValuesFields;
     }
 
+  /**
+   * Method getUnusedPositions returns the positions of the values passed along this Scope that no downstream element
+   * reads, or null if all may be read. See {@link ElementGraph#resolveUnusedFields()}.
+   *
+   * @return the unusedPositions (type int[]) of this Scope object.
+   */
+  public int[] getUnusedPositions()
+    {
+    return unusedPositions;
+    }
+
+  /**
+   * Method setUnusedPositions sets the unusedPositions of this Scope object, an empty array is stored as null.
+   *
+   * @param unusedPositions the unusedPositions of this Scope object.
+   */
+  public void setUnusedPositions( int[] unusedPositions )
+    {
+    this.unusedPositions = unusedPositions == null || unusedPositions.length == 0 ? null : unusedPositions;
+    }
+
   /**
    * Method copyFields copies the given Scope instance fields to this instance.
    *
@@ -408,6 +515,10 @@ public class Scope implements Serializable
     this.outGroupingFields = scope.outGroupingFields;
     this.outValuesSelector = scope.outValuesSelector;
     this.outValuesFields = scope.outValuesFields;
+    this.argumentsSelector = null;
+    this.remainderSelector = null;
+    this.outGroupingTupleSelector = null;
+    this.outValuesTupleSelector = null;
     }
 
   @Override
@@ -21,8 +21,18 @@
 
 package cascading.flow;
 
-/** Enum FlowCounters lists all counters */
+/**
+ * Enum FlowCounters lists all counters
+ * <p/>
+ * Spill_Files_Created counts the spill events of the values of a grouping, and Tuples_Spilled the values they wrote
+ * to disk. Max_Group_Size is the largest number of values read for a single grouping by a reducer. Since Hadoop sums
+ * counters across tasks, the raw Max_Group_Size counter of a job must not be read directly, it is the sum of the max
+ * of every reducer. Use {@link cascading.flow.hadoop.HadoopStepStats#getMaxGroupSize()}, or the getCounterValue
+ * methods of the {@link cascading.stats.CascadingStats} classes, which return the max instead.
+ */
 public enum StepCounters
   {
-    Tuples_Read, Tuples_Written, Tuples_Trapped
+    Tuples_Read, Tuples_Written, Tuples_Trapped,
+    Spill_Files_Created, Spill_Bytes_Written, Spill_Bytes_Read, Spill_Time_Millis,
+    Tuples_Spilled, Max_Group_Size
   }
@@ -155,13 +155,10 @@ public class StepGraph extends SimpleDirectedGraph<FlowStep, Integer>
         // support multiple paths from source to sink
         // this allows for self joins on groups, even with different operation stacks between them
         // note we must ignore paths with intermediate taps
-        List<GraphPath<FlowElement, Scope>> paths = elementGraph.getAllShortestPathsBetween( source, sink );
+        List<GraphPath<FlowElement, Scope>> paths = elementGraph.getAllDirectPathsBetween( source, sink );
 
         for( GraphPath<FlowElement, Scope> path : paths )
           {
-          if( pathContainsTap( path ) )
-            continue;
-
           List<Scope> scopes = path.getEdgeList();
           String sourceName = scopes.get( 0 ).getName(); // root node of the shortest path
 
@@ -224,22 +221,6 @@ public class StepGraph extends SimpleDirectedGraph<FlowStep, Integer>
     return count;
     }
 
-  private boolean pathContainsTap( GraphPath<FlowElement, Scope> path )
-    {
-    List<FlowElement> flowElements = Graphs.getPathVertexList( path );
-
-    // first and last are taps, if we find more than 2, return false
-    int count = 0;
-
-    for( FlowElement flowElement : flowElements )
-      {
-      if( flowElement instanceof Tap )
-        count++;
-      }
-
-    return count > 2;
-    }
-
   public TopologicalOrderIterator<FlowStep, Integer> getTopologicalIterator()
     {
     return new TopologicalOrderIterator<FlowStep, Integer>( this );
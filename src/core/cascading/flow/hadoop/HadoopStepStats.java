@@ -23,11 +23,13 @@ package cascading.flow.hadoop;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
 
 import cascading.flow.FlowException;
+import cascading.flow.StepCounters;
 import cascading.stats.StepStats;
 import org.apache.hadoop.mapred.Counters;
 import org.apache.hadoop.mapred.JobClient;
@@ -43,6 +45,9 @@ public abstract class HadoopStepStats extends StepStats
   /** Field LOG */
   private static final Logger LOG = Logger.getLogger( HadoopStepStats.class );
 
+  /** Field PARTITION_COUNTER_GROUP, the counter group holding the number of values read by each reduce partition */
+  public static final String PARTITION_COUNTER_GROUP = "cascading.flow.PartitionRecords";
+
   /** Field numMapTasks */
   int numMapTasks;
   /** Field numReducerTasks */
@@ -50,6 +55,15 @@ public abstract class HadoopStepStats extends StepStats
   /** Field taskStats */
   ArrayList<HadoopTaskStats> taskStats;
 
+  protected HadoopStepStats()
+    {
+    }
+
+  protected HadoopStepStats( String stepName )
+    {
+    super( stepName );
+    }
+
   /** Class HadoopTaskStats ... */
   public static class HadoopTaskStats
     {
@@ -185,9 +199,19 @@ public abstract class HadoopStepStats extends StepStats
 
   protected abstract RunningJob getRunningJob();
 
+  /**
+   * Method getCounterValue returns the value of the given counter summed across all tasks of this step, except
+   * {@link StepCounters#Max_Group_Size}, which is returned as {@link #getMaxGroupSize()}.
+   *
+   * @param counter of type Enum
+   * @return long
+   */
   @Override
   public long getCounterValue( Enum counter )
     {
+    if( counter == StepCounters.Max_Group_Size )
+      return getMaxGroupSize();
+
     try
       {
       return getRunningJob().getCounters().getCounter( counter );
@@ -198,6 +222,91 @@ public abstract class HadoopStepStats extends StepStats
       }
     }
 
+  /**
+   * Method getPartitionRecordCounts returns the number of values read by each reduce partition of this step, indexed
+   * by partition. A few partitions reading far more values than the rest are a sign of skewed groupings, see
+   * {@link cascading.pipe.CoGroup}.
+   *
+   * @return long[]
+   */
+  public long[] getPartitionRecordCounts()
+    {
+    try
+      {
+      Counters.Group group = getRunningJob().getCounters().getGroup( PARTITION_COUNTER_GROUP );
+      long[] counts = new long[getNumReducerTasks()];
+
+      for( Counters.Counter counter : group )
+        {
+        int partition = Integer.parseInt( counter.getName() );
+
+        if( partition >= counts.length )
+          counts = Arrays.copyOf( counts, partition + 1 );
+
+        counts[ partition ] = counter.getCounter();
+        }
+
+      return counts;
+      }
+    catch( IOException exception )
+      {
+      throw new FlowException( "unable to get counter values" );
+      }
+    }
+
+  /**
+   * Method getMaxGroupSize returns the largest number of values read for a single grouping by any reducer of this
+   * step, taken from the reduce task reports, or -1 if not known. The reports are fetched if the task details were
+   * not captured, see {@link #captureDetail()}.
+   *
+   * @return long
+   */
+  public long getMaxGroupSize()
+    {
+    long maxGroupSize = -1;
+
+    for( HadoopTaskStats stats : getTaskStats() )
+      {
+      if( stats.taskType == HadoopTaskStats.TaskType.REDUCER && stats.counters != null )
+        maxGroupSize = Math.max( maxGroupSize, stats.getCounterValue( StepCounters.Max_Group_Size ) );
+      }
+
+    if( maxGroupSize != -1 )
+      return maxGroupSize;
+
+    return getReducerMaxGroupSize();
+    }
+
+  /**
+   * Method getReducerMaxGroupSize returns the largest {@link StepCounters#Max_Group_Size} of the reduce task reports
+   * of this step, or -1 if there are none.
+   *
+   * @return long
+   */
+  protected long getReducerMaxGroupSize()
+    {
+    JobClient jobClient = getJobClient();
+    RunningJob runningJob = getRunningJob();
+
+    if( jobClient == null || runningJob == null )
+      return -1;
+
+    long maxGroupSize = -1;
+
+    try
+      {
+      for( TaskReport taskReport : jobClient.getReduceTaskReports( runningJob.getID() ) )
+        maxGroupSize = Math.max( maxGroupSize, taskReport.getCounters().getCounter( StepCounters.Max_Group_Size ) );
+      }
+    catch( IOException exception )
+      {
+      LOG.warn( "unable to get reduce task reports", exception );
+      return -1;
+      }
+
+    return maxGroupSize;
+    }
+
   public void captureJobStats()
     {
     RunningJob runningJob = getRunningJob();
@@ -219,6 +328,9 @@ public abstract class HadoopStepStats extends StepStats
 
     JobClient jobClient = getJobClient();
 
+    if( jobClient == null ) // step was not submitted to Hadoop
+      return;
+
     try
       {
       addTaskStats( HadoopTaskStats.TaskType.SETUP, jobClient.getSetupTaskReports( getRunningJob().getID() ), true );
@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2007-2009 Concurrent, Inc. All Rights Reserved.
+ *
+ * Project and contact information: http://www.cascading.org/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Cascading is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Cascading is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cascading.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package cascading.flow.hadoop;
+
+import org.apache.hadoop.mapred.Counters;
+import org.apache.hadoop.mapred.InputSplit;
+import org.apache.hadoop.mapred.Reporter;
+
+/**
+ * Class LocalReporter is a Hadoop {@link Reporter} used by tasks run in-process. The map tasks of a given step share
+ * a single instance so counters are summed across tasks, each reduce task adds its own counters once complete.
+ */
+public class LocalReporter implements Reporter
+  {
+  /** Field counters */
+  private final Counters counters = new Counters();
+
+  public void setStatus( String status )
+    {
+    }
+
+  public Counters.Counter getCounter( Enum<?> name )
+    {
+    return counters.findCounter( name );
+    }
+
+  public Counters.Counter getCounter( String group, String name )
+    {
+    return counters.findCounter( group, name );
+    }
+
+  public void incrCounter( Enum<?> key, long amount )
+    {
+    counters.incrCounter( key, amount );
+    }
+
+  public void incrCounter( String group, String counter, long amount )
+    {
+    counters.incrCounter( group, counter, amount );
+    }
+
+  public InputSplit getInputSplit() throws UnsupportedOperationException
+    {
+    throw new UnsupportedOperationException( "input split not available to in-process tasks" );
+    }
+
+  public void progress()
+    {
+    }
+
+  /**
+   * Method incrAllCounters adds the given counters to the counters of this LocalReporter object.
+   *
+   * @param other of type Counters
+   */
+  public void incrAllCounters( Counters other )
+    {
+    counters.incrAllCounters( other );
+    }
+
+  /**
+   * Method getCounters returns the counters of this LocalReporter object.
+   *
+   * @return the counters (type Counters) of this LocalReporter object.
+   */
+  public Counters getCounters()
+    {
+    return counters;
+    }
+  }
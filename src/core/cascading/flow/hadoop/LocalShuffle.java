@@ -0,0 +1,645 @@
+/*
+ * Copyright (c) 2007-2009 Concurrent, Inc. All Rights Reserved.
+ *
+ * Project and contact information: http://www.cascading.org/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Cascading is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Cascading is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cascading.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package cascading.flow.hadoop;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+import cascading.flow.FlowException;
+import org.apache.hadoop.io.DataInputBuffer;
+import org.apache.hadoop.io.DataOutputBuffer;
+import org.apache.hadoop.io.RawComparator;
+import org.apache.hadoop.io.WritableUtils;
+import org.apache.hadoop.io.serializer.Deserializer;
+import org.apache.hadoop.io.serializer.SerializationFactory;
+import org.apache.hadoop.io.serializer.Serializer;
+import org.apache.hadoop.mapred.JobConf;
+import org.apache.hadoop.mapred.OutputCollector;
+import org.apache.hadoop.mapred.Partitioner;
+import org.apache.hadoop.mapred.Reducer;
+import org.apache.hadoop.mapred.Reporter;
+import org.apache.hadoop.util.ReflectionUtils;
+import org.apache.log4j.Logger;
+
+/**
+ * Class LocalShuffle sorts and groups map output for steps run in-process, standing in for the Hadoop shuffle.
+ * <p/>
+ * Each map task collects into its own {@link MapOutput} buffer of serialized key and value pairs. When the buffer
+ * exceeds the sort buffer size, it is sorted with the job's output key comparator and spilled to a local file as
+ * one sorted run per reduce partition. When the map task completes, the remaining buffer is sorted and kept in
+ * memory, unless the total memory held by all in-memory runs would exceed the memory limit, in which case it is
+ * spilled as well.
+ * <p/>
+ * Each reduce partition merges its sorted runs and hands each group, as defined by the job's output value grouping
+ * comparator, to the job's {@link Reducer}, reusing key and value instances the same way Hadoop does.
+ * <p/>
+ * Map tasks and reduce partitions run concurrently, and the Cascading key comparators keep per instance state, so
+ * every {@link MapOutput} and every call to {@link #reduce} creates its own comparator instances.
+ */
+public class LocalShuffle
+  {
+  /** Field LOG */
+  private static final Logger LOG = Logger.getLogger( LocalShuffle.class );
+
+  /** Field jobConf */
+  private final JobConf jobConf;
+  /** Field numPartitions */
+  private final int numPartitions;
+  /** Field bufferSize */
+  private final long bufferSize;
+  /** Field memoryLimit */
+  private final long memoryLimit;
+  /** Field runs */
+  private final List<Run>[] runs;
+  /** Field files */
+  private final List<File> files = new ArrayList<File>();
+  /** Field memorySize */
+  private long memorySize;
+  /** Field numSpills */
+  private int numSpills;
+
+  /**
+   * Constructor LocalShuffle creates a new LocalShuffle instance.
+   *
+   * @param jobConf     of type JobConf
+   * @param bufferSize  the number of bytes a map task may buffer before spilling
+   * @param memoryLimit the number of bytes all completed map tasks may hold in memory
+   */
+  public LocalShuffle( JobConf jobConf, long bufferSize, long memoryLimit )
+    {
+    this.jobConf = jobConf;
+    this.numPartitions = jobConf.getNumReduceTasks();
+    this.bufferSize = bufferSize;
+    this.memoryLimit = memoryLimit;
+    this.runs = new List[numPartitions];
+
+    for( int i = 0; i < numPartitions; i++ )
+      runs[ i ] = new ArrayList<Run>();
+    }
+
+  /**
+   * Method getNumSpills returns the number of times map output was spilled to disk.
+   *
+   * @return the numSpills (type int) of this LocalShuffle object.
+   */
+  public synchronized int getNumSpills()
+    {
+    return numSpills;
+    }
+
+  /**
+   * Method openMapOutput returns a new {@link MapOutput} for a single map task.
+   *
+   * @param taskConf of type JobConf
+   * @return MapOutput
+   * @throws IOException when
+   */
+  public MapOutput openMapOutput( JobConf taskConf ) throws IOException
+    {
+    return new MapOutput( taskConf );
+    }
+
+  private synchronized boolean reserve( long size )
+    {
+    if( memorySize + size > memoryLimit )
+      return false;
+
+    memorySize += size;
+
+    return true;
+    }
+
+  private synchronized File createSpillFile() throws IOException
+    {
+    File file = File.createTempFile( "cascading-shuffle", null );
+    file.deleteOnExit();
+
+    files.add( file );
+    numSpills++;
+
+    return file;
+    }
+
+  private synchronized void addRuns( Run[] partitionRuns )
+    {
+    for( int i = 0; i < partitionRuns.length; i++ )
+      {
+      if( partitionRuns[ i ] != null )
+        runs[ i ].add( partitionRuns[ i ] );
+      }
+    }
+
+  private synchronized List<Run> getRuns( int partition )
+    {
+    return new ArrayList<Run>( runs[ partition ] );
+    }
+
+  /**
+   * Method reduce merges all the runs of the given partition and calls the given reducer once per group.
+   *
+   * @param partition of type int
+   * @param reducer   of type Reducer
+   * @param output    of type OutputCollector
+   * @param reporter  of type Reporter
+   * @throws IOException when
+   */
+  public void reduce( int partition, Reducer reducer, OutputCollector output, Reporter reporter ) throws IOException
+    {
+    SerializationFactory factory = new SerializationFactory( jobConf );
+    Deserializer keyDeserializer = factory.getDeserializer( jobConf.getMapOutputKeyClass() );
+    Deserializer valueDeserializer = factory.getDeserializer( jobConf.getMapOutputValueClass() );
+    DataInputBuffer keyBuffer = new DataInputBuffer();
+    DataInputBuffer valueBuffer = new DataInputBuffer();
+
+    keyDeserializer.open( keyBuffer );
+    valueDeserializer.open( valueBuffer );
+
+    final RawComparator comparator = jobConf.getOutputKeyComparator();
+    RawComparator groupingComparator = jobConf.getOutputValueGroupingComparator();
+    PriorityQueue<RunCursor> queue = new PriorityQueue<RunCursor>( 11, new Comparator<RunCursor>()
+    {
+    public int compare( RunCursor lhs, RunCursor rhs )
+      {
+      int result = comparator.compare( lhs.key, 0, lhs.keyLength, rhs.key, 0, rhs.keyLength );
+
+      return result != 0 ? result : lhs.order - rhs.order;
+      }
+    } );
+
+    List<RunCursor> cursors = new ArrayList<RunCursor>();
+
+    try
+      {
+      for( Run run : getRuns( partition ) )
+        {
+        RunCursor cursor = run.open( cursors.size() );
+
+        cursors.add( cursor );
+
+        if( cursor.next() )
+          queue.add( cursor );
+        }
+
+      GroupIterator iterator = new GroupIterator( queue, groupingComparator, keyBuffer, keyDeserializer, valueBuffer, valueDeserializer );
+
+      while( !queue.isEmpty() )
+        {
+        if( Thread.currentThread().isInterrupted() )
+          throw new InterruptedIOException( "reduce interrupted" );
+
+        reducer.reduce( iterator.nextGroup(), iterator, output, reporter );
+
+        while( iterator.hasNext() ) // skip values not consumed by the reducer
+          iterator.next();
+        }
+      }
+    finally
+      {
+      for( RunCursor cursor : cursors )
+        cursor.close();
+      }
+    }
+
+  /** Method close removes any spill files. */
+  public synchronized void close()
+    {
+    for( File file : files )
+      {
+      if( !file.delete() )
+        LOG.warn( "unable to delete spill file: " + file );
+      }
+
+    files.clear();
+    }
+
+  /** Class MapOutput buffers and sorts the output of a single map task. */
+  public class MapOutput implements OutputCollector
+    {
+    /** Field buffer */
+    private final DataOutputBuffer buffer = new DataOutputBuffer();
+    /** Field keySerializer */
+    private final Serializer keySerializer;
+    /** Field valueSerializer */
+    private final Serializer valueSerializer;
+    /** Field partitioner */
+    private final Partitioner partitioner;
+    /** Field comparator */
+    private final RawComparator comparator;
+    /** Field index holds partition, key offset, value offset and end offset for every record */
+    private int[] index = new int[1024 * 4];
+    /** Field count */
+    private int count;
+
+    MapOutput( JobConf taskConf ) throws IOException
+      {
+      SerializationFactory factory = new SerializationFactory( taskConf );
+
+      keySerializer = factory.getSerializer( taskConf.getMapOutputKeyClass() );
+      valueSerializer = factory.getSerializer( taskConf.getMapOutputValueClass() );
+      partitioner = (Partitioner) ReflectionUtils.newInstance( taskConf.getPartitionerClass(), taskConf );
+      comparator = (RawComparator) ReflectionUtils.newInstance( taskConf.getOutputKeyComparatorClass(), taskConf );
+
+      keySerializer.open( buffer );
+      valueSerializer.open( buffer );
+      }
+
+    public void collect( Object key, Object value ) throws IOException
+      {
+      int partition = numPartitions == 1 ? 0 : partitioner.getPartition( key, value, numPartitions );
+
+      if( partition < 0 || partition >= numPartitions )
+        throw new IOException( "illegal partition: " + partition + " for key: " + key );
+
+      int keyStart = buffer.getLength();
+      keySerializer.serialize( key );
+      int valueStart = buffer.getLength();
+      valueSerializer.serialize( value );
+
+      if( count * 4 == index.length )
+        index = Arrays.copyOf( index, index.length * 2 );
+
+      int offset = count++ * 4;
+
+      index[ offset ] = partition;
+      index[ offset + 1 ] = keyStart;
+      index[ offset + 2 ] = valueStart;
+      index[ offset + 3 ] = buffer.getLength();
+
+      if( buffer.getLength() >= bufferSize )
+        flush( true );
+      }
+
+    /**
+     * Method close sorts the remaining buffered output and hands it to the shuffle.
+     *
+     * @throws IOException when
+     */
+    public void close() throws IOException
+      {
+      flush( !reserve( buffer.getLength() ) );
+
+      keySerializer.close();
+      valueSerializer.close();
+      }
+
+    private void flush( boolean spill ) throws IOException
+      {
+      if( count == 0 )
+        return;
+
+      int[] order = sort();
+
+      if( spill )
+        addRuns( spill( order ) );
+      else
+        addRuns( retain( order ) );
+
+      buffer.reset();
+      count = 0;
+      }
+
+    private int[] sort()
+      {
+      final byte[] bytes = buffer.getData();
+      Integer[] order = new Integer[count];
+
+      for( int i = 0; i < count; i++ )
+        order[ i ] = i;
+
+      Arrays.sort( order, new Comparator<Integer>()
+      {
+      public int compare( Integer lhs, Integer rhs )
+        {
+        int lhsOffset = lhs * 4;
+        int rhsOffset = rhs * 4;
+
+        if( index[ lhsOffset ] != index[ rhsOffset ] )
+          return index[ lhsOffset ] < index[ rhsOffset ] ? -1 : 1;
+
+        int lhsKey = index[ lhsOffset + 1 ];
+        int rhsKey = index[ rhsOffset + 1 ];
+
+        return comparator.compare( bytes, lhsKey, index[ lhsOffset + 2 ] - lhsKey, bytes, rhsKey, index[ rhsOffset + 2 ] - rhsKey );
+        }
+      } );
+
+      int[] result = new int[count];
+
+      for( int i = 0; i < count; i++ )
+        result[ i ] = order[ i ];
+
+      return result;
+      }
+
+    private Run[] retain( int[] order ) throws IOException
+      {
+      Run[] partitionRuns = new Run[numPartitions];
+      DataOutputBuffer output = new DataOutputBuffer();
+      int current = 0;
+
+      while( current < order.length )
+        {
+        int partition = index[ order[ current ] * 4 ];
+
+        output.reset();
+        current = write( output, order, current, partition );
+
+        partitionRuns[ partition ] = new Run( Arrays.copyOf( output.getData(), output.getLength() ) );
+        }
+
+      return partitionRuns;
+      }
+
+    private Run[] spill( int[] order ) throws IOException
+      {
+      Run[] partitionRuns = new Run[numPartitions];
+      File file = createSpillFile();
+      DataOutputStream output = new DataOutputStream( new BufferedOutputStream( new FileOutputStream( file ) ) );
+
+      try
+        {
+        int current = 0;
+
+        while( current < order.length )
+          {
+          int partition = index[ order[ current ] * 4 ];
+          long start = output.size();
+
+          current = write( output, order, current, partition );
+
+          partitionRuns[ partition ] = new Run( file, start, output.size() - start );
+          }
+        }
+      finally
+        {
+        output.close();
+        }
+
+      if( LOG.isDebugEnabled() )
+        LOG.debug( "spilled " + order.length + " records to: " + file );
+
+      return partitionRuns;
+      }
+
+    private int write( DataOutputStream output, int[] order, int current, int partition ) throws IOException
+      {
+      byte[] bytes = buffer.getData();
+
+      for( ; current < order.length; current++ )
+        {
+        int offset = order[ current ] * 4;
+
+        if( index[ offset ] != partition )
+          break;
+
+        int keyLength = index[ offset + 2 ] - index[ offset + 1 ];
+        int valueLength = index[ offset + 3 ] - index[ offset + 2 ];
+
+        WritableUtils.writeVInt( output, keyLength );
+        WritableUtils.writeVInt( output, valueLength );
+        output.write( bytes, index[ offset + 1 ], keyLength + valueLength );
+        }
+
+      return current;
+      }
+    }
+
+  /** Class Run is a sorted sequence of records for one partition, either in memory or in a spill file. */
+  private static class Run
+    {
+    /** Field bytes */
+    private byte[] bytes;
+    /** Field file */
+    private File file;
+    /** Field start */
+    private long start;
+    /** Field length */
+    private long length;
+
+    Run( byte[] bytes )
+      {
+      this.bytes = bytes;
+      this.length = bytes.length;
+      }
+
+    Run( File file, long start, long length )
+      {
+      this.file = file;
+      this.start = start;
+      this.length = length;
+      }
+
+    RunCursor open( int order ) throws IOException
+      {
+      if( bytes != null )
+        return new RunCursor( new ByteArrayInputStream( bytes ), length, order );
+
+      InputStream inputStream = new FileInputStream( file );
+
+      try
+        {
+        long skipped = 0;
+
+        while( skipped < start )
+          skipped += inputStream.skip( start - skipped );
+        }
+      catch( IOException exception )
+        {
+        inputStream.close();
+        throw exception;
+        }
+
+      return new RunCursor( new BufferedInputStream( inputStream ), length, order );
+      }
+    }
+
+  /** Class RunCursor reads the records of a single {@link Run}. */
+  private static class RunCursor
+    {
+    /** Field input */
+    private final DataInputStream input;
+    /** Field order breaks ties between equal keys */
+    private final int order;
+    /** Field remaining */
+    private long remaining;
+
+    /** Field key */
+    byte[] key = new byte[64];
+    /** Field keyLength */
+    int keyLength;
+    /** Field value */
+    byte[] value = new byte[64];
+    /** Field valueLength */
+    int valueLength;
+
+    RunCursor( InputStream inputStream, long length, int order )
+      {
+      this.input = new DataInputStream( inputStream );
+      this.remaining = length;
+      this.order = order;
+      }
+
+    boolean next() throws IOException
+      {
+      if( remaining <= 0 )
+        return false;
+
+      keyLength = WritableUtils.readVInt( input );
+      valueLength = WritableUtils.readVInt( input );
+
+      if( key.length < keyLength )
+        key = new byte[Math.max( keyLength, key.length * 2 )];
+
+      if( value.length < valueLength )
+        value = new byte[Math.max( valueLength, value.length * 2 )];
+
+      input.readFully( key, 0, keyLength );
+      input.readFully( value, 0, valueLength );
+
+      remaining -= WritableUtils.getVIntSize( keyLength ) + WritableUtils.getVIntSize( valueLength ) + keyLength + valueLength;
+
+      return true;
+      }
+
+    void close()
+      {
+      try
+        {
+        input.close();
+        }
+      catch( IOException exception )
+        {
+        LOG.warn( "unable to close shuffle run", exception );
+        }
+      }
+    }
+
+  /** Class GroupIterator iterates the values of the current group across all merged runs. */
+  private static class GroupIterator implements Iterator
+    {
+    /** Field queue */
+    private final PriorityQueue<RunCursor> queue;
+    /** Field groupingComparator */
+    private final RawComparator groupingComparator;
+    /** Field keyBuffer */
+    private final DataInputBuffer keyBuffer;
+    /** Field keyDeserializer */
+    private final Deserializer keyDeserializer;
+    /** Field valueBuffer */
+    private final DataInputBuffer valueBuffer;
+    /** Field valueDeserializer */
+    private final Deserializer valueDeserializer;
+
+    /** Field groupKey */
+    private byte[] groupKey = new byte[64];
+    /** Field groupKeyLength */
+    private int groupKeyLength;
+    /** Field key */
+    private Object key;
+    /** Field value */
+    private Object value;
+
+    GroupIterator( PriorityQueue<RunCursor> queue, RawComparator groupingComparator, DataInputBuffer keyBuffer, Deserializer keyDeserializer, DataInputBuffer valueBuffer, Deserializer valueDeserializer )
+      {
+      this.queue = queue;
+      this.groupingComparator = groupingComparator;
+      this.keyBuffer = keyBuffer;
+      this.keyDeserializer = keyDeserializer;
+      this.valueBuffer = valueBuffer;
+      this.valueDeserializer = valueDeserializer;
+      }
+
+    Object nextGroup() throws IOException
+      {
+      RunCursor head = queue.peek();
+
+      if( groupKey.length < head.keyLength )
+        groupKey = new byte[head.keyLength];
+
+      System.arraycopy( head.key, 0, groupKey, 0, head.keyLength );
+      groupKeyLength = head.keyLength;
+
+      keyBuffer.reset( head.key, head.keyLength );
+      key = keyDeserializer.deserialize( key );
+
+      return key;
+      }
+
+    public boolean hasNext()
+      {
+      if( queue.isEmpty() )
+        return false;
+
+      RunCursor head = queue.peek();
+
+      return groupingComparator.compare( groupKey, 0, groupKeyLength, head.key, 0, head.keyLength ) == 0;
+      }
+
+    public Object next()
+      {
+      if( !hasNext() )
+        throw new NoSuchElementException( "no more values in group" );
+
+      RunCursor head = queue.poll();
+
+      try
+        {
+        // as in Hadoop, the key instance is updated with the key of the current value
+        keyBuffer.reset( head.key, head.keyLength );
+        key = keyDeserializer.deserialize( key );
+
+        valueBuffer.reset( head.value, head.valueLength );
+        value = valueDeserializer.deserialize( value );
+
+        if( head.next() )
+          queue.add( head );
+        }
+      catch( IOException exception )
+        {
+        throw new FlowException( "unable to read shuffled values", exception );
+        }
+
+      return value;
+      }
+
+    public void remove()
+      {
+      throw new UnsupportedOperationException( "remove not supported" );
+      }
+    }
+  }
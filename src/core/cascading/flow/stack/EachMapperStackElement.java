@@ -57,10 +57,17 @@ class EachMapperStackElement extends MapperStackElement
       }
     finally
       {
-      eachHandler = each.getHandler( next, ( (MapperStackElement) next ).getIncomingScope() );
+      eachHandler = each.getHandler( next, ( (MapperStackElement) next ).getIncomingScope(), next.isReuseTuples() );
       }
     }
 
+  /** Filters and some functions pass their input through, so this element retains Tuples if the next does. */
+  @Override
+  boolean isRetainingTuples()
+    {
+    return next.isRetainingTuples();
+    }
+
   public void prepare()
     {
     eachHandler.prepare( flowProcess );
@@ -59,10 +59,17 @@ class EachReducerStackElement extends ReducerStackElement
       }
     finally
       {
-      eachHandler = each.getHandler( next, ( (ReducerStackElement) next ).getIncomingScope() );
+      eachHandler = each.getHandler( next, ( (ReducerStackElement) next ).getIncomingScope(), next.isReuseTuples() );
       }
     }
 
+  /** Filters and some functions pass their input through, so this element retains Tuples if the next does. */
+  @Override
+  boolean isRetainingTuples()
+    {
+    return next.isRetainingTuples();
+    }
+
   public void prepare()
     {
     eachHandler.prepare( flowProcess );
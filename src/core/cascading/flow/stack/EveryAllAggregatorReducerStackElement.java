@@ -41,12 +41,17 @@ class EveryAllAggregatorReducerStackElement extends ReducerStackElement
   {
   private final Map<String, Tap> traps;
   private final List<Every.EveryHandler> everyHandlers;
+  /** Field isPartial, true if values are partials emitted by a PartialGroupMapperStackElement */
+  private final boolean isPartial;
+  /** Field partialEntry */
+  private final TupleEntry partialEntry = new TupleEntry( Fields.UNKNOWN, true );
 
-  public EveryAllAggregatorReducerStackElement( StackElement previous, FlowProcess flowProcess, Scope incomingScope, Map<String, Tap> traps, List<Every.EveryHandler> everyHandlers )
+  public EveryAllAggregatorReducerStackElement( StackElement previous, FlowProcess flowProcess, Scope incomingScope, Map<String, Tap> traps, List<Every.EveryHandler> everyHandlers, boolean isPartial )
     {
     super( previous, flowProcess, incomingScope, null );
     this.traps = traps;
     this.everyHandlers = everyHandlers;
+    this.isPartial = isPartial;
     }
 
   public FlowElement getFlowElement()
@@ -78,6 +83,13 @@ class EveryAllAggregatorReducerStackElement extends ReducerStackElement
         }
       }
 
+    if( isPartial )
+      {
+      mergeEveryHandlers( values );
+      next.collect( keyEntry.getTuple() );
+      return;
+      }
+
     while( values.hasNext() )
       {
       TupleEntry valueEntry = (TupleEntry) values.next();
@@ -98,6 +110,30 @@ class EveryAllAggregatorReducerStackElement extends ReducerStackElement
     next.collect( keyEntry.getTuple() );
     }
 
+  private void mergeEveryHandlers( Iterator values )
+    {
+    while( values.hasNext() )
+      {
+      Tuple partials = ( (TupleEntry) values.next() ).getTuple();
+
+      for( int i = 0; i < everyHandlers.size(); i++ )
+        {
+        Every.EveryAggregatorHandler handler = (Every.EveryAggregatorHandler) everyHandlers.get( i );
+
+        partialEntry.setTuple( (Tuple) partials.getObject( i ) );
+
+        try
+          {
+          handler.merge( flowProcess, partialEntry );
+          }
+        catch( Exception exception )
+          {
+          handleException( traps.get( handler.getEvery().getName() ), exception, partialEntry );
+          }
+        }
+      }
+    }
+
   public void prepare()
     {
     // do nothing, redundant
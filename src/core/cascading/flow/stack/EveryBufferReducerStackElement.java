@@ -64,6 +64,13 @@ class EveryBufferReducerStackElement extends ReducerStackElement
       }
     }
 
+  /** Buffer implementations commonly hold on to the values they iterate. */
+  @Override
+  boolean isRetainingTuples()
+    {
+    return true;
+    }
+
   public void prepare()
     {
     everyHandler.prepare( flowProcess );
@@ -27,6 +27,7 @@ import cascading.flow.Scope;
 import cascading.flow.StepCounters;
 import cascading.flow.hadoop.HadoopFlowProcess;
 import cascading.pipe.Each;
+import cascading.pipe.Every;
 import cascading.pipe.Group;
 import cascading.pipe.Pipe;
 import cascading.tap.Tap;
@@ -37,6 +38,8 @@ import org.apache.hadoop.mapred.OutputCollector;
 import org.apache.log4j.Logger;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
 
 /**
@@ -117,7 +120,11 @@ public class FlowMapperStack
         Scope outgoingScope = step.getNextScope( operator ); // is always Group
 
         Tap trap = step.getMapperTrap( ( (Pipe) operator ).getName() );
-        stacks[ i ].tail = new GroupMapperStackElement( stacks[ i ].tail, flowProcess, incomingScope, trap, (Group) operator, outgoingScope );
+
+        if( step.isPartialAggregation() )
+          stacks[ i ].tail = new PartialGroupMapperStackElement( stacks[ i ].tail, flowProcess, incomingScope, trap, (Group) operator, outgoingScope, step.reducerTraps, getPartialHandlers( outgoingScope ) );
+        else
+          stacks[ i ].tail = new GroupMapperStackElement( stacks[ i ].tail, flowProcess, incomingScope, trap, (Group) operator, outgoingScope, step.getGroupValueTypes() );
         }
       else if( operator instanceof Tap )
         {
@@ -134,6 +141,22 @@ public class FlowMapperStack
       }
     }
 
+  private List<Every.EveryAggregatorHandler> getPartialHandlers( Scope nextScope )
+    {
+    List<Every.EveryAggregatorHandler> handlers = new ArrayList<Every.EveryAggregatorHandler>();
+    FlowElement operator = step.getNextFlowElement( nextScope );
+
+    while( operator instanceof Every )
+      {
+      nextScope = step.getNextScope( operator );
+      handlers.add( (Every.EveryAggregatorHandler) ( (Every) operator ).getHandler( nextScope ) );
+
+      operator = step.getNextFlowElement( nextScope );
+      }
+
+    return handlers;
+    }
+
   public void map( Object key, Object value, OutputCollector output ) throws IOException
     {
     flowProcess.increment( StepCounters.Tuples_Read, 1 );
@@ -85,7 +85,7 @@ public class FlowReducerStack
     Scope nextScope = step.getNextScope( step.group );
     Tap trap = step.getReducerTrap( ( (Pipe) step.group ).getName() );
 
-    stackTail = new GroupReducerStackElement( flowProcess, previousScopes, step.group, nextScope, nextScope.getOutGroupingFields(), trap );
+    stackTail = new GroupReducerStackElement( flowProcess, previousScopes, step.group, nextScope, nextScope.getOutGroupingFields(), trap, step.isPartialAggregation() );
 
     FlowElement operator = step.getNextFlowElement( nextScope );
 
@@ -94,7 +94,7 @@ public class FlowReducerStack
       List<Every.EveryHandler> allAggregators = new ArrayList<Every.EveryHandler>();
       Scope incomingScope = nextScope;
 
-      stackTail = new EveryAllAggregatorReducerStackElement( stackTail, flowProcess, incomingScope, step.reducerTraps, allAggregators );
+      stackTail = new EveryAllAggregatorReducerStackElement( stackTail, flowProcess, incomingScope, step.reducerTraps, allAggregators, step.isPartialAggregation() );
 
       while( operator instanceof Every && !( (Every) operator ).isBuffer() )
         {
@@ -22,6 +22,7 @@
 package cascading.flow.stack;
 
 import java.io.IOException;
+import java.util.Map;
 
 import cascading.CascadingException;
 import cascading.flow.FlowElement;
@@ -30,8 +31,13 @@ import cascading.flow.FlowProcess;
 import cascading.flow.Scope;
 import cascading.pipe.Group;
 import cascading.tap.Tap;
+import cascading.tuple.IndexTuple;
 import cascading.tuple.Tuple;
 import cascading.tuple.TupleEntry;
+import cascading.tuple.TupleSelector;
+import cascading.tuple.TypedTuple;
+import cascading.tuple.hadoop.SkewPartitioner;
+import org.apache.hadoop.mapred.OutputCollector;
 
 /**
  *
@@ -40,12 +46,75 @@ class GroupMapperStackElement extends MapperStackElement
   {
   private final Group group;
   private final Scope outgoingScope;
+  /** Field groupSelector */
+  private final TupleSelector groupSelector;
+  /** Field sortSelector */
+  private final TupleSelector sortSelector;
+  /** Field unusedPositions */
+  private final int[] unusedPositions;
+  /** Field skewedGroupings */
+  private final Map<Tuple, Integer> skewedGroupings;
+  /** Field typedTuples, a view per pipe position if the values are typed */
+  private TypedTuple[] typedTuples;
+  /** Field typedOutput */
+  private TypedOutputCollector typedOutput;
 
-  public GroupMapperStackElement( MapperStackElement previous, FlowProcess flowProcess, Scope incomingScope, Tap trap, Group group, Scope outgoingScope )
+  /** Class TypedOutputCollector writes typed values as TypedTuple views, see {@link cascading.flow.FlowStep#getGroupValueTypes()} */
+  private class TypedOutputCollector implements OutputCollector
+    {
+    private OutputCollector output;
+
+    public void collect( Object key, Object value ) throws IOException
+      {
+      if( value instanceof IndexTuple )
+        {
+        IndexTuple indexTuple = (IndexTuple) value;
+        TypedTuple typedTuple = typedTuples[ indexTuple.getIndex() ];
+
+        if( typedTuple != null )
+          indexTuple.setTuple( typedTuple.reset( indexTuple.getTuple() ) );
+        }
+      else
+        {
+        value = typedTuples[ 0 ].reset( (Tuple) value );
+        }
+
+      output.collect( key, value );
+      }
+    }
+
+  public GroupMapperStackElement( MapperStackElement previous, FlowProcess flowProcess, Scope incomingScope, Tap trap, Group group, Scope outgoingScope, Class[][] valueTypes )
     {
     super( previous, flowProcess, incomingScope, trap );
     this.group = group;
     this.outgoingScope = outgoingScope;
+    this.groupSelector = group.getGroupingTupleSelector( incomingScope, outgoingScope );
+    this.sortSelector = group.getSortingTupleSelector( incomingScope, outgoingScope );
+    this.skewedGroupings = group.isSkewJoin() ? SkewPartitioner.getSkewedGroupings( getJobConf() ) : null;
+    this.unusedPositions = incomingScope.getUnusedPositions();
+
+    if( valueTypes == null )
+      return;
+
+    typedTuples = new TypedTuple[valueTypes.length];
+
+    for( int i = 0; i < valueTypes.length; i++ )
+      typedTuples[ i ] = valueTypes[ i ] == null ? null : new TypedTuple( valueTypes[ i ] );
+
+    typedOutput = new TypedOutputCollector();
+    }
+
+  @Override
+  public void setLastOutput( OutputCollector lastOutput )
+    {
+    if( typedOutput == null )
+      {
+      super.setLastOutput( lastOutput );
+      return;
+      }
+
+    typedOutput.output = lastOutput;
+    super.setLastOutput( typedOutput );
     }
 
   protected FlowElement getFlowElement()
@@ -58,6 +127,10 @@ class GroupMapperStackElement extends MapperStackElement
     {
     super.collect( tuple );
 
+    // the grouping values are nulled in place before the shuffle, so the unused values may be as well
+    if( unusedPositions != null )
+      nullUnused( tuple, unusedPositions );
+
     operateGroup( getTupleEntry( tuple ) );
     }
 
@@ -65,7 +138,10 @@ class GroupMapperStackElement extends MapperStackElement
     {
     try
       {
-      group.collectReduceGrouping( incomingScope, outgoingScope, tupleEntry, lastOutput );
+      if( skewedGroupings != null )
+        group.collectReduceGrouping( incomingScope, groupSelector, skewedGroupings, tupleEntry, lastOutput );
+      else
+        group.collectReduceGrouping( incomingScope, groupSelector, sortSelector, tupleEntry, lastOutput );
       }
     catch( IOException exception )
       {
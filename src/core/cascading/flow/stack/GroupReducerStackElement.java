@@ -39,13 +39,34 @@ import cascading.tuple.TupleEntryIterator;
 class GroupReducerStackElement extends ReducerStackElement
   {
   private final Group group;
+  /** Field isPartial, true if values are partials emitted by a PartialGroupMapperStackElement */
+  private final boolean isPartial;
 
-  public GroupReducerStackElement( FlowProcess flowProcess, Set<Scope> incomingScopes, Group group, Scope thisScope, Fields outGroupingFields, Tap trap )
+  /** Field incomingScopes */
+  private final Set<Scope> incomingScopes;
+  /** Field thisScope */
+  private final Scope thisScope;
+
+  public GroupReducerStackElement( FlowProcess flowProcess, Set<Scope> incomingScopes, Group group, Scope thisScope, Fields outGroupingFields, Tap trap, boolean isPartial )
     {
     super( trap, outGroupingFields, flowProcess );
     this.group = group;
+    this.isPartial = isPartial;
+    this.incomingScopes = incomingScopes;
+    this.thisScope = thisScope;
+    }
 
-    group.initializeReduce( flowProcess, incomingScopes, thisScope );
+  @Override
+  StackElement setNext( StackElement next )
+    {
+    try
+      {
+      return super.setNext( next );
+      }
+    finally
+      {
+      group.initializeReduce( flowProcess, incomingScopes, thisScope, next.isReuseTuples() );
+      }
     }
 
   public FlowElement getFlowElement()
@@ -62,6 +83,13 @@ class GroupReducerStackElement extends ReducerStackElement
     {
     key = group.unwrapGrouping( key );
 
+    // partials are not value tuples, so must not be re-populated with the grouping values
+    if( isPartial )
+      {
+      next.collect( key, new TupleEntryIterator( Fields.UNKNOWN, values ) );
+      return;
+      }
+
     // if a cogroup group instance...
     // an ungrouping iterator to partition the values back into a tuple so reduce stack can run
     // this can be one big tuple. the values iterator will have one Tuple of the format:
@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) 2007-2009 Concurrent, Inc. All Rights Reserved.
+ *
+ * Project and contact information: http://www.cascading.org/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Cascading is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Cascading is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cascading.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package cascading.flow.stack;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import cascading.CascadingException;
+import cascading.flow.FlowElement;
+import cascading.flow.FlowException;
+import cascading.flow.FlowProcess;
+import cascading.flow.MultiMapReducePlanner;
+import cascading.flow.Scope;
+import cascading.pipe.Every;
+import cascading.pipe.Group;
+import cascading.tap.Tap;
+import cascading.tuple.Tuple;
+import cascading.tuple.TupleEntry;
+import cascading.tuple.TupleSelector;
+
+/**
+ * Class PartialGroupMapperStackElement replaces {@link GroupMapperStackElement} when every {@link Every} following
+ * the current {@link Group} holds a {@link cascading.operation.PartialAggregator}.
+ * <p/>
+ * Values are aggregated in memory per grouping, and a single Tuple of partials, one nested Tuple per Every, is
+ * emitted per grouping when the grouping is evicted or the mapper completes.
+ */
+class PartialGroupMapperStackElement extends MapperStackElement
+  {
+  private final Group group;
+  private final Scope outgoingScope;
+  private final Map<String, Tap> traps;
+  private final List<Every.EveryAggregatorHandler> everyHandlers;
+
+  /** Field groupSelector */
+  private TupleSelector groupSelector;
+  /** Field groupEntry */
+  private TupleEntry groupEntry;
+  /** Field capacity */
+  private int capacity;
+  /** Field partials, in access order so the least recently seen grouping is evicted first */
+  private final LinkedHashMap<Tuple, Object[]> partials = new LinkedHashMap<Tuple, Object[]>( 16, 0.75f, true );
+
+  public PartialGroupMapperStackElement( MapperStackElement previous, FlowProcess flowProcess, Scope incomingScope, Tap trap, Group group, Scope outgoingScope, Map<String, Tap> traps, List<Every.EveryAggregatorHandler> everyHandlers )
+    {
+    super( previous, flowProcess, incomingScope, trap );
+    this.group = group;
+    this.outgoingScope = outgoingScope;
+    this.traps = traps;
+    this.everyHandlers = everyHandlers;
+    }
+
+  protected FlowElement getFlowElement()
+    {
+    return group;
+    }
+
+  @Override
+  public void collect( Tuple tuple )
+    {
+    super.collect( tuple );
+
+    operatePartials( getTupleEntry( tuple ) );
+    }
+
+  private void operatePartials( TupleEntry tupleEntry )
+    {
+    Tuple groupTuple = groupSelector.select( tupleEntry );
+    Object[] contexts = partials.get( groupTuple );
+
+    if( contexts == null )
+      {
+      groupEntry.setTuple( groupTuple );
+      contexts = new Object[everyHandlers.size()];
+
+      for( int i = 0; i < contexts.length; i++ )
+        {
+        Every.EveryAggregatorHandler handler = everyHandlers.get( i );
+
+        try
+          {
+          contexts[ i ] = handler.startPartial( flowProcess, groupEntry );
+          }
+        catch( Exception exception )
+          {
+          handleException( traps.get( handler.getEvery().getName() ), exception, groupEntry );
+          }
+        }
+
+      partials.put( groupTuple, contexts );
+      }
+
+    for( int i = 0; i < contexts.length; i++ )
+      {
+      Every.EveryAggregatorHandler handler = everyHandlers.get( i );
+
+      try
+        {
+        handler.operatePartial( flowProcess, contexts[ i ], tupleEntry );
+        }
+      catch( Exception exception )
+        {
+        handleException( traps.get( handler.getEvery().getName() ), exception, tupleEntry );
+        }
+      }
+
+    if( partials.size() > capacity )
+      evictEldest();
+    }
+
+  private void evictEldest()
+    {
+    Iterator<Map.Entry<Tuple, Object[]>> iterator = partials.entrySet().iterator();
+    Map.Entry<Tuple, Object[]> eldest = iterator.next();
+
+    iterator.remove();
+
+    collectPartials( eldest.getKey(), eldest.getValue() );
+    }
+
+  private void collectPartials( Tuple groupTuple, Object[] contexts )
+    {
+    Tuple partialsTuple = new Tuple();
+
+    for( int i = 0; i < contexts.length; i++ )
+      partialsTuple.add( everyHandlers.get( i ).completePartial( flowProcess, contexts[ i ] ) );
+
+    try
+      {
+      lastOutput.collect( groupTuple, partialsTuple );
+      }
+    catch( IOException exception )
+      {
+      throw new StackException( "failed writing output", exception );
+      }
+    catch( OutOfMemoryError error )
+      {
+      throw new StackException( "out of memory, try increasing task memory allocation", error );
+      }
+    catch( Throwable throwable )
+      {
+      if( throwable instanceof CascadingException )
+        throw (CascadingException) throwable;
+
+      throw new FlowException( "internal error", throwable );
+      }
+    }
+
+  /** Grouping Tuples are kept as keys of the partials map. */
+  @Override
+  boolean isRetainingTuples()
+    {
+    return true;
+    }
+
+  public void prepare()
+    {
+    groupSelector = group.getGroupingTupleSelector( incomingScope, outgoingScope );
+    groupEntry = new TupleEntry( outgoingScope.getOutGroupingFields(), true );
+    capacity = MultiMapReducePlanner.getPartialAggregationCapacity( getJobConf() );
+
+    for( Every.EveryAggregatorHandler handler : everyHandlers )
+      handler.prepare( flowProcess );
+    }
+
+  public void cleanup()
+    {
+    try
+      {
+      while( !partials.isEmpty() )
+        evictEldest();
+      }
+    finally
+      {
+      for( Every.EveryAggregatorHandler handler : everyHandlers )
+        handler.cleanup( flowProcess );
+      }
+    }
+  }
@@ -21,12 +21,14 @@
 
 package cascading.flow.stack;
 
+import cascading.flow.Flow;
 import cascading.flow.FlowCollector;
 import cascading.flow.FlowProcess;
 import cascading.flow.StepCounters;
 import cascading.flow.hadoop.HadoopFlowProcess;
 import cascading.tap.Tap;
 import cascading.tap.hadoop.TapCollector;
+import cascading.tuple.Tuple;
 import cascading.tuple.TupleEntry;
 import org.apache.hadoop.mapred.JobConf;
 
@@ -118,6 +120,43 @@ abstract class StackElement implements FlowCollector
     return this;
     }
 
+  /**
+   * Method pruneUnused copies the values of the given Tuple into the given result Tuple, nulling the given unused
+   * positions, see {@link cascading.flow.Scope#getUnusedPositions()}. The given Tuple is returned as is if there are
+   * no unused positions.
+   *
+   * @param tuple           of type Tuple
+   * @param unusedPositions of type int[]
+   * @param result          of type Tuple
+   * @return Tuple
+   */
+  static Tuple pruneUnused( Tuple tuple, int[] unusedPositions, Tuple result )
+    {
+    if( unusedPositions.length == 0 )
+      return tuple;
+
+    result.reset();
+    result.addAll( tuple );
+
+    return nullUnused( result, unusedPositions );
+    }
+
+  /**
+   * Method nullUnused nulls the given unused positions of the given Tuple in place. Only used where the Tuple is
+   * already modified in place, as when grouping values are nulled before the shuffle.
+   *
+   * @param tuple           of type Tuple
+   * @param unusedPositions of type int[]
+   * @return Tuple
+   */
+  static Tuple nullUnused( Tuple tuple, int[] unusedPositions )
+    {
+    for( int pos : unusedPositions )
+      tuple.set( pos, null );
+
+    return tuple;
+    }
+
   public abstract void prepare();
 
   public abstract void cleanup();
@@ -132,6 +171,28 @@ abstract class StackElement implements FlowCollector
     return ( (HadoopFlowProcess) flowProcess ).getJobConf();
     }
 
+  /**
+   * Method isReuseTuples returns true if preceding elements may recycle the Tuple instances handed to this element,
+   * that is, {@link Flow#getReuseTuples(JobConf)} is enabled and this element does not retain Tuples.
+   *
+   * @return boolean
+   */
+  boolean isReuseTuples()
+    {
+    return !isRetainingTuples() && Flow.getReuseTuples( getJobConf() );
+    }
+
+  /**
+   * Method isRetainingTuples returns true if this element holds on to the Tuple instances handed to it beyond the
+   * call they were handed in, and thus must be given copies.
+   *
+   * @return boolean
+   */
+  boolean isRetainingTuples()
+    {
+    return false;
+    }
+
   protected void handleException( Exception exception, TupleEntry tupleEntry )
     {
     handleException( trap, exception, tupleEntry );
@@ -31,6 +31,7 @@ import cascading.flow.Scope;
 import cascading.flow.StepCounters;
 import cascading.tap.Tap;
 import cascading.tap.TapException;
+import cascading.tap.TemplateTap;
 import cascading.tuple.Tuple;
 import cascading.tuple.TupleEntry;
 import cascading.tuple.TupleEntryCollector;
@@ -43,14 +44,24 @@ class TapMapperStackElement extends MapperStackElement
   {
   private final Tap sink;
   private OutputCollector outputCollector;
+  /** Field unusedPositions */
+  private final int[] unusedPositions;
+  /** Field pruned */
+  private final Tuple pruned = new Tuple();
 
   public TapMapperStackElement( MapperStackElement previous, FlowProcess flowProcess, Scope incomingScope, Tap sink, boolean useTapCollector ) throws IOException
     {
     super( previous, flowProcess, incomingScope, null );
     this.sink = sink;
+    this.unusedPositions = incomingScope.getUnusedPositions();
 
     if( useTapCollector )
+      {
       this.outputCollector = (OutputCollector) sink.openForWrite( getJobConf() );
+
+      if( outputCollector instanceof TemplateTap.TemplateCollector )
+        ( (TemplateTap.TemplateCollector) outputCollector ).setFlowProcess( flowProcess );
+      }
     }
 
   protected FlowElement getFlowElement()
@@ -63,6 +74,9 @@ class TapMapperStackElement extends MapperStackElement
     {
     super.collect( tuple );
 
+    if( unusedPositions != null )
+      tuple = pruneUnused( tuple, unusedPositions, pruned );
+
     operateSink( getTupleEntry( tuple ) );
     }
 
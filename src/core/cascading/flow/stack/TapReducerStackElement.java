@@ -32,6 +32,7 @@ import cascading.flow.Scope;
 import cascading.flow.StepCounters;
 import cascading.tap.Tap;
 import cascading.tap.TapException;
+import cascading.tap.TemplateTap;
 import cascading.tuple.Tuple;
 import cascading.tuple.TupleEntry;
 import cascading.tuple.TupleEntryCollector;
@@ -44,14 +45,24 @@ class TapReducerStackElement extends ReducerStackElement
   {
   private final Tap sink;
   private OutputCollector outputCollector;
+  /** Field unusedPositions */
+  private final int[] unusedPositions;
+  /** Field pruned */
+  private final Tuple pruned = new Tuple();
 
   public TapReducerStackElement( StackElement previous, FlowProcess flowProcess, Scope incomingScope, Tap sink, boolean useTapCollector ) throws IOException
     {
     super( previous, flowProcess, incomingScope, null );
     this.sink = sink;
+    this.unusedPositions = incomingScope.getUnusedPositions();
 
     if( useTapCollector )
+      {
       this.outputCollector = (OutputCollector) sink.openForWrite( getJobConf() );
+
+      if( outputCollector instanceof TemplateTap.TemplateCollector )
+        ( (TemplateTap.TemplateCollector) outputCollector ).setFlowProcess( flowProcess );
+      }
     }
 
   public FlowElement getFlowElement()
@@ -66,13 +77,23 @@ class TapReducerStackElement extends ReducerStackElement
 
   public void collect( Tuple tuple )
     {
+    if( unusedPositions != null )
+      tuple = pruneUnused( tuple, unusedPositions, pruned );
+
     operateSink( getTupleEntry( tuple ) );
     }
 
   private void operateSink( Tuple key, Iterator values )
     {
     while( values.hasNext() )
-      operateSink( (TupleEntry) values.next() );
+      {
+      TupleEntry tupleEntry = (TupleEntry) values.next();
+
+      if( unusedPositions != null )
+        tupleEntry = getTupleEntry( pruneUnused( tupleEntry.getTuple(), unusedPositions, pruned ) );
+
+      operateSink( tupleEntry );
+      }
     }
 
   /**
@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2007-2009 Concurrent, Inc. All Rights Reserved.
+ *
+ * Project and contact information: http://www.cascading.org/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Cascading is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Cascading is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cascading.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package cascading.operation;
+
+import cascading.flow.FlowProcess;
+import cascading.tuple.Tuple;
+
+/**
+ * A PartialAggregator is an {@link Aggregator} whose intermediate state can be computed independently over any
+ * subset of the values in a grouping, and later merged into a final result. Count, Sum, Min, Max, and Average are
+ * all good examples.
+ * <p/>
+ * When every Aggregator following a {@link cascading.pipe.GroupBy} is a PartialAggregator, the planner will
+ * aggregate values map side before they are sent to the reducers. In the mapper,
+ * {@link #start(cascading.flow.FlowProcess, AggregatorCall)} and {@link #aggregate(cascading.flow.FlowProcess, AggregatorCall)}
+ * are called as usual, then {@link #getPartial(cascading.flow.FlowProcess, AggregatorCall)} is called to capture the
+ * intermediate state. In the reducer, {@link #merge(cascading.flow.FlowProcess, AggregatorCall)} is called instead of
+ * aggregate() for every partial Tuple, followed by {@link #complete(cascading.flow.FlowProcess, AggregatorCall)}.
+ * <p/>
+ * Implementations must not depend on the order values or partials are seen in.
+ *
+ * @see cascading.flow.MultiMapReducePlanner#setPartialAggregation(java.util.Map, boolean)
+ */
+public interface PartialAggregator<C> extends Aggregator<C>
+  {
+  /**
+   * Method getPartial returns the intermediate state held by the AggregatorCall context as a new {@link Tuple}.
+   * <p/>
+   * The returned Tuple must only contain values that can be serialized between the mapper and the reducer.
+   *
+   * @param flowProcess    of type FlowProcess
+   * @param aggregatorCall of type AggregatorCall
+   * @return Tuple
+   */
+  Tuple getPartial( FlowProcess flowProcess, AggregatorCall<C> aggregatorCall );
+
+  /**
+   * Method merge is called for each partial Tuple in the current grouping, in place of
+   * {@link #aggregate(cascading.flow.FlowProcess, AggregatorCall)}. The partial is available via
+   * {@link cascading.operation.AggregatorCall#getArguments()}.
+   *
+   * @param flowProcess    of type FlowProcess
+   * @param aggregatorCall of type AggregatorCall
+   */
+  void merge( FlowProcess flowProcess, AggregatorCall<C> aggregatorCall );
+  }
@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2007-2009 Concurrent, Inc. All Rights Reserved.
+ *
+ * Project and contact information: http://www.cascading.org/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Cascading is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Cascading is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cascading.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package cascading.operation;
+
+/**
+ * A PushableFilter is a {@link Filter} whose result depends only on the argument values of the current Tuple, not on
+ * how many or which other Tuples it has seen. RegexFilter, ExpressionFilter, and FilterNull are good examples,
+ * Limit and Sample are not.
+ * <p/>
+ * When a PushableFilter follows a {@link cascading.pipe.Group} and its arguments are available upstream, the planner
+ * will evaluate it ahead of the Group in the mapper, so the removed Tuples are never sent to the reducers.
+ * <p/>
+ * Implementations must also be {@link #isSafe() safe}.
+ *
+ * @see cascading.flow.MultiMapReducePlanner#setPushFilters(java.util.Map, boolean)
+ */
+public interface PushableFilter<C> extends Filter<C>
+  {
+  /**
+   * Method isPushable returns true if this instance may be evaluated ahead of where it was placed in the assembly.
+   * Filters wrapping other filters should only return true if all the wrapped filters are pushable.
+   *
+   * @return boolean
+   */
+  boolean isPushable();
+  }
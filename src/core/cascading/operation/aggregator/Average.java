@@ -25,12 +25,13 @@ import cascading.flow.FlowProcess;
 import cascading.operation.Aggregator;
 import cascading.operation.AggregatorCall;
 import cascading.operation.BaseOperation;
+import cascading.operation.PartialAggregator;
 import cascading.tuple.Fields;
 import cascading.tuple.Tuple;
 import cascading.tuple.TupleEntry;
 
 /** Class Average is an {@link Aggregator} that returns the average of all numeric values in the current group. */
-public class Average extends BaseOperation<Average.Context> implements Aggregator<Average.Context>
+public class Average extends BaseOperation<Average.Context> implements PartialAggregator<Average.Context>
   {
   /** Field FIELD_NAME */
   public static final String FIELD_NAME = "average";
@@ -80,10 +81,25 @@ public class Average extends BaseOperation<Average.Context> implements Aggregato
   public void aggregate( FlowProcess flowProcess, AggregatorCall<Context> aggregatorCall )
     {
     Context context = aggregatorCall.getContext();
+
+    context.sum += aggregatorCall.getArguments().getTuple().getDouble( 0 );
+    context.count += 1L;
+    }
+
+  public Tuple getPartial( FlowProcess flowProcess, AggregatorCall<Context> aggregatorCall )
+    {
+    Context context = aggregatorCall.getContext();
+
+    return new Tuple( context.sum, context.count );
+    }
+
+  public void merge( FlowProcess flowProcess, AggregatorCall<Context> aggregatorCall )
+    {
+    Context context = aggregatorCall.getContext();
     TupleEntry arguments = aggregatorCall.getArguments();
 
     context.sum += arguments.getDouble( 0 );
-    context.count += 1d;
+    context.count += arguments.getLong( 1 );
     }
 
   public void complete( FlowProcess flowProcess, AggregatorCall<Context> aggregatorCall )
@@ -25,6 +25,7 @@ import cascading.flow.FlowProcess;
 import cascading.operation.Aggregator;
 import cascading.operation.AggregatorCall;
 import cascading.operation.BaseOperation;
+import cascading.operation.PartialAggregator;
 import cascading.tuple.Fields;
 import cascading.tuple.Tuple;
 
@@ -33,7 +34,7 @@ import cascading.tuple.Tuple;
  * </p>
  * Note the resulting value for count is always a long. So any comparisons should be against a long value.
  */
-public class Count extends BaseOperation<Long[]> implements Aggregator<Long[]>
+public class Count extends BaseOperation<Long[]> implements PartialAggregator<Long[]>
   {
   /** Field COUNT */
   public static final String FIELD_NAME = "count";
@@ -67,6 +68,16 @@ public class Count extends BaseOperation<Long[]> implements Aggregator<Long[]>
     aggregatorCall.getContext()[ 0 ] += 1L;
     }
 
+  public Tuple getPartial( FlowProcess flowProcess, AggregatorCall<Long[]> aggregatorCall )
+    {
+    return new Tuple( (Comparable) aggregatorCall.getContext()[ 0 ] );
+    }
+
+  public void merge( FlowProcess flowProcess, AggregatorCall<Long[]> aggregatorCall )
+    {
+    aggregatorCall.getContext()[ 0 ] += aggregatorCall.getArguments().getLong( 0 );
+    }
+
   public void complete( FlowProcess flowProcess, AggregatorCall<Long[]> aggregatorCall )
     {
     aggregatorCall.getOutputCollector().add( getResult( aggregatorCall ) );
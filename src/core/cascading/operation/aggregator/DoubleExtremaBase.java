@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2007-2009 Concurrent, Inc. All Rights Reserved.
+ *
+ * Project and contact information: http://www.cascading.org/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Cascading is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Cascading is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cascading.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package cascading.operation.aggregator;
+
+import cascading.flow.FlowProcess;
+import cascading.operation.AggregatorCall;
+import cascading.operation.BaseOperation;
+import cascading.operation.PartialAggregator;
+import cascading.tuple.Fields;
+import cascading.tuple.Tuple;
+
+/**
+ * Class DoubleExtremaBase is the base class for DoubleMin and DoubleMax. The extrema is held as a primitive double and returned as such, not
+ * as the original argument value as {@link ExtremaBase} does. Null values are treated as zero.
+ */
+public abstract class DoubleExtremaBase extends BaseOperation<double[]> implements PartialAggregator<double[]>
+  {
+  public DoubleExtremaBase( Fields fieldDeclaration )
+    {
+    super( 1, fieldDeclaration );
+
+    if( !fieldDeclaration.isSubstitution() && fieldDeclaration.size() != 1 )
+      throw new IllegalArgumentException( "fieldDeclaration may only declare 1 field, got: " + fieldDeclaration.size() );
+    }
+
+  public void start( FlowProcess flowProcess, AggregatorCall<double[]> aggregatorCall )
+    {
+    if( aggregatorCall.getContext() == null )
+      aggregatorCall.setContext( new double[]{getInitialValue()} );
+    else
+      aggregatorCall.getContext()[ 0 ] = getInitialValue();
+    }
+
+  protected abstract double getInitialValue();
+
+  public void aggregate( FlowProcess flowProcess, AggregatorCall<double[]> aggregatorCall )
+    {
+    double[] context = aggregatorCall.getContext();
+    double value = aggregatorCall.getArguments().getTuple().getDouble( 0 );
+
+    if( compare( context[ 0 ], value ) )
+      context[ 0 ] = value;
+    }
+
+  /**
+   * Method compare returns true if rhs should replace the current extrema lhs.
+   *
+   * @param lhs of type double
+   * @param rhs of type double
+   * @return boolean
+   */
+  protected abstract boolean compare( double lhs, double rhs );
+
+  public Tuple getPartial( FlowProcess flowProcess, AggregatorCall<double[]> aggregatorCall )
+    {
+    return new Tuple( aggregatorCall.getContext()[ 0 ] );
+    }
+
+  public void merge( FlowProcess flowProcess, AggregatorCall<double[]> aggregatorCall )
+    {
+    aggregate( flowProcess, aggregatorCall );
+    }
+
+  public void complete( FlowProcess flowProcess, AggregatorCall<double[]> aggregatorCall )
+    {
+    aggregatorCall.getOutputCollector().add( new Tuple( aggregatorCall.getContext()[ 0 ] ) );
+    }
+  }
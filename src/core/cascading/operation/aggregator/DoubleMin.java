@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2007-2009 Concurrent, Inc. All Rights Reserved.
+ *
+ * Project and contact information: http://www.cascading.org/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Cascading is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Cascading is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cascading.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package cascading.operation.aggregator;
+
+import cascading.operation.Aggregator;
+import cascading.tuple.Fields;
+
+/** Class DoubleMin is an {@link Aggregator} that returns the minimum double value encountered in the current group. */
+public class DoubleMin extends DoubleExtremaBase
+  {
+  /** Constructs a new instance that returns the minimum value encountered in the field name "min". */
+  public DoubleMin()
+    {
+    super( new Fields( Min.FIELD_NAME ) );
+    }
+
+  /**
+   * Constructs a new instance that returns the minimum value encountered in the given fieldDeclaration field name.
+   *
+   * @param fieldDeclaration of type Fields
+   */
+  public DoubleMin( Fields fieldDeclaration )
+    {
+    super( fieldDeclaration );
+    }
+
+  protected boolean compare( double lhs, double rhs )
+    {
+    return lhs > rhs;
+    }
+
+  protected double getInitialValue()
+    {
+    return Double.POSITIVE_INFINITY;
+    }
+  }
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2007-2009 Concurrent, Inc. All Rights Reserved.
+ *
+ * Project and contact information: http://www.cascading.org/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Cascading is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Cascading is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cascading.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package cascading.operation.aggregator;
+
+import cascading.flow.FlowProcess;
+import cascading.operation.Aggregator;
+import cascading.operation.AggregatorCall;
+import cascading.operation.BaseOperation;
+import cascading.operation.PartialAggregator;
+import cascading.tuple.Fields;
+import cascading.tuple.Tuple;
+
+/**
+ * Class DoubleSum is an {@link Aggregator} that returns the sum of all numeric values in the current group as a double.
+ * <p/>
+ * Unlike {@link Sum}, the running sum is held as a primitive double, so no values are boxed per argument. Null
+ * values are treated as zero.
+ */
+public class DoubleSum extends BaseOperation<double[]> implements PartialAggregator<double[]>
+  {
+  /** Constructor DoubleSum creates a new DoubleSum instance that accepts one argument and returns a single field named "sum". */
+  public DoubleSum()
+    {
+    super( 1, new Fields( Sum.FIELD_NAME ) );
+    }
+
+  /**
+   * Constructs a new instance that returns the fields declared in fieldDeclaration and accepts
+   * only 1 argument.
+   *
+   * @param fieldDeclaration of type Fields
+   */
+  public DoubleSum( Fields fieldDeclaration )
+    {
+    super( 1, fieldDeclaration );
+
+    if( !fieldDeclaration.isSubstitution() && fieldDeclaration.size() != 1 )
+      throw new IllegalArgumentException( "fieldDeclaration may only declare 1 field, got: " + fieldDeclaration.size() );
+    }
+
+  public void start( FlowProcess flowProcess, AggregatorCall<double[]> aggregatorCall )
+    {
+    if( aggregatorCall.getContext() == null )
+      aggregatorCall.setContext( new double[1] );
+    else
+      aggregatorCall.getContext()[ 0 ] = 0;
+    }
+
+  public void aggregate( FlowProcess flowProcess, AggregatorCall<double[]> aggregatorCall )
+    {
+    aggregatorCall.getContext()[ 0 ] += aggregatorCall.getArguments().getTuple().getDouble( 0 );
+    }
+
+  public Tuple getPartial( FlowProcess flowProcess, AggregatorCall<double[]> aggregatorCall )
+    {
+    return new Tuple( aggregatorCall.getContext()[ 0 ] );
+    }
+
+  public void merge( FlowProcess flowProcess, AggregatorCall<double[]> aggregatorCall )
+    {
+    aggregate( flowProcess, aggregatorCall );
+    }
+
+  public void complete( FlowProcess flowProcess, AggregatorCall<double[]> aggregatorCall )
+    {
+    aggregatorCall.getOutputCollector().add( new Tuple( aggregatorCall.getContext()[ 0 ] ) );
+    }
+  }
@@ -26,18 +26,17 @@ import java.util.Collections;
 import java.util.HashSet;
 
 import cascading.flow.FlowProcess;
-import cascading.operation.Aggregator;
 import cascading.operation.AggregatorCall;
 import cascading.operation.BaseOperation;
+import cascading.operation.PartialAggregator;
 import cascading.tuple.Fields;
 import cascading.tuple.Tuple;
-import cascading.tuple.TupleEntry;
 
 /**
  * Class ExtremaBase is the base class for Max and Min. The unique thing about Max and Min are that they return the original,
  * un-coerced, argument value, though a coerced version of the argument is used for the comparison.
  */
-public abstract class ExtremaBase extends BaseOperation<ExtremaBase.Context> implements Aggregator<ExtremaBase.Context>
+public abstract class ExtremaBase extends BaseOperation<ExtremaBase.Context> implements PartialAggregator<ExtremaBase.Context>
   {
   /** Field ignoreValues */
   protected final Collection ignoreValues;
@@ -95,10 +94,10 @@ public abstract class ExtremaBase extends BaseOperation<ExtremaBase.Context> imp
 
   public void aggregate( FlowProcess flowProcess, AggregatorCall<Context> aggregatorCall )
     {
-    TupleEntry entry = aggregatorCall.getArguments();
+    Tuple arguments = aggregatorCall.getArguments().getTuple();
     Context context = aggregatorCall.getContext();
 
-    Comparable arg = entry.get( 0 );
+    Comparable arg = arguments.get( 0 );
 
     if( ignoreValues != null && ignoreValues.contains( arg ) )
       return;
@@ -108,7 +107,7 @@ public abstract class ExtremaBase extends BaseOperation<ExtremaBase.Context> imp
     if( arg instanceof Number )
       rhs = (Number) arg;
     else
-      rhs = entry.getDouble( 0 );
+      rhs = arguments.getDouble( 0 );
 
     Number lhs = context.extrema;
 
@@ -121,6 +120,20 @@ public abstract class ExtremaBase extends BaseOperation<ExtremaBase.Context> imp
 
   protected abstract boolean compare( Number lhs, Number rhs );
 
+  public Tuple getPartial( FlowProcess flowProcess, AggregatorCall<Context> aggregatorCall )
+    {
+    return new Tuple( (Comparable) aggregatorCall.getContext().value );
+    }
+
+  public void merge( FlowProcess flowProcess, AggregatorCall<Context> aggregatorCall )
+    {
+    // a null partial means all values were ignored, or none were seen
+    if( aggregatorCall.getArguments().get( 0 ) == null )
+      return;
+
+    aggregate( flowProcess, aggregatorCall );
+    }
+
   public void complete( FlowProcess flowProcess, AggregatorCall<Context> aggregatorCall )
     {
     aggregatorCall.getOutputCollector().add( getResult( aggregatorCall ) );
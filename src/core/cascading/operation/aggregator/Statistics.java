@@ -0,0 +1,207 @@
+/*
+ * Copyright (c) 2007-2009 Concurrent, Inc. All Rights Reserved.
+ *
+ * Project and contact information: http://www.cascading.org/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Cascading is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Cascading is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cascading.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package cascading.operation.aggregator;
+
+import java.util.Arrays;
+
+import cascading.flow.FlowProcess;
+import cascading.operation.Aggregator;
+import cascading.operation.AggregatorCall;
+import cascading.operation.BaseOperation;
+import cascading.operation.PartialAggregator;
+import cascading.tuple.Fields;
+import cascading.tuple.Tuple;
+
+/**
+ * Class Statistics is an {@link Aggregator} that computes any of the count, sum, minimum, maximum, and average of all
+ * numeric values in the current group in a single pass.
+ * <p/>
+ * Using one Statistics instance in place of chained {@link Count}, {@link Sum}, {@link Min}, {@link Max}, and
+ * {@link Average} {@link cascading.pipe.Every} pipes over the same argument selects and converts each value once
+ * instead of once per Every. Count is returned as a long, all other values as doubles. Null values are treated as zero.
+ */
+public class Statistics extends BaseOperation<Statistics.Context> implements PartialAggregator<Statistics.Context>
+  {
+  /** Enum Statistic lists the values Statistics may compute. */
+  public enum Statistic
+    {
+      COUNT( Count.FIELD_NAME ), SUM( Sum.FIELD_NAME ), MIN( Min.FIELD_NAME ), MAX( Max.FIELD_NAME ), AVERAGE( Average.FIELD_NAME );
+
+    /** Field fieldName, the default field name of this statistic */
+    private final String fieldName;
+
+    Statistic( String fieldName )
+      {
+      this.fieldName = fieldName;
+      }
+
+    public String getFieldName()
+      {
+      return fieldName;
+      }
+    }
+
+  /** Field statistics */
+  private final Statistic[] statistics;
+
+  /** Class Context is used to hold intermediate values. */
+  protected static class Context
+    {
+    long count = 0L;
+    double sum = 0.0D;
+    double min = Double.POSITIVE_INFINITY;
+    double max = Double.NEGATIVE_INFINITY;
+
+    public Context reset()
+      {
+      count = 0L;
+      sum = 0.0D;
+      min = Double.POSITIVE_INFINITY;
+      max = Double.NEGATIVE_INFINITY;
+
+      return this;
+      }
+    }
+
+  /** Constructs a new instance that returns all statistics in the fields "count", "sum", "min", "max", and "average". */
+  public Statistics()
+    {
+    this( Statistic.values() );
+    }
+
+  /**
+   * Constructs a new instance that returns the given statistics, in the given order, each in a field named after its
+   * default name, see {@link Statistic#getFieldName()}.
+   *
+   * @param statistics of type Statistic...
+   */
+  public Statistics( Statistic... statistics )
+    {
+    this( getFieldDeclaration( statistics ), statistics );
+    }
+
+  /**
+   * Constructs a new instance that returns the given statistics, in the given order, in the fields declared in
+   * fieldDeclaration.
+   *
+   * @param fieldDeclaration of type Fields
+   * @param statistics       of type Statistic...
+   */
+  public Statistics( Fields fieldDeclaration, Statistic... statistics )
+    {
+    super( 1, fieldDeclaration );
+
+    if( statistics.length == 0 )
+      throw new IllegalArgumentException( "at least one statistic must be given" );
+
+    if( !fieldDeclaration.isSubstitution() && fieldDeclaration.size() != statistics.length )
+      throw new IllegalArgumentException( "fieldDeclaration must declare " + statistics.length + " fields, got: " + fieldDeclaration.size() );
+
+    this.statistics = Arrays.copyOf( statistics, statistics.length );
+    }
+
+  private static Fields getFieldDeclaration( Statistic[] statistics )
+    {
+    Comparable[] names = new Comparable[statistics.length];
+
+    for( int i = 0; i < statistics.length; i++ )
+      names[ i ] = statistics[ i ].getFieldName();
+
+    return new Fields( names );
+    }
+
+  public void start( FlowProcess flowProcess, AggregatorCall<Context> aggregatorCall )
+    {
+    if( aggregatorCall.getContext() != null )
+      aggregatorCall.getContext().reset();
+    else
+      aggregatorCall.setContext( new Context() );
+    }
+
+  public void aggregate( FlowProcess flowProcess, AggregatorCall<Context> aggregatorCall )
+    {
+    Context context = aggregatorCall.getContext();
+    double value = aggregatorCall.getArguments().getTuple().getDouble( 0 );
+
+    context.count += 1L;
+    context.sum += value;
+
+    if( value < context.min )
+      context.min = value;
+
+    if( value > context.max )
+      context.max = value;
+    }
+
+  public Tuple getPartial( FlowProcess flowProcess, AggregatorCall<Context> aggregatorCall )
+    {
+    Context context = aggregatorCall.getContext();
+
+    return new Tuple( context.count, context.sum, context.min, context.max );
+    }
+
+  public void merge( FlowProcess flowProcess, AggregatorCall<Context> aggregatorCall )
+    {
+    Context context = aggregatorCall.getContext();
+    Tuple partial = aggregatorCall.getArguments().getTuple();
+
+    context.count += partial.getLong( 0 );
+    context.sum += partial.getDouble( 1 );
+    context.min = Math.min( context.min, partial.getDouble( 2 ) );
+    context.max = Math.max( context.max, partial.getDouble( 3 ) );
+    }
+
+  public void complete( FlowProcess flowProcess, AggregatorCall<Context> aggregatorCall )
+    {
+    aggregatorCall.getOutputCollector().add( getResult( aggregatorCall ) );
+    }
+
+  private Tuple getResult( AggregatorCall<Context> aggregatorCall )
+    {
+    Context context = aggregatorCall.getContext();
+    Tuple result = new Tuple();
+
+    for( Statistic statistic : statistics )
+      {
+      switch( statistic )
+        {
+        case COUNT:
+          result.add( context.count );
+          break;
+        case SUM:
+          result.add( context.sum );
+          break;
+        case MIN:
+          result.add( context.min );
+          break;
+        case MAX:
+          result.add( context.max );
+          break;
+        case AVERAGE:
+          result.add( context.sum / context.count );
+          break;
+        }
+      }
+
+    return result;
+    }
+  }
@@ -25,12 +25,13 @@ import cascading.flow.FlowProcess;
 import cascading.operation.Aggregator;
 import cascading.operation.AggregatorCall;
 import cascading.operation.BaseOperation;
+import cascading.operation.PartialAggregator;
 import cascading.tuple.Fields;
 import cascading.tuple.Tuple;
 import cascading.tuple.Tuples;
 
 /** Class Sum is an {@link Aggregator} that returns the sum of all numeric values in the current group. */
-public class Sum extends BaseOperation<Double[]> implements Aggregator<Double[]>
+public class Sum extends BaseOperation<Double[]> implements PartialAggregator<Double[]>
   {
   /** Field FIELD_NAME */
   public static final String FIELD_NAME = "sum";
@@ -80,6 +81,16 @@ public class Sum extends BaseOperation<Double[]> implements Aggregator<Double[]>
     }
 
   public void aggregate( FlowProcess flowProcess, AggregatorCall<Double[]> aggregatorCall )
+    {
+    aggregatorCall.getContext()[ 0 ] += aggregatorCall.getArguments().getTuple().getDouble( 0 );
+    }
+
+  public Tuple getPartial( FlowProcess flowProcess, AggregatorCall<Double[]> aggregatorCall )
+    {
+    return new Tuple( (Comparable) aggregatorCall.getContext()[ 0 ] );
+    }
+
+  public void merge( FlowProcess flowProcess, AggregatorCall<Double[]> aggregatorCall )
     {
     aggregatorCall.getContext()[ 0 ] += aggregatorCall.getArguments().getDouble( 0 );
     }
@@ -24,6 +24,7 @@ package cascading.operation.expression;
 import cascading.flow.FlowProcess;
 import cascading.operation.Filter;
 import cascading.operation.FilterCall;
+import cascading.operation.PushableFilter;
 import cascading.tuple.Tuple;
 import cascading.tuple.Fields;
 import org.codehaus.janino.ExpressionEvaluator;
@@ -44,7 +45,7 @@ import org.codehaus.janino.ExpressionEvaluator;
  * Further, the types of the tuple elements will be coerced into the given parameterTypes. Regardless of the actual
  * tuple element values, they will be converted to the types expected by the expression.
  */
-public class ExpressionFilter extends ExpressionOperation implements Filter<ExpressionOperation.Context>
+public class ExpressionFilter extends ExpressionOperation implements PushableFilter<ExpressionOperation.Context>
   {
   /**
    * Constructor ExpressionFilter creates a new ExpressionFilter instance.
@@ -74,4 +75,10 @@ public class ExpressionFilter extends ExpressionOperation implements Filter<Expr
     {
     return (Boolean) evaluate( filterCall.getContext(), filterCall.getArguments() );
     }
+
+  /** @see PushableFilter#isPushable() */
+  public boolean isPushable()
+    {
+    return true;
+    }
   }
\ No newline at end of file
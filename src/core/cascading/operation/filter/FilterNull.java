@@ -23,8 +23,8 @@ package cascading.operation.filter;
 
 import cascading.flow.FlowProcess;
 import cascading.operation.BaseOperation;
-import cascading.operation.Filter;
 import cascading.operation.FilterCall;
+import cascading.operation.PushableFilter;
 
 /**
  * Class FilterNull verifies that every value in the argument values {@link cascading.tuple.Tuple}
@@ -32,7 +32,7 @@ import cascading.operation.FilterCall;
  *
  * @see FilterNotNull
  */
-public class FilterNull extends BaseOperation implements Filter
+public class FilterNull extends BaseOperation implements PushableFilter
   {
   public boolean isRemove( FlowProcess flowProcess, FilterCall filterCall )
     {
@@ -44,4 +44,10 @@ public class FilterNull extends BaseOperation implements Filter
 
     return false;
     }
+
+  /** @see PushableFilter#isPushable() */
+  public boolean isPushable()
+    {
+    return true;
+    }
   }
\ No newline at end of file
@@ -29,6 +29,7 @@ import cascading.flow.FlowProcess;
 import cascading.operation.BaseOperation;
 import cascading.operation.Filter;
 import cascading.operation.OperationCall;
+import cascading.operation.PushableFilter;
 import cascading.tuple.Fields;
 import cascading.tuple.TupleEntry;
 
@@ -39,7 +40,7 @@ import cascading.tuple.TupleEntry;
  * @see Or
  * @see Xor
  */
-public abstract class Logic extends BaseOperation implements Filter
+public abstract class Logic extends BaseOperation implements PushableFilter
   {
   /** Field fields */
   protected final Fields[] argumentSelectors;
@@ -141,6 +142,18 @@ public abstract class Logic extends BaseOperation implements Filter
       }
     }
 
+  /** @see PushableFilter#isPushable() */
+  public boolean isPushable()
+    {
+    for( Filter filter : filters )
+      {
+      if( !( filter instanceof PushableFilter ) || !( (PushableFilter) filter ).isPushable() )
+        return false;
+      }
+
+    return true;
+    }
+
   protected int getFieldsSize()
     {
     Set<Comparable> pos = new HashSet<Comparable>();
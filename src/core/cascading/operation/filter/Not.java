@@ -26,6 +26,7 @@ import cascading.operation.BaseOperation;
 import cascading.operation.Filter;
 import cascading.operation.FilterCall;
 import cascading.operation.OperationCall;
+import cascading.operation.PushableFilter;
 
 /**
  * Class Not is a {@link Filter} class that will logically 'not' (negation) the results of the constructor provided Filter
@@ -38,7 +39,7 @@ import cascading.operation.OperationCall;
  * @see Xor
  * @see Not
  */
-public class Not extends BaseOperation implements Filter
+public class Not extends BaseOperation implements PushableFilter
   {
   /** Field filter */
   private final Filter filter;
@@ -73,4 +74,10 @@ public class Not extends BaseOperation implements Filter
     {
     return !filter.isRemove( flowProcess, filterCall );
     }
+
+  /** @see PushableFilter#isPushable() */
+  public boolean isPushable()
+    {
+    return filter instanceof PushableFilter && ( (PushableFilter) filter ).isPushable();
+    }
   }
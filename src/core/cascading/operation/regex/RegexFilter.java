@@ -26,6 +26,7 @@ import java.util.regex.Matcher;
 import cascading.flow.FlowProcess;
 import cascading.operation.Filter;
 import cascading.operation.FilterCall;
+import cascading.operation.PushableFilter;
 
 /**
  * Class RegexFilter will apply the regex patternString against every input Tuple value and filter
@@ -42,7 +43,7 @@ import cascading.operation.FilterCall;
  * @see java.util.regex.Matcher
  * @see java.util.regex.Pattern
  */
-public class RegexFilter extends RegexMatcher implements Filter<Matcher>
+public class RegexFilter extends RegexMatcher implements PushableFilter<Matcher>
   {
   /** Field matchEachElement */
   protected final boolean matchEachElement;
@@ -91,4 +92,9 @@ public class RegexFilter extends RegexMatcher implements Filter<Matcher>
       return matchWholeTuple( filterCall.getContext(), filterCall.getArguments().getTuple() );
     }
 
+  /** @see PushableFilter#isPushable() */
+  public boolean isPushable()
+    {
+    return true;
+    }
   }
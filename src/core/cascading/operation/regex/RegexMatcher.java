@@ -92,7 +92,10 @@ public class RegexMatcher extends RegexOperation<Matcher>
    */
   protected boolean matchWholeTuple( Matcher matcher, Tuple input )
     {
-    matcher.reset( input.toString( "\t" ) );
+    if( input.size() == 1 && input.get( 0 ) instanceof CharSequence )
+      matcher.reset( (CharSequence) input.get( 0 ) ); // avoids a copy, or decoding a LazyText
+    else
+      matcher.reset( input.toString( "\t" ) );
 
     boolean matchFound = matcher.find();
 
@@ -118,10 +121,7 @@ public class RegexMatcher extends RegexOperation<Matcher>
     int pos = 0;
     for( Object value : input )
       {
-      if( value == null )
-        value = "";
-
-      matcher.reset( value.toString() );
+      matcher.reset( getCharSequence( value ) );
 
       boolean matchFound = matcher.find();
 
@@ -106,6 +106,24 @@ public class RegexOperation<C> extends BaseOperation<C>
     this.patternString = patternString;
     }
 
+  /**
+   * Method getCharSequence returns the given value as a CharSequence, or an empty String if null. String and
+   * {@link cascading.tuple.LazyText} values are returned as is, so they may be matched without a copy.
+   *
+   * @param value of type Object
+   * @return CharSequence
+   */
+  protected static CharSequence getCharSequence( Object value )
+    {
+    if( value == null )
+      return "";
+
+    if( value instanceof CharSequence )
+      return (CharSequence) value;
+
+    return value.toString();
+    }
+
   /**
    * Method getPattern returns the pattern of this RegexOperation object.
    *
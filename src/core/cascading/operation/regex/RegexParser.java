@@ -117,10 +117,7 @@ public class RegexParser extends RegexOperation<Matcher> implements Function<Mat
   /** @see Function#operate(cascading.flow.FlowProcess,cascading.operation.FunctionCall) */
   public void operate( FlowProcess flowProcess, FunctionCall<Matcher> functionCall )
     {
-    String value = functionCall.getArguments().getString( 0 );
-
-    if( value == null )
-      value = "";
+    CharSequence value = getCharSequence( functionCall.getArguments().get( 0 ) );
 
     Matcher matcher = functionCall.getContext().reset( value );
 
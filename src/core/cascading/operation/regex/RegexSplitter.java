@@ -64,10 +64,7 @@ public class RegexSplitter extends RegexOperation implements Function
   /** @see Function#operate(cascading.flow.FlowProcess,cascading.operation.FunctionCall) */
   public void operate( FlowProcess flowProcess, FunctionCall functionCall )
     {
-    String value = functionCall.getArguments().getString( 0 );
-
-    if( value == null )
-      value = "";
+    CharSequence value = getCharSequence( functionCall.getArguments().get( 0 ) );
 
     Tuple output = new Tuple();
 
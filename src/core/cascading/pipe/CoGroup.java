@@ -24,6 +24,7 @@ package cascading.pipe;
 import cascading.pipe.cogroup.InnerJoin;
 import cascading.pipe.cogroup.Joiner;
 import cascading.tuple.Fields;
+import cascading.tuple.Tuple;
 
 /**
  * The CoGroup pipe allows for two or more tuple streams to join into a single stream.
@@ -42,6 +43,14 @@ import cascading.tuple.Fields;
  * at least the first groupingFields value given should be an instance of {@link cascading.tuple.Fields} containing
  * {@link java.util.Comparator} instances for the appropriate fields.
  * This allows fine grained control of the sort grouping order.
+ * <p/>
+ * If skewJoin is true, the values of heavy groupings on the first (left most) Pipe are spread over many reducers,
+ * and the matching values of all other Pipes are replicated to each of them. This prevents a few hot keys from
+ * keeping a single reducer busy while the rest idle. Heavy groupings may be given, or are found by sampling the
+ * input of the step before the job is submitted, see
+ * {@link cascading.flow.MultiMapReducePlanner#setTotalOrderSampleSize(java.util.Map, int)}. The first Pipe should
+ * be the larger, and must be inner joined, so only the {@link InnerJoin}, {@link cascading.pipe.cogroup.LeftJoin},
+ * and {@link cascading.pipe.cogroup.MixedJoin} joiners are supported.
  *
  * @see cascading.pipe.cogroup.InnerJoin
  * @see cascading.pipe.cogroup.OuterJoin
@@ -212,6 +221,84 @@ public class CoGroup extends Group
     super( groupName, lhs, lhsGroupFields, rhs, rhsGroupFields, declaredFields, joiner );
     }
 
+  /**
+   * Constructor CoGroup creates a new CoGroup instance. If skewJoin is true, the heavy groupings of the lhs
+   * are sampled and spread over many reducers.
+   *
+   * @param groupName      of type String
+   * @param lhs            of type Pipe
+   * @param lhsGroupFields of type Fields
+   * @param rhs            of type Pipe
+   * @param rhsGroupFields of type Fields
+   * @param declaredFields of type Fields
+   * @param joiner         of type CoGrouper
+   * @param skewJoin       of type boolean
+   */
+  public CoGroup( String groupName, Pipe lhs, Fields lhsGroupFields, Pipe rhs, Fields rhsGroupFields, Fields declaredFields, Joiner joiner, boolean skewJoin )
+    {
+    super( groupName, lhs, lhsGroupFields, rhs, rhsGroupFields, declaredFields, joiner );
+    this.skewJoin = skewJoin;
+    verifySkewJoin();
+    }
+
+  /**
+   * Constructor CoGroup creates a new CoGroup instance that spreads the given heavy groupings of the lhs over
+   * many reducers.
+   *
+   * @param groupName       of type String
+   * @param lhs             of type Pipe
+   * @param lhsGroupFields  of type Fields
+   * @param rhs             of type Pipe
+   * @param rhsGroupFields  of type Fields
+   * @param declaredFields  of type Fields
+   * @param joiner          of type CoGrouper
+   * @param skewedGroupings of type Tuple[]
+   */
+  public CoGroup( String groupName, Pipe lhs, Fields lhsGroupFields, Pipe rhs, Fields rhsGroupFields, Fields declaredFields, Joiner joiner, Tuple[] skewedGroupings )
+    {
+    super( groupName, lhs, lhsGroupFields, rhs, rhsGroupFields, declaredFields, joiner );
+    this.skewJoin = true;
+    this.skewedGroupings = skewedGroupings;
+    verifySkewJoin();
+    }
+
+  /**
+   * Constructor CoGroup creates a new CoGroup instance. If skewJoin is true, the heavy groupings of the first pipe
+   * are sampled and spread over many reducers.
+   *
+   * @param groupName      of type String
+   * @param pipes          of type Pipe[]
+   * @param groupFields    of type Fields[]
+   * @param declaredFields of type Fields
+   * @param joiner         of type CoGrouper
+   * @param skewJoin       of type boolean
+   */
+  public CoGroup( String groupName, Pipe[] pipes, Fields[] groupFields, Fields declaredFields, Joiner joiner, boolean skewJoin )
+    {
+    super( groupName, pipes, groupFields, declaredFields, joiner );
+    this.skewJoin = skewJoin;
+    verifySkewJoin();
+    }
+
+  /**
+   * Constructor CoGroup creates a new CoGroup instance that spreads the given heavy groupings of the first pipe over
+   * many reducers.
+   *
+   * @param groupName       of type String
+   * @param pipes           of type Pipe[]
+   * @param groupFields     of type Fields[]
+   * @param declaredFields  of type Fields
+   * @param joiner          of type CoGrouper
+   * @param skewedGroupings of type Tuple[]
+   */
+  public CoGroup( String groupName, Pipe[] pipes, Fields[] groupFields, Fields declaredFields, Joiner joiner, Tuple[] skewedGroupings )
+    {
+    super( groupName, pipes, groupFields, declaredFields, joiner );
+    this.skewJoin = true;
+    this.skewedGroupings = skewedGroupings;
+    verifySkewJoin();
+    }
+
   /**
    * Constructor CoGroup creates a new CoGroup instance.
    *
@@ -423,12 +423,35 @@ public class Each extends Operator
       return new EachAssertionHandler( flowCollector, scope );
     }
 
+  /**
+   * Method getHandler returns a new EachHandler. If reuseTuples is true, the handler will recycle its argument and
+   * result {@link Tuple} instances, so the given flowCollector must not retain the Tuples collected.
+   *
+   * @param flowCollector of type FlowCollector
+   * @param scope         of type Scope
+   * @param reuseTuples   of type boolean
+   * @return EachHandler
+   */
+  public EachHandler getHandler( FlowCollector flowCollector, Scope scope, boolean reuseTuples )
+    {
+    EachHandler handler = getHandler( flowCollector, scope );
+
+    if( reuseTuples )
+      handler.reuseTuples();
+
+    return handler;
+    }
+
   /** Class EachHandler is a helper class that wraps Each instances. */
   public abstract class EachHandler
     {
     FlowCollector flowCollector;
     final Scope scope;
     protected ConcreteCall operationCall;
+    /** Field argumentsTuple, recycled for every input if not null */
+    Tuple argumentsTuple;
+    /** Field resultTuple, recycled for every output if not null */
+    Tuple resultTuple;
 
     protected EachHandler( FlowCollector flowCollector, Scope scope )
       {
@@ -437,6 +460,12 @@ public class Each extends Operator
       operationCall = new ConcreteCall();
       }
 
+    private void reuseTuples()
+      {
+      argumentsTuple = new Tuple();
+      resultTuple = new Tuple();
+      }
+
     public void operate( FlowProcess flowProcess, TupleEntry input )
       {
       try
@@ -444,7 +473,12 @@ public class Each extends Operator
         if( LOG.isDebugEnabled() )
           LOG.debug( operation + " incoming entry: " + input );
 
-        TupleEntry arguments = scope.getArgumentsEntry( input );
+        TupleEntry arguments;
+
+        if( argumentsTuple == null )
+          arguments = scope.getArgumentsEntry( input );
+        else
+          arguments = scope.getArgumentsEntry( input, argumentsTuple );
 
         if( LOG.isDebugEnabled() )
           LOG.debug( operation + " arg entry: " + arguments );
@@ -503,7 +537,7 @@ public class Each extends Operator
       {
       protected void collect( Tuple tuple )
         {
-        flowCollector.collect( makeResult( scope.getOutValuesSelector(), input, scope.getRemainderFields(), scope.getDeclaredEntry(), tuple ) );
+        flowCollector.collect( makeResult( scope.getOutValuesTupleSelector(), input, scope.getRemainderTupleSelector(), scope.getDeclaredEntry(), tuple, resultTuple ) );
         }
       };
 
@@ -33,6 +33,7 @@ import cascading.operation.AssertionLevel;
 import cascading.operation.Buffer;
 import cascading.operation.ConcreteCall;
 import cascading.operation.GroupAssertion;
+import cascading.operation.PartialAggregator;
 import cascading.tuple.Fields;
 import cascading.tuple.Tuple;
 import cascading.tuple.TupleEntry;
@@ -201,11 +202,26 @@ public class Every extends Operator
     return operation instanceof Aggregator;
     }
 
+  /**
+   * Method isPartialAggregator returns true if this Every instance holds a {@link PartialAggregator} operation.
+   *
+   * @return boolean
+   */
+  public boolean isPartialAggregator()
+    {
+    return operation instanceof PartialAggregator;
+    }
+
   private Aggregator getAggregator()
     {
     return (Aggregator) operation;
     }
 
+  private PartialAggregator getPartialAggregator()
+    {
+    return (PartialAggregator) operation;
+    }
+
   private Buffer getReducer()
     {
     return (Buffer) operation;
@@ -379,7 +395,7 @@ public class Every extends Operator
       {
       protected void collect( Tuple tuple )
         {
-        outputCollector.collect( makeResult( outgoingScope.getOutGroupingSelector(), value, outgoingScope.getRemainderFields(), outgoingScope.getDeclaredEntry(), tuple ) );
+        outputCollector.collect( makeResult( outgoingScope.getOutGroupingTupleSelector(), value, outgoingScope.getRemainderTupleSelector(), outgoingScope.getDeclaredEntry(), tuple, null ) );
         }
       };
       }
@@ -444,6 +460,74 @@ public class Every extends Operator
         throw new OperatorException( Every.this, "operator Every failed completing aggregator", exception );
         }
       }
+
+    /**
+     * Method startPartial starts a new map side partial aggregation and returns the context to be handed to
+     * subsequent {@link #operatePartial} and {@link #completePartial} calls for the given grouping.
+     *
+     * @param flowProcess of type FlowProcess
+     * @param groupEntry  of type TupleEntry
+     * @return Object
+     */
+    public Object startPartial( FlowProcess flowProcess, TupleEntry groupEntry )
+      {
+      operationCall.setContext( null ); // every grouping needs its own context
+
+      start( flowProcess, groupEntry );
+
+      return operationCall.getContext();
+      }
+
+    public void operatePartial( FlowProcess flowProcess, Object context, TupleEntry inputEntry )
+      {
+      operationCall.setContext( context );
+
+      operate( flowProcess, null, inputEntry, null );
+      }
+
+    public Tuple completePartial( FlowProcess flowProcess, Object context )
+      {
+      operationCall.setContext( context );
+      operationCall.setArguments( null );
+
+      try
+        {
+        return getPartialAggregator().getPartial( flowProcess, operationCall );
+        }
+      catch( CascadingException exception )
+        {
+        throw exception;
+        }
+      catch( Exception exception )
+        {
+        throw new OperatorException( Every.this, "operator Every failed completing partial aggregator", exception );
+        }
+      }
+
+    /**
+     * Method merge hands a partial Tuple, created map side by {@link #completePartial}, to the underlying
+     * {@link PartialAggregator}.
+     *
+     * @param flowProcess  of type FlowProcess
+     * @param partialEntry of type TupleEntry
+     */
+    public void merge( FlowProcess flowProcess, TupleEntry partialEntry )
+      {
+      try
+        {
+        operationCall.setArguments( partialEntry );
+
+        getPartialAggregator().merge( flowProcess, operationCall );
+        }
+      catch( CascadingException exception )
+        {
+        throw exception;
+        }
+      catch( Throwable throwable )
+        {
+        throw new OperatorException( Every.this, "operator Every failed merging partial aggregator: " + operation, throwable );
+        }
+      }
     }
 
   public class EveryBufferHandler extends EveryHandler
@@ -468,7 +552,7 @@ public class Every extends Operator
       {
       protected void collect( Tuple tuple )
         {
-        outputCollector.collect( makeResult( outgoingScope.getOutGroupingSelector(), value, outgoingScope.getRemainderFields(), outgoingScope.getDeclaredEntry(), tuple ) );
+        outputCollector.collect( makeResult( outgoingScope.getOutGroupingTupleSelector(), value, outgoingScope.getRemainderTupleSelector(), outgoingScope.getDeclaredEntry(), tuple, null ) );
         }
       };
       }
@@ -23,6 +23,7 @@ package cascading.pipe;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
@@ -36,6 +37,9 @@ import cascading.pipe.cogroup.CoGroupClosure;
 import cascading.pipe.cogroup.GroupClosure;
 import cascading.pipe.cogroup.InnerJoin;
 import cascading.pipe.cogroup.Joiner;
+import cascading.pipe.cogroup.LeftJoin;
+import cascading.pipe.cogroup.MixedJoin;
+import cascading.pipe.cogroup.RightJoin;
 import cascading.tuple.Fields;
 import cascading.tuple.FieldsResolverException;
 import cascading.tuple.IndexTuple;
@@ -43,7 +47,7 @@ import cascading.tuple.Tuple;
 import cascading.tuple.TupleEntry;
 import cascading.tuple.TupleException;
 import cascading.tuple.TuplePair;
-import cascading.tuple.Tuples;
+import cascading.tuple.TupleSelector;
 import cascading.util.Util;
 import org.apache.hadoop.mapred.OutputCollector;
 import org.apache.log4j.Logger;
@@ -67,6 +71,12 @@ public class Group extends Pipe
   protected Map<String, Fields> sortFieldsMap = new LinkedHashMap<String, Fields>(); // keep order
   /** Field reverseOrder */
   private boolean reverseOrder = false;
+  /** Field totalOrder */
+  protected boolean totalOrder = false;
+  /** Field skewJoin */
+  protected boolean skewJoin = false;
+  /** Field skewedGroupings, if null the heavy groupings are sampled */
+  protected Tuple[] skewedGroupings;
   /** Field declaredFields */
   protected Fields declaredFields;
   /** Field repeat */
@@ -80,6 +90,8 @@ public class Group extends Pipe
 
   /** Field pipePos */
   private transient Map<String, Integer> pipePos;
+  /** Field nextSalt */
+  private transient int nextSalt = 0;
   private GroupClosure closure;
 
   /**
@@ -626,6 +638,28 @@ public class Group extends Pipe
       throw new IllegalArgumentException( "invalid cogrouper, only accepts " + joiner.numJoins() + " joins, there are: " + joins );
     }
 
+  /**
+   * Method verifySkewJoin verifies a skew join may be performed. Since the values of a heavy grouping on the first
+   * pipe are spread over many reducers, the first pipe must be inner joined, otherwise the values of the other
+   * pipes would be joined once per reducer.
+   */
+  protected void verifySkewJoin()
+    {
+    if( !skewJoin )
+      return;
+
+    if( isSelfJoin() )
+      throw new IllegalArgumentException( "skew joins are not supported on self joins" );
+
+    if( joiner instanceof InnerJoin || joiner instanceof LeftJoin )
+      return;
+
+    if( joiner instanceof MixedJoin && ( (MixedJoin) joiner ).isInner( 0 ) )
+      return;
+
+    throw new IllegalArgumentException( "skew joins require the first pipe to be inner joined, found joiner: " + joiner.getClass().getName() );
+    }
+
   /**
    * Method getDeclaredFields returns the declaredFields of this Group object.
    *
@@ -724,6 +758,36 @@ public class Group extends Pipe
     return reverseOrder;
     }
 
+  /**
+   * Method isTotalOrder returns true if groupings should be ordered across all reducers, not only within each.
+   *
+   * @return the totalOrder (type boolean) of this Group object.
+   */
+  public boolean isTotalOrder()
+    {
+    return totalOrder;
+    }
+
+  /**
+   * Method isSkewJoin returns true if the heavy groupings of the first pipe should be spread over many reducers.
+   *
+   * @return the skewJoin (type boolean) of this Group object.
+   */
+  public boolean isSkewJoin()
+    {
+    return skewJoin;
+    }
+
+  /**
+   * Method getSkewedGroupings returns the heavy groupings given by the user, or null if they should be sampled.
+   *
+   * @return the skewedGroupings (type Tuple[]) of this Group object.
+   */
+  public Tuple[] getSkewedGroupings()
+    {
+    return skewedGroupings;
+    }
+
   private Map<String, Integer> getPipePos()
     {
     if( pipePos != null )
@@ -752,15 +816,28 @@ public class Group extends Pipe
    */
   public void collectReduceGrouping( Scope incomingScope, Scope outgoingScope, TupleEntry entry, OutputCollector output ) throws IOException
     {
-    Fields groupFields = outgoingScope.getGroupingSelectors().get( incomingScope.getName() );
-    Fields sortFields = outgoingScope.getSortingSelectors() == null ? null : outgoingScope.getSortingSelectors().get( incomingScope.getName() );
+    collectReduceGrouping( incomingScope, getGroupingTupleSelector( incomingScope, outgoingScope ), getSortingTupleSelector( incomingScope, outgoingScope ), entry, output );
+    }
 
+  /**
+   * Method collectReduceGrouping makes a group Tuple[] as {@link #collectReduceGrouping(Scope, Scope, TupleEntry, OutputCollector)}
+   * but using the given compiled selectors, so the grouping and sorting positions are only resolved once per task.
+   *
+   * @param incomingScope of type Scope
+   * @param groupSelector of type TupleSelector
+   * @param sortSelector  of type TupleSelector, may be null
+   * @param entry         of type TupleEntry
+   * @param output        of type OutputCollector
+   * @throws IOException thrown by OutputCollector on collect
+   */
+  public void collectReduceGrouping( Scope incomingScope, TupleSelector groupSelector, TupleSelector sortSelector, TupleEntry entry, OutputCollector output ) throws IOException
+    {
     if( LOG.isDebugEnabled() )
-      LOG.debug( "cogroup: [" + incomingScope + "] key pos: [" + groupFields + "]" );
+      LOG.debug( "cogroup: [" + incomingScope + "] key pos: [" + groupSelector.getSelector() + "]" );
 
     // todo: would be nice to delegate this back to the GroupClosure
-    Tuple groupTuple = Tuples.extractTuple( entry, groupFields ); // we are nulling dupe values here to reduce bandwidth usage
-    Tuple sortTuple = sortFields == null ? null : entry.selectTuple( sortFields );
+    Tuple groupTuple = groupSelector.extract( entry ); // we are nulling dupe values here to reduce bandwidth usage
+    Tuple sortTuple = sortSelector == null ? null : sortSelector.select( entry );
     Tuple valuesTuple = entry.getTuple();
 
     Tuple groupKey = sortTuple == null ? groupTuple : new TuplePair( groupTuple, sortTuple );
@@ -772,14 +849,80 @@ public class Group extends Pipe
     }
 
   /**
-   * Method unwrapGrouping tests if the given grouping key Tuple should be unwrapped if this Group instance is sorting.
+   * Method collectReduceGrouping makes a salted group key for a skew join, see {@link #isSkewJoin()}.
+   * <p/>
+   * Heavy groupings of the first pipe are spread round-robin over their salts, and the matching values of all other
+   * pipes are replicated once per salt. All other groupings have the salt 0.
+   *
+   * @param incomingScope   of type Scope
+   * @param groupSelector   of type TupleSelector
+   * @param skewedGroupings of type Map<Tuple, Integer>, the number of salts of each heavy grouping
+   * @param entry           of type TupleEntry
+   * @param output          of type OutputCollector
+   * @throws IOException thrown by OutputCollector on collect
+   */
+  public void collectReduceGrouping( Scope incomingScope, TupleSelector groupSelector, Map<Tuple, Integer> skewedGroupings, TupleEntry entry, OutputCollector output ) throws IOException
+    {
+    Tuple groupTuple = groupSelector.extract( entry );
+    int pos = getPipePos().get( incomingScope.getName() );
+    IndexTuple valuesTuple = new IndexTuple( pos, entry.getTuple() );
+    Integer numSalts = skewedGroupings.isEmpty() ? null : skewedGroupings.get( groupTuple );
+
+    if( numSalts == null || numSalts < 2 )
+      {
+      output.collect( new TuplePair( groupTuple, new Tuple( 0 ) ), valuesTuple );
+      }
+    else if( pos == 0 )
+      {
+      output.collect( new TuplePair( groupTuple, new Tuple( nextSalt++ % numSalts ) ), valuesTuple );
+
+      if( nextSalt < 0 )
+        nextSalt = 0;
+      }
+    else
+      {
+      for( int salt = 0; salt < numSalts; salt++ )
+        output.collect( new TuplePair( groupTuple, new Tuple( salt ) ), valuesTuple );
+      }
+    }
+
+  /**
+   * Method getGroupingTupleSelector returns a compiled selector for the grouping fields of the given incoming scope.
+   *
+   * @param incomingScope of type Scope
+   * @param outgoingScope of type Scope
+   * @return TupleSelector
+   */
+  public TupleSelector getGroupingTupleSelector( Scope incomingScope, Scope outgoingScope )
+    {
+    return new TupleSelector( outgoingScope.getGroupingSelectors().get( incomingScope.getName() ) );
+    }
+
+  /**
+   * Method getSortingTupleSelector returns a compiled selector for the sorting fields of the given incoming scope,
+   * or null if the incoming scope is not sorted.
+   *
+   * @param incomingScope of type Scope
+   * @param outgoingScope of type Scope
+   * @return TupleSelector
+   */
+  public TupleSelector getSortingTupleSelector( Scope incomingScope, Scope outgoingScope )
+    {
+    Fields sortFields = outgoingScope.getSortingSelectors() == null ? null : outgoingScope.getSortingSelectors().get( incomingScope.getName() );
+
+    return sortFields == null ? null : new TupleSelector( sortFields );
+    }
+
+  /**
+   * Method unwrapGrouping tests if the given grouping key Tuple should be unwrapped if this Group instance is sorting,
+   * or salting its groupings for a skew join.
    *
    * @param tuple of type Tuple
    * @return Tuple
    */
   public Tuple unwrapGrouping( Tuple tuple )
     {
-    return !isSorted() ? (Tuple) tuple : ( (TuplePair) tuple ).getLhs();
+    return !isSorted() && !isSkewJoin() ? (Tuple) tuple : ( (TuplePair) tuple ).getLhs();
     }
 
   /**
@@ -797,6 +940,20 @@ public class Group extends Pipe
     }
 
   public void initializeReduce( FlowProcess flowProcess, Set<Scope> incomingScopes, Scope outgoingScope )
+    {
+    initializeReduce( flowProcess, incomingScopes, outgoingScope, false );
+    }
+
+  /**
+   * Method initializeReduce prepares this Group for grouping values in the reducer. If reuseTuples is true, the
+   * joined Tuples returned by {@link #iterateReduceValues(Tuple, Iterator)} may be recycled for every value.
+   *
+   * @param flowProcess    of type FlowProcess
+   * @param incomingScopes of type Set<Scope>
+   * @param outgoingScope  of type Scope
+   * @param reuseTuples    of type boolean
+   */
+  public void initializeReduce( FlowProcess flowProcess, Set<Scope> incomingScopes, Scope outgoingScope, boolean reuseTuples )
     {
     if( isGroupBy() )
       {
@@ -821,6 +978,8 @@ public class Group extends Pipe
 
       closure = new CoGroupClosure( flowProcess, numSelfJoins, groupFields, valuesFields );
       }
+
+    closure.setReuseTuples( reuseTuples );
     }
 
   /**
@@ -833,6 +992,31 @@ public class Group extends Pipe
     return isGroupBy;
     }
 
+  /**
+   * Method isInnerJoined returns true if every Tuple this Group emits holds values from the pipe at the given position,
+   * that is, the values of that pipe are never replaced by nulls when missing from a grouping. Always true for a
+   * GroupBy.
+   *
+   * @param pos of type int
+   * @return boolean
+   */
+  public boolean isInnerJoined( int pos )
+    {
+    if( isGroupBy || joiner instanceof InnerJoin )
+      return true;
+
+    if( joiner instanceof LeftJoin )
+      return pos != pipes.size() - 1;
+
+    if( joiner instanceof RightJoin )
+      return pos != 0;
+
+    if( joiner instanceof MixedJoin )
+      return ( (MixedJoin) joiner ).isInner( pos );
+
+    return false;
+    }
+
   boolean isSelfJoin()
     {
     return numSelfJoins != 0;
@@ -930,6 +1114,86 @@ public class Group extends Pipe
       }
     }
 
+  /**
+   * Method getOutgoingValuesFieldsFor returns the outgoing values fields of this Group the values of the given incoming
+   * Scope become, by position, or null if they can not be mapped, as with self joins.
+   *
+   * @param incomingScopes  of type Set<Scope>
+   * @param incomingScope   of type Scope
+   * @param outValuesFields of type Fields
+   * @return Fields
+   */
+  public Fields getOutgoingValuesFieldsFor( Set<Scope> incomingScopes, Scope incomingScope, Fields outValuesFields )
+    {
+    if( isGroupBy() )
+      return outValuesFields;
+
+    if( isSelfJoin() || incomingScopes.size() != pipes.size() )
+      return null;
+
+    Map<String, Scope> scopesMap = new HashMap<String, Scope>();
+
+    for( Scope scope : incomingScopes )
+      scopesMap.put( scope.getName(), scope );
+
+    int offset = 0;
+
+    for( Pipe pipe : pipes )
+      {
+      Scope scope = scopesMap.get( pipe.getName() );
+
+      if( scope == null || !resolveFields( scope ).isDefined() )
+        return null;
+
+      int size = resolveFields( scope ).size();
+
+      if( scope == incomingScope )
+        return offset + size > outValuesFields.size() ? null : outValuesFields.select( Fields.offsetSelector( size, offset ) );
+
+      offset += size;
+      }
+
+    return null;
+    }
+
+  /**
+   * Method getValueTypes returns the declared types of the values each incoming pipe sends to this Group, by pipe
+   * position, see {@link Fields#getTypes()}. A GroupBy returns a single array, and only if all incoming values share
+   * the same types.
+   * <p/>
+   * Returns null if no values are typed.
+   *
+   * @param incomingScopes of type Set<Scope>
+   * @return Class[][]
+   */
+  public Class[][] getValueTypes( Set<Scope> incomingScopes )
+    {
+    Class[][] types = new Class[isGroupBy() ? 1 : pipes.size()][];
+    boolean hasTypes = false;
+
+    for( Scope incomingScope : incomingScopes )
+      {
+      Fields valuesFields = resolveFields( incomingScope );
+      Class[] valueTypes = valuesFields.hasTypes() ? valuesFields.getTypes() : null;
+
+      if( isGroupBy() )
+        {
+        if( valueTypes == null || hasTypes && !Arrays.equals( types[ 0 ], valueTypes ) )
+          return null;
+
+        types[ 0 ] = valueTypes;
+        }
+      else
+        {
+        types[ getPipePos().get( incomingScope.getName() ) ] = valueTypes;
+        }
+
+      hasTypes = hasTypes || valueTypes != null;
+      }
+
+    return hasTypes ? types : null;
+    }
+
   @Override
   public Fields resolveFields( Scope scope )
     {
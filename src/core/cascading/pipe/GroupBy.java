@@ -55,6 +55,11 @@ import cascading.tuple.Tuple;
  * <p/>
  * It should be noted for MapReduce systems, distributed group sorting is not 'total'. That is groups are sorted
  * as seen by each Reducer, but they are not sorted across Reducers. See the MapReduce algorithm for details.
+ * <p/>
+ * If totalOrder is true, the groups will also be sorted across Reducers, so concatenating the resulting part files
+ * in order yields a globally sorted stream. The input of the step is sampled before the job is submitted to find
+ * the grouping boundaries of each Reducer, see
+ * {@link cascading.flow.MultiMapReducePlanner#setTotalOrderSampleSize(java.util.Map, int)}.
  */
 public class GroupBy extends Group
   {
@@ -172,6 +177,41 @@ public class GroupBy extends Group
     super( groupName, pipe, groupFields, sortFields, reverseOrder );
     }
 
+  /**
+   * Creates a new GroupBy instance that will group on the given groupFields field names
+   * and sorts the grouped values on the given sortFields fields names. If totalOrder is true, groups are also
+   * sorted across Reducers.
+   *
+   * @param pipe         of type Pipe
+   * @param groupFields  of type Fields
+   * @param sortFields   of type Fields
+   * @param reverseOrder of type boolean
+   * @param totalOrder   of type boolean
+   */
+  public GroupBy( Pipe pipe, Fields groupFields, Fields sortFields, boolean reverseOrder, boolean totalOrder )
+    {
+    super( pipe, groupFields, sortFields, reverseOrder );
+    this.totalOrder = totalOrder;
+    }
+
+  /**
+   * Creates a new GroupBy instance that will group on the given groupFields field names
+   * and sorts the grouped values on the given sortFields fields names. If totalOrder is true, groups are also
+   * sorted across Reducers.
+   *
+   * @param groupName    of type String
+   * @param pipe         of type Pipe
+   * @param groupFields  of type Fields
+   * @param sortFields   of type Fields
+   * @param reverseOrder of type boolean
+   * @param totalOrder   of type boolean
+   */
+  public GroupBy( String groupName, Pipe pipe, Fields groupFields, Fields sortFields, boolean reverseOrder, boolean totalOrder )
+    {
+    super( groupName, pipe, groupFields, sortFields, reverseOrder );
+    this.totalOrder = totalOrder;
+    }
+
   //////////
   // MERGE
   //////////
@@ -271,4 +311,39 @@ public class GroupBy extends Group
     {
     super( groupName, pipes, groupFields, sortFields, reverseOrder );
     }
+
+  /**
+   * Creates a new GroupBy instance that will first merge the given pipes, then group on the given groupFields field names
+   * and sorts the grouped values on the given sortFields fields names. If totalOrder is true, groups are also
+   * sorted across Reducers.
+   *
+   * @param pipes        of type Pipe
+   * @param groupFields  of type Fields
+   * @param sortFields   of type Fields
+   * @param reverseOrder of type boolean
+   * @param totalOrder   of type boolean
+   */
+  public GroupBy( Pipe[] pipes, Fields groupFields, Fields sortFields, boolean reverseOrder, boolean totalOrder )
+    {
+    super( pipes, groupFields, sortFields, reverseOrder );
+    this.totalOrder = totalOrder;
+    }
+
+  /**
+   * Creates a new GroupBy instance that will first merge the given pipes, then group on the given groupFields field names
+   * and sorts the grouped values on the given sortFields fields names. If totalOrder is true, groups are also
+   * sorted across Reducers.
+   *
+   * @param groupName    of type String
+   * @param pipes        of type Pipe
+   * @param groupFields  of type Fields
+   * @param sortFields   of type Fields
+   * @param reverseOrder of type boolean
+   * @param totalOrder   of type boolean
+   */
+  public GroupBy( String groupName, Pipe[] pipes, Fields groupFields, Fields sortFields, boolean reverseOrder, boolean totalOrder )
+    {
+    super( groupName, pipes, groupFields, sortFields, reverseOrder );
+    this.totalOrder = totalOrder;
+    }
   }
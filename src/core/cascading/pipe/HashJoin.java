@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2007-2009 Concurrent, Inc. All Rights Reserved.
+ *
+ * Project and contact information: http://www.cascading.org/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Cascading is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Cascading is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cascading.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package cascading.pipe;
+
+import cascading.pipe.cogroup.HashJoinFunction;
+import cascading.pipe.cogroup.InnerJoin;
+import cascading.pipe.cogroup.Joiner;
+import cascading.pipe.cogroup.OuterJoin;
+import cascading.pipe.cogroup.RightJoin;
+import cascading.tap.Tap;
+import cascading.tuple.Fields;
+
+/**
+ * The HashJoin pipe joins a streamed {@link Pipe} with a small lookup {@link Tap}, without a reduce step.
+ * <p/>
+ * During prepare, every Tuple of the lookup Tap is read into an in-memory hash index keyed on the lookupJoinFields.
+ * Each streamed Tuple is then joined against the index using the given {@link Joiner}, the streamed side being the
+ * first, left-most, join position. The outgoing Tuple is the streamed Tuple followed by the lookup Tuple, so if the
+ * stream and lookup Tap declare one or more field with the same name, declaredFields must be given to rename the
+ * lookup fields.
+ * <p/>
+ * As a HashJoin is planned as an {@link Each}, a HashJoin before any {@link Group} runs in the mapper. Every task
+ * reads the whole lookup Tap, so it should be small. If the estimated size of the index exceeds
+ * {@link HashJoinFunction#LOOKUP_LIMIT} bytes, by default a quarter of the max heap, the task fails fast.
+ * <p/>
+ * By default HashJoin performs an inner join via the {@link InnerJoin} class. {@link cascading.pipe.cogroup.LeftJoin}
+ * and {@link cascading.pipe.cogroup.MixedJoin} are supported. {@link OuterJoin} and {@link RightJoin} are not,
+ * as each task only sees part of the stream and so cannot know which lookup Tuples were never matched.
+ * <p/>
+ * The lookup Tap is not a source of the Flow, so it is not considered when testing if the Flow sinks are stale.
+ *
+ * @see cascading.pipe.CoGroup
+ */
+public class HashJoin extends Each
+  {
+  /** Field serialVersionUID */
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * Constructor HashJoin creates a new HashJoin instance performing an inner join.
+   *
+   * @param pipe             of type Pipe
+   * @param joinFields       of type Fields
+   * @param lookup           of type Tap
+   * @param lookupJoinFields of type Fields
+   */
+  public HashJoin( Pipe pipe, Fields joinFields, Tap lookup, Fields lookupJoinFields )
+    {
+    this( pipe, joinFields, lookup, lookupJoinFields, null, new InnerJoin() );
+    }
+
+  /**
+   * Constructor HashJoin creates a new HashJoin instance.
+   *
+   * @param pipe             of type Pipe
+   * @param joinFields       of type Fields
+   * @param lookup           of type Tap
+   * @param lookupJoinFields of type Fields
+   * @param joiner           of type Joiner
+   */
+  public HashJoin( Pipe pipe, Fields joinFields, Tap lookup, Fields lookupJoinFields, Joiner joiner )
+    {
+    this( pipe, joinFields, lookup, lookupJoinFields, null, joiner );
+    }
+
+  /**
+   * Constructor HashJoin creates a new HashJoin instance.
+   *
+   * @param pipe             of type Pipe
+   * @param joinFields       of type Fields
+   * @param lookup           of type Tap
+   * @param lookupJoinFields of type Fields
+   * @param declaredFields   of type Fields, the names of the lookup fields in the outgoing Tuple, may be null
+   * @param joiner           of type Joiner
+   */
+  public HashJoin( Pipe pipe, Fields joinFields, Tap lookup, Fields lookupJoinFields, Fields declaredFields, Joiner joiner )
+    {
+    super( pipe, Fields.ALL, createFunction( joinFields, lookup, lookupJoinFields, declaredFields, joiner ), Fields.ALL );
+    }
+
+  private static HashJoinFunction createFunction( Fields joinFields, Tap lookup, Fields lookupJoinFields, Fields declaredFields, Joiner joiner )
+    {
+    if( joinFields == null || lookupJoinFields == null )
+      throw new IllegalArgumentException( "join fields may not be null" );
+
+    if( joinFields.size() != lookupJoinFields.size() )
+      throw new IllegalArgumentException( "join fields must be same size, found: " + joinFields.print() + " and " + lookupJoinFields.print() );
+
+    if( lookup == null )
+      throw new IllegalArgumentException( "lookup tap may not be null" );
+
+    if( joiner == null )
+      throw new IllegalArgumentException( "joiner may not be null" );
+
+    if( joiner instanceof OuterJoin || joiner instanceof RightJoin )
+      throw new IllegalArgumentException( "joiner may not be an outer or right join, each task only sees part of the stream: " + joiner.getClass().getName() );
+
+    if( joiner.numJoins() != -1 && joiner.numJoins() != 1 )
+      throw new IllegalArgumentException( "joiner must support one join, found: " + joiner.numJoins() );
+
+    Fields lookupFields = declaredFields == null ? lookup.getSourceFields() : declaredFields;
+
+    if( declaredFields != null && lookup.getSourceFields().isDefined() && declaredFields.size() != lookup.getSourceFields().size() )
+      throw new IllegalArgumentException( "declared fields must be same size as lookup fields, found: " + declaredFields.print() + " and " + lookup.getSourceFields().print() );
+
+    if( lookupFields.isUnknown() || lookupFields.isAll() )
+      throw new IllegalArgumentException( "lookup fields must be declared, found: " + lookupFields.print() );
+
+    return new HashJoinFunction( joinFields, lookup, lookupJoinFields, lookupFields, joiner );
+    }
+  }
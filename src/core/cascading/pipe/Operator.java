@@ -35,6 +35,7 @@ import cascading.tuple.FieldsResolverException;
 import cascading.tuple.Tuple;
 import cascading.tuple.TupleEntry;
 import cascading.tuple.TupleException;
+import cascading.tuple.TupleSelector;
 
 /**
  * An Opererator is a type of {@link Pipe}. Operators pass specified arguments to a given {@link cascading.operation.BaseOperation}.
@@ -267,16 +268,68 @@ public abstract class Operator extends Pipe
     }
 
   protected Tuple makeResult( Fields outgoingSelector, TupleEntry inputEntry, Fields remainderFields, TupleEntry declaredEntry, Tuple output )
+    {
+    return makeResult( outgoingSelector, inputEntry, remainderFields, declaredEntry, output, null );
+    }
+
+  /**
+   * Method makeResult builds the outgoing Tuple from the given input and operation output. If result is not null,
+   * it is {@link Tuple#reset()} and re-populated instead of allocating a new Tuple instance.
+   *
+   * @param outgoingSelector of type Fields
+   * @param inputEntry       of type TupleEntry
+   * @param remainderFields  of type Fields
+   * @param declaredEntry    of type TupleEntry
+   * @param output           of type Tuple
+   * @param result           of type Tuple, may be null
+   * @return Tuple
+   */
+  protected Tuple makeResult( Fields outgoingSelector, TupleEntry inputEntry, Fields remainderFields, TupleEntry declaredEntry, Tuple output, Tuple result )
+    {
+    return makeResult( new TupleSelector( outgoingSelector ), inputEntry, new TupleSelector( remainderFields ), declaredEntry, output, result );
+    }
+
+  /**
+   * Method makeResult builds the outgoing Tuple from the given input and operation output using the given compiled
+   * selectors, see {@link Scope#getOutValuesTupleSelector()} and {@link Scope#getRemainderTupleSelector()}. If result
+   * is not null, it is {@link Tuple#reset()} and re-populated instead of allocating a new Tuple instance.
+   *
+   * @param outgoingSelector  of type TupleSelector
+   * @param inputEntry        of type TupleEntry
+   * @param remainderSelector of type TupleSelector
+   * @param declaredEntry     of type TupleEntry
+   * @param output            of type Tuple
+   * @param result            of type Tuple, may be null
+   * @return Tuple
+   */
+  protected Tuple makeResult( TupleSelector outgoingSelector, TupleEntry inputEntry, TupleSelector remainderSelector, TupleEntry declaredEntry, Tuple output, Tuple result )
     {
     if( getOutputSelector().isResults() )
       return output;
 
     if( getOutputSelector().isAll() )
-      return inputEntry.getTuple().append( output );
+      {
+      if( result == null )
+        return inputEntry.getTuple().append( output );
+
+      result.reset();
+      result.addAll( inputEntry.getTuple() );
+      result.addAll( output );
+
+      return result;
+      }
 
     if( getOutputSelector().isReplace() )
       {
-      Tuple result = new Tuple( inputEntry.getTuple() );
+      if( result == null )
+        {
+        result = new Tuple( inputEntry.getTuple() );
+        }
+      else
+        {
+        result.reset();
+        result.addAll( inputEntry.getTuple() );
+        }
 
       result.set( inputEntry.getFields(), declaredEntry.getFields(), output );
 
@@ -285,15 +338,19 @@ public abstract class Operator extends Pipe
 
     if( getOutputSelector().isSwap() )
       {
-      if( remainderFields.size() == 0 ) // the same as Fields.RESULTS
+      if( remainderSelector.getSelector().size() == 0 ) // the same as Fields.RESULTS
         return output;
-      else
-        return inputEntry.selectTuple( remainderFields ).append( output );
+      else if( result == null )
+        return remainderSelector.select( inputEntry ).append( output );
+
+      remainderSelector.select( inputEntry, result ).addAll( output );
+
+      return result;
       }
 
     declaredEntry.setTuple( output );
 
-    return TupleEntry.select( outgoingSelector, inputEntry, declaredEntry );
+    return outgoingSelector.select( result, inputEntry, declaredEntry );
     }
 
   // FIELDS
@@ -22,8 +22,10 @@
 package cascading.pipe;
 
 import java.io.Serializable;
-import java.util.Collections;
+import java.util.Arrays;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
 import java.util.Set;
 
 import cascading.flow.FlowElement;
@@ -156,18 +158,36 @@ public class Pipe implements FlowElement, Serializable
    */
   public Pipe[] getHeads()
     {
-    Pipe[] pipes = getPrevious();
+    return getHeads( new Pipe[]{this} );
+    }
+
+  /**
+   * Method getHeads returns the first Pipe instances in the pipe assemblies ending with the given pipes.
+   *
+   * @param pipes of type Pipe[]
+   * @return Pipe[]
+   */
+  public static Pipe[] getHeads( Pipe[] pipes )
+    {
+    // branches share previous pipes, so only visit each once
+    Set<Pipe> heads = new LinkedHashSet<Pipe>();
+    Set<Pipe> visited = new HashSet<Pipe>();
+    LinkedList<Pipe> stack = new LinkedList<Pipe>( Arrays.asList( pipes ) );
 
-    if( pipes.length == 0 )
-      return new Pipe[]{this};
+    while( !stack.isEmpty() )
+      {
+      Pipe pipe = stack.removeFirst();
 
-    if( pipes.length == 1 )
-      return pipes[ 0 ].getHeads();
+      if( !visited.add( pipe ) )
+        continue;
 
-    Set<Pipe> heads = new HashSet<Pipe>();
+      Pipe[] previous = pipe.getPrevious();
 
-    for( Pipe pipe : pipes )
-      Collections.addAll( heads, pipe.getHeads() );
+      if( previous.length == 0 )
+        heads.add( pipe );
+      else
+        stack.addAll( 0, Arrays.asList( previous ) );
+      }
 
     return heads.toArray( new Pipe[heads.size()] );
     }
@@ -24,11 +24,13 @@ package cascading.pipe.cogroup;
 import java.util.Iterator;
 
 import cascading.flow.FlowProcess;
+import cascading.flow.StepCounters;
 import cascading.flow.hadoop.HadoopFlowProcess;
 import cascading.tuple.Fields;
 import cascading.tuple.IndexTuple;
 import cascading.tuple.SpillableTupleList;
 import cascading.tuple.Tuple;
+import cascading.tuple.hadoop.FastBlockCodec;
 import org.apache.hadoop.io.compress.CompressionCodec;
 import org.apache.hadoop.mapred.JobConf;
 import org.apache.hadoop.util.ReflectionUtils;
@@ -37,18 +39,37 @@ import org.apache.log4j.Logger;
 /**
  * Class CoGroupClosure is used internally to represent co-grouping results of multiple tuple streams.
  * <p/>
+ * Values for each co-grouped stream are held in a {@link SpillableTupleList}. A list spills to disk when it holds
+ * "cascading.cogroup.spill.threshold" Tuples, if set, or when its estimated size exceeds its share of the
+ * "cascading.cogroup.spill.memory" budget in bytes. The budget is per closure and defaults to a quarter of the max heap.
  * <p/>
- * "org.apache.hadoop.io.compress.LzoCodec,org.apache.hadoop.io.compress.GzipCodec,org.apache.hadoop.io.compress.DefaultCodec"
+ * When a group has spilled, joins read the first group a block at a time, a block being as large as a group may be
+ * in memory, so the spilled groups are read once per block, not once per value. Spill files are also kept decoded in
+ * memory once read, up to "cascading.cogroup.spill.cache" bytes per group, which defaults to the share of the spill
+ * memory budget of each group. So a join over spilled groups may hold about twice the spill memory budget, plus a block.
+ * <p/>
+ * Spill files are compressed unless "cascading.cogroup.spill.compress" is false, using the first loadable codec in
+ * the comma separated "cascading.cogroup.spill.codecs" list. The default list starts with the pure Java
+ * {@link FastBlockCodec}, which is much cheaper than gzip, for example
+ * "cascading.tuple.hadoop.FastBlockCodec,org.apache.hadoop.io.compress.GzipCodec,org.apache.hadoop.io.compress.DefaultCodec".
+ * <p/>
+ * The spill files created, their bytes written and read, and the time spent writing them are counted in
+ * {@link StepCounters}.
  */
-public class CoGroupClosure extends GroupClosure
+public class CoGroupClosure extends GroupClosure implements SpillableTupleList.SpillListener
   {
   public static final String SPILL_THRESHOLD = "cascading.cogroup.spill.threshold";
-  private static final int defaultThreshold = 10 * 1000;
+  private static final long defaultThreshold = Long.MAX_VALUE;
+
+  public static final String SPILL_MEMORY = "cascading.cogroup.spill.memory";
+  private static final long defaultMemory = Runtime.getRuntime().maxMemory() / 4;
+
+  public static final String SPILL_CACHE = "cascading.cogroup.spill.cache";
 
   public static final String SPILL_COMPRESS = "cascading.cogroup.spill.compress";
 
   public static final String SPILL_CODECS = "cascading.cogroup.spill.codecs";
-  private static final String defaultCodecs = "org.apache.hadoop.io.compress.GzipCodec,org.apache.hadoop.io.compress.DefaultCodec";
+  private static final String defaultCodecs = "cascading.tuple.hadoop.FastBlockCodec,org.apache.hadoop.io.compress.GzipCodec,org.apache.hadoop.io.compress.DefaultCodec";
 
   /** Field LOG */
   private static final Logger LOG = Logger.getLogger( CoGroupClosure.class );
@@ -58,7 +79,11 @@ public class CoGroupClosure extends GroupClosure
   private int numSelfJoins;
   private CompressionCodec codec;
   private long threshold;
+  private long memory;
+  private long memoryLimit;
+  private long cacheLimit;
   private JobConf conf;
+  private FlowProcess flowProcess;
 
   public CoGroupClosure( FlowProcess flowProcess, int numSelfJoins, Fields[] groupingFields, Fields[] valueFields )
     {
@@ -66,7 +91,11 @@ public class CoGroupClosure extends GroupClosure
     this.numSelfJoins = numSelfJoins;
     this.codec = getCompressionCodec( flowProcess );
     this.threshold = getLong( flowProcess, SPILL_THRESHOLD, defaultThreshold );
+    this.memory = getLong( flowProcess, SPILL_MEMORY, defaultMemory );
+    this.memoryLimit = memory / groupingFields.length; // the budget is shared by the closure
+    this.cacheLimit = getLong( flowProcess, SPILL_CACHE, memoryLimit );
     this.conf = ( (HadoopFlowProcess) flowProcess ).getJobConf();
+    this.flowProcess = flowProcess;
 
     initLists();
     }
@@ -86,6 +115,30 @@ public class CoGroupClosure extends GroupClosure
     return makeIterator( pos, groups[ pos ].iterator() );
     }
 
+  @Override
+  public boolean isEmpty( int pos )
+    {
+    return groups[ pos ].size() == 0;
+    }
+
+  @Override
+  public boolean isSpilled( int pos )
+    {
+    return groups[ pos ].getNumFiles() != 0;
+    }
+
+  @Override
+  public long getBlockSize()
+    {
+    return threshold;
+    }
+
+  @Override
+  public long getBlockMemory()
+    {
+    return memoryLimit;
+    }
+
   public SpillableTupleList getGroup( int pos )
     {
     return groups[ pos ];
@@ -127,12 +180,28 @@ public class CoGroupClosure extends GroupClosure
     groups = new SpillableTupleList[Math.max( numPipes, numSelfJoins + 1 )];
 
     for( int i = 0; i < numPipes; i++ ) // use numPipes not numSelfJoins, see below
-      groups[ i ] = new SpillableTupleList( threshold, conf, codec );
+      {
+      groups[ i ] = new SpillableTupleList( threshold, memoryLimit, cacheLimit, conf, codec );
+      groups[ i ].setSpillListener( this );
+      }
 
     for( int i = 1; i < numSelfJoins + 1; i++ )
       groups[ i ] = groups[ 0 ];
     }
 
+  public void notifyWrite( SpillableTupleList list, long tuples, long bytes, long duration )
+    {
+    flowProcess.increment( StepCounters.Spill_Files_Created, 1 );
+    flowProcess.increment( StepCounters.Tuples_Spilled, (int) tuples );
+    flowProcess.increment( StepCounters.Spill_Bytes_Written, (int) bytes );
+    flowProcess.increment( StepCounters.Spill_Time_Millis, (int) duration );
+    }
+
+  public void notifyRead( SpillableTupleList list, long bytes )
+    {
+    flowProcess.increment( StepCounters.Spill_Bytes_Read, (int) bytes );
+    }
+
   private long getLong( FlowProcess flowProcess, String key, long defaultValue )
     {
     String value = (String) flowProcess.getProperty( key );
@@ -157,11 +226,12 @@ public class CoGroupClosure extends GroupClosure
 
     Class<? extends CompressionCodec> codecClass = null;
 
-    for( String codec : codecs.split( "[,\\s]*" ) )
+    for( String codec : codecs.trim().split( "[,\\s]+" ) )
       {
       try
         {
         codecClass = Thread.currentThread().getContextClassLoader().loadClass( codec ).asSubclass( CompressionCodec.class );
+        break;
         }
       catch( ClassNotFoundException exception )
         {
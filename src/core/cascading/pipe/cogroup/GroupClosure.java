@@ -34,6 +34,8 @@ public class GroupClosure
   final Fields[] valueFields;
   Tuple grouping;
   Iterator values;
+  /** Field reuseTuples */
+  boolean reuseTuples = false;
 
   public GroupClosure( Fields[] groupingFields, Fields[] valueFields )
     {
@@ -46,6 +48,26 @@ public class GroupClosure
     return 1;
     }
 
+  /**
+   * Method isReuseTuples returns true if joined Tuples may be recycled for every value.
+   *
+   * @return boolean
+   */
+  public boolean isReuseTuples()
+    {
+    return reuseTuples;
+    }
+
+  /**
+   * Method setReuseTuples sets if joined Tuples may be recycled for every value.
+   *
+   * @param reuseTuples of type boolean
+   */
+  public void setReuseTuples( boolean reuseTuples )
+    {
+    this.reuseTuples = reuseTuples;
+    }
+
   public Tuple getGrouping()
     {
     return grouping;
@@ -59,6 +81,51 @@ public class GroupClosure
     return makeIterator( 0, values );
     }
 
+  /**
+   * Method isEmpty returns true if the group at the given position has no values.
+   *
+   * @param pos of type int
+   * @return boolean
+   */
+  public boolean isEmpty( int pos )
+    {
+    return !getIterator( pos ).hasNext();
+    }
+
+  /**
+   * Method isSpilled returns true if the group at the given position is not held in memory, so every pass over
+   * its values reads them from disk.
+   *
+   * @param pos of type int
+   * @return boolean
+   */
+  public boolean isSpilled( int pos )
+    {
+    return false;
+    }
+
+  /**
+   * Method getBlockSize returns the max number of values a join may hold in memory at a time, see
+   * {@link InnerJoin}.
+   *
+   * @return long
+   */
+  public long getBlockSize()
+    {
+    return Long.MAX_VALUE;
+    }
+
+  /**
+   * Method getBlockMemory returns the max estimated size in bytes of the values a join may hold in memory at a time,
+   * see {@link InnerJoin}.
+   *
+   * @return long
+   */
+  public long getBlockMemory()
+    {
+    return Long.MAX_VALUE;
+    }
+
   protected Iterator<Tuple> makeIterator( final int pos, final Iterator values )
     {
     return new Iterator<Tuple>()
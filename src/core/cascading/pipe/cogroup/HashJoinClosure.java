@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2007-2009 Concurrent, Inc. All Rights Reserved.
+ *
+ * Project and contact information: http://www.cascading.org/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Cascading is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Cascading is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cascading.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package cascading.pipe.cogroup;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import cascading.tuple.Fields;
+import cascading.tuple.Tuple;
+
+/**
+ * Class HashJoinClosure is used internally to join a single streamed {@link Tuple} with the matching lookup Tuples
+ * of a {@link cascading.pipe.HashJoin}.
+ * <p/>
+ * The streamed side is presented as a single empty Tuple, so the {@link Joiner} results only hold the lookup values.
+ */
+public class HashJoinClosure extends GroupClosure
+  {
+  /** Field STREAMED is the empty placeholder for the streamed Tuple */
+  private static final List<Tuple> STREAMED = Collections.singletonList( new Tuple() );
+
+  /** Field matches */
+  private List<Tuple> matches = Collections.emptyList();
+
+  public HashJoinClosure( Fields lookupFields )
+    {
+    super( new Fields[]{new Fields(), new Fields()}, new Fields[]{new Fields(), lookupFields} );
+    }
+
+  @Override
+  public int size()
+    {
+    return 2;
+    }
+
+  @Override
+  public Iterator getIterator( int pos )
+    {
+    if( pos == 0 )
+      return STREAMED.iterator();
+    else if( pos == 1 )
+      return matches.iterator();
+
+    throw new IllegalArgumentException( "invalid group position: " + pos );
+    }
+
+  @Override
+  public boolean isEmpty( int pos )
+    {
+    return pos == 1 && matches.isEmpty();
+    }
+
+  /**
+   * Method reset sets the lookup Tuples matching the current streamed Tuple.
+   *
+   * @param grouping of type Tuple
+   * @param matches  of type List<Tuple>, may be null if there are no matches
+   */
+  public void reset( Tuple grouping, List<Tuple> matches )
+    {
+    this.grouping = grouping;
+    this.matches = matches == null ? Collections.<Tuple>emptyList() : matches;
+    }
+  }
@@ -0,0 +1,193 @@
+/*
+ * Copyright (c) 2007-2009 Concurrent, Inc. All Rights Reserved.
+ *
+ * Project and contact information: http://www.cascading.org/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Cascading is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Cascading is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cascading.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package cascading.pipe.cogroup;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import cascading.flow.FlowProcess;
+import cascading.flow.hadoop.HadoopFlowProcess;
+import cascading.operation.BaseOperation;
+import cascading.operation.Function;
+import cascading.operation.FunctionCall;
+import cascading.operation.OperationCall;
+import cascading.operation.OperationException;
+import cascading.tap.Tap;
+import cascading.tuple.Fields;
+import cascading.tuple.SpillableTupleList;
+import cascading.tuple.Tuple;
+import cascading.tuple.TupleEntry;
+import cascading.tuple.TupleEntryIterator;
+import cascading.tuple.TupleSelector;
+import org.apache.hadoop.mapred.JobConf;
+import org.apache.log4j.Logger;
+
+/**
+ * Class HashJoinFunction is used internally by {@link cascading.pipe.HashJoin} to load the lookup {@link Tap} into an
+ * in-memory hash index during prepare, and join each streamed Tuple against it using the given {@link Joiner}.
+ */
+public class HashJoinFunction extends BaseOperation<HashJoinFunction.Context> implements Function<HashJoinFunction.Context>
+  {
+  /** Field LOG */
+  private static final Logger LOG = Logger.getLogger( HashJoinFunction.class );
+
+  /** Field LOOKUP_LIMIT is the property naming the max estimated size in bytes of the lookup index */
+  public static final String LOOKUP_LIMIT = "cascading.hashjoin.lookup.limit";
+  /** Field defaultLimit */
+  private static final long defaultLimit = Runtime.getRuntime().maxMemory() / 4;
+
+  /** Field joinFields */
+  private final Fields joinFields;
+  /** Field lookup */
+  private final Tap lookup;
+  /** Field lookupJoinFields */
+  private final Fields lookupJoinFields;
+  /** Field joiner */
+  private final Joiner joiner;
+
+  /** Class Context holds the lookup index and the closure handed to the Joiner. */
+  public static class Context
+    {
+    /** Field index */
+    final Map<Tuple, List<Tuple>> index = new HashMap<Tuple, List<Tuple>>();
+    /** Field closure */
+    HashJoinClosure closure;
+    /** Field joinSelector */
+    TupleSelector joinSelector;
+    }
+
+  public HashJoinFunction( Fields joinFields, Tap lookup, Fields lookupJoinFields, Fields fieldDeclaration, Joiner joiner )
+    {
+    super( fieldDeclaration );
+    this.joinFields = joinFields;
+    this.lookup = lookup;
+    this.lookupJoinFields = lookupJoinFields;
+    this.joiner = joiner;
+    }
+
+  @Override
+  public void prepare( FlowProcess flowProcess, OperationCall<Context> operationCall )
+    {
+    Context context = new Context();
+
+    context.closure = new HashJoinClosure( getFieldDeclaration() );
+    context.joinSelector = new TupleSelector( joinFields );
+
+    long limit = getLimit( flowProcess );
+    long size = 0;
+    long count = 0;
+
+    try
+      {
+      TupleEntryIterator iterator = lookup.openForRead( getLookupConf( ( (HadoopFlowProcess) flowProcess ).getJobConf() ) );
+
+      TupleSelector lookupSelector = new TupleSelector( lookupJoinFields );
+
+      try
+        {
+        while( iterator.hasNext() )
+          {
+          TupleEntry entry = iterator.next();
+          Tuple key = lookupSelector.select( entry );
+          Tuple value = new Tuple( entry.getTuple() );
+
+          size += SpillableTupleList.estimateSize( value );
+          count++;
+
+          if( size > limit )
+            throw new OperationException( "lookup tap exceeds " + LOOKUP_LIMIT + " of " + limit + " bytes after " + count + " tuples: " + lookup );
+
+          List<Tuple> values = context.index.get( key );
+
+          if( values == null )
+            {
+            values = new ArrayList<Tuple>( 1 );
+            context.index.put( key, values );
+            }
+
+          values.add( value );
+          }
+        }
+      finally
+        {
+        iterator.close();
+        }
+      }
+    catch( IOException exception )
+      {
+      throw new OperationException( "unable to read lookup tap: " + lookup, exception );
+      }
+
+    if( LOG.isInfoEnabled() )
+      LOG.info( "loaded lookup tap: " + lookup + ", tuples: " + count + ", keys: " + context.index.size() + ", estimated bytes: " + size );
+
+    operationCall.setContext( context );
+    }
+
+  /** copies the given JobConf without the input paths of the current step, so only the lookup Tap is read */
+  private JobConf getLookupConf( JobConf jobConf )
+    {
+    JobConf conf = new JobConf( false );
+
+    for( Map.Entry<String, String> entry : jobConf )
+      {
+      if( !entry.getKey().equals( "mapred.input.dir" ) )
+        conf.set( entry.getKey(), entry.getValue() );
+      }
+
+    return conf;
+    }
+
+  private long getLimit( FlowProcess flowProcess )
+    {
+    String value = (String) flowProcess.getProperty( LOOKUP_LIMIT );
+
+    if( value == null || value.length() == 0 )
+      return defaultLimit;
+
+    return Long.parseLong( value );
+    }
+
+  /** @see Function#operate(cascading.flow.FlowProcess,cascading.operation.FunctionCall) */
+  public void operate( FlowProcess flowProcess, FunctionCall<Context> functionCall )
+    {
+    Context context = functionCall.getContext();
+    Tuple key = context.joinSelector.select( functionCall.getArguments() );
+
+    context.closure.reset( key, context.index.get( key ) );
+
+    Iterator<Tuple> iterator = joiner.getIterator( context.closure );
+
+    while( iterator.hasNext() )
+      functionCall.getOutputCollector().add( iterator.next() );
+    }
+
+  @Override
+  public void cleanup( FlowProcess flowProcess, OperationCall<Context> operationCall )
+    {
+    operationCall.setContext( null );
+    }
+  }
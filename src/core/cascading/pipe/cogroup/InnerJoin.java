@@ -21,14 +21,21 @@
 
 package cascading.pipe.cogroup;
 
+import cascading.tuple.SpillableTupleList;
 import cascading.tuple.Tuple;
 import org.apache.log4j.Logger;
 
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 
 /**
  * Class InnerJoin will return an {@link Iterator} that will iterate over a given {@link Joiner} and return tuples that represent
  * and inner join of the CoGrouper internal grouped tuple collections.
+ * <p/>
+ * If any but the first grouped collection has spilled to disk, the first is joined a block at a time, see
+ * {@link GroupClosure#getBlockMemory()}, so the others are read once per block instead of once per value. The
+ * joined tuples are then returned in a different order within a grouping.
  */
 public class InnerJoin implements Joiner
   {
@@ -50,6 +57,11 @@ public class InnerJoin implements Joiner
     final GroupClosure closure;
     Iterator[] iterators;
     Comparable[] lastValues;
+    Tuple result;
+    /** Field outer iterates the first grouped collection a block at a time, null if not joining blocks */
+    Iterator outer;
+    /** Field block holds the current block of the first grouped collection */
+    List<Comparable> block;
 
     public JoinIterator( GroupClosure closure )
       {
@@ -67,6 +79,48 @@ public class InnerJoin implements Joiner
 
       for( int i = 0; i < closure.size(); i++ )
         iterators[ i ] = getIterator( i );
+
+      if( !isBlocked() )
+        return;
+
+      outer = iterators[ 0 ];
+      block = new ArrayList<Comparable>();
+
+      readBlock();
+      iterators[ 0 ] = block.iterator();
+      }
+
+    private boolean isBlocked()
+      {
+      for( int i = 1; i < closure.size(); i++ )
+        {
+        if( closure.isSpilled( i ) )
+          return true;
+        }
+
+      return false;
+      }
+
+    private void readBlock()
+      {
+      block.clear();
+
+      long blockSize = closure.getBlockSize();
+      long blockMemory = closure.getBlockMemory();
+      long memory = 0;
+
+      while( outer.hasNext() && block.size() < blockSize && memory <= blockMemory )
+        {
+        Tuple tuple = (Tuple) outer.next();
+
+        block.add( tuple );
+
+        if( blockMemory != Long.MAX_VALUE )
+          memory += SpillableTupleList.estimateSize( tuple );
+        }
+
+      if( LOG.isDebugEnabled() )
+        LOG.debug( "joining block of size: " + block.size() );
       }
 
     protected Iterator getIterator( int i )
@@ -105,7 +159,7 @@ public class InnerJoin implements Joiner
           return true;
         }
 
-      return false;
+      return outer != null && outer.hasNext();
       }
 
     public Tuple next()
@@ -113,6 +167,9 @@ public class InnerJoin implements Joiner
       if( lastValues == null )
         return makeResult( initLastValues() );
 
+      if( outer != null )
+        return nextBlocked();
+
       for( int i = iterators.length - 1; i >= 0; i-- )
         {
         if( iterators[ i ].hasNext() )
@@ -129,10 +186,50 @@ public class InnerJoin implements Joiner
       return makeResult( lastValues );
       }
 
+    /** Method nextBlocked advances the block fastest, so each pass over the other collections joins the whole block. */
+    private Tuple nextBlocked()
+      {
+      if( iterators[ 0 ].hasNext() )
+        {
+        lastValues[ 0 ] = (Comparable) iterators[ 0 ].next();
+        return makeResult( lastValues );
+        }
+
+      iterators[ 0 ] = block.iterator();
+      lastValues[ 0 ] = (Comparable) iterators[ 0 ].next();
+
+      for( int i = iterators.length - 1; i > 0; i-- )
+        {
+        if( iterators[ i ].hasNext() )
+          {
+          lastValues[ i ] = (Comparable) iterators[ i ].next();
+          return makeResult( lastValues );
+          }
+
+        // reset to first
+        iterators[ i ] = getIterator( i );
+        lastValues[ i ] = (Comparable) iterators[ i ].next();
+        }
+
+      // all other collections were joined with the block, move on to the next
+      readBlock();
+      iterators[ 0 ] = block.iterator();
+      lastValues[ 0 ] = (Comparable) iterators[ 0 ].next();
+
+      return makeResult( lastValues );
+      }
+
     private Tuple makeResult( Comparable[] lastValues )
       {
 //      Tuple result = new Tuple( closure.getGrouping() );
-      Tuple result = new Tuple();
+      Tuple result;
+
+      if( !closure.isReuseTuples() )
+        result = new Tuple();
+      else if( this.result == null )
+        result = this.result = new Tuple();
+      else
+        result = this.result.reset();
 
       // flatten the results into one Tuple
       for( Comparable lastValue : lastValues )
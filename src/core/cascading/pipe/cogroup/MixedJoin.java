@@ -56,6 +56,17 @@ public class MixedJoin implements Joiner
     return new JoinIterator( closure );
     }
 
+  /**
+   * Method isInner returns true if the tuple stream at the given position is inner joined.
+   *
+   * @param pos of type int
+   * @return boolean
+   */
+  public boolean isInner( int pos )
+    {
+    return asInner[ pos ];
+    }
+
   /** @see Joiner#numJoins() */
   public int numJoins()
     {
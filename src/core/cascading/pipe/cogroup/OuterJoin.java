@@ -73,7 +73,7 @@ public class OuterJoin implements Joiner
 
     protected boolean isOuter( int i )
       {
-      return getCoGroupClosure().getGroup( i ).size() == 0;
+      return closure.isEmpty( i );
       }
 
     @Override
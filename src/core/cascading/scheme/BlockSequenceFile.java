@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2007-2009 Concurrent, Inc. All Rights Reserved.
+ *
+ * Project and contact information: http://www.cascading.org/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Cascading is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Cascading is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cascading.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package cascading.scheme;
+
+import java.io.IOException;
+
+import cascading.CascadingException;
+import cascading.tap.Tap;
+import cascading.tuple.Fields;
+import cascading.tuple.TupleEntry;
+import cascading.tuple.hadoop.FastBlockCodec;
+import cascading.util.Util;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.NullWritable;
+import org.apache.hadoop.io.compress.CompressionCodec;
+import org.apache.hadoop.io.serializer.WritableSerialization;
+import org.apache.hadoop.mapred.FileOutputFormat;
+import org.apache.hadoop.mapred.JobConf;
+import org.apache.hadoop.mapred.OutputCollector;
+import org.apache.hadoop.mapred.RecordWriter;
+import org.apache.hadoop.mapred.Reporter;
+import org.apache.hadoop.mapred.SequenceFileOutputFormat;
+import org.apache.hadoop.util.Progressable;
+import org.apache.hadoop.util.ReflectionUtils;
+
+/**
+ * A BlockSequenceFile is a type of {@link SequenceFile} used by default for intermediate files between steps,
+ * see {@link cascading.flow.FlowConnector#setIntermediateSchemeClass(java.util.Map, Class)}.
+ * <p/>
+ * Values are always stored as {@link cascading.tuple.TypedTuple} instances, positions without a declared type keep their
+ * type token. No key is stored, and keys and values are block compressed with the codec named by the
+ * "cascading.blocksequencefile.codec" property, {@link FastBlockCodec} by default, or not at all if set to "none".
+ * The compression settings of the job are not used, so other taps in the same step are not affected.
+ * <p/>
+ * Because the typed layout is self delimiting, readers may skip the values of positions they never reference without
+ * decoding them, see {@link cascading.tuple.hadoop.TupleSerialization#setSkippedTuplePositions(JobConf, int[])}.
+ */
+public class BlockSequenceFile extends SequenceFile
+  {
+  /** Field CODEC is the property naming the codec class, or "none" */
+  public static final String CODEC = "cascading.blocksequencefile.codec";
+
+  /** Field serialVersionUID */
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * Creates a new BlockSequenceFile instance that stores the given field names.
+   *
+   * @param fields of type Fields
+   */
+  public BlockSequenceFile( Fields fields )
+    {
+    super( fields );
+    }
+
+  @Override
+  public void sourceInit( Tap tap, JobConf conf )
+    {
+    super.sourceInit( tap, conf );
+
+    setWritableSerialization( conf );
+    }
+
+  @Override
+  public void sinkInit( Tap tap, JobConf conf )
+    {
+    super.sinkInit( tap, conf );
+
+    conf.setOutputKeyClass( NullWritable.class );
+    conf.setOutputFormat( BlockOutputFormat.class );
+
+    setWritableSerialization( conf );
+    }
+
+  /** Method setWritableSerialization makes sure the NullWritable keys can be read and written. */
+  private void setWritableSerialization( JobConf conf )
+    {
+    String serializations = conf.get( "io.serializations" );
+
+    if( serializations == null || !serializations.contains( WritableSerialization.class.getName() ) )
+      conf.set( "io.serializations", Util.join( ",", serializations, WritableSerialization.class.getName() ) );
+    }
+
+  @Override
+  public void sink( TupleEntry tupleEntry, OutputCollector outputCollector ) throws IOException
+    {
+    outputCollector.collect( NullWritable.get(), getSinkTuple( tupleEntry ) );
+    }
+
+  /**
+   * Method isTyped returns true if the fields of this scheme are known, positions without a declared type keep
+   * their type tokens.
+   *
+   * @return boolean
+   */
+  @Override
+  public boolean isTyped()
+    {
+    return getSourceFields() != null && getSourceFields().isDefined() && getSourceFields().size() != 0;
+    }
+
+  /** Class BlockOutputFormat writes block compressed sequence files with the codec of the {@link #CODEC} property. */
+  public static class BlockOutputFormat extends SequenceFileOutputFormat
+    {
+    @Override
+    public RecordWriter getRecordWriter( FileSystem ignored, JobConf conf, String name, Progressable progress ) throws IOException
+      {
+      Path path = FileOutputFormat.getTaskOutputPath( conf, name );
+      FileSystem fileSystem = path.getFileSystem( conf );
+      CompressionCodec codec = getCodec( conf );
+      org.apache.hadoop.io.SequenceFile.CompressionType type = codec == null ? org.apache.hadoop.io.SequenceFile.CompressionType.NONE : org.apache.hadoop.io.SequenceFile.CompressionType.BLOCK;
+
+      final org.apache.hadoop.io.SequenceFile.Writer writer = org.apache.hadoop.io.SequenceFile.createWriter( fileSystem, conf, path, conf.getOutputKeyClass(), conf.getOutputValueClass(), type, codec, progress );
+
+      return new RecordWriter()
+      {
+      public void write( Object key, Object value ) throws IOException
+        {
+        writer.append( key, value );
+        }
+
+      public void close( Reporter reporter ) throws IOException
+        {
+        writer.close();
+        }
+      };
+      }
+
+    private CompressionCodec getCodec( JobConf conf )
+      {
+      String codecName = conf.get( CODEC, FastBlockCodec.class.getName() );
+
+      if( codecName.equals( "none" ) )
+        return null;
+
+      try
+        {
+        return (CompressionCodec) ReflectionUtils.newInstance( conf.getClassByName( codecName ), conf );
+        }
+      catch( ClassNotFoundException exception )
+        {
+        throw new CascadingException( "unable to load codec: " + codecName, exception );
+        }
+      }
+    }
+  }
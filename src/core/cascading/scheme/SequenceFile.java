@@ -28,6 +28,8 @@ import cascading.tuple.Fields;
 import cascading.tuple.Tuple;
 import cascading.tuple.TupleEntry;
 import cascading.tuple.Tuples;
+import cascading.tuple.TypedTuple;
+import cascading.tuple.hadoop.TupleSerialization;
 import org.apache.hadoop.mapred.JobConf;
 import org.apache.hadoop.mapred.OutputCollector;
 import org.apache.hadoop.mapred.SequenceFileInputFormat;
@@ -36,12 +38,19 @@ import org.apache.hadoop.mapred.SequenceFileOutputFormat;
 /**
  * A SequenceFile is a type of {@link Scheme}, which is a flat files consisting of
  * binary key/value pairs. This is a space and time efficient means to store data.
+ * <p/>
+ * Values are always stored as plain {@link Tuple} instances so the files may be read by any reader, regardless of
+ * any types declared on the given {@link Fields}. The compact {@link TypedTuple} layout is only used by subclasses,
+ * see {@link BlockSequenceFile}, used for intermediate files.
  */
 public class SequenceFile extends Scheme
   {
   /** Field serialVersionUID */
   private static final long serialVersionUID = 1L;
 
+  /** Field typedTuple */
+  private transient TypedTuple typedTuple;
+
   /** Protected for use by TempDfs and other subclasses. Not for general consumption. */
   protected SequenceFile()
     {
@@ -62,20 +71,27 @@ public class SequenceFile extends Scheme
   public void sourceInit( Tap tap, JobConf conf )
     {
     conf.setInputFormat( SequenceFileInputFormat.class );
+
+    if( isTyped() )
+      TupleSerialization.setSourceTupleTypes( conf, getSourceFields().getTypes() );
     }
 
   @Override
   public void sinkInit( Tap tap, JobConf conf )
     {
     conf.setOutputKeyClass( Tuple.class ); // supports TapCollector
-    conf.setOutputValueClass( Tuple.class ); // supports TapCollector
+    conf.setOutputValueClass( isTyped() ? TypedTuple.class : Tuple.class ); // supports TapCollector
     conf.setOutputFormat( SequenceFileOutputFormat.class );
     }
 
   @Override
   public Tuple source( Object key, Object value )
     {
-	if (value instanceof Tuple)
+	if (value instanceof TypedTuple)
+	{
+	    return ( (TypedTuple) value ).asTuple();
+	}
+	else if (value instanceof Tuple)
 	{
 	    return (Tuple) value;
 	}
@@ -96,10 +112,41 @@ public class SequenceFile extends Scheme
 
   @Override
   public void sink( TupleEntry tupleEntry, OutputCollector outputCollector ) throws IOException
+    {
+    outputCollector.collect( Tuples.NULL, getSinkTuple( tupleEntry ) );
+    }
+
+  /**
+   * Method getSinkTuple returns the value to be written for the given TupleEntry, a {@link TypedTuple} view if
+   * this scheme is typed.
+   *
+   * @param tupleEntry of type TupleEntry
+   * @return Tuple
+   */
+  protected Tuple getSinkTuple( TupleEntry tupleEntry )
     {
     Tuple result = getSinkFields() != null ? tupleEntry.selectTuple( getSinkFields() ) : tupleEntry.getTuple();
 
-    outputCollector.collect( Tuples.NULL, result );
+    if( isTyped() )
+      {
+      if( typedTuple == null )
+        typedTuple = new TypedTuple( getSinkFields().getTypes() );
+
+      result = typedTuple.reset( result );
+      }
+
+    return result;
+    }
+
+  /**
+   * Method isTyped returns true if the values of this scheme are stored in the compact typed layout. Always false
+   * so that user files keep their on disk format, subclasses writing intermediate files may override.
+   *
+   * @return boolean
+   */
+  public boolean isTyped()
+    {
+    return false;
     }
 
   }
@@ -24,9 +24,11 @@ package cascading.scheme;
 import cascading.tap.Tap;
 import cascading.tap.hadoop.ZipInputFormat;
 import cascading.tuple.Fields;
+import cascading.tuple.LazyText;
 import cascading.tuple.Tuple;
 import cascading.tuple.TupleEntry;
 import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.LongWritable;
 import org.apache.hadoop.io.Text;
 import org.apache.hadoop.mapred.*;
 
@@ -42,6 +44,10 @@ import java.io.IOException;
  * <p/>
  * If all the input files end with ".zip", the {@link ZipInputFormat} will be used. This is not
  * bi-directional, so zip files cannot be written.
+ * <p/>
+ * If lazy text is enabled, see {@link #setLazyText(boolean)}, the "offset" value is a {@link Long} and the "line"
+ * value is a {@link LazyText}, a {@link CharSequence} over the line bytes that is only decoded into a String when
+ * needed. The regular expression operations match LazyText values without decoding them.
  */
 public class TextLine extends Scheme
   {
@@ -57,6 +63,8 @@ public class TextLine extends Scheme
 
   /** Field sinkCompression */
   Compress sinkCompression = Compress.DISABLE;
+  /** Field lazyText */
+  boolean lazyText = false;
 
   /**
    * Creates a new TextLine instance that sources "offset" and "line" fields, and sinks all incoming fields, where
@@ -208,6 +216,27 @@ public class TextLine extends Scheme
     this.sinkCompression = sinkCompression;
     }
 
+  /**
+   * Method isLazyText returns true if this TextLine sources the "offset" as a Long and the "line" as a {@link LazyText}.
+   *
+   * @return the lazyText (type boolean) of this TextLine object.
+   */
+  public boolean isLazyText()
+    {
+    return lazyText;
+    }
+
+  /**
+   * Method setLazyText sets the lazyText of this TextLine object. If true, the "offset" is sourced as a Long and the
+   * "line" as a {@link LazyText}, instead of String values.
+   *
+   * @param lazyText the lazyText of this TextLine object.
+   */
+  public void setLazyText( boolean lazyText )
+    {
+    this.lazyText = lazyText;
+    }
+
   @Override
   public void sourceInit( Tap tap, JobConf conf )
     {
@@ -251,6 +280,16 @@ public class TextLine extends Scheme
     {
     Tuple tuple = new Tuple();
 
+    if( lazyText )
+      {
+      if( sourceFields.size() == 2 )
+        tuple.add( key instanceof LongWritable ? ( (LongWritable) key ).get() : Long.parseLong( key.toString() ) );
+
+      tuple.add( value instanceof Text ? new LazyText( (Text) value ) : value.toString() );
+
+      return tuple;
+      }
+
     if( sourceFields.size() == 2 )
       tuple.add( key.toString() );
 
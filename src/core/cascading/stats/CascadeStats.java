@@ -26,6 +26,7 @@ import java.util.LinkedList;
 import java.util.List;
 
 import cascading.cascade.Cascade;
+import cascading.flow.StepCounters;
 
 /** Class Cascadetats collects {@link Cascade} specific statistics. */
 public class CascadeStats extends CascadingStats
@@ -59,7 +60,12 @@ public class CascadeStats extends CascadingStats
     long value = 0;
 
     for( FlowStats flowStats : flowStatsList )
-      value += flowStats.getCounterValue( counter );
+      {
+      if( counter == StepCounters.Max_Group_Size ) // the max, not the sum, of all flows
+        value = Math.max( value, flowStats.getCounterValue( counter ) );
+      else
+        value += flowStats.getCounterValue( counter );
+      }
 
     return value;
     }
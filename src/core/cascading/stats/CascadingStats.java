@@ -199,6 +199,16 @@ public abstract class CascadingStats
     return startTime;
     }
 
+  /**
+   * Method getFinishedTime returns the finishedTime of this CascadingStats object, or zero if not yet finished.
+   *
+   * @return the finishedTime (type long) of this CascadingStats object.
+   */
+  public long getFinishedTime()
+    {
+    return finishedTime;
+    }
+
   /**
    * Method getDuration returns the duration the work executed before being finished.
    *
@@ -23,9 +23,12 @@ package cascading.stats;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import cascading.flow.Flow;
+import cascading.flow.StepCounters;
 
 
 /** Class FlowStats collects {@link Flow} specific statistics. */
@@ -64,11 +67,33 @@ public class FlowStats extends CascadingStats
     long value = 0;
 
     for( StepStats step : stepStatsList )
-      value += step.getCounterValue( counter );
+      {
+      if( counter == StepCounters.Max_Group_Size ) // the max, not the sum, of all steps
+        value = Math.max( value, step.getCounterValue( counter ) );
+      else
+        value += step.getCounterValue( counter );
+      }
 
     return value;
     }
 
+  /**
+   * Method getCounterValuesByStep returns the value of the given counter for each step, keyed by step name, in step
+   * order. For example, {@link cascading.flow.StepCounters#Spill_Bytes_Written} shows which step spills the most.
+   *
+   * @param counter of type Enum
+   * @return Map<String, Long>
+   */
+  public Map<String, Long> getCounterValuesByStep( Enum counter )
+    {
+    Map<String, Long> values = new LinkedHashMap<String, Long>();
+
+    for( StepStats step : stepStatsList )
+      values.put( step.getStepName(), step.getCounterValue( counter ) );
+
+    return values;
+    }
+
   @Override
   public void captureDetail()
     {
@@ -24,6 +24,70 @@ package cascading.stats;
 /** Class StepStats collects {@link cascading.flow.FlowStep} specific statistics. */
 public abstract class StepStats extends CascadingStats
   {
+  /** Field stepName */
+  String stepName;
+  /** Field readyTime */
+  long readyTime;
+
+  protected StepStats()
+    {
+    }
+
+  protected StepStats( String stepName )
+    {
+    this.stepName = stepName;
+    }
+
+  /**
+   * Method getStepName returns the name of the step, or null if not given.
+   *
+   * @return the stepName (type String) of this StepStats object.
+   */
+  public String getStepName()
+    {
+    return stepName;
+    }
+
+  /**
+   * Method markReady records the time the step could have started, that is when its last predecessor finished.
+   *
+   * @param readyTime of type long
+   */
+  public void markReady( long readyTime )
+    {
+    this.readyTime = readyTime;
+    }
+
+  /**
+   * Method getReadyTime returns the time the step could have started, or zero if never ready.
+   *
+   * @return the readyTime (type long) of this StepStats object.
+   */
+  public long getReadyTime()
+    {
+    return readyTime;
+    }
+
+  /**
+   * Method getStartLatency returns the time between this step becoming ready, when its last predecessor finished,
+   * and it actually starting. Returns zero if the step never started.
+   *
+   * @return the startLatency (type long) of this StepStats object.
+   */
+  public long getStartLatency()
+    {
+    if( readyTime != 0 && startTime != 0 )
+      return Math.max( 0, startTime - readyTime );
+    else
+      return 0;
+    }
+
+  @Override
+  protected String getStatsString()
+    {
+    return super.getStatsString() + ", startLatency=" + getStartLatency();
+    }
+
   @Override
   public String toString()
     {
@@ -26,6 +26,7 @@ import java.util.Set;
 
 import cascading.CascadingException;
 import cascading.flow.Scope;
+import cascading.scheme.BlockSequenceFile;
 import cascading.scheme.Scheme;
 import cascading.scheme.SequenceFile;
 import cascading.tuple.Fields;
@@ -113,7 +114,7 @@ public class TempHfs extends Hfs
     this.name = name;
 
     if( schemeClass == null )
-      this.schemeClass = SequenceFile.class;
+      this.schemeClass = BlockSequenceFile.class;
     else
       this.schemeClass = schemeClass;
     }
@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2007-2009 Concurrent, Inc. All Rights Reserved.
+ *
+ * Project and contact information: http://www.cascading.org/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Cascading is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Cascading is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cascading.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package cascading.tap;
+
+import java.util.ArrayList;
+import java.util.Formattable;
+import java.util.List;
+import java.util.MissingFormatArgumentException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import cascading.tuple.Tuple;
+
+/**
+ * Class TemplateFormatter parses a {@link java.util.Formatter} format String once so it can be applied to many
+ * {@link Tuple} instances without re-parsing it each time, as {@link Tuple#format(String)} does.
+ * <p/>
+ * Plain "%s" conversions are rendered with {@link String#valueOf(Object)}, all other conversions fall back to
+ * {@link String#format(String, Object[])} on the single value they reference.
+ */
+class TemplateFormatter
+  {
+  /** Field SPECIFIER, same grammar as java.util.Formatter */
+  private static final Pattern SPECIFIER = Pattern.compile( "%(\\d+\\$)?([-#+ 0,(<]*)?(\\d+)?(\\.\\d+)?([tT])?([a-zA-Z%])" );
+
+  /** Field literals, the text preceding each conversion, and any trailing text as the last element */
+  private final String[] literals;
+  /** Field positions, the value position of each conversion */
+  private final int[] positions;
+  /** Field conversions, the single value format String of each conversion, or null for a plain "%s" */
+  private final String[] conversions;
+  /** Field template */
+  private final String template;
+
+  TemplateFormatter( String template )
+    {
+    this.template = template;
+
+    List<String> literals = new ArrayList<String>();
+    List<Integer> positions = new ArrayList<Integer>();
+    List<String> conversions = new ArrayList<String>();
+
+    Matcher matcher = SPECIFIER.matcher( template );
+    StringBuilder literal = new StringBuilder();
+    int ordinary = 0;
+    int last = -1;
+    int end = 0;
+
+    while( matcher.find() )
+      {
+      literal.append( template, end, matcher.start() );
+      end = matcher.end();
+
+      char conversion = matcher.group( 6 ).charAt( 0 );
+
+      if( conversion == '%' )
+        {
+        literal.append( '%' );
+        continue;
+        }
+
+      if( conversion == 'n' )
+        {
+        literal.append( System.getProperty( "line.separator" ) );
+        continue;
+        }
+
+      String flags = matcher.group( 2 ) == null ? "" : matcher.group( 2 );
+      int position;
+
+      if( matcher.group( 1 ) != null )
+        position = Integer.parseInt( matcher.group( 1 ).substring( 0, matcher.group( 1 ).length() - 1 ) ) - 1;
+      else if( flags.indexOf( '<' ) != -1 )
+        position = last;
+      else
+        position = ordinary++;
+
+      last = position;
+
+      String single = "%" + flags.replace( "<", "" ) + nullToEmpty( matcher.group( 3 ) ) + nullToEmpty( matcher.group( 4 ) ) + nullToEmpty( matcher.group( 5 ) ) + conversion;
+
+      literals.add( literal.toString() );
+      positions.add( position );
+      conversions.add( single.equals( "%s" ) ? null : single );
+      literal.setLength( 0 );
+      }
+
+    literal.append( template, end, template.length() );
+    literals.add( literal.toString() );
+
+    this.literals = literals.toArray( new String[literals.size()] );
+    this.positions = new int[positions.size()];
+    this.conversions = conversions.toArray( new String[conversions.size()] );
+
+    for( int i = 0; i < this.positions.length; i++ )
+      this.positions[ i ] = positions.get( i );
+    }
+
+  private static String nullToEmpty( String value )
+    {
+    return value == null ? "" : value;
+    }
+
+  /**
+   * Method format renders the given tuple values into this template.
+   *
+   * @param tuple of type Tuple
+   * @return String
+   */
+  String format( Tuple tuple )
+    {
+    StringBuilder builder = new StringBuilder( template.length() + 16 );
+
+    for( int i = 0; i < positions.length; i++ )
+      {
+      builder.append( literals[ i ] );
+
+      int position = positions[ i ];
+
+      if( position < 0 || position >= tuple.size() )
+        throw new MissingFormatArgumentException( conversions[ i ] == null ? "%s" : conversions[ i ] );
+
+      Object value = tuple.getObject( position );
+
+      if( conversions[ i ] == null && !( value instanceof Formattable ) )
+        builder.append( String.valueOf( value ) );
+      else
+        builder.append( String.format( conversions[ i ] == null ? "%s" : conversions[ i ], value ) );
+      }
+
+    builder.append( literals[ positions.length ] );
+
+    return builder.toString();
+    }
+
+  @Override
+  public String toString()
+    {
+    return template;
+    }
+  }
@@ -23,8 +23,10 @@ package cascading.tap;
 
 import java.io.IOException;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
+import cascading.flow.FlowProcess;
 import cascading.scheme.Scheme;
 import cascading.tap.hadoop.TapCollector;
 import cascading.tuple.Fields;
@@ -43,28 +45,77 @@ import org.apache.log4j.Logger;
  * The constructor takes a {@link Hfs} {@link Tap} and a {@link java.util.Formatter} format syntax String. This allows
  * Tuple values at given positions to be used as directory names. Note that Hadoop can only sink to directories, and
  * all files in those directories are "part-xxxxx" files.
+ * <p/>
+ * At most openTapsThreshold paths are held open at once, {@link #OPEN_TAPS_THRESHOLD_DEFAULT} by default. When
+ * exceeded, the least recently written path is closed, and re-opened into a new "part-xxxxx-yyyyy" file if more
+ * values are written to it later.
  */
 public class TemplateTap extends SinkTap
   {
   /** Field LOG */
   private static final Logger LOG = Logger.getLogger( TemplateTap.class );
 
+  /** Field OPEN_TAPS_THRESHOLD_DEFAULT */
+  public static final int OPEN_TAPS_THRESHOLD_DEFAULT = 300;
+
   /** Field parent */
   private Tap parent;
   /** Field pathTemplate */
   private String pathTemplate;
   /** Field keepParentOnDelete */
   private boolean keepParentOnDelete = false;
-  /** Field collectors */
-  private Map<String, OutputCollector> collectors = new HashMap<String, OutputCollector>();
+  /** Field openTapsThreshold */
+  private int openTapsThreshold = OPEN_TAPS_THRESHOLD_DEFAULT;
 
-  private class TemplateCollector extends TupleEntryCollector implements OutputCollector
+  /**
+   * Class TemplateCollector holds a bounded pool of open {@link TapCollector} instances, one per template path.
+   * <p/>
+   * When more than openTapsThreshold paths are open, the least recently used collector is closed. If a closed path
+   * is written to again, a new collector is opened writing to a new part file in the same directory.
+   */
+  public class TemplateCollector extends TupleEntryCollector implements OutputCollector
     {
+    /** Field conf */
     JobConf conf;
+    /** Field flowProcess */
+    FlowProcess flowProcess;
+    /** Field collectors, in least recently used order */
+    private final Map<String, OutputCollector> collectors = new LinkedHashMap<String, OutputCollector>( 16, 0.75f, true )
+    {
+    @Override
+    protected boolean removeEldestEntry( Map.Entry<String, OutputCollector> eldest )
+      {
+      if( size() <= openTapsThreshold )
+        return false;
+
+      evictCollector( eldest.getKey(), eldest.getValue() );
+
+      return true;
+      }
+    };
+    /** Field sequences, the next part file sequence of every evicted path */
+    private final Map<String, Integer> sequences = new HashMap<String, Integer>();
+    /** Field formatter */
+    private final TemplateFormatter formatter;
+    /** Field lastValues, the template values of the previous path */
+    private Tuple lastValues;
+    /** Field lastPath */
+    private String lastPath;
 
     public TemplateCollector( JobConf conf )
       {
       this.conf = conf;
+      this.formatter = new TemplateFormatter( pathTemplate );
+      }
+
+    /**
+     * Method setFlowProcess sets the flowProcess used to increment the {@link TemplateTapCounters} counters.
+     *
+     * @param flowProcess the flowProcess of this TemplateCollector object.
+     */
+    public void setFlowProcess( FlowProcess flowProcess )
+      {
+      this.flowProcess = flowProcess;
       }
 
     protected void collect( Tuple tuple )
@@ -72,6 +123,29 @@ public class TemplateTap extends SinkTap
       throw new UnsupportedOperationException( "collect should never be called on TemplateCollector" );
       }
 
+    /**
+     * Method getPath returns the path for the given template values. Consecutive equal values, as is typical of
+     * grouped or sorted streams, re-use the previously formatted path.
+     *
+     * @param values of type Tuple
+     * @return String
+     */
+    private String getPath( Tuple values )
+      {
+      if( lastValues != null && lastValues.equals( values ) )
+        return lastPath;
+
+      lastPath = formatter.format( values );
+      lastValues = new Tuple( values );
+
+      return lastPath;
+      }
+
+    private OutputCollector getCollector( Tuple values )
+      {
+      return getCollector( getPath( values ) );
+      }
+
     private OutputCollector getCollector( String path )
       {
       OutputCollector collector = collectors.get( path );
@@ -79,6 +153,8 @@ public class TemplateTap extends SinkTap
       if( collector != null )
         return collector;
 
+      Integer sequence = sequences.get( path );
+
       try
         {
         Tap tap = new Hfs( parent.getScheme(), parent.getQualifiedPath( conf ).toString() );
@@ -86,13 +162,21 @@ public class TemplateTap extends SinkTap
         if( LOG.isDebugEnabled() )
           LOG.debug( "creating collector for path: " + new Path( parent.getQualifiedPath( conf ), path ) );
 
-        collector = (OutputCollector) new TapCollector( tap, path, conf );
+        if( sequence == null )
+          collector = (OutputCollector) new TapCollector( tap, path, conf );
+        else
+          collector = (OutputCollector) new TapCollector( tap, path, sequence, conf );
         }
       catch( IOException exception )
         {
         throw new TapException( "unable to open template path: " + path, exception );
         }
 
+      increment( TemplateTapCounters.Collectors_Opened );
+
+      if( sequence != null )
+        increment( TemplateTapCounters.Collectors_Reopened );
+
       collectors.put( path, collector );
 
       if( LOG.isInfoEnabled() && collectors.size() % 100 == 0 )
@@ -101,6 +185,26 @@ public class TemplateTap extends SinkTap
       return collector;
       }
 
+    private void evictCollector( String path, OutputCollector collector )
+      {
+      if( LOG.isDebugEnabled() )
+        LOG.debug( "closing least recently used collector for path: " + path );
+
+      Integer sequence = sequences.get( path );
+
+      sequences.put( path, sequence == null ? 1 : sequence + 1 );
+
+      ( (TupleEntryCollector) collector ).close();
+
+      increment( TemplateTapCounters.Collectors_Evicted );
+      }
+
+    private void increment( Enum counter )
+      {
+      if( flowProcess != null )
+        flowProcess.increment( counter, 1 );
+      }
+
     @Override
     public void close()
       {
@@ -123,14 +227,13 @@ public class TemplateTap extends SinkTap
       finally
         {
         collectors.clear();
+        sequences.clear();
         }
       }
 
     public void collect( Object key, Object value ) throws IOException
       {
-      String path = ( (Tuple) value ).format( pathTemplate );
-
-      getCollector( path ).collect( key, value );
+      getCollector( (Tuple) value ).collect( key, value );
       }
     }
 
@@ -209,7 +312,7 @@ public class TemplateTap extends SinkTap
       if( pathFields != null )
         {
         Tuple values = tupleEntry.selectTuple( pathFields );
-        outputCollector = ( (TemplateCollector) outputCollector ).getCollector( values.format( pathTemplate ) );
+        outputCollector = ( (TemplateCollector) outputCollector ).getCollector( values );
         }
 
       scheme.sink( tupleEntry, outputCollector );
@@ -265,6 +368,27 @@ public class TemplateTap extends SinkTap
     this.keepParentOnDelete = keepParentOnDelete;
     }
 
+  /**
+   * Constructor TemplateTap creates a new TemplateTap instance using the given parent {@link Hfs} Tap as the
+   * base path and default {@link cascading.scheme.Scheme}, and the pathTemplate as the {@link java.util.Formatter} format String.
+   * <p/>
+   * keepParentOnDelete, when set to true, prevents the parent Tap from being deleted when {@link #deletePath(org.apache.hadoop.mapred.JobConf)}
+   * is called, typically an issue when used inside a {@link cascading.cascade.Cascade}.
+   * <p/>
+   * openTapsThreshold limits the number of open files to be output to.
+   *
+   * @param parent             of type Tap
+   * @param pathTemplate       of type String
+   * @param sinkMode           of type SinkMode
+   * @param keepParentOnDelete of type boolean
+   * @param openTapsThreshold  of type int
+   */
+  public TemplateTap( Hfs parent, String pathTemplate, SinkMode sinkMode, boolean keepParentOnDelete, int openTapsThreshold )
+    {
+    this( parent, pathTemplate, sinkMode, keepParentOnDelete );
+    setOpenTapsThreshold( openTapsThreshold );
+    }
+
   /**
    * Constructor TemplateTap creates a new TemplateTap instance using the given parent {@link Hfs} Tap as the
    * base path and default {@link cascading.scheme.Scheme}, and the pathTemplate as the {@link java.util.Formatter} format String.
@@ -329,6 +453,32 @@ public class TemplateTap extends SinkTap
     this.keepParentOnDelete = keepParentOnDelete;
     }
 
+  /**
+   * Constructor TemplateTap creates a new TemplateTap instance using the given parent {@link Hfs} Tap as the
+   * base path and default {@link cascading.scheme.Scheme}, and the pathTemplate as the {@link java.util.Formatter} format String.
+   * The pathFields is a selector that selects and orders the fields to be used in the given pathTemplate.
+   * <p/>
+   * This constructor also allows the sinkFields of the parent Tap to be independent of the pathFields. Thus allowing
+   * data not in the result file to be used in the template path name.
+   * <p/>
+   * keepParentOnDelete, when set to true, prevents the parent Tap from being deleted when {@link #deletePath(org.apache.hadoop.mapred.JobConf)}
+   * is called, typically an issue when used inside a {@link cascading.cascade.Cascade}.
+   * <p/>
+   * openTapsThreshold limits the number of open files to be output to.
+   *
+   * @param parent             of type Tap
+   * @param pathTemplate       of type String
+   * @param pathFields         of type Fields
+   * @param sinkMode           of type SinkMode
+   * @param keepParentOnDelete of type boolean
+   * @param openTapsThreshold  of type int
+   */
+  public TemplateTap( Hfs parent, String pathTemplate, Fields pathFields, SinkMode sinkMode, boolean keepParentOnDelete, int openTapsThreshold )
+    {
+    this( parent, pathTemplate, pathFields, sinkMode, keepParentOnDelete );
+    setOpenTapsThreshold( openTapsThreshold );
+    }
+
   /**
    * Method getParent returns the parent Tap of this TemplateTap object.
    *
@@ -349,6 +499,24 @@ public class TemplateTap extends SinkTap
     return pathTemplate;
     }
 
+  /**
+   * Method getOpenTapsThreshold returns the maximum number of template paths held open at once by this TemplateTap object.
+   *
+   * @return the openTapsThreshold (type int) of this TemplateTap object.
+   */
+  public int getOpenTapsThreshold()
+    {
+    return openTapsThreshold;
+    }
+
+  private void setOpenTapsThreshold( int openTapsThreshold )
+    {
+    if( openTapsThreshold < 1 )
+      throw new IllegalArgumentException( "openTapsThreshold must be greater than zero, got: " + openTapsThreshold );
+
+    this.openTapsThreshold = openTapsThreshold;
+    }
+
   @Override
   public boolean isWriteDirect()
     {
@@ -121,7 +121,7 @@ public class Hadoop18TapUtil
    *
    * @param conf
    */
-  public static void commitTask( JobConf conf ) throws IOException
+  public static synchronized void commitTask( JobConf conf ) throws IOException
     {
     Path taskOutputPath = getTaskOutputPath( conf );
 
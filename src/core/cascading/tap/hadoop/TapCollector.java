@@ -58,6 +58,8 @@ public class TapCollector extends TupleEntryCollector implements OutputCollector
   private Tap tap;
   /** Field prefix */
   private String prefix;
+  /** Field sequence */
+  private int sequence = -1;
   /** Field outputEntry */
   private TupleEntry outputEntry;
   /** Field isFileOutputFormat */
@@ -86,9 +88,27 @@ public class TapCollector extends TupleEntryCollector implements OutputCollector
    * @throws IOException when fails to initialize
    */
   public TapCollector( Tap tap, String prefix, JobConf conf ) throws IOException
+    {
+    this( tap, prefix, -1, conf );
+    }
+
+  /**
+   * Constructor TapCollector creates a new TapCollector instance.
+   * <p/>
+   * If sequence is zero or greater, it is appended to the part file name so that a collector re-opened for the same
+   * prefix within the same task does not overwrite the files written by a previous collector.
+   *
+   * @param tap      of type Tap
+   * @param prefix   of type String
+   * @param sequence of type int
+   * @param conf     of type JobConf
+   * @throws IOException when fails to initialize
+   */
+  public TapCollector( Tap tap, String prefix, int sequence, JobConf conf ) throws IOException
     {
     this.tap = tap;
     this.prefix = prefix == null || prefix.length() == 0 ? null : prefix;
+    this.sequence = sequence;
     this.conf = new JobConf( conf );
     this.outputEntry = new TupleEntry( tap.getSinkFields() );
     this.filenamePattern = conf.get( "cascading.tapcollector.partname", this.filenamePattern );
@@ -113,6 +133,9 @@ public class TapCollector extends TupleEntryCollector implements OutputCollector
       else
         filename = String.format( filenamePattern, "", "", conf.getInt( "mapred.task.partition", 0 ) );
 
+      if( sequence != -1 )
+        filename += String.format( "-%05d", sequence );
+
       Hadoop18TapUtil.setupTask( conf );
       }
 
@@ -129,6 +129,8 @@ public class Fields implements Comparable, Iterable<Comparable>, Serializable, C
   Kind kind;
   /** Field comparators */
   Comparator[] comparators;
+  /** Field types */
+  Class[] types;
 
   /** Field thisPos */
   transient int[] thisPos;
@@ -279,7 +281,20 @@ public class Fields implements Comparable, Iterable<Comparable>, Serializable, C
       if( !fields[ 0 ].contains( fields[ 1 ] ) )
         throw new TupleException( "could not find all fields to be replaced, available: " + fields[ 0 ].printVerbose() + ",  declared: " + fields[ 1 ].printVerbose() );
 
-      return fields[ 0 ];
+      if( fields[ 0 ].types == null && fields[ 1 ].types == null )
+        return fields[ 0 ];
+
+      // replaced values take the declared types, if any
+      Fields result = new Fields( fields[ 0 ].get() );
+
+      result.copyTypes( fields[ 0 ], 0 );
+
+      int[] pos = fields[ 0 ].getPos( fields[ 1 ] );
+
+      for( int i = 0; i < pos.length; i++ )
+        result.setType( pos[ i ], fields[ 1 ].getType( i ) );
+
+      return result;
       }
 
     // we can't deal with anything but ALL
@@ -322,9 +337,14 @@ public class Fields implements Comparable, Iterable<Comparable>, Serializable, C
         int index = current.indexOfSafe( field );
 
         if( index == -1 )
+          {
           notFound.add( (String) field );
+          }
         else
+          {
           result.set( i, handleFound( found, field ) );
+          result.setType( i, current.getType( index ) );
+          }
 
         continue;
         }
@@ -340,6 +360,8 @@ public class Fields implements Comparable, Iterable<Comparable>, Serializable, C
         result.set( i, handleFound( found, thisField ) );
       else
         result.set( i, field );
+
+      result.setType( i, current.getType( pos ) );
       }
     }
 
@@ -806,15 +828,15 @@ public class Fields implements Comparable, Iterable<Comparable>, Serializable, C
 
     Fields result = size( selector.size() );
 
-    // todo: this can be cleaned up i think
     for( int i = 0; i < selector.size(); i++ )
       {
       Comparable field = selector.get( i );
+      int pos = field instanceof String ? indexOf( field ) : translatePos( (Integer) field );
 
-      if( field instanceof String )
-        result.set( i, get( indexOf( field ) ) );
-      else if( this.get( translatePos( (Integer) field ) ) instanceof String )
-        result.set( i, get( translatePos( (Integer) field ) ) );
+      if( get( pos ) instanceof String )
+        result.set( i, get( pos ) );
+
+      result.setType( i, getType( pos ) );
       }
 
     return result;
@@ -842,6 +864,19 @@ public class Fields implements Comparable, Iterable<Comparable>, Serializable, C
     for( int i : pos )
       list.set( i, null );
 
+    if( types != null )
+      {
+      List<Class> typesList = new LinkedList<Class>();
+
+      for( int i = 0; i < size(); i++ )
+        {
+        if( list.get( i ) != null )
+          typesList.add( types[ i ] );
+        }
+
+      minus.types = typesList.toArray( new Class[typesList.size()] );
+      }
+
     Util.removeAllNulls( list );
 
     minus.fields = list.toArray( new Comparable[list.size()] );
@@ -878,6 +913,9 @@ public class Fields implements Comparable, Iterable<Comparable>, Serializable, C
     // copy over field names from that side
     copy( names, result, fields, this.size() );
 
+    result.copyTypes( this, 0 );
+    result.copyTypes( fields, this.size() );
+
     if( this.isUnknown() || fields.isUnknown() )
       result.kind = Kind.UNKNOWN;
 
@@ -906,6 +944,8 @@ public class Fields implements Comparable, Iterable<Comparable>, Serializable, C
         results.fields[ i ] = this.fields[ i ];
       else
         results.fields[ i ] = i;
+
+      results.setType( i, fields.getType( i ) );
       }
 
     return results;
@@ -932,6 +972,12 @@ public class Fields implements Comparable, Iterable<Comparable>, Serializable, C
       }
     }
 
+  private void copyTypes( Fields fields, int offset )
+    {
+    for( int i = 0; i < fields.size(); i++ )
+      setType( i + offset, fields.getType( i ) );
+    }
+
   /**
    * Method verifyContains tests if this instance contains the field names and positions specified in the given
    * fields instance. If the test fails, a {@link TupleException} is thrown.
@@ -1197,6 +1243,101 @@ public class Fields implements Comparable, Iterable<Comparable>, Serializable, C
     return comparators != null;
     }
 
+  /**
+   * Method setType should be used to declare the value type of a given field name or position.
+   * <p/>
+   * Types are hints, values are coerced to the declared type when written in the compact typed layout, see
+   * {@link TypedTuple}. Types are carried along when fields are selected, appended or resolved, and operations declaring
+   * {@link #ARGS} inherit the types of their arguments.
+   *
+   * @param fieldName of type Comparable
+   * @param type      of type Class
+   */
+  public void setType( Comparable fieldName, Class type )
+    {
+    try
+      {
+      setType( getPos( fieldName ), type );
+      }
+    catch( FieldsResolverException exception )
+      {
+      throw new IllegalArgumentException( "given field name was not found: " + fieldName, exception );
+      }
+    }
+
+  /**
+   * Method setTypes sets all the types of this Fields object. The Class array must be the same length as the number
+   * of fields in this instance, a null type leaves the given position untyped.
+   *
+   * @param types the types of this Fields object.
+   */
+  public void setTypes( Class... types )
+    {
+    if( types.length != size() )
+      throw new IllegalArgumentException( "given number of types must match fields size" );
+
+    this.types = null;
+
+    for( int i = 0; i < types.length; i++ )
+      setType( i, types[ i ] );
+    }
+
+  private void setType( int pos, Class type )
+    {
+    if( type == null && types == null )
+      return;
+
+    if( types == null )
+      types = new Class[size()];
+
+    types[ pos ] = type;
+    }
+
+  /**
+   * Method getType returns the declared type of the given position, or null if not declared.
+   *
+   * @param pos of type int
+   * @return Class
+   */
+  public Class getType( int pos )
+    {
+    return types == null ? null : types[ pos ];
+    }
+
+  /**
+   * Method getTypes returns the types of this Fields object.
+   *
+   * @return the types (type Class[]) of this Fields object.
+   */
+  public Class[] getTypes()
+    {
+    Class[] copy = new Class[size()];
+
+    if( types != null )
+      System.arraycopy( types, 0, copy, 0, size() );
+
+    return copy;
+    }
+
+  /**
+   * Method hasTypes test if this Fields instance has declared types.
+   *
+   * @return boolean
+   */
+  public boolean hasTypes()
+    {
+    if( types == null )
+      return false;
+
+    for( Class type : types )
+      {
+      if( type != null )
+        return true;
+      }
+
+    return false;
+    }
+
   @Override
   public int compare( Tuple lhs, Tuple rhs )
     {
@@ -0,0 +1,258 @@
+/*
+ * Copyright (c) 2007-2009 Concurrent, Inc. All Rights Reserved.
+ *
+ * Project and contact information: http://www.cascading.org/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Cascading is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Cascading is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cascading.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package cascading.tuple;
+
+import java.io.Serializable;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+import org.apache.hadoop.io.Text;
+
+/**
+ * Class LazyText is a {@link CharSequence} over the UTF-8 bytes of a line of text, used as a {@link Tuple} element
+ * by {@link cascading.scheme.TextLine} when lazy text is enabled.
+ * <p/>
+ * Lines of ASCII characters are read directly from the bytes, so matching a regular expression against a LazyText does
+ * not decode the line. The String value is only decoded when {@link #toString()} is called, or a non ASCII line is read.
+ * When written by a {@link TupleOutputStream}, the bytes are written as a String value without being decoded.
+ * <p/>
+ * The hashCode of a LazyText is the hashCode of its String value, but a LazyText is only equal to other LazyText
+ * values, as a String is never equal to a LazyText. {@link Tuple} compares a LazyText and a String element by their
+ * String values, so Tuples holding either are equal and hash alike.
+ */
+public class LazyText implements CharSequence, Comparable, Serializable
+  {
+  /** Field ASCII */
+  private static final Charset ASCII = Charset.forName( "US-ASCII" );
+
+  /** Field bytes */
+  private final byte[] bytes;
+  /** Field offset */
+  private final int offset;
+  /** Field length */
+  private final int length;
+  /** Field isAscii, 1 if all bytes are ASCII, 0 if not, -1 if not yet known */
+  private transient int isAscii = -1;
+  /** Field string */
+  private transient String string;
+  /** Field hashCode */
+  private transient int hashCode;
+
+  /**
+   * Constructor LazyText creates a new LazyText instance from a copy of the bytes of the given Text, Text instances are
+   * reused by Hadoop record readers.
+   *
+   * @param text of type Text
+   */
+  public LazyText( Text text )
+    {
+    this( Arrays.copyOf( text.getBytes(), text.getLength() ), 0, text.getLength() );
+    }
+
+  /**
+   * Constructor LazyText creates a new LazyText instance over the given UTF-8 bytes, the bytes are not copied.
+   *
+   * @param bytes  of type byte[]
+   * @param offset of type int
+   * @param length of type int
+   */
+  public LazyText( byte[] bytes, int offset, int length )
+    {
+    this.bytes = bytes;
+    this.offset = offset;
+    this.length = length;
+    }
+
+  /**
+   * Method getBytes returns the UTF-8 bytes of this LazyText object, see {@link #getOffset()} and {@link #getLength()}.
+   *
+   * @return the bytes (type byte[]) of this LazyText object.
+   */
+  public byte[] getBytes()
+    {
+    return bytes;
+    }
+
+  /**
+   * Method getOffset returns the offset of the first byte of this LazyText object.
+   *
+   * @return the offset (type int) of this LazyText object.
+   */
+  public int getOffset()
+    {
+    return offset;
+    }
+
+  /**
+   * Method getLength returns the number of bytes of this LazyText object.
+   *
+   * @return the length (type int) of this LazyText object.
+   */
+  public int getLength()
+    {
+    return length;
+    }
+
+  private boolean isAscii()
+    {
+    if( isAscii != -1 )
+      return isAscii == 1;
+
+    isAscii = 1;
+
+    for( int i = offset; i < offset + length; i++ )
+      {
+      if( bytes[ i ] < 0 )
+        {
+        isAscii = 0;
+        break;
+        }
+      }
+
+    return isAscii == 1;
+    }
+
+  public int length()
+    {
+    if( isAscii() )
+      return length;
+
+    return toString().length();
+    }
+
+  public char charAt( int index )
+    {
+    if( !isAscii() )
+      return toString().charAt( index );
+
+    if( index < 0 || index >= length )
+      throw new IndexOutOfBoundsException( "index: " + index + ", length: " + length );
+
+    return (char) bytes[ offset + index ];
+    }
+
+  public CharSequence subSequence( int start, int end )
+    {
+    if( !isAscii() )
+      return toString().subSequence( start, end );
+
+    if( start < 0 || end > length || start > end )
+      throw new IndexOutOfBoundsException( "start: " + start + ", end: " + end + ", length: " + length );
+
+    if( string != null )
+      return string.substring( start, end );
+
+    return new String( bytes, offset + start, end - start, ASCII );
+    }
+
+  @Override
+  public String toString()
+    {
+    if( string != null )
+      return string;
+
+    if( isAscii() )
+      {
+      string = new String( bytes, offset, length, ASCII );
+      return string;
+      }
+
+    try
+      {
+      string = Text.decode( bytes, offset, length );
+      }
+    catch( CharacterCodingException exception )
+      {
+      throw new TupleException( "unable to decode text", exception );
+      }
+
+    return string;
+    }
+
+  public int compareTo( Object object )
+    {
+    if( object instanceof LazyText && isAscii() && ( (LazyText) object ).isAscii() )
+      {
+      LazyText other = (LazyText) object;
+      int limit = Math.min( length, other.length );
+
+      for( int i = 0; i < limit; i++ )
+        {
+        int diff = bytes[ offset + i ] - other.bytes[ other.offset + i ];
+
+        if( diff != 0 )
+          return diff;
+        }
+
+      return length - other.length;
+      }
+
+    return toString().compareTo( object.toString() );
+    }
+
+  @Override
+  public boolean equals( Object object )
+    {
+    if( this == object )
+      return true;
+
+    if( object instanceof LazyText )
+      {
+      LazyText other = (LazyText) object;
+
+      if( length != other.length )
+        return false;
+
+      for( int i = 0; i < length; i++ )
+        {
+        if( bytes[ offset + i ] != other.bytes[ other.offset + i ] )
+          return false;
+        }
+
+      return true;
+      }
+
+    return false;
+    }
+
+  @Override
+  public int hashCode()
+    {
+    if( hashCode != 0 )
+      return hashCode;
+
+    if( !isAscii() )
+      {
+      hashCode = toString().hashCode();
+      return hashCode;
+      }
+
+    int hash = 0;
+
+    for( int i = offset; i < offset + length; i++ )
+      hash = 31 * hash + bytes[ i ];
+
+    hashCode = hash;
+
+    return hashCode;
+    }
+  }
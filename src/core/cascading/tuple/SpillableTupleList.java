@@ -21,6 +21,8 @@
 
 package cascading.tuple;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.Closeable;
 import java.io.File;
 import java.io.FileInputStream;
@@ -29,8 +31,8 @@ import java.io.Flushable;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.ArrayList;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
 
 import cascading.tuple.hadoop.TupleSerialization;
@@ -41,26 +43,75 @@ import org.apache.log4j.Logger;
 /**
  * SpillableTupleList is a simple {@link Iterable} object that can store an unlimited number of {@link Tuple} instances by spilling
  * excess to a temporary disk file.
+ * <p/>
+ * The list spills when the number of Tuples held in memory reaches the given threshold, or when the estimated size
+ * in bytes of the Tuples held in memory exceeds the given memory limit. Spill files are streamed back one Tuple at
+ * a time during iteration.
+ * <p/>
+ * If a cache limit is given, spill files are kept decoded in memory once read, until the estimated size in bytes of
+ * the cached Tuples would exceed the limit. So a list iterated many times, as by a join, only reads the cached files
+ * from disk once.
+ * <p/>
+ * Spill files are read and written through large buffers, and are compressed with the given codec, if any. A
+ * {@link SpillListener} may be set to be notified of the files written and read.
  */
 public class SpillableTupleList implements Iterable<Tuple>
   {
   /** Field LOG */
   private static final Logger LOG = Logger.getLogger( SpillableTupleList.class );
+  /** Field BUFFER_SIZE */
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  /** Interface SpillListener is notified of the spill file I/O of a SpillableTupleList. */
+  public interface SpillListener
+    {
+    /**
+     * Method notifyWrite is called after a spill file is written.
+     *
+     * @param list     of type SpillableTupleList
+     * @param tuples   of type long, the number of Tuples spilled
+     * @param bytes    of type long, the size of the file
+     * @param duration of type long, the time taken in milliseconds
+     */
+    void notifyWrite( SpillableTupleList list, long tuples, long bytes, long duration );
+
+    /**
+     * Method notifyRead is called before a spill file is read.
+     *
+     * @param list  of type SpillableTupleList
+     * @param bytes of type long, the size of the file
+     */
+    void notifyRead( SpillableTupleList list, long bytes );
+    }
 
   /** Field threshold */
   private long threshold = 10000;
+  /** Field memoryLimit */
+  private long memoryLimit = Long.MAX_VALUE;
   /** Field codec */
   private CompressionCodec codec = null;
+  /** Field cacheLimit */
+  private long cacheLimit = 0;
   /** Field files */
-  private List<File> files = new LinkedList<File>();
+  private List<File> files = new ArrayList<File>();
+  /** Field cache holds the decoded Tuples of each spill file, or null if not cached */
+  private List<List<Tuple>> cache = new ArrayList<List<Tuple>>();
+  /** Field openStreams holds the spill file streams of iterators not yet read to the end, closed by {@link #clear()} */
+  private List<TupleInputStream> openStreams = new ArrayList<TupleInputStream>();
+  /** Field cacheMemory */
+  private long cacheMemory = 0;
   /** Field current */
-  private List<Tuple> current = new LinkedList<Tuple>();
+  private ArrayList<Tuple> current = new ArrayList<Tuple>();
+  /** Field currentMemory */
+  private long currentMemory = 0;
   /** Field size */
   private long size = 0;
   /** Field fields */
   private Fields fields;
   /** Field serializationElementWriter */
   private TupleSerialization tupleSerialization;
+  /** Field spillListener */
+  private SpillListener spillListener;
 
   /** Constructor SpillableTupleList creates a new SpillableTupleList instance. */
   public SpillableTupleList()
@@ -86,8 +137,39 @@ public class SpillableTupleList implements Iterable<Tuple>
    * @param codec     of type CompressionCodec
    */
   public SpillableTupleList( long threshold, JobConf conf, CompressionCodec codec )
+    {
+    this( threshold, Long.MAX_VALUE, conf, codec );
+    }
+
+  /**
+   * Constructor SpillableTupleList creates a new SpillableTupleList instance using the given threshold value,
+   * memory limit in bytes, and the first available compression codec, if any.
+   *
+   * @param threshold   of type long
+   * @param memoryLimit of type long
+   * @param conf        of type JobConf
+   * @param codec       of type CompressionCodec
+   */
+  public SpillableTupleList( long threshold, long memoryLimit, JobConf conf, CompressionCodec codec )
+    {
+    this( threshold, memoryLimit, 0, conf, codec );
+    }
+
+  /**
+   * Constructor SpillableTupleList creates a new SpillableTupleList instance using the given threshold value,
+   * memory limit in bytes, spill cache limit in bytes, and the first available compression codec, if any.
+   *
+   * @param threshold   of type long
+   * @param memoryLimit of type long
+   * @param cacheLimit  of type long
+   * @param conf        of type JobConf
+   * @param codec       of type CompressionCodec
+   */
+  public SpillableTupleList( long threshold, long memoryLimit, long cacheLimit, JobConf conf, CompressionCodec codec )
     {
     this.threshold = threshold;
+    this.memoryLimit = memoryLimit;
+    this.cacheLimit = cacheLimit;
     this.codec = codec;
 
     if( conf != null )
@@ -104,6 +186,9 @@ public class SpillableTupleList implements Iterable<Tuple>
     current.add( tuple );
     size++;
 
+    if( memoryLimit != Long.MAX_VALUE )
+      currentMemory += estimateSize( tuple );
+
     doSpill();
     }
 
@@ -142,13 +227,88 @@ public class SpillableTupleList implements Iterable<Tuple>
     return files.size();
     }
 
+  /**
+   * Method setSpillListener sets the listener notified of the spill files written and read by this list.
+   *
+   * @param spillListener of type SpillListener
+   */
+  public void setSpillListener( SpillListener spillListener )
+    {
+    this.spillListener = spillListener;
+    }
+
+  /**
+   * Method getNumCachedFiles returns the number of spill files held decoded in memory.
+   *
+   * @return the numCachedFiles (type int) of this SpillableTupleList object.
+   */
+  public int getNumCachedFiles()
+    {
+    int count = 0;
+
+    for( List<Tuple> tuples : cache )
+      {
+      if( tuples != null )
+        count++;
+      }
+
+    return count;
+    }
+
+  /**
+   * Method getMemorySize returns the estimated size in bytes of the Tuples currently held in memory. The estimate is
+   * only maintained if a memory limit was given.
+   *
+   * @return the memorySize (type long) of this SpillableTupleList object.
+   */
+  public long getMemorySize()
+    {
+    return currentMemory;
+    }
+
+  /**
+   * Method estimateSize returns a rough estimate of the number of bytes the given Tuple occupies on the heap.
+   *
+   * @param tuple of type Tuple
+   * @return long
+   */
+  public static long estimateSize( Tuple tuple )
+    {
+    int size = tuple.size();
+    long bytes = 64 + 8 * size; // Tuple, its element List, and the List array
+
+    for( int i = 0; i < size; i++ )
+      {
+      Object element = tuple.getObject( i ); // values may be raw types, not Comparable
+
+      if( element == null )
+        continue;
+
+      if( element instanceof String )
+        bytes += 40 + 2 * ( (String) element ).length();
+      else if( element instanceof Tuple )
+        bytes += estimateSize( (Tuple) element );
+      else if( element instanceof Long || element instanceof Double )
+        bytes += 24;
+      else if( element instanceof Number || element instanceof Boolean )
+        bytes += 16;
+      else if( element instanceof byte[] )
+        bytes += 16 + ( (byte[]) element ).length;
+      else
+        bytes += 64;
+      }
+
+    return bytes;
+    }
+
   private final void doSpill()
     {
-    if( current.size() != threshold )
+    if( current.size() < threshold && currentMemory <= memoryLimit )
       return;
 
-    LOG.info( "spilling tuple list to file number " + ( getNumFiles() + 1 ) );
+    LOG.info( "spilling " + current.size() + " tuples to file number " + ( getNumFiles() + 1 ) );
 
+    long startTime = System.currentTimeMillis();
     File file = createTempFile();
     TupleOutputStream dataOutputStream = createTupleOutputStream( file );
 
@@ -162,8 +322,13 @@ public class SpillableTupleList implements Iterable<Tuple>
       closeSilent( dataOutputStream );
       }
 
+    if( spillListener != null )
+      spillListener.notifyWrite( this, current.size(), file.length(), System.currentTimeMillis() - startTime );
+
     files.add( file );
+    cache.add( null );
     current.clear();
+    currentMemory = 0;
     }
 
   private void flushSilent( Flushable flushable )
@@ -211,10 +376,10 @@ public class SpillableTupleList implements Iterable<Tuple>
 
     try
       {
-      if( codec == null )
-        outputStream = new FileOutputStream( file );
-      else
-        outputStream = codec.createOutputStream( new FileOutputStream( file ) );
+      outputStream = new BufferedOutputStream( new FileOutputStream( file ), BUFFER_SIZE );
+
+      if( codec != null ) // buffer the small writes made by the TupleOutputStream
+        outputStream = new BufferedOutputStream( codec.createOutputStream( outputStream ), BUFFER_SIZE );
 
       if( tupleSerialization == null )
         return new TupleOutputStream( outputStream );
@@ -227,34 +392,19 @@ public class SpillableTupleList implements Iterable<Tuple>
       }
     }
 
-  private List<Tuple> readList( TupleInputStream tupleInputStream )
-    {
-    try
-      {
-      long size = tupleInputStream.readLong();
-      List<Tuple> list = new LinkedList<Tuple>();
-
-      for( int i = 0; i < size; i++ )
-        list.add( tupleInputStream.readTuple() );
-
-      return list;
-      }
-    catch( IOException exception )
-      {
-      throw new TupleException( "unable to read from file output stream", exception );
-      }
-    }
-
   private TupleInputStream createTupleInputStream( File file )
     {
     try
       {
       InputStream inputStream;
 
-      if( codec == null )
-        inputStream = new FileInputStream( file );
-      else
-        inputStream = codec.createInputStream( new FileInputStream( file ) );
+      if( spillListener != null )
+        spillListener.notifyRead( this, file.length() );
+
+      inputStream = new BufferedInputStream( new FileInputStream( file ), BUFFER_SIZE );
+
+      if( codec != null ) // buffer the small reads made by the TupleInputStream
+        inputStream = new BufferedInputStream( codec.createInputStream( inputStream ), BUFFER_SIZE );
 
       if( tupleSerialization == null )
         return new TupleInputStream( inputStream, false );
@@ -282,11 +432,25 @@ public class SpillableTupleList implements Iterable<Tuple>
       }
     }
 
-  /** Method clear empties this container so it may be re-used. */
+  /** Method clear empties this container so it may be re-used, closing the streams of any unfinished iterators. */
   public void clear()
     {
+    for( TupleInputStream inputStream : openStreams )
+      closeSilent( inputStream );
+
+    openStreams.clear();
+
+    for( File file : files )
+      {
+      if( !file.delete() )
+        LOG.warn( "unable to delete spill file: " + file );
+      }
+
     files.clear();
+    cache.clear();
+    cacheMemory = 0;
     current.clear();
+    currentMemory = 0;
     size = 0;
     }
 
@@ -316,62 +480,143 @@ public class SpillableTupleList implements Iterable<Tuple>
     return new TupleEntryIterator( fields, new SpilledListIterator() );
     }
 
+  /**
+   * Class SpilledListIterator streams each spill file, in order, then the Tuples still held in memory. Files already
+   * cached are iterated from memory, and files read while the cache has room are cached once fully read.
+   */
   private class SpilledListIterator implements Iterator<Tuple>
     {
     int fileIndex = 0;
-    List<Tuple> currentList;
+    /** Field inputStream is the open spill file, null once all files are read */
+    TupleInputStream inputStream;
+    /** Field remaining is the number of Tuples left to read from the open spill file */
+    long remaining;
+    /** Field decoded holds the Tuples read from the open spill file, null if it will not be cached */
+    List<Tuple> decoded;
+    /** Field decodedMemory */
+    long decodedMemory;
+    /** Field iterator iterates the Tuples of a cached file, or those held in memory once all files are read */
     private Iterator<Tuple> iterator;
+    /** Field isCached is true while iterating a cached file */
+    private boolean isCached;
 
     private SpilledListIterator()
       {
-      getNextList();
+      getNextFile();
       }
 
-    private void getNextList()
+    private void getNextFile()
       {
-      if( fileIndex < files.size() )
-        currentList = getListFor( files.get( fileIndex++ ) );
-      else
-        currentList = current;
+      while( fileIndex < files.size() )
+        {
+        List<Tuple> cached = cache.get( fileIndex );
+
+        if( cached != null )
+          {
+          fileIndex++;
+
+          if( cached.isEmpty() )
+            continue;
+
+          inputStream = null;
+          iterator = cached.iterator();
+          isCached = true;
+          return;
+          }
+
+        decoded = cacheMemory < cacheLimit ? new ArrayList<Tuple>() : null;
+        decodedMemory = 0;
+        inputStream = createTupleInputStream( files.get( fileIndex++ ) );
+        openStreams.add( inputStream );
+
+        try
+          {
+          remaining = inputStream.readLong();
+          }
+        catch( IOException exception )
+          {
+          closeInputStream();
+          throw new TupleException( "unable to read from file input stream", exception );
+          }
+
+        if( remaining != 0 )
+          return;
+
+        closeInputStream();
+        }
 
-      iterator = currentList.iterator();
+      inputStream = null;
+      iterator = current.iterator();
+      isCached = false;
       }
 
-    private List<Tuple> getListFor( File file )
+    private void closeInputStream()
       {
-      TupleInputStream dataInputStream = createTupleInputStream( file );
+      openStreams.remove( inputStream );
+      closeSilent( inputStream );
+      }
 
-      try
-        {
-        return readList( dataInputStream );
-        }
-      finally
-        {
-        closeSilent( dataInputStream );
-        }
+    /** Method cacheDecoded caches the Tuples of the file just read, if they fit in the cache. */
+    private void cacheDecoded()
+      {
+      int index = fileIndex - 1;
+
+      if( decoded == null || cache.get( index ) != null || cacheMemory + decodedMemory > cacheLimit )
+        return;
+
+      cache.set( index, decoded );
+      cacheMemory += decodedMemory;
       }
 
     public boolean hasNext()
       {
-      if( currentList == current )
-        return iterator.hasNext();
-
-      if( iterator.hasNext() )
+      if( inputStream != null )
         return true;
 
-      getNextList();
-
-      return hasNext();
+      return iterator.hasNext();
       }
 
     public Tuple next()
       {
-      if( currentList == current || iterator.hasNext() )
-        return iterator.next();
+      if( inputStream == null )
+        {
+        Tuple tuple = iterator.next();
+
+        if( isCached && !iterator.hasNext() ) // done with a cached file
+          getNextFile();
+
+        return tuple;
+        }
 
-      getNextList();
+      Tuple tuple;
+
+      try
+        {
+        tuple = inputStream.readTuple();
+        }
+      catch( IOException exception )
+        {
+        closeInputStream();
+        throw new TupleException( "unable to read from file input stream", exception );
+        }
+
+      if( decoded != null )
+        {
+        decoded.add( tuple );
+        decodedMemory += estimateSize( tuple );
+
+        if( cacheMemory + decodedMemory > cacheLimit )
+          decoded = null;
+        }
+
+      if( --remaining == 0 )
+        {
+        closeInputStream();
+        cacheDecoded();
+        getNextFile();
+        }
 
-      return next();
+      return tuple;
       }
 
     public void remove()
@@ -373,6 +373,36 @@ public class Tuple implements Comparable, Iterable, Serializable
     return get( declarator.getPos( selector, size() ) );
     }
 
+  /**
+   * Method get populates the given result Tuple with only those values whose field names are specified in the given
+   * selector, instead of returning a new Tuple instance. The result is {@link #reset()} first.
+   *
+   * @param declarator of type Fields
+   * @param selector   of type Fields
+   * @param result     of type Tuple
+   * @return the given result Tuple
+   */
+  Tuple get( Fields declarator, Fields selector, Tuple result )
+    {
+    if( !declarator.isUnknown() && elements.size() != declarator.size() )
+      throw new TupleException( "field declaration: " + declarator.print() + ", does not match tuple: " + print() );
+
+    int[] pos = declarator.getPos( selector, size() );
+
+    result.reset();
+
+    if( pos == null || pos.length == 0 )
+      {
+      result.elements.addAll( elements );
+      return result;
+      }
+
+    for( int i : pos )
+      result.elements.add( elements.get( i ) );
+
+    return result;
+    }
+
   /**
    * Method is the inverse of {@link #remove(int[])}.
    *
@@ -432,6 +462,23 @@ public class Tuple implements Comparable, Iterable, Serializable
       elements.addAll( tuple.elements );
     }
 
+  /**
+   * Method reset removes all the element values of this instance and makes it modifiable again, so that it may be
+   * re-populated by the code that owns it.
+   * <p/>
+   * Only the owner of a recycled Tuple instance should call this method, after all consumers it was handed to are done
+   * with it, since {@link TupleEntry} marks Tuples handed to operations as unmodifiable.
+   *
+   * @return this Tuple
+   */
+  public Tuple reset()
+    {
+    isUnmodifiable = false;
+    elements.clear();
+
+    return this;
+    }
+
   /**
    * Method set sets the given value to the given index position in this instance.
    *
@@ -656,8 +703,8 @@ public class Tuple implements Comparable, Iterable, Serializable
 
     for( int i = 0; i < this.elements.size(); i++ )
       {
-      Comparable lhs = (Comparable) this.elements.get( i );
-      Comparable rhs = (Comparable) other.elements.get( i );
+      Comparable lhs = (Comparable) asComparable( this.elements.get( i ), other.elements.get( i ) );
+      Comparable rhs = (Comparable) asComparable( other.elements.get( i ), this.elements.get( i ) );
 
       if( lhs == null && rhs == null )
         continue;
@@ -705,7 +752,7 @@ public class Tuple implements Comparable, Iterable, Serializable
         else if( lhs != null && rhs == null )
             return 1;
           else
-            c = ( (Comparable) lhs ).compareTo( (Comparable) rhs ); // guaranteed to not be null
+            c = ( (Comparable) asComparable( lhs, rhs ) ).compareTo( asComparable( rhs, lhs ) ); // guaranteed to not be null
 
       if( c != 0 )
         return c;
@@ -728,6 +775,22 @@ public class Tuple implements Comparable, Iterable, Serializable
       return -1;
     }
 
+  /**
+   * Method asComparable returns the String value of the given value if it is a {@link LazyText} and the other value
+   * is a String, as a String is neither equal nor comparable to a LazyText. Otherwise the value is returned as is.
+   *
+   * @param value of type Object
+   * @param other of type Object
+   * @return Object
+   */
+  private static Object asComparable( Object value, Object other )
+    {
+    if( value instanceof LazyText && other instanceof String )
+      return value.toString();
+
+    return value;
+    }
+
   @SuppressWarnings({"ForLoopReplaceableByForEach"})
   @Override
   public boolean equals( Object object )
@@ -751,7 +814,7 @@ public class Tuple implements Comparable, Iterable, Serializable
       if( lhs == null || rhs == null )
         return false;
 
-      if( !lhs.equals( rhs ) )
+      if( !asComparable( lhs, rhs ).equals( asComparable( rhs, lhs ) ) )
         return false;
       }
 
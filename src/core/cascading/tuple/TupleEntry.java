@@ -49,13 +49,37 @@ public class TupleEntry
    * @return Tuple
    */
   public static Tuple select( Fields selector, TupleEntry... entries )
+    {
+    return select( selector, null, entries );
+    }
+
+  /**
+   * Method select will select values from the given set of entries into the given result Tuple, after
+   * {@link Tuple#reset()}ing it. If result is null, a new Tuple instance is returned.
+   * Entries order is significant to the selector.
+   *
+   * @param selector of type Fields
+   * @param result   of type Tuple
+   * @param entries  of type TupleEntry
+   * @return Tuple
+   */
+  public static Tuple select( Fields selector, Tuple result, TupleEntry... entries )
     {
     // todo: consider just appending tuples values and just peeking those values
-    Tuple result = null;
 
     // does not do field checks
     if( selector.isAll() )
       {
+      if( result != null )
+        {
+        result.reset();
+
+        for( TupleEntry entry : entries )
+          result.addAll( entry.getTuple() );
+
+        return result;
+        }
+
       for( TupleEntry entry : entries )
         {
         if( result == null )
@@ -72,7 +96,17 @@ public class TupleEntry
     for( TupleEntry entry : entries )
       size += entry.size();
 
-    result = Tuple.size( selector.size() );
+    if( result == null )
+      {
+      result = Tuple.size( selector.size() );
+      }
+    else
+      {
+      result.reset();
+
+      for( int i = 0; i < selector.size(); i++ )
+        result.add( null );
+      }
 
     int offset = 0;
 
@@ -387,6 +421,34 @@ public class TupleEntry
       }
     }
 
+  /**
+   * Method selectTuple selects the fields specified in selector from this instance into the given result Tuple,
+   * after {@link Tuple#reset()}ing it.
+   *
+   * @param selector Fields selector that selects the values to return
+   * @param result   of type Tuple
+   * @return the given result Tuple
+   */
+  public Tuple selectTuple( Fields selector, Tuple result )
+    {
+    if( selector == null || selector.isAll() )
+      {
+      result.reset();
+      result.addAll( this.tuple );
+
+      return result;
+      }
+
+    try
+      {
+      return tuple.get( fields, selector, result );
+      }
+    catch( Exception exception )
+      {
+      throw new TupleException( "unable to select from: " + this.fields.print() + ", using selector: " + selector.print(), exception );
+      }
+    }
+
   /**
    * Method setTuple sets the values specified by the selector to the values given by the given tuple.
    *
@@ -36,6 +36,9 @@ public class TupleInputStream extends DataInputStream
   /** Field LOG */
   private static final Logger LOG = Logger.getLogger( TupleInputStream.class );
 
+  /** Field VALUE marks a non null position while reading a typed Tuple */
+  private static final Object VALUE = new Object();
+
   ElementReader elementReader;
 
   public interface ElementReader
@@ -75,6 +78,65 @@ public class TupleInputStream extends DataInputStream
     return tuple;
     }
 
+  /**
+   * Method readTypedTuple reads a Tuple written in the compact typed layout of the given type tokens, see
+   * {@link TupleOutputStream#writeTypedTuple(Tuple, int[])}.
+   *
+   * @param tuple  of type Tuple
+   * @param tokens of type int[]
+   * @return Tuple
+   * @throws IOException when
+   */
+  public Tuple readTypedTuple( Tuple tuple, int[] tokens ) throws IOException
+    {
+    return readTypedTuple( tuple, tokens, null );
+    }
+
+  /**
+   * Method readTypedTuple reads a Tuple written in the compact typed layout of the given type tokens, skipping over
+   * the values of the given positions. Skipped positions are read as null.
+   *
+   * @param tuple   of type Tuple
+   * @param tokens  of type int[]
+   * @param skipped of type boolean[], may be null
+   * @return Tuple
+   * @throws IOException when
+   */
+  public Tuple readTypedTuple( Tuple tuple, int[] tokens, boolean[] skipped ) throws IOException
+    {
+    List<Object> elements = Tuple.elements( tuple );
+
+    elements.clear();
+
+    int nulls = 0;
+
+    for( int i = 0; i < tokens.length; i++ )
+      {
+      if( ( i & 7 ) == 0 )
+        nulls = readUnsignedByte();
+
+      elements.add( ( nulls & 1 << ( i & 7 ) ) != 0 ? null : VALUE ); // values follow the bitmap
+      }
+
+    for( int i = 0; i < tokens.length; i++ )
+      {
+      if( elements.get( i ) == null )
+        continue;
+
+      if( skipped != null && skipped[ i ] )
+        {
+        elements.set( i, null );
+        skipType( tokens[ i ] == 0 ? WritableUtils.readVInt( this ) : tokens[ i ] );
+        }
+      else if( tokens[ i ] == 0 )
+        elements.set( i, readType( WritableUtils.readVInt( this ) ) );
+      else
+        elements.set( i, readType( tokens[ i ] ) );
+      }
+
+    return tuple;
+    }
+
   public TuplePair readTuplePair() throws IOException
     {
     return readTuplePair( new TuplePair() );
@@ -134,6 +196,41 @@ public class TupleInputStream extends DataInputStream
       }
     }
 
+  /** Method skipType reads past a value of the given type, native values are not decoded. */
+  private final void skipType( int type ) throws IOException
+    {
+    switch( type )
+      {
+      case 0:
+        return;
+      case 1:
+        int length = readInt();
+
+        if( length > 0 )
+          WritableUtils.skipFully( this, length );
+
+        return;
+      case 2:
+        WritableUtils.skipFully( this, 4 );
+        return;
+      case 3:
+        WritableUtils.skipFully( this, 8 );
+        return;
+      case 4:
+      case 5:
+        WritableUtils.readVLong( this );
+        return;
+      case 6:
+        WritableUtils.skipFully( this, 1 );
+        return;
+      case 7:
+        WritableUtils.skipFully( this, 2 );
+        return;
+      default:
+        readType( type );
+      }
+    }
+
   @Override
   public void close() throws IOException
     {
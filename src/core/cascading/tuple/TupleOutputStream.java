@@ -39,6 +39,10 @@ public class TupleOutputStream extends DataOutputStream
   /** Field WRITABLE_TOKEN */
   public static final int WRITABLE_TOKEN = 32;
 
+  /** Field TOKEN_TYPES holds the value type of each native type token */
+  static final Class[] TOKEN_TYPES = {null, String.class, Float.class, Double.class, Integer.class, Long.class,
+                                      Boolean.class, Short.class};
+
   /** Field elementWriter */
   ElementWriter elementWriter;
 
@@ -61,6 +65,50 @@ public class TupleOutputStream extends DataOutputStream
     this.elementWriter = new TupleSerialization().getElementWriter();
     }
 
+  /**
+   * Method getTypeTokens returns the native type token of each given type, see {@link Fields#getTypes()}. Primitive
+   * types share the token of their wrapper type, 0 is returned for a null or any other type.
+   *
+   * @param types of type Class[]
+   * @return int[]
+   */
+  public static int[] getTypeTokens( Class[] types )
+    {
+    int[] tokens = new int[types.length];
+
+    for( int i = 0; i < types.length; i++ )
+      tokens[ i ] = getTypeToken( types[ i ] );
+
+    return tokens;
+    }
+
+  private static int getTypeToken( Class type )
+    {
+    if( type == null )
+      return 0;
+
+    if( type == int.class )
+      return 4;
+    if( type == long.class )
+      return 5;
+    if( type == float.class )
+      return 2;
+    if( type == double.class )
+      return 3;
+    if( type == boolean.class )
+      return 6;
+    if( type == short.class )
+      return 7;
+
+    for( int i = 1; i < TOKEN_TYPES.length; i++ )
+      {
+      if( TOKEN_TYPES[ i ] == type )
+        return i;
+      }
+
+    return 0;
+    }
+
   public void writeTuple( Tuple tuple ) throws IOException
     {
     write( tuple );
@@ -92,70 +140,168 @@ public class TupleOutputStream extends DataOutputStream
     WritableUtils.writeVInt( this, elements.size() );
 
     for( Object element : elements )
+      writeElement( element );
+    }
+
+  /**
+   * Method writeTypedTuple writes the given Tuple in the compact typed layout of the given type tokens, see
+   * {@link #getTypeTokens(Class[])}.
+   * <p/>
+   * A bitmap of null values is written first, followed by each non null value without a type token. Values are coerced
+   * to the declared type if necessary. Positions without a native type token are written with their type token.
+   *
+   * @param tuple  of type Tuple
+   * @param tokens of type int[]
+   * @throws IOException when
+   */
+  public void writeTypedTuple( Tuple tuple, int[] tokens ) throws IOException
+    {
+    List<Object> elements = Tuple.elements( tuple );
+
+    if( elements.size() != tokens.length )
+      throw new TupleException( "tuple size: " + elements.size() + ", does not match number of types: " + tokens.length );
+
+    int nulls = 0;
+
+    for( int i = 0; i < tokens.length; i++ )
       {
+      if( elements.get( i ) == null )
+        nulls |= 1 << ( i & 7 );
+
+      if( ( i & 7 ) == 7 || i == tokens.length - 1 )
+        {
+        write( nulls );
+        nulls = 0;
+        }
+      }
+
+    for( int i = 0; i < tokens.length; i++ )
+      {
+      Object element = elements.get( i );
+
       if( element == null )
+        continue;
+
+      int token = tokens[ i ];
+
+      if( token == 0 )
+        {
+        writeElement( element );
+        continue;
+        }
+
+      if( token == 1 && element instanceof LazyText )
         {
-        WritableUtils.writeVInt( this, 0 );
+        writeLazyText( (LazyText) element );
         continue;
         }
 
-      Class type = element.getClass();
+      if( element.getClass() != TOKEN_TYPES[ token ] )
+        element = Tuples.coerce( tuple, i, TOKEN_TYPES[ token ] );
 
-      if( String.class == type )
+      switch( token )
         {
-        WritableUtils.writeVInt( this, 1 );
-        WritableUtils.writeString( this, (String) element );
+        case 1:
+          WritableUtils.writeString( this, (String) element );
+          break;
+        case 2:
+          writeFloat( (Float) element );
+          break;
+        case 3:
+          writeDouble( (Double) element );
+          break;
+        case 4:
+          WritableUtils.writeVInt( this, (Integer) element );
+          break;
+        case 5:
+          WritableUtils.writeVLong( this, (Long) element );
+          break;
+        case 6:
+          writeBoolean( (Boolean) element );
+          break;
+        case 7:
+          writeShort( (Short) element );
+          break;
         }
-      else if( Float.class == type )
+      }
+    }
+
+  /** Writes the bytes of the given LazyText in the same layout as {@link WritableUtils#writeString}, without decoding them. */
+  private void writeLazyText( LazyText text ) throws IOException
+    {
+    writeInt( text.getLength() );
+    write( text.getBytes(), text.getOffset(), text.getLength() );
+    }
+
+  private void writeElement( Object element ) throws IOException
+    {
+    if( element == null )
+      {
+      WritableUtils.writeVInt( this, 0 );
+      return;
+      }
+
+    Class type = element.getClass();
+
+    if( String.class == type )
+      {
+      WritableUtils.writeVInt( this, 1 );
+      WritableUtils.writeString( this, (String) element );
+      }
+    else if( LazyText.class == type )
+      {
+      WritableUtils.writeVInt( this, 1 );
+      writeLazyText( (LazyText) element );
+      }
+    else if( Float.class == type )
+      {
+      WritableUtils.writeVInt( this, 2 );
+      writeFloat( (Float) element );
+      }
+    else if( Double.class == type )
         {
-        WritableUtils.writeVInt( this, 2 );
-        writeFloat( (Float) element );
+        WritableUtils.writeVInt( this, 3 );
+        writeDouble( (Double) element );
         }
-      else if( Double.class == type )
+      else if( Integer.class == type )
           {
-          WritableUtils.writeVInt( this, 3 );
-          writeDouble( (Double) element );
+          WritableUtils.writeVInt( this, 4 );
+          WritableUtils.writeVInt( this, (Integer) element );
           }
-        else if( Integer.class == type )
+        else if( Long.class == type )
             {
-            WritableUtils.writeVInt( this, 4 );
-            WritableUtils.writeVInt( this, (Integer) element );
+            WritableUtils.writeVInt( this, 5 );
+            WritableUtils.writeVLong( this, (Long) element );
             }
-          else if( Long.class == type )
+          else if( Boolean.class == type )
               {
-              WritableUtils.writeVInt( this, 5 );
-              WritableUtils.writeVLong( this, (Long) element );
+              WritableUtils.writeVInt( this, 6 );
+              writeBoolean( (Boolean) element );
               }
-            else if( Boolean.class == type )
+            else if( Short.class == type )
                 {
-                WritableUtils.writeVInt( this, 6 );
-                writeBoolean( (Boolean) element );
+                WritableUtils.writeVInt( this, 7 );
+                writeShort( (Short) element );
                 }
-              else if( Short.class == type )
+              else if( Tuple.class == type || TypedTuple.class == type )
                   {
-                  WritableUtils.writeVInt( this, 7 );
-                  writeShort( (Short) element );
+                  WritableUtils.writeVInt( this, 8 );
+                  writeTuple( (Tuple) element );
                   }
-                else if( Tuple.class == type )
+                else if( TuplePair.class == type )
                     {
-                    WritableUtils.writeVInt( this, 8 );
-                    writeTuple( (Tuple) element );
+                    WritableUtils.writeVInt( this, 9 );
+                    writeTuplePair( (TuplePair) element );
                     }
-                  else if( TuplePair.class == type )
+                  else if( IndexTuple.class == type )
                       {
-                      WritableUtils.writeVInt( this, 9 );
-                      writeTuplePair( (TuplePair) element );
+                      WritableUtils.writeVInt( this, 10 );
+                      writeIndexTuple( (IndexTuple) element );
+                      }
+                    else
+                      {
+                      elementWriter.write( this, element );
                       }
-                    else if( IndexTuple.class == type )
-                        {
-                        WritableUtils.writeVInt( this, 10 );
-                        writeIndexTuple( (IndexTuple) element );
-                        }
-                      else
-                        {
-                        elementWriter.write( this, element );
-                        }
-      }
     }
 
   @Override
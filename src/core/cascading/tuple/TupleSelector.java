@@ -0,0 +1,275 @@
+/*
+ * Copyright (c) 2007-2009 Concurrent, Inc. All Rights Reserved.
+ *
+ * Project and contact information: http://www.cascading.org/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Cascading is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Cascading is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cascading.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package cascading.tuple;
+
+import java.util.Arrays;
+
+/**
+ * Class TupleSelector is a compiled form of a {@link Fields} selector. Where {@link TupleEntry#selectTuple(Fields)}
+ * resolves the selector against the entry {@link Fields} on every call, a TupleSelector resolves the selector once
+ * into an array of positions and re-uses it for every subsequent {@link TupleEntry} declared by the same Fields
+ * instance.
+ * <p/>
+ * If the declaring Fields instance changes, the positions are resolved again. Declarators that are
+ * {@link Fields#UNKNOWN} are never compiled, as positions depend on the size of each Tuple.
+ * <p/>
+ * TupleSelector instances are not thread safe and are intended to be held by a single operation handler.
+ */
+public final class TupleSelector
+  {
+  /** Field selector */
+  private final Fields selector;
+
+  /** Field declarator, the Fields instance pos was resolved against */
+  private Fields declarator;
+  /** Field pos */
+  private int[] pos;
+
+  /** Field declarators, the Fields instances entryIndex and entryPos were resolved against */
+  private Fields[] declarators;
+  /** Field entryIndex, the entry each selected value is taken from, -1 if none */
+  private int[] entryIndex;
+  /** Field entryPos, the position in the entry each selected value is taken from */
+  private int[] entryPos;
+
+  /**
+   * Constructor TupleSelector creates a new TupleSelector instance.
+   *
+   * @param selector of type Fields
+   */
+  public TupleSelector( Fields selector )
+    {
+    this.selector = selector;
+    }
+
+  /**
+   * Method getSelector returns the selector of this TupleSelector object.
+   *
+   * @return the selector (type Fields) of this TupleSelector object.
+   */
+  public Fields getSelector()
+    {
+    return selector;
+    }
+
+  /**
+   * Method isAll returns true if this selector selects all values.
+   *
+   * @return the all (type boolean) of this TupleSelector object.
+   */
+  public boolean isAll()
+    {
+    return selector == null || selector.isAll();
+    }
+
+  /**
+   * Method select returns a new Tuple with the selected values of the given entry.
+   * See {@link TupleEntry#selectTuple(Fields)}.
+   *
+   * @param entry of type TupleEntry
+   * @return Tuple
+   */
+  public Tuple select( TupleEntry entry )
+    {
+    if( isAll() )
+      return entry.tuple;
+
+    return entry.tuple.get( resolve( entry ) );
+    }
+
+  /**
+   * Method select populates the given result Tuple with the selected values of the given entry, after
+   * {@link Tuple#reset()}ing it. See {@link TupleEntry#selectTuple(Fields, Tuple)}.
+   *
+   * @param entry  of type TupleEntry
+   * @param result of type Tuple
+   * @return the given result Tuple
+   */
+  public Tuple select( TupleEntry entry, Tuple result )
+    {
+    result.reset();
+
+    if( isAll() )
+      {
+      result.addAll( entry.tuple );
+      return result;
+      }
+
+    int[] pos = resolve( entry );
+
+    if( pos == null || pos.length == 0 )
+      {
+      result.elements.addAll( entry.tuple.elements );
+      return result;
+      }
+
+    for( int i : pos )
+      result.elements.add( entry.tuple.elements.get( i ) );
+
+    return result;
+    }
+
+  /**
+   * Method extract returns a new Tuple with the selected values of the given entry, but sets the selected values
+   * in the entry Tuple to null. See {@link Tuples#extractTuple(TupleEntry, Fields)}.
+   *
+   * @param entry of type TupleEntry
+   * @return Tuple
+   */
+  public Tuple extract( TupleEntry entry )
+    {
+    if( isAll() )
+      return Tuples.extractTuple( entry, selector );
+
+    return entry.tuple.extract( resolve( entry ) );
+    }
+
+  /**
+   * Method select populates the given result Tuple with the selected values from the given set of entries, after
+   * {@link Tuple#reset()}ing it. If result is null, a new Tuple instance is returned. Entries order is significant
+   * to the selector. See {@link TupleEntry#select(Fields, Tuple, TupleEntry[])}.
+   *
+   * @param result  of type Tuple
+   * @param entries of type TupleEntry
+   * @return Tuple
+   */
+  public Tuple select( Tuple result, TupleEntry... entries )
+    {
+    if( isAll() || !resolve( entries ) )
+      return TupleEntry.select( selector, result, entries );
+
+    if( result == null )
+      result = new Tuple();
+    else
+      result.reset();
+
+    for( int i = 0; i < entryIndex.length; i++ )
+      {
+      int index = entryIndex[ i ];
+
+      result.elements.add( index == -1 ? null : entries[ index ].tuple.elements.get( entryPos[ i ] ) );
+      }
+
+    return result;
+    }
+
+  private int[] resolve( TupleEntry entry )
+    {
+    Fields fields = entry.fields;
+
+    try
+      {
+      if( fields.isUnknown() )
+        return fields.getPos( selector, entry.tuple.size() );
+
+      if( entry.tuple.size() != fields.size() )
+        throw new TupleException( "field declaration: " + fields.print() + ", does not match tuple: " + entry.tuple.print() );
+
+      if( fields != declarator )
+        {
+        pos = fields.getPos( selector, fields.size() );
+        declarator = fields;
+        }
+
+      return pos;
+      }
+    catch( Exception exception )
+      {
+      throw new TupleException( "unable to select from: " + fields.print() + ", using selector: " + selector.print(), exception );
+      }
+    }
+
+  /**
+   * Resolves the selected positions against the given entries, returns false if the entries can't be compiled
+   * against and must be selected from dynamically.
+   */
+  private boolean resolve( TupleEntry[] entries )
+    {
+    boolean current = declarators != null && declarators.length == entries.length;
+
+    for( int i = 0; i < entries.length; i++ )
+      {
+      Fields fields = entries[ i ].fields;
+
+      if( fields.isUnknown() || entries[ i ].tuple.size() != fields.size() )
+        return false;
+
+      current = current && declarators[ i ] == fields;
+      }
+
+    if( current )
+      return true;
+
+    compile( entries );
+
+    return true;
+    }
+
+  private void compile( TupleEntry[] entries )
+    {
+    int size = 0;
+
+    for( TupleEntry entry : entries )
+      size += entry.fields.size();
+
+    declarators = new Fields[entries.length];
+    entryIndex = new int[selector.size()];
+    entryPos = new int[selector.size()];
+
+    Arrays.fill( entryIndex, -1 );
+
+    int offset = 0;
+
+    for( int e = 0; e < entries.length; e++ )
+      {
+      Fields fields = entries[ e ].fields;
+
+      declarators[ e ] = fields;
+
+      for( int i = 0; i < selector.size(); i++ )
+        {
+        Comparable field = selector.get( i );
+        int pos;
+
+        if( field instanceof String )
+          {
+          pos = fields.indexOfSafe( field );
+
+          if( pos == -1 )
+            continue;
+          }
+        else
+          {
+          pos = fields.translatePos( (Integer) field, size ) - offset;
+
+          if( pos >= fields.size() || pos < 0 )
+            continue;
+          }
+
+        entryIndex[ i ] = e; // last in wins
+        entryPos[ i ] = pos;
+        }
+
+      offset += fields.size();
+      }
+    }
+  }
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2007-2009 Concurrent, Inc. All Rights Reserved.
+ *
+ * Project and contact information: http://www.cascading.org/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Cascading is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Cascading is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cascading.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package cascading.tuple;
+
+/**
+ * Class TypedTuple is a {@link Tuple} written by {@link cascading.tuple.hadoop.TupleSerialization} in the compact
+ * typed layout of its declared types, a bitmap of null values followed by each value without a type token. See
+ * {@link TupleOutputStream#writeTypedTuple(Tuple, int[])}.
+ * <p/>
+ * The types come from the {@link Fields} being written, see {@link Fields#setTypes(Class[])}. Since the layout holds no
+ * type information, readers take the types from the JobConf, see
+ * {@link cascading.tuple.hadoop.TupleSerialization#setTupleTypes(org.apache.hadoop.mapred.JobConf, Class[][])} for
+ * values sent through the shuffle and
+ * {@link cascading.tuple.hadoop.TupleSerialization#setSourceTupleTypes(org.apache.hadoop.mapred.JobConf, Class[])}
+ * for values written to intermediate files by {@link cascading.scheme.BlockSequenceFile}.
+ */
+public class TypedTuple extends Tuple
+  {
+  /** Field tokens */
+  int[] tokens;
+  /** Field view */
+  private transient Tuple view;
+
+  /** Constructor TypedTuple creates a new TypedTuple instance, used when reading values. */
+  public TypedTuple()
+    {
+    }
+
+  /**
+   * Constructor TypedTuple creates a new TypedTuple instance for writing values of the given types.
+   *
+   * @param types of type Class[]
+   */
+  public TypedTuple( Class[] types )
+    {
+    this.tokens = TupleOutputStream.getTypeTokens( types );
+    }
+
+  /**
+   * Method reset makes this instance a view of the values of the given Tuple, no values are copied.
+   *
+   * @param tuple of type Tuple
+   * @return TypedTuple
+   */
+  public TypedTuple reset( Tuple tuple )
+    {
+    elements = tuple.elements;
+
+    return this;
+    }
+
+  /**
+   * Method asTuple returns a plain {@link Tuple} view of the values of this instance, no values are copied. Read
+   * values are handed on as plain Tuples so they are not written again in the typed layout by accident.
+   *
+   * @return Tuple
+   */
+  public Tuple asTuple()
+    {
+    if( view == null )
+      view = new Tuple();
+
+    view.elements = elements;
+
+    return view;
+    }
+
+  /**
+   * Method getTokens returns the native type tokens this instance is written with, or null if it was read.
+   *
+   * @return the tokens (type int[]) of this TypedTuple object.
+   */
+  public int[] getTokens()
+    {
+    return tokens;
+    }
+  }
@@ -35,6 +35,8 @@ public abstract class DeserializerComparator<T> extends Configured implements Ra
   {
   InputBuffer buffer = new InputBuffer();
   Deserializer<T> deserializer;
+  /** Field comparison compares keys without deserializing them, is null if custom Comparators are present */
+  TupleBytesComparison comparison = new TupleBytesComparison();
 
   private T key1;
   private T key2;
@@ -64,8 +66,23 @@ public abstract class DeserializerComparator<T> extends Configured implements Ra
     this.deserializer.open( buffer );
     }
 
+  /**
+   * Method compareBytes compares the given serialized keys without deserializing them.
+   *
+   * @param comparison of type TupleBytesComparison
+   * @param b1         of type byte[]
+   * @param s1         of type int
+   * @param b2         of type byte[]
+   * @param s2         of type int
+   * @return boolean false if the keys must be deserialized to be compared
+   */
+  abstract boolean compareBytes( TupleBytesComparison comparison, byte[] b1, int s1, byte[] b2, int s2 );
+
   public int compare( byte[] b1, int s1, int l1, byte[] b2, int s2, int l2 )
     {
+    if( comparison != null && compareBytes( comparison, b1, s1, b2, s2 ) )
+      return comparison.getResult();
+
     try
       {
 
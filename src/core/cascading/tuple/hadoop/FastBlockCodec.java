@@ -0,0 +1,455 @@
+/*
+ * Copyright (c) 2007-2009 Concurrent, Inc. All Rights Reserved.
+ *
+ * Project and contact information: http://www.cascading.org/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Cascading is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Cascading is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cascading.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package cascading.tuple.hadoop;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+import org.apache.hadoop.io.compress.CompressionCodec;
+import org.apache.hadoop.io.compress.CompressionInputStream;
+import org.apache.hadoop.io.compress.CompressionOutputStream;
+import org.apache.hadoop.io.compress.Compressor;
+import org.apache.hadoop.io.compress.Decompressor;
+
+/**
+ * Class FastBlockCodec is a pure Java {@link CompressionCodec} trading compression ratio for speed, intended for short
+ * lived files like the spill files of a {@link cascading.tuple.SpillableTupleList}.
+ * <p/>
+ * Data is written in blocks of up to 64k bytes, each compressed with an LZF style algorithm, that is, runs of literal
+ * bytes and back references into the last 8k bytes of the block, found through a hash of the next three bytes. Blocks
+ * that do not compress are stored as is. The stream format is specific to this class.
+ * <p/>
+ * No {@link Compressor} or {@link Decompressor} is used, so streams may be created without a CodecPool.
+ */
+public class FastBlockCodec implements CompressionCodec
+  {
+  /** Field BLOCK_SIZE */
+  static final int BLOCK_SIZE = 64 * 1024;
+  /** Field MAX_OFFSET */
+  private static final int MAX_OFFSET = 1 << 13;
+  /** Field MAX_LITERALS */
+  private static final int MAX_LITERALS = 1 << 5;
+  /** Field MAX_MATCH */
+  private static final int MAX_MATCH = 7 + 255 + 2;
+  /** Field HASH_BITS */
+  private static final int HASH_BITS = 14;
+
+  public CompressionOutputStream createOutputStream( OutputStream outputStream ) throws IOException
+    {
+    return new BlockOutputStream( outputStream );
+    }
+
+  public CompressionOutputStream createOutputStream( OutputStream outputStream, Compressor compressor ) throws IOException
+    {
+    return new BlockOutputStream( outputStream );
+    }
+
+  public Class<? extends Compressor> getCompressorType()
+    {
+    return null;
+    }
+
+  public Compressor createCompressor()
+    {
+    return null;
+    }
+
+  public CompressionInputStream createInputStream( InputStream inputStream ) throws IOException
+    {
+    return new BlockInputStream( inputStream );
+    }
+
+  public CompressionInputStream createInputStream( InputStream inputStream, Decompressor decompressor ) throws IOException
+    {
+    return new BlockInputStream( inputStream );
+    }
+
+  public Class<? extends Decompressor> getDecompressorType()
+    {
+    return null;
+    }
+
+  public Decompressor createDecompressor()
+    {
+    return null;
+    }
+
+  public String getDefaultExtension()
+    {
+    return ".fastblock";
+    }
+
+  /**
+   * Method compress compresses the given input bytes into the given output array, which must hold at least
+   * {@link #maxCompressedLength(int)} bytes.
+   *
+   * @param input       of type byte[]
+   * @param inputLength of type int
+   * @param output      of type byte[]
+   * @param table       of type int[], the hash table, cleared by this method
+   * @return the number of bytes written to output
+   */
+  static int compress( byte[] input, int inputLength, byte[] output, int[] table )
+    {
+    Arrays.fill( table, 0 );
+
+    int inPos = 0;
+    int outPos = 0;
+    int literalStart = 0;
+
+    while( inPos + 2 < inputLength )
+      {
+      int sequence = ( input[ inPos ] & 0xff ) << 16 | ( input[ inPos + 1 ] & 0xff ) << 8 | ( input[ inPos + 2 ] & 0xff );
+      int hash = ( sequence * 0x9E3779B1 ) >>> ( 32 - HASH_BITS );
+      int ref = table[ hash ] - 1; // positions are stored plus one, so zero is empty
+      int offset = inPos - ref - 1;
+
+      table[ hash ] = inPos + 1;
+
+      if( ref < 0 || offset >= MAX_OFFSET || input[ ref ] != input[ inPos ] || input[ ref + 1 ] != input[ inPos + 1 ] || input[ ref + 2 ] != input[ inPos + 2 ] )
+        {
+        inPos++;
+        continue;
+        }
+
+      outPos = writeLiterals( input, literalStart, inPos, output, outPos );
+
+      int length = 3;
+      int maxLength = Math.min( inputLength - inPos, MAX_MATCH );
+
+      while( length < maxLength && input[ ref + length ] == input[ inPos + length ] )
+        length++;
+
+      int code = length - 2;
+
+      if( code < 7 )
+        {
+        output[ outPos++ ] = (byte) ( code << 5 | offset >>> 8 );
+        }
+      else
+        {
+        output[ outPos++ ] = (byte) ( 7 << 5 | offset >>> 8 );
+        output[ outPos++ ] = (byte) ( code - 7 );
+        }
+
+      output[ outPos++ ] = (byte) offset;
+
+      inPos += length;
+      literalStart = inPos;
+      }
+
+    return writeLiterals( input, literalStart, inputLength, output, outPos );
+    }
+
+  private static int writeLiterals( byte[] input, int start, int end, byte[] output, int outPos )
+    {
+    while( start < end )
+      {
+      int length = Math.min( MAX_LITERALS, end - start );
+
+      output[ outPos++ ] = (byte) ( length - 1 );
+      System.arraycopy( input, start, output, outPos, length );
+
+      outPos += length;
+      start += length;
+      }
+
+    return outPos;
+    }
+
+  /**
+   * Method decompress decompresses the given input bytes into the given output array.
+   *
+   * @param input        of type byte[]
+   * @param inputLength  of type int
+   * @param output       of type byte[]
+   * @param outputLength of type int, the expected number of decompressed bytes
+   * @throws IOException when the input is corrupt
+   */
+  static void decompress( byte[] input, int inputLength, byte[] output, int outputLength ) throws IOException
+    {
+    int inPos = 0;
+    int outPos = 0;
+
+    try
+      {
+      while( inPos < inputLength )
+        {
+        int control = input[ inPos++ ] & 0xff;
+
+        if( control < MAX_LITERALS )
+          {
+          int length = control + 1;
+
+          System.arraycopy( input, inPos, output, outPos, length );
+          inPos += length;
+          outPos += length;
+          continue;
+          }
+
+        int length = control >>> 5;
+
+        if( length == 7 )
+          length += input[ inPos++ ] & 0xff;
+
+        int ref = outPos - ( ( control & 0x1f ) << 8 | input[ inPos++ ] & 0xff ) - 1;
+
+        length += 2;
+
+        if( ref < 0 )
+          throw new IOException( "corrupt block, invalid back reference" );
+
+        for( int i = 0; i < length; i++ ) // may overlap
+          output[ outPos++ ] = output[ ref++ ];
+        }
+      }
+    catch( ArrayIndexOutOfBoundsException exception )
+      {
+      throw new IOException( "corrupt block, overrun" );
+      }
+
+    if( outPos != outputLength )
+      throw new IOException( "corrupt block, expected: " + outputLength + " bytes, got: " + outPos );
+    }
+
+  /**
+   * Method maxCompressedLength returns the max number of bytes the given number of bytes may compress to.
+   *
+   * @param length of type int
+   * @return int
+   */
+  static int maxCompressedLength( int length )
+    {
+    return length + length / MAX_LITERALS + 1;
+    }
+
+  /** Class BlockOutputStream buffers written bytes and writes them out a compressed block at a time. */
+  static class BlockOutputStream extends CompressionOutputStream
+    {
+    /** Field buffer */
+    private final byte[] buffer = new byte[BLOCK_SIZE];
+    /** Field compressed */
+    private final byte[] compressed = new byte[maxCompressedLength( BLOCK_SIZE )];
+    /** Field table */
+    private final int[] table = new int[1 << HASH_BITS];
+    /** Field header */
+    private final byte[] header = new byte[8];
+    /** Field position */
+    private int position = 0;
+
+    BlockOutputStream( OutputStream out )
+      {
+      super( out );
+      }
+
+    @Override
+    public void write( int value ) throws IOException
+      {
+      if( position == buffer.length )
+        writeBlock();
+
+      buffer[ position++ ] = (byte) value;
+      }
+
+    @Override
+    public void write( byte[] bytes, int offset, int length ) throws IOException
+      {
+      while( length > 0 )
+        {
+        if( position == buffer.length )
+          writeBlock();
+
+        int count = Math.min( length, buffer.length - position );
+
+        System.arraycopy( bytes, offset, buffer, position, count );
+        position += count;
+        offset += count;
+        length -= count;
+        }
+      }
+
+    /** Method writeBlock writes a block of the form [uncompressed length][compressed length, or -1 if stored][bytes] */
+    private void writeBlock() throws IOException
+      {
+      if( position == 0 )
+        return;
+
+      int length = compress( buffer, position, compressed, table );
+      boolean isStored = length >= position;
+
+      writeInt( 0, position );
+      writeInt( 4, isStored ? -1 : length );
+      out.write( header, 0, 8 );
+
+      if( isStored )
+        out.write( buffer, 0, position );
+      else
+        out.write( compressed, 0, length );
+
+      position = 0;
+      }
+
+    private void writeInt( int offset, int value )
+      {
+      header[ offset ] = (byte) ( value >>> 24 );
+      header[ offset + 1 ] = (byte) ( value >>> 16 );
+      header[ offset + 2 ] = (byte) ( value >>> 8 );
+      header[ offset + 3 ] = (byte) value;
+      }
+
+    @Override
+    public void flush() throws IOException
+      {
+      writeBlock();
+      out.flush();
+      }
+
+    @Override
+    public void finish() throws IOException
+      {
+      writeBlock();
+      }
+
+    @Override
+    public void resetState() throws IOException
+      {
+      position = 0;
+      }
+    }
+
+  /** Class BlockInputStream reads and decompresses the blocks written by a {@link BlockOutputStream}. */
+  static class BlockInputStream extends CompressionInputStream
+    {
+    /** Field buffer */
+    private final byte[] buffer = new byte[BLOCK_SIZE];
+    /** Field compressed */
+    private final byte[] compressed = new byte[maxCompressedLength( BLOCK_SIZE )];
+    /** Field header */
+    private final byte[] header = new byte[8];
+    /** Field position */
+    private int position = 0;
+    /** Field limit */
+    private int limit = 0;
+
+    BlockInputStream( InputStream in )
+      {
+      super( in );
+      }
+
+    @Override
+    public int read() throws IOException
+      {
+      if( position == limit && !readBlock() )
+        return -1;
+
+      return buffer[ position++ ] & 0xff;
+      }
+
+    @Override
+    public int read( byte[] bytes, int offset, int length ) throws IOException
+      {
+      if( length == 0 )
+        return 0;
+
+      if( position == limit && !readBlock() )
+        return -1;
+
+      int count = Math.min( length, limit - position );
+
+      System.arraycopy( buffer, position, bytes, offset, count );
+      position += count;
+
+      return count;
+      }
+
+    @Override
+    public int available() throws IOException
+      {
+      return limit - position;
+      }
+
+    /** Method readBlock reads the next block, returns false at the end of the stream. */
+    private boolean readBlock() throws IOException
+      {
+      if( !readFully( header, 8, true ) )
+        return false;
+
+      int length = readInt( 0 );
+      int compressedLength = readInt( 4 );
+
+      if( length < 0 || length > buffer.length || compressedLength > compressed.length )
+        throw new IOException( "corrupt block header" );
+
+      if( compressedLength == -1 )
+        {
+        readFully( buffer, length, false );
+        }
+      else
+        {
+        readFully( compressed, compressedLength, false );
+        decompress( compressed, compressedLength, buffer, length );
+        }
+
+      position = 0;
+      limit = length;
+
+      return true;
+      }
+
+    private boolean readFully( byte[] bytes, int length, boolean allowEOF ) throws IOException
+      {
+      int count = 0;
+
+      while( count < length )
+        {
+        int read = in.read( bytes, count, length - count );
+
+        if( read == -1 )
+          {
+          if( allowEOF && count == 0 )
+            return false;
+
+          throw new EOFException( "unexpected end of block" );
+          }
+
+        count += read;
+        }
+
+      return true;
+      }
+
+    private int readInt( int offset )
+      {
+      return ( header[ offset ] & 0xff ) << 24 | ( header[ offset + 1 ] & 0xff ) << 16 | ( header[ offset + 2 ] & 0xff ) << 8 | ( header[ offset + 3 ] & 0xff );
+      }
+
+    @Override
+    public void resetState() throws IOException
+      {
+      position = 0;
+      limit = 0;
+      }
+    }
+  }
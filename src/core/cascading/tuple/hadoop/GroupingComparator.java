@@ -57,8 +57,8 @@ public class GroupingComparator extends DeserializerComparator<TuplePair>
 
     try
       {
-      if( group != null )
-        comparator = (Comparator) Util.deserializeBase64( group );
+      comparator = (Comparator) Util.deserializeBase64( group );
+      comparison = null;
       }
     catch( IOException exception )
       {
@@ -71,6 +71,11 @@ public class GroupingComparator extends DeserializerComparator<TuplePair>
     setDeserializer( tupleSerialization.getTuplePairDeserializer() );
     }
 
+  boolean compareBytes( TupleBytesComparison comparison, byte[] b1, int s1, byte[] b2, int s2 )
+    {
+    return comparison.compareTuple( b1, s1, b2, s2 ); // the lhs Tuple is written first
+    }
+
   public int compare( TuplePair lhs, TuplePair rhs )
     {
     return comparator.compare( lhs.getLhs(), rhs.getLhs() );
@@ -24,19 +24,42 @@ package cascading.tuple.hadoop;
 import java.io.IOException;
 
 import cascading.tuple.IndexTuple;
+import cascading.tuple.Tuple;
+import org.apache.hadoop.io.WritableUtils;
 
 class IndexTupleDeserializer extends BaseDeserializer<IndexTuple>
   {
-  IndexTupleDeserializer( SerializationElementReader elementReader )
+  /** Field tokens, the type tokens of each typed pipe position */
+  private final int[][] tokens;
+
+  IndexTupleDeserializer( SerializationElementReader elementReader, int[][] tokens )
     {
     super( elementReader );
+    this.tokens = tokens;
     }
 
   public IndexTuple deserialize( IndexTuple indexTuple ) throws IOException
     {
+    if( tokens == null )
+      {
+      if( indexTuple == null )
+        return inputStream.readIndexTuple();
+
+      return inputStream.readIndexTuple( indexTuple );
+      }
+
     if( indexTuple == null )
-      return inputStream.readIndexTuple();
+      indexTuple = new IndexTuple();
+
+    int index = WritableUtils.readVInt( inputStream );
+
+    indexTuple.setIndex( index );
+
+    if( index < tokens.length && tokens[ index ] != null )
+      indexTuple.setTuple( inputStream.readTypedTuple( new Tuple(), tokens[ index ] ) );
+    else
+      indexTuple.setTuple( inputStream.readTuple() );
 
-    return inputStream.readIndexTuple( indexTuple );
+    return indexTuple;
     }
   }
\ No newline at end of file
@@ -24,6 +24,8 @@ package cascading.tuple.hadoop;
 import java.io.IOException;
 
 import cascading.tuple.IndexTuple;
+import cascading.tuple.TypedTuple;
+import org.apache.hadoop.io.WritableUtils;
 
 class IndexTupleSerializer extends BaseSerializer<IndexTuple>
   {
@@ -34,6 +36,15 @@ class IndexTupleSerializer extends BaseSerializer<IndexTuple>
 
   public void serialize( IndexTuple indexTuple ) throws IOException
     {
-    outputStream.writeIndexTuple( indexTuple );
+    if( !( indexTuple.getTuple() instanceof TypedTuple ) )
+      {
+      outputStream.writeIndexTuple( indexTuple );
+      return;
+      }
+
+    TypedTuple tuple = (TypedTuple) indexTuple.getTuple();
+
+    WritableUtils.writeVInt( outputStream, indexTuple.getIndex() );
+    outputStream.writeTypedTuple( tuple, tuple.getTokens() );
     }
   }
\ No newline at end of file
@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2007-2009 Concurrent, Inc. All Rights Reserved.
+ *
+ * Project and contact information: http://www.cascading.org/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Cascading is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Cascading is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cascading.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package cascading.tuple.hadoop;
+
+import java.io.IOException;
+import java.util.Comparator;
+
+import cascading.CascadingException;
+import cascading.tuple.Tuple;
+import cascading.tuple.TuplePair;
+import cascading.util.Util;
+import org.apache.hadoop.mapred.JobConf;
+import org.apache.hadoop.mapred.Partitioner;
+import org.apache.log4j.Logger;
+
+/**
+ * Class RangePartitioner is an implementation of {@link Partitioner} that routes each grouping to a reducer by
+ * comparing it against a sorted set of split points, so the concatenated reducer outputs are globally ordered.
+ * <p/>
+ * The split points are grouping {@link Tuple} instances sampled from the job input, see
+ * {@link #setSplitPoints(JobConf, Tuple[])}. Groupings are compared using the grouping {@link Comparator} instances
+ * the job sorts with, and in reverse if the job sort is reversed. If {@link TuplePair} keys are used, as when
+ * secondary sorting, only the grouping half of the key is considered so all values of a grouping are sent
+ * to the same reducer.
+ * <p/>
+ * If no split points are set, all groupings are sent to the first reducer.
+ */
+public class RangePartitioner implements Partitioner<Tuple, Tuple>
+  {
+  /** Field LOG */
+  private static final Logger LOG = Logger.getLogger( RangePartitioner.class );
+
+  /** Field SPLIT_POINTS */
+  static final String SPLIT_POINTS = "cascading.group.totalorder.splitpoints";
+
+  /** Field comparator */
+  private Comparator<Tuple> comparator;
+  /** Field splitPoints */
+  private Tuple[] splitPoints = new Tuple[0];
+
+  /**
+   * Method setSplitPoints sets the sorted split points to be used by this partitioner in the given JobConf.
+   *
+   * @param jobConf     of type JobConf
+   * @param splitPoints of type Tuple[]
+   * @throws IOException when the split points cannot be serialized
+   */
+  public static void setSplitPoints( JobConf jobConf, Tuple[] splitPoints ) throws IOException
+    {
+    jobConf.set( SPLIT_POINTS, Util.serializeBase64( splitPoints ) );
+    }
+
+  /**
+   * Method getGroupingComparator returns the {@link Comparator} used to order grouping Tuple instances in the given
+   * JobConf, honoring any custom grouping Comparators and reversed sorting.
+   *
+   * @param jobConf of type JobConf
+   * @return Comparator<Tuple>
+   */
+  public static Comparator<Tuple> getGroupingComparator( JobConf jobConf )
+    {
+    final TupleComparator tupleComparator = new TupleComparator();
+
+    tupleComparator.setConf( jobConf );
+
+    Class type = jobConf.getClass( "mapred.output.key.comparator.class", TupleComparator.class );
+
+    if( !ReverseTupleComparator.class.isAssignableFrom( type ) && !ReverseTuplePairComparator.class.isAssignableFrom( type ) )
+      return tupleComparator;
+
+    return new Comparator<Tuple>()
+    {
+    public int compare( Tuple lhs, Tuple rhs )
+      {
+      return tupleComparator.compare( rhs, lhs );
+      }
+    };
+    }
+
+  public void configure( JobConf jobConf )
+    {
+    comparator = getGroupingComparator( jobConf );
+
+    try
+      {
+      Tuple[] tuples = (Tuple[]) Util.deserializeBase64( jobConf.get( SPLIT_POINTS ) );
+
+      if( tuples != null )
+        splitPoints = tuples;
+      }
+    catch( IOException exception )
+      {
+      throw new CascadingException( "unable to deserialize split points", exception );
+      }
+
+    if( LOG.isDebugEnabled() )
+      LOG.debug( "using split points: " + splitPoints.length );
+    }
+
+  public int getPartition( Tuple key, Tuple value, int numReduceTasks )
+    {
+    Tuple grouping = key instanceof TuplePair ? ( (TuplePair) key ).getLhs() : key;
+
+    // the number of split points less than or equal to the grouping
+    int low = 0;
+    int high = splitPoints.length;
+
+    while( low < high )
+      {
+      int mid = ( low + high ) >>> 1;
+
+      if( comparator.compare( splitPoints[ mid ], grouping ) <= 0 )
+        low = mid + 1;
+      else
+        high = mid;
+      }
+
+    return Math.min( low, numReduceTasks - 1 );
+    }
+  }
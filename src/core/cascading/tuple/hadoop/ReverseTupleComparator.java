@@ -25,6 +25,12 @@ import cascading.tuple.Tuple;
 
 public class ReverseTupleComparator extends TupleComparator
   {
+  @Override
+  boolean compareBytes( TupleBytesComparison comparison, byte[] b1, int s1, byte[] b2, int s2 )
+    {
+    return super.compareBytes( comparison, b2, s2, b1, s1 );
+    }
+
   @Override
   public int compare( Tuple lhs, Tuple rhs )
     {
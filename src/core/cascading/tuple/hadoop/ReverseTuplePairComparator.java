@@ -26,6 +26,12 @@ import cascading.tuple.TuplePair;
 /** Class ReverseTuplePairComparator is an implementation of {@link org.apache.hadoop.io.RawComparator}. */
 public class ReverseTuplePairComparator extends TuplePairComparator
   {
+  @Override
+  boolean compareBytes( TupleBytesComparison comparison, byte[] b1, int s1, byte[] b2, int s2 )
+    {
+    return super.compareBytes( comparison, b2, s2, b1, s1 );
+    }
+
   @Override
   public int compare( TuplePair lhs, TuplePair rhs )
     {
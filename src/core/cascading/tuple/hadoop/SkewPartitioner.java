@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2007-2009 Concurrent, Inc. All Rights Reserved.
+ *
+ * Project and contact information: http://www.cascading.org/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Cascading is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Cascading is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cascading.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package cascading.tuple.hadoop;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import cascading.CascadingException;
+import cascading.tuple.IndexTuple;
+import cascading.tuple.Tuple;
+import cascading.tuple.TuplePair;
+import cascading.util.Util;
+import org.apache.hadoop.mapred.JobConf;
+import org.apache.hadoop.mapred.Partitioner;
+import org.apache.log4j.Logger;
+
+/**
+ * Class SkewPartitioner is an implementation of {@link Partitioner} used by skew joins, see
+ * {@link cascading.pipe.CoGroup}.
+ * <p/>
+ * Keys are {@link TuplePair} instances holding the grouping and a salt. A grouping found to be heavy is given a
+ * number of salts, see {@link #setSkewedGroupings(JobConf, Map)}, and each salt of a grouping is sent to a different
+ * reducer, starting with the reducer the grouping would be sent to by the {@link GroupingPartitioner}. All other
+ * groupings only have the salt 0, and so are partitioned as by the GroupingPartitioner.
+ */
+public class SkewPartitioner implements Partitioner<TuplePair, IndexTuple>
+  {
+  /** Field LOG */
+  private static final Logger LOG = Logger.getLogger( SkewPartitioner.class );
+
+  /** Field SKEWED_GROUPINGS */
+  static final String SKEWED_GROUPINGS = "cascading.cogroup.skew.groupings";
+
+  /**
+   * Method setSkewedGroupings sets the heavy groupings and the number of salts each should be spread over in the
+   * given JobConf.
+   *
+   * @param jobConf         of type JobConf
+   * @param skewedGroupings of type Map<Tuple, Integer>
+   * @throws IOException when the groupings cannot be serialized
+   */
+  public static void setSkewedGroupings( JobConf jobConf, Map<Tuple, Integer> skewedGroupings ) throws IOException
+    {
+    jobConf.set( SKEWED_GROUPINGS, Util.serializeBase64( new HashMap<Tuple, Integer>( skewedGroupings ) ) );
+    }
+
+  /**
+   * Method getSkewedGroupings returns the heavy groupings and the number of salts each should be spread over, as
+   * set in the given JobConf. Returns an empty Map if none were set.
+   *
+   * @param jobConf of type JobConf
+   * @return Map<Tuple, Integer>
+   */
+  public static Map<Tuple, Integer> getSkewedGroupings( JobConf jobConf )
+    {
+    try
+      {
+      Map<Tuple, Integer> skewedGroupings = (Map<Tuple, Integer>) Util.deserializeBase64( jobConf.get( SKEWED_GROUPINGS ) );
+
+      if( skewedGroupings == null )
+        return new HashMap<Tuple, Integer>();
+
+      return skewedGroupings;
+      }
+    catch( IOException exception )
+      {
+      throw new CascadingException( "unable to deserialize skewed groupings", exception );
+      }
+    }
+
+  public void configure( JobConf jobConf )
+    {
+    if( LOG.isDebugEnabled() )
+      LOG.debug( "using skewed groupings: " + getSkewedGroupings( jobConf ).size() );
+    }
+
+  public int getPartition( TuplePair key, IndexTuple value, int numReduceTasks )
+    {
+    int salt = (Integer) key.getRhs().get( 0 );
+
+    return ( ( key.getLhs().hashCode() & Integer.MAX_VALUE ) % numReduceTasks + salt ) % numReduceTasks;
+    }
+  }
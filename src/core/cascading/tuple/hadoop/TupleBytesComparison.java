@@ -0,0 +1,293 @@
+/*
+ * Copyright (c) 2007-2009 Concurrent, Inc. All Rights Reserved.
+ *
+ * Project and contact information: http://www.cascading.org/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Cascading is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Cascading is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cascading.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package cascading.tuple.hadoop;
+
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+
+import cascading.CascadingException;
+import org.apache.hadoop.io.WritableComparator;
+import org.apache.hadoop.io.WritableUtils;
+
+/**
+ * Class TupleBytesComparison compares {@link cascading.tuple.Tuple} and {@link cascading.tuple.TuplePair} instances
+ * directly on the bytes written by {@link cascading.tuple.TupleOutputStream}, honoring the ordering of
+ * {@link cascading.tuple.Tuple#compareTo(cascading.tuple.Tuple)}.
+ * <p/>
+ * Each compare method returns false if an element was found that cannot be compared on its bytes, a custom
+ * serialization token or two elements of different types, in which case the keys must be deserialized and compared.
+ * Otherwise the result is available from {@link #getResult()}.
+ */
+class TupleBytesComparison
+  {
+  /** Field lhs */
+  private byte[] lhs;
+  /** Field lhsPos */
+  private int lhsPos;
+  /** Field rhs */
+  private byte[] rhs;
+  /** Field rhsPos */
+  private int rhsPos;
+  /** Field result */
+  private int result;
+
+  /**
+   * Method getResult returns the result of the last successful comparison.
+   *
+   * @return the result (type int) of this TupleBytesComparison object.
+   */
+  int getResult()
+    {
+    return result;
+    }
+
+  /**
+   * Method compareTuple compares the serialized Tuple beginning at each offset. If the given bytes hold a TuplePair,
+   * only the first Tuple of each pair is compared.
+   *
+   * @param b1 of type byte[]
+   * @param s1 of type int
+   * @param b2 of type byte[]
+   * @param s2 of type int
+   * @return boolean false if the Tuples must be deserialized to be compared
+   */
+  boolean compareTuple( byte[] b1, int s1, byte[] b2, int s2 )
+    {
+    reset( b1, s1, b2, s2 );
+
+    return compareTuple();
+    }
+
+  /**
+   * Method compareTuplePair compares the serialized TuplePair beginning at each offset.
+   *
+   * @param b1 of type byte[]
+   * @param s1 of type int
+   * @param b2 of type byte[]
+   * @param s2 of type int
+   * @return boolean false if the TuplePairs must be deserialized to be compared
+   */
+  boolean compareTuplePair( byte[] b1, int s1, byte[] b2, int s2 )
+    {
+    reset( b1, s1, b2, s2 );
+
+    if( !compareTuple() )
+      return false;
+
+    if( result != 0 )
+      return true;
+
+    return compareTuple();
+    }
+
+  private void reset( byte[] b1, int s1, byte[] b2, int s2 )
+    {
+    lhs = b1;
+    lhsPos = s1;
+    rhs = b2;
+    rhsPos = s2;
+    result = 0;
+    }
+
+  private boolean compareTuple()
+    {
+    int lhsSize = readLhsVInt();
+    int rhsSize = readRhsVInt();
+
+    if( lhsSize != rhsSize )
+      return setResult( lhsSize - rhsSize );
+
+    for( int i = 0; i < lhsSize; i++ )
+      {
+      int lhsToken = readLhsVInt();
+      int rhsToken = readRhsVInt();
+
+      if( lhsToken == 0 && rhsToken == 0 )
+        continue;
+
+      if( lhsToken == 0 )
+        return setResult( -1 );
+      else if( rhsToken == 0 )
+        return setResult( 1 );
+
+      if( lhsToken != rhsToken )
+        return false;
+
+      int c;
+
+      switch( lhsToken )
+        {
+        case 1:
+          c = compareString();
+          break;
+
+        case 2:
+          c = Float.compare( Float.intBitsToFloat( WritableComparator.readInt( lhs, lhsPos ) ), Float.intBitsToFloat( WritableComparator.readInt( rhs, rhsPos ) ) );
+          lhsPos += 4;
+          rhsPos += 4;
+          break;
+
+        case 3:
+          c = Double.compare( WritableComparator.readDouble( lhs, lhsPos ), WritableComparator.readDouble( rhs, rhsPos ) );
+          lhsPos += 8;
+          rhsPos += 8;
+          break;
+
+        case 4:
+          c = compareLongs( readLhsVInt(), readRhsVInt() );
+          break;
+
+        case 5:
+          c = compareLongs( readLhsVLong(), readRhsVLong() );
+          break;
+
+        case 6:
+          c = lhs[ lhsPos++ ] - rhs[ rhsPos++ ]; // false is written as 0, true as 1
+          break;
+
+        case 7:
+          c = (short) WritableComparator.readUnsignedShort( lhs, lhsPos ) - (short) WritableComparator.readUnsignedShort( rhs, rhsPos );
+          lhsPos += 2;
+          rhsPos += 2;
+          break;
+
+        case 8:
+          if( !compareTuple() )
+            return false;
+
+          c = result;
+          break;
+
+        default: // TuplePair, IndexTuple, and custom serialization tokens
+          return false;
+        }
+
+      if( c != 0 )
+        return setResult( c );
+      }
+
+    return setResult( 0 );
+    }
+
+  private boolean setResult( int result )
+    {
+    this.result = result;
+
+    return true;
+    }
+
+  private static int compareLongs( long lhs, long rhs )
+    {
+    return lhs < rhs ? -1 : ( lhs == rhs ? 0 : 1 );
+    }
+
+  /**
+   * Strings are written as an int length followed by UTF-8 bytes, whose byte order is code point order. This matches the UTF-16 order of
+   * {@link String#compareTo(String)} except where a supplementary character meets a character at or above U+E000,
+   * in which case the two Strings are decoded and compared.
+   */
+  private int compareString()
+    {
+    int lhsLength = WritableComparator.readInt( lhs, lhsPos );
+    int rhsLength = WritableComparator.readInt( rhs, rhsPos );
+    int lhsStart = lhsPos + 4;
+    int rhsStart = rhsPos + 4;
+
+    lhsPos = lhsStart + lhsLength;
+    rhsPos = rhsStart + rhsLength;
+
+    int length = Math.min( lhsLength, rhsLength );
+
+    for( int i = 0; i < length; i++ )
+      {
+      int lhsByte = lhs[ lhsStart + i ] & 0xff;
+      int rhsByte = rhs[ rhsStart + i ] & 0xff;
+
+      if( lhsByte == rhsByte )
+        continue;
+
+      if( isSurrogateOrder( lhsByte, rhsByte ) || isSurrogateOrder( rhsByte, lhsByte ) )
+        return decode( lhs, lhsStart, lhsLength ).compareTo( decode( rhs, rhsStart, rhsLength ) );
+
+      return lhsByte - rhsByte;
+      }
+
+    return lhsLength - rhsLength;
+    }
+
+  private static boolean isSurrogateOrder( int supplementaryByte, int otherByte )
+    {
+    return supplementaryByte >= 0xF0 && ( otherByte == 0xEE || otherByte == 0xEF );
+    }
+
+  private static String decode( byte[] bytes, int start, int length )
+    {
+    try
+      {
+      return new String( bytes, start, length, "UTF-8" );
+      }
+    catch( UnsupportedEncodingException exception )
+      {
+      throw new CascadingException( "unable to decode string", exception );
+      }
+    }
+
+  private int readLhsVInt()
+    {
+    int value = (int) readVLong( lhs, lhsPos );
+    lhsPos += WritableUtils.decodeVIntSize( lhs[ lhsPos ] );
+    return value;
+    }
+
+  private int readRhsVInt()
+    {
+    int value = (int) readVLong( rhs, rhsPos );
+    rhsPos += WritableUtils.decodeVIntSize( rhs[ rhsPos ] );
+    return value;
+    }
+
+  private long readLhsVLong()
+    {
+    long value = readVLong( lhs, lhsPos );
+    lhsPos += WritableUtils.decodeVIntSize( lhs[ lhsPos ] );
+    return value;
+    }
+
+  private long readRhsVLong()
+    {
+    long value = readVLong( rhs, rhsPos );
+    rhsPos += WritableUtils.decodeVIntSize( rhs[ rhsPos ] );
+    return value;
+    }
+
+  private static long readVLong( byte[] bytes, int start )
+    {
+    try
+      {
+      return WritableComparator.readVLong( bytes, start );
+      }
+    catch( IOException exception )
+      {
+      throw new CascadingException( "unable to read tuple bytes", exception );
+      }
+    }
+  }
@@ -53,8 +53,11 @@ public class TupleComparator extends DeserializerComparator<Tuple> implements Co
       {
       String value = conf.get( "cascading.group.comparator" );
 
-      if( value != null )
-        comparator = (Comparator) Util.deserializeBase64( value );
+      if( value == null )
+        return;
+
+      comparator = (Comparator) Util.deserializeBase64( value );
+      comparison = null;
       }
     catch( IOException exception )
       {
@@ -67,6 +70,11 @@ public class TupleComparator extends DeserializerComparator<Tuple> implements Co
     setDeserializer( tupleSerialization.getTupleDeserializer() );
     }
 
+  boolean compareBytes( TupleBytesComparison comparison, byte[] b1, int s1, byte[] b2, int s2 )
+    {
+    return comparison.compareTuple( b1, s1, b2, s2 );
+    }
+
   public int compare( Tuple lhs, Tuple rhs )
     {
     return comparator.compare( lhs, rhs );
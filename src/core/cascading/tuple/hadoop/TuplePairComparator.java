@@ -25,6 +25,7 @@ import java.io.IOException;
 import java.util.Comparator;
 
 import cascading.CascadingException;
+import cascading.tuple.Tuple;
 import cascading.tuple.TuplePair;
 import cascading.util.Util;
 import org.apache.hadoop.conf.Configuration;
@@ -55,8 +56,20 @@ public class TuplePairComparator extends DeserializerComparator<TuplePair>
     if( sort == null && group == null )
       return;
 
-    Comparator groupComparator = comparator;
-    Comparator sortComparator = comparator;
+    comparison = null;
+
+    Comparator tupleComparator = new Comparator<Tuple>()
+    {
+    @Override
+    public int compare( Tuple lhs, Tuple rhs )
+      {
+      return lhs.compareTo( rhs );
+      }
+    };
+
+    // the pair comparator above would fail on the lhs and rhs Tuples
+    Comparator groupComparator = tupleComparator;
+    Comparator sortComparator = tupleComparator;
 
     try
       {
@@ -101,6 +114,11 @@ public class TuplePairComparator extends DeserializerComparator<TuplePair>
     setDeserializer( tupleSerialization.getTuplePairDeserializer() );
     }
 
+  boolean compareBytes( TupleBytesComparison comparison, byte[] b1, int s1, byte[] b2, int s2 )
+    {
+    return comparison.compareTuplePair( b1, s1, b2, s2 );
+    }
+
   public int compare( TuplePair lhs, TuplePair rhs )
     {
     return comparator.compare( lhs, rhs );
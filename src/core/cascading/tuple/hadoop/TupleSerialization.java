@@ -28,7 +28,9 @@ import cascading.CascadingException;
 import cascading.tuple.IndexTuple;
 import cascading.tuple.Tuple;
 import cascading.tuple.TupleException;
+import cascading.tuple.TupleOutputStream;
 import cascading.tuple.TuplePair;
+import cascading.tuple.TypedTuple;
 import cascading.util.Util;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.conf.Configured;
@@ -67,6 +69,10 @@ public class TupleSerialization extends Configured implements Serialization
   private HashMap<String, Integer> classesTokensMap;
   /** Field tokenMapSize */
   private long tokensSize = 0;
+  /** Field typeTokens */
+  private int[][] typeTokens;
+  /** Field sourceTypeTokens */
+  private int[] sourceTypeTokens;
 
   /**
    * Adds the given token and className pair as a serialization token property. During object serialization and deserialization,
@@ -99,6 +105,162 @@ public class TupleSerialization extends Configured implements Serialization
     return jobConf.get( "cascading.serialization.tokens" );
     }
 
+  /**
+   * Sets the types {@link TypedTuple} values sent through the shuffle are read with, one array of types per pipe
+   * position when reading {@link IndexTuple} values. A null array leaves the values of that position untyped.
+   * <p/>
+   * Typically this is set by the planner from the {@link cascading.tuple.Fields#getTypes()} of the grouped values.
+   *
+   * @param jobConf of type JobConf
+   * @param types   of type Class[]...
+   */
+  public static void setTupleTypes( JobConf jobConf, Class[]... types )
+    {
+    setTypeTokens( jobConf, "cascading.serialization.types", types );
+    }
+
+  /**
+   * Returns the type tokens set by {@link #setTupleTypes(JobConf, Class[][])}, or null if not set.
+   *
+   * @param jobConf of type JobConf
+   * @return int[][]
+   */
+  static int[][] getTupleTypeTokens( JobConf jobConf )
+    {
+    return getTypeTokens( jobConf, "cascading.serialization.types" );
+    }
+
+  /**
+   * Sets the types {@link TypedTuple} values read from a source file are read with. Kept apart from
+   * {@link #setTupleTypes(JobConf, Class[][])} since the source properties are merged into the task JobConf that
+   * also holds the shuffle types of the step. When set, source types take precedence when reading TypedTuple values.
+   * <p/>
+   * Typically this is set by a typed {@link cascading.scheme.BlockSequenceFile} when initialized as a source.
+   *
+   * @param jobConf of type JobConf
+   * @param types   of type Class[]
+   */
+  public static void setSourceTupleTypes( JobConf jobConf, Class[] types )
+    {
+    setTypeTokens( jobConf, "cascading.serialization.types.source", types );
+    }
+
+  /**
+   * Returns the type tokens set by {@link #setSourceTupleTypes(JobConf, Class[])}, or null if not set.
+   *
+   * @param jobConf of type JobConf
+   * @return int[]
+   */
+  static int[] getSourceTupleTypeTokens( JobConf jobConf )
+    {
+    int[][] tokens = getTypeTokens( jobConf, "cascading.serialization.types.source" );
+
+    return tokens == null ? null : tokens[ 0 ];
+    }
+
+  private static void setTypeTokens( JobConf jobConf, String key, Class[]... types )
+    {
+    StringBuilder buffer = new StringBuilder();
+
+    for( int i = 0; i < types.length; i++ )
+      {
+      if( i != 0 )
+        buffer.append( ";" );
+
+      if( types[ i ] == null )
+        continue;
+
+      int[] tokens = TupleOutputStream.getTypeTokens( types[ i ] );
+
+      for( int j = 0; j < tokens.length; j++ )
+        {
+        if( j != 0 )
+          buffer.append( "," );
+
+        buffer.append( tokens[ j ] );
+        }
+      }
+
+    jobConf.set( key, buffer.toString() );
+    }
+
+  private static int[][] getTypeTokens( JobConf jobConf, String key )
+    {
+    String property = jobConf.get( key );
+
+    if( property == null )
+      return null;
+
+    String[] entries = property.split( ";", -1 );
+    int[][] tokens = new int[entries.length][];
+
+    for( int i = 0; i < entries.length; i++ )
+      {
+      if( entries[ i ].length() == 0 )
+        continue;
+
+      String[] values = entries[ i ].split( "," );
+
+      tokens[ i ] = new int[values.length];
+
+      for( int j = 0; j < values.length; j++ )
+        tokens[ i ][ j ] = Integer.parseInt( values[ j ] );
+      }
+
+    return tokens;
+    }
+
+  /**
+   * Sets the positions of {@link TypedTuple} values that are skipped when read from a source file, see
+   * {@link #setSourceTupleTypes(JobConf, Class[])}. Skipped positions are read as null without being decoded.
+   * <p/>
+   * Typically this is set by the planner for positions of an intermediate file the reading step never references.
+   *
+   * @param jobConf   of type JobConf
+   * @param positions of type int[]
+   */
+  public static void setSkippedTuplePositions( JobConf jobConf, int[] positions )
+    {
+    StringBuilder buffer = new StringBuilder();
+
+    for( int i = 0; i < positions.length; i++ )
+      {
+      if( i != 0 )
+        buffer.append( "," );
+
+      buffer.append( positions[ i ] );
+      }
+
+    jobConf.set( "cascading.serialization.types.skip", buffer.toString() );
+    }
+
+  /**
+   * Returns a mask of the positions set by {@link #setSkippedTuplePositions(JobConf, int[])}, or null if not set.
+   *
+   * @param jobConf of type JobConf
+   * @param size    of type int
+   * @return boolean[]
+   */
+  static boolean[] getSkippedTuplePositions( JobConf jobConf, int size )
+    {
+    String property = jobConf.get( "cascading.serialization.types.skip" );
+
+    if( property == null || property.length() == 0 )
+      return null;
+
+    boolean[] skipped = new boolean[size];
+
+    for( String value : property.split( "," ) )
+      {
+      int pos = Integer.parseInt( value );
+
+      if( pos < size )
+        skipped[ pos ] = true;
+      }
+
+    return skipped;
+    }
+
   /**
    * Adds the given className as a Hadoop IO serialization class.
    *
@@ -276,6 +438,22 @@ public class TupleSerialization extends Configured implements Serialization
     return classesTokensMap.get( className );
     }
 
+  int[][] getTypeTokens()
+    {
+    if( typeTokens == null )
+      typeTokens = getTupleTypeTokens( (JobConf) getConf() );
+
+    return typeTokens;
+    }
+
+  int[] getSourceTypeTokens()
+    {
+    if( sourceTypeTokens == null )
+      sourceTypeTokens = getSourceTupleTypeTokens( (JobConf) getConf() );
+
+    return sourceTypeTokens;
+    }
+
   Serializer getNewSerializer( Class type )
     {
     try
@@ -328,7 +506,7 @@ public class TupleSerialization extends Configured implements Serialization
 
   private IndexTupleDeserializer getIndexTupleDeserializer()
     {
-    return new IndexTupleDeserializer( getElementReader( false ) );
+    return new IndexTupleDeserializer( getElementReader( false ), getTypeTokens() );
     }
 
   /**
@@ -351,6 +529,26 @@ public class TupleSerialization extends Configured implements Serialization
     return new IndexTupleSerializer( getElementWriter() );
     }
 
+  private TypedTupleSerializer getTypedTupleSerializer()
+    {
+    return new TypedTupleSerializer( getElementWriter() );
+    }
+
+  private TypedTupleDeserializer getTypedTupleDeserializer()
+    {
+    int[] sourceTokens = getSourceTypeTokens();
+
+    // source types win, the task JobConf of a map reading a typed file also holds the shuffle types of the step
+    if( sourceTokens != null )
+      {
+      boolean[] skipped = getSkippedTuplePositions( (JobConf) getConf(), sourceTokens.length );
+
+      return new TypedTupleDeserializer( getElementReader( true ), new int[][]{sourceTokens}, skipped );
+      }
+
+    return new TypedTupleDeserializer( getElementReader( true ), getTypeTokens(), null );
+    }
+
   /**
    * Method accept implements {@link Serialization#accept(Class)}.
    *
@@ -359,7 +557,7 @@ public class TupleSerialization extends Configured implements Serialization
    */
   public boolean accept( Class c )
     {
-    return Tuple.class == c || TuplePair.class == c || IndexTuple.class == c;
+    return Tuple.class == c || TuplePair.class == c || IndexTuple.class == c || TypedTuple.class == c;
     }
 
   /**
@@ -376,6 +574,8 @@ public class TupleSerialization extends Configured implements Serialization
       return getTuplePairDeserializer();
     else if( c == IndexTuple.class )
         return getIndexTupleDeserializer();
+      else if( c == TypedTuple.class )
+          return getTypedTupleDeserializer();
 
     throw new IllegalArgumentException( "unknown class, cannot deserialize: " + c.getName() );
     }
@@ -394,6 +594,8 @@ public class TupleSerialization extends Configured implements Serialization
       return getTuplePairSerializer();
     else if( c == IndexTuple.class )
         return getIndexTupleSerializer();
+      else if( c == TypedTuple.class )
+          return getTypedTupleSerializer();
 
     throw new IllegalArgumentException( "unknown class, cannot serialize: " + c.getName() );
     }
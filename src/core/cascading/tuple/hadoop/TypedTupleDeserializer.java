@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2007-2009 Concurrent, Inc. All Rights Reserved.
+ *
+ * Project and contact information: http://www.cascading.org/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Cascading is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Cascading is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cascading.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package cascading.tuple.hadoop;
+
+import java.io.IOException;
+
+import cascading.CascadingException;
+import cascading.tuple.Tuple;
+
+class TypedTupleDeserializer extends BaseDeserializer<Tuple>
+  {
+  /** Field tokens */
+  private final int[] tokens;
+  /** Field skipped */
+  private final boolean[] skipped;
+
+  TypedTupleDeserializer( SerializationElementReader elementReader, int[][] tokens, boolean[] skipped )
+    {
+    super( elementReader );
+
+    if( tokens == null || tokens.length == 0 || tokens[ 0 ] == null )
+      throw new CascadingException( "no tuple types were found to read typed tuples with" );
+
+    this.tokens = tokens[ 0 ];
+    this.skipped = skipped;
+    }
+
+  public Tuple deserialize( Tuple tuple ) throws IOException
+    {
+    if( tuple == null )
+      tuple = new Tuple();
+
+    return inputStream.readTypedTuple( tuple, tokens, skipped );
+    }
+  }
@@ -23,32 +23,48 @@ package cascading;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
 import cascading.flow.Flow;
 import cascading.flow.FlowConnector;
+import cascading.flow.FlowException;
+import cascading.flow.MultiMapReducePlanner;
 import cascading.flow.PlannerException;
+import cascading.flow.StepCounters;
+import cascading.flow.hadoop.HadoopStepStats;
 import cascading.operation.Function;
 import cascading.operation.Identity;
 import cascading.operation.aggregator.First;
 import cascading.operation.regex.RegexFilter;
+import cascading.operation.regex.RegexReplace;
 import cascading.operation.regex.RegexSplitter;
 import cascading.pipe.CoGroup;
 import cascading.pipe.Each;
 import cascading.pipe.Every;
 import cascading.pipe.GroupBy;
+import cascading.pipe.HashJoin;
 import cascading.pipe.Pipe;
+import cascading.pipe.cogroup.CoGroupClosure;
+import cascading.pipe.cogroup.HashJoinFunction;
+import cascading.pipe.cogroup.InnerJoin;
+import cascading.pipe.cogroup.Joiner;
 import cascading.pipe.cogroup.LeftJoin;
 import cascading.pipe.cogroup.MixedJoin;
 import cascading.pipe.cogroup.OuterJoin;
 import cascading.pipe.cogroup.RightJoin;
+import cascading.scheme.SequenceFile;
 import cascading.scheme.TextLine;
 import cascading.tap.Hfs;
+import cascading.tap.Lfs;
 import cascading.tap.Tap;
 import cascading.tuple.Fields;
+import cascading.tuple.Tuple;
 import cascading.tuple.TupleEntryIterator;
 
 public class CoGroupFieldedPipesTest extends ClusterTestCase
@@ -118,6 +134,202 @@ public class CoGroupFieldedPipesTest extends ClusterTestCase
     iterator.close();
     }
 
+  public void testCoGroupPrunedFields() throws Exception
+    {
+    if( !new File( inputFileLower ).exists() )
+      fail( "data file not found" );
+
+    copyFromLocal( inputFileLower );
+    copyFromLocal( inputFileUpper );
+
+    Tap sourceLower = new Hfs( new TextLine( new Fields( "offset", "line" ) ), inputFileLower );
+    Tap sourceUpper = new Hfs( new TextLine( new Fields( "offset", "line" ) ), inputFileUpper );
+
+    Map sources = new HashMap();
+
+    sources.put( "lower", sourceLower );
+    sources.put( "upper", sourceUpper );
+
+    Function splitter = new RegexSplitter( new Fields( "num", "char" ), " " );
+
+    Tap sink = new Hfs( new TextLine(), outputPath + "/complex/cogrouppruned/", true );
+
+    // offset and line are never read after the splitters, so are not shuffled
+    Pipe pipeLower = new Each( new Pipe( "lower" ), new Fields( "line" ), splitter, Fields.ALL );
+    Pipe pipeUpper = new Each( new Pipe( "upper" ), new Fields( "line" ), splitter, Fields.ALL );
+
+    Fields declared = new Fields( "offset1", "line1", "num1", "char1", "offset2", "line2", "num2", "char2" );
+
+    Pipe splice = new CoGroup( pipeLower, new Fields( "num" ), pipeUpper, new Fields( "num" ), declared );
+
+    splice = new Each( splice, new Fields( "num1", "char1", "char2" ), new Identity(), Fields.RESULTS );
+
+    Flow countFlow = new FlowConnector( getProperties() ).connect( sources, sink, splice );
+
+    countFlow.complete();
+
+    validateLength( countFlow, 5, null );
+
+    TupleEntryIterator iterator = countFlow.openSink();
+
+    assertEquals( "not equal: tuple.get(1)", "1\ta\tA", iterator.next().get( 1 ) );
+    assertEquals( "not equal: tuple.get(1)", "2\tb\tB", iterator.next().get( 1 ) );
+
+    iterator.close();
+    }
+
+  public void testCoGroupFilterPushdown() throws Exception
+    {
+    if( !new File( inputFileLower ).exists() )
+      fail( "data file not found" );
+
+    copyFromLocal( inputFileLower );
+    copyFromLocal( inputFileUpper );
+
+    Tap sourceLower = new Hfs( new TextLine( new Fields( "offset", "line" ) ), inputFileLower );
+    Tap sourceUpper = new Hfs( new TextLine( new Fields( "offset", "line" ) ), inputFileUpper );
+
+    Map sources = new HashMap();
+
+    sources.put( "lower", sourceLower );
+    sources.put( "upper", sourceUpper );
+
+    Tap sink = new Hfs( new TextLine(), outputPath + "/complex/cogrouppushdown/", true );
+
+    Pipe pipeLower = new Each( new Pipe( "lower" ), new Fields( "line" ), new RegexSplitter( new Fields( "num", "char" ), " " ) );
+    Pipe pipeUpper = new Each( new Pipe( "upper" ), new Fields( "line" ), new RegexSplitter( new Fields( "numUpper", "charUpper" ), " " ) );
+
+    Pipe splice = new CoGroup( pipeLower, new Fields( "num" ), pipeUpper, new Fields( "numUpper" ) );
+
+    // both filters are evaluated in the mapper, ahead of the join
+    splice = new Each( splice, new Fields( "char" ), new RegexFilter( "[abc]" ) );
+    splice = new Each( splice, new Fields( "charUpper" ), new RegexFilter( "[ABD]" ) );
+
+    Flow countFlow = new FlowConnector( getProperties() ).connect( sources, sink, splice );
+
+    countFlow.complete();
+
+    validateLength( countFlow, 2, null );
+
+    TupleEntryIterator iterator = countFlow.openSink();
+
+    assertEquals( "not equal: tuple.get(1)", "1\ta\t1\tA", iterator.next().get( 1 ) );
+    assertEquals( "not equal: tuple.get(1)", "2\tb\t2\tB", iterator.next().get( 1 ) );
+
+    iterator.close();
+    }
+
+  public void testHashJoin() throws Exception
+    {
+    if( !new File( inputFileLowerOffset ).exists() )
+      fail( "data file not found" );
+
+    copyFromLocal( inputFileLowerOffset );
+    copyFromLocal( inputFileUpper );
+
+    Tap lookup = writeUpperLookup( "hashjoin" );
+
+    Tap source = new Hfs( new TextLine( new Fields( "offset", "line" ) ), inputFileLowerOffset );
+    Tap innerSink = new Hfs( new TextLine(), outputPath + "/hashjoin/inner/", true );
+    Tap leftSink = new Hfs( new TextLine(), outputPath + "/hashjoin/left/", true );
+
+    Function splitter = new RegexSplitter( new Fields( "num", "char" ), " " );
+    Fields declared = new Fields( "upperNum", "upperChar" );
+
+    Pipe pipe = new Each( new Pipe( "lower" ), new Fields( "line" ), splitter );
+    Pipe inner = new HashJoin( pipe, new Fields( "num" ), lookup, new Fields( "num" ), declared, new InnerJoin() );
+    Pipe left = new HashJoin( pipe, new Fields( "num" ), lookup, new Fields( "num" ), declared, new LeftJoin() );
+
+    Flow innerFlow = new FlowConnector( getProperties() ).connect( source, innerSink, inner );
+    Flow leftFlow = new FlowConnector( getProperties() ).connect( source, leftSink, left );
+
+    assertEquals( "not map only", 1, innerFlow.getSteps().size() );
+
+    innerFlow.complete();
+    leftFlow.complete();
+
+    validateLength( innerFlow, 3, null );
+    validateLength( leftFlow, 4, null );
+
+    TupleEntryIterator iterator = innerFlow.openSink();
+
+    assertEquals( "not equal: tuple.get(1)", "1\ta\t1\tA", iterator.next().get( 1 ) );
+    assertEquals( "not equal: tuple.get(1)", "5\tb\t5\tE", iterator.next().get( 1 ) );
+
+    iterator.close();
+
+    Set<Object> results = new HashSet<Object>();
+
+    iterator = leftFlow.openSink();
+
+    while( iterator.hasNext() )
+      results.add( iterator.next().get( 1 ) );
+
+    iterator.close();
+
+    assertTrue( "missing joined tuple", results.contains( "1\ta\t1\tA" ) );
+    assertTrue( "missing joined tuple", results.contains( "5\te\t5\tE" ) );
+    assertTrue( "missing outer tuple", results.contains( "6\tc\tnull\tnull" ) );
+    }
+
+  public void testHashJoinLookupLimit() throws Exception
+    {
+    if( !new File( inputFileLowerOffset ).exists() )
+      fail( "data file not found" );
+
+    copyFromLocal( inputFileLowerOffset );
+    copyFromLocal( inputFileUpper );
+
+    Tap lookup = writeUpperLookup( "hashjoinlimit" );
+
+    Tap source = new Hfs( new TextLine( new Fields( "offset", "line" ) ), inputFileLowerOffset );
+    Tap sink = new Hfs( new TextLine(), outputPath + "/hashjoinlimit/inner/", true );
+
+    Pipe pipe = new Each( new Pipe( "lower" ), new Fields( "line" ), new RegexSplitter( new Fields( "num", "char" ), " " ) );
+    pipe = new HashJoin( pipe, new Fields( "num" ), lookup, new Fields( "num" ), new Fields( "upperNum", "upperChar" ), new InnerJoin() );
+
+    Map<Object, Object> properties = getProperties();
+
+    properties.put( HashJoinFunction.LOOKUP_LIMIT, "100" );
+
+    Flow flow = new FlowConnector( properties ).connect( source, sink, pipe );
+
+    try
+      {
+      flow.complete();
+      fail( "did not fail on lookup limit" );
+      }
+    catch( FlowException exception )
+      {
+      // ignore
+      }
+    }
+
+  public void testHashJoinOuterJoin() throws Exception
+    {
+    try
+      {
+      new HashJoin( new Pipe( "lower" ), new Fields( "num" ), new Hfs( new SequenceFile( new Fields( "num", "char" ) ), "lookup" ), new Fields( "num" ), new OuterJoin() );
+      fail( "did not fail on outer join" );
+      }
+    catch( IllegalArgumentException exception )
+      {
+      // ignore
+      }
+    }
+
+  private Tap writeUpperLookup( String name ) throws IOException
+    {
+    Tap source = new Hfs( new TextLine( new Fields( "offset", "line" ) ), inputFileUpper );
+    Tap lookup = new Hfs( new SequenceFile( new Fields( "num", "char" ) ), outputPath + "/" + name + "/lookup/", true );
+
+    Pipe pipe = new Each( new Pipe( "upper" ), new Fields( "line" ), new RegexSplitter( new Fields( "num", "char" ), " " ) );
+
+    new FlowConnector( getProperties() ).connect( source, lookup, pipe ).complete();
+
+    return lookup;
+    }
+
   public void testCoGroupWithUnkowns() throws Exception
     {
     if( !new File( inputFileLower ).exists() )
@@ -952,5 +1164,197 @@ public class CoGroupFieldedPipesTest extends ClusterTestCase
     iterator.close();
     }
 
+  /**
+   * The lhs is made skewed so that the key 1 holds most of the values, and the key 6 has no matching rhs values.
+   *
+   * @throws Exception
+   */
+  public void testCoGroupSkewJoin() throws Exception
+    {
+    List<String> expected = runSkewJoin( "skewjoin/plain", new LeftJoin(), null, false );
+    List<String> results = runSkewJoin( "skewjoin/given", new LeftJoin(), new Tuple[]{new Tuple( "1" )}, true );
+
+    assertEquals( "wrong number of values", 37, expected.size() );
+    assertEquals( "not equal", expected, results );
+    }
+
+  public void testCoGroupSkewJoinSampled() throws Exception
+    {
+    List<String> expected = runSkewJoin( "skewjoin/plainsampled", new InnerJoin(), null, false );
+    List<String> results = runSkewJoin( "skewjoin/sampled", new InnerJoin(), null, true );
+
+    assertEquals( "wrong number of values", 36, expected.size() );
+    assertEquals( "not equal", expected, results );
+    }
+
+  public void testCoGroupSkewJoinOuter() throws Exception
+    {
+    try
+      {
+      new CoGroup( "skew", new Pipe( "lhs" ), new Fields( "num" ), new Pipe( "rhs" ), new Fields( "num" ), Fields.size( 4 ), new OuterJoin(), true );
+      fail( "did not fail on outer joined lhs" );
+      }
+    catch( IllegalArgumentException exception )
+      {
+      // ignore
+      }
+
+    new CoGroup( "skew", new Pipe( "lhs" ), new Fields( "num" ), new Pipe( "rhs" ), new Fields( "num" ), Fields.size( 4 ), new MixedJoin( new boolean[]{MixedJoin.INNER, MixedJoin.OUTER} ), true );
+    }
+
+  private List<String> runSkewJoin( String path, Joiner joiner, Tuple[] skewedGroupings, boolean skewJoin ) throws IOException
+    {
+    if( !new File( inputFileLhs ).exists() )
+      fail( "data file not found" );
+
+    Tap sourceLhs = new Lfs( new TextLine( new Fields( "offset", "line" ) ), inputFileLhs );
+    Tap sourceRhs = new Lfs( new TextLine( new Fields( "offset", "line" ) ), inputFileRhs );
+
+    Map sources = new HashMap();
+
+    sources.put( "lhs", sourceLhs );
+    sources.put( "rhs", sourceRhs );
+
+    Tap sink = new Lfs( new TextLine(), outputPath + path, true );
+
+    Function splitter = new RegexSplitter( new Fields( "num", "char" ), " " );
+
+    Pipe pipeLhs = new Each( new Pipe( "lhs" ), new Fields( "line" ), new RegexReplace( new Fields( "line" ), "^[245] ", "1 " ) );
+    pipeLhs = new Each( pipeLhs, new Fields( "line" ), new RegexReplace( new Fields( "line" ), "^3 ", "6 " ) );
+    pipeLhs = new Each( pipeLhs, new Fields( "line" ), splitter );
+    Pipe pipeRhs = new Each( new Pipe( "rhs" ), new Fields( "line" ), splitter );
+
+    if( joiner instanceof InnerJoin ) // drop the key without rhs values
+      pipeLhs = new Each( pipeLhs, new Fields( "num" ), new RegexFilter( "^6$", true ) );
+
+    Pipe splice;
+
+    if( !skewJoin )
+      splice = new CoGroup( "skew", pipeLhs, new Fields( "num" ), pipeRhs, new Fields( "num" ), Fields.size( 4 ), joiner );
+    else if( skewedGroupings == null )
+      splice = new CoGroup( "skew", pipeLhs, new Fields( "num" ), pipeRhs, new Fields( "num" ), Fields.size( 4 ), joiner, true );
+    else
+      splice = new CoGroup( "skew", pipeLhs, new Fields( "num" ), pipeRhs, new Fields( "num" ), Fields.size( 4 ), joiner, skewedGroupings );
+
+    Map<Object, Object> properties = getProperties();
+
+    // local mode only supports many reducers when run in process
+    Flow.setLocalInProcess( properties, true );
+    properties.put( "mapred.reduce.tasks", "4" );
+
+    if( MultiMapReducePlanner.getJobConf( properties ) != null )
+      MultiMapReducePlanner.getJobConf( properties ).setNumReduceTasks( 4 );
+
+    Flow flow = new FlowConnector( properties ).connect( sources, sink, splice );
+
+    flow.complete();
+
+    long[] counts = ( (HadoopStepStats) flow.getFlowStats().getStepStats().get( 0 ) ).getPartitionRecordCounts();
+
+    assertEquals( "wrong number of partitions", 4, counts.length );
+
+    if( skewJoin ) // the hot key is spread over all partitions, so all read values
+      {
+      for( long count : counts )
+        assertTrue( "partition is empty", count > 0 );
+      }
+
+    List<String> results = new ArrayList<String>();
+    TupleEntryIterator iterator = flow.openSink();
+
+    while( iterator.hasNext() )
+      results.add( iterator.next().getString( 1 ) );
+
+    iterator.close();
+
+    Collections.sort( results );
+
+    return results;
+    }
+
+  public void testCoGroupSpilledBlocks() throws Exception
+    {
+    List<String> expected = runSpilledJoin( "spilled/inmemory", new OuterJoin(), null );
+    List<String> results = runSpilledJoin( "spilled/blocks", new OuterJoin(), "2" );
+
+    assertEquals( "wrong number of values", 37, expected.size() );
+    assertEquals( "not equal", expected, results );
+
+    expected = runSpilledJoin( "spilled/inmemoryinner", new InnerJoin(), null );
+    results = runSpilledJoin( "spilled/blocksinner", new InnerJoin(), "2" );
+
+    assertEquals( "wrong number of values", 37, expected.size() );
+    assertEquals( "not equal", expected, results );
+    }
+
+  private List<String> runSpilledJoin( String path, Joiner joiner, String spillThreshold ) throws IOException
+    {
+    if( !new File( inputFileLhs ).exists() )
+      fail( "data file not found" );
+
+    copyFromLocal( inputFileLhs );
+    copyFromLocal( inputFileRhs );
+
+    Map sources = new HashMap();
+
+    sources.put( "lhs", new Hfs( new TextLine( new Fields( "offset", "line" ) ), inputFileLhs ) );
+    sources.put( "rhs", new Hfs( new TextLine( new Fields( "offset", "line" ) ), inputFileRhs ) );
+
+    Tap sink = new Hfs( new TextLine(), outputPath + path, true );
 
-  }
\ No newline at end of file
+    Function splitter = new RegexSplitter( new Fields( "num", "char" ), " " );
+
+    Pipe pipeLhs = new Each( new Pipe( "lhs" ), new Fields( "line" ), splitter );
+    Pipe pipeRhs = new Each( new Pipe( "rhs" ), new Fields( "line" ), splitter );
+
+    Pipe splice = new CoGroup( pipeLhs, new Fields( "num" ), pipeRhs, new Fields( "num" ), Fields.size( 4 ), joiner );
+
+    Map<Object, Object> properties = getProperties();
+
+    if( spillThreshold != null )
+      properties.put( CoGroupClosure.SPILL_THRESHOLD, spillThreshold );
+
+    Flow flow = new FlowConnector( properties ).connect( sources, sink, splice );
+
+    flow.complete();
+
+    if( spillThreshold != null )
+      {
+      assertTrue( "no spill files counted", flow.getFlowStats().getCounterValue( StepCounters.Spill_Files_Created ) > 0 );
+      assertTrue( "no spill bytes written", flow.getFlowStats().getCounterValue( StepCounters.Spill_Bytes_Written ) > 0 );
+      assertTrue( "no spill bytes read", flow.getFlowStats().getCounterValue( StepCounters.Spill_Bytes_Read ) > 0 );
+      assertTrue( "no tuples spilled", flow.getFlowStats().getCounterValue( StepCounters.Tuples_Spilled ) > 0 );
+
+      Map<String, Long> spilled = flow.getFlowStats().getCounterValuesByStep( StepCounters.Spill_Files_Created );
+
+      assertEquals( "wrong number of steps", 1, spilled.size() );
+      assertTrue( "no spill files counted for step", spilled.values().iterator().next() > 0 );
+      }
+
+    // the largest groupings hold three values from each side
+    HadoopStepStats stepStats = (HadoopStepStats) flow.getFlowStats().getStepStats().get( 0 );
+
+    assertNotNull( "no step name", stepStats.getStepName() );
+
+    long maxGroupSize = stepStats.getMaxGroupSize();
+
+    // the max of the reducers, not their sum, unknown if no reduce task reports are available
+    if( maxGroupSize != -1 )
+      {
+      assertEquals( "wrong max group size", 6, maxGroupSize );
+      assertEquals( "wrong max group size by step", maxGroupSize, (long) flow.getFlowStats().getCounterValuesByStep( StepCounters.Max_Group_Size ).values().iterator().next() );
+      }
+
+    List<String> results = new ArrayList<String>();
+    TupleEntryIterator iterator = flow.openSink();
+
+    while( iterator.hasNext() )
+      results.add( iterator.next().getString( 1 ) );
+
+    iterator.close();
+
+    Collections.sort( results );
+
+    return results;
+    }
+  }
@@ -22,19 +22,32 @@
 package cascading;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.Pattern;
 
 import cascading.cascade.Cascades;
 import cascading.flow.Flow;
 import cascading.flow.FlowConnector;
+import cascading.flow.FlowProcess;
+import cascading.flow.MultiMapReducePlanner;
+import cascading.operation.BaseOperation;
 import cascading.operation.Debug;
 import cascading.operation.Filter;
 import cascading.operation.Function;
+import cascading.operation.FunctionCall;
 import cascading.operation.Identity;
 import cascading.operation.aggregator.Count;
+import cascading.operation.aggregator.Average;
 import cascading.operation.aggregator.First;
+import cascading.operation.aggregator.Max;
+import cascading.operation.aggregator.Min;
+import cascading.operation.aggregator.Sum;
 import cascading.operation.expression.ExpressionFunction;
 import cascading.operation.filter.And;
 import cascading.operation.function.UnGroup;
@@ -53,12 +66,14 @@ import cascading.tap.Hfs;
 import cascading.tap.MultiSourceTap;
 import cascading.tap.Tap;
 import cascading.tuple.Fields;
+import cascading.tuple.LazyText;
 import cascading.tuple.Tuple;
 import cascading.tuple.TupleEntryIterator;
 
 public class FieldedPipesTest extends ClusterTestCase
   {
   String inputFileApache = "build/test/data/apache.10.txt";
+  String inputFileApache200 = "build/test/data/apache.200.txt";
   String inputFileIps = "build/test/data/ips.20.txt";
   String inputFileNums20 = "build/test/data/nums.20.txt";
   String inputFileNums10 = "build/test/data/nums.10.txt";
@@ -110,6 +125,47 @@ public class FieldedPipesTest extends ClusterTestCase
     validateLength( flow, 8, null );
     }
 
+  public void testLazyTextLine() throws Exception
+    {
+    if( !new File( inputFileApache ).exists() )
+      fail( "data file not found" );
+
+    copyFromLocal( inputFileApache );
+
+    TextLine scheme = new TextLine( new Fields( "offset", "line" ) );
+
+    scheme.setLazyText( true );
+
+    Tap source = new Hfs( scheme, inputFileApache );
+
+    Pipe pipe = new Pipe( "test" );
+
+    pipe = new Each( pipe, new Fields( "line" ), new RegexFilter( "\"POST " ) );
+
+    pipe = new Each( pipe, new Fields( "line" ), new RegexSplitter( new Fields( "ip", "rest" ), " " ), Fields.ALL );
+
+    pipe = new GroupBy( pipe, new Fields( "ip" ), new Fields( "offset" ) );
+
+    pipe = new Every( pipe, new Fields( "line" ), new Count(), new Fields( "ip", "count" ) );
+
+    Tap sink = new Hfs( new TextLine(), outputPath + "/lazytext", true );
+
+    Flow flow = new FlowConnector( getProperties() ).connect( source, sink, pipe );
+
+    flow.complete();
+
+    TupleEntryIterator iterator = flow.openSource();
+    Tuple tuple = iterator.next().getTuple();
+
+    iterator.close();
+
+    assertEquals( 0L, tuple.get( 0 ) );
+    assertTrue( "not lazy text", tuple.get( 1 ) instanceof LazyText );
+    assertTrue( "wrong line", tuple.getString( 1 ).startsWith( "75.185.76.245 - - " ) );
+
+    validateLength( flow, 6, null );
+    }
+
   public void testSimpleChain() throws Exception
     {
     if( !new File( inputFileApache ).exists() )
@@ -171,6 +227,288 @@ public class FieldedPipesTest extends ClusterTestCase
     validateLength( flow, 8, null );
     }
 
+  public void testPartialAggregation() throws Exception
+    {
+    if( !new File( inputFileApache200 ).exists() )
+      fail( "data file not found" );
+
+    copyFromLocal( inputFileApache200 );
+
+    Map<Object, Object> properties = getProperties();
+
+    MultiMapReducePlanner.setPartialAggregationCapacity( properties, 2 ); // force evictions
+
+    Flow partialFlow = new FlowConnector( properties ).connect( getSource200(), getSink( "/partial/partial" ), getPartialPipe() );
+
+    MultiMapReducePlanner.setPartialAggregation( properties, false );
+
+    Flow fullFlow = new FlowConnector( properties ).connect( getSource200(), getSink( "/partial/full" ), getPartialPipe() );
+
+    assertTrue( "not partial", partialFlow.getSteps().get( 0 ).isPartialAggregation() );
+    assertFalse( "is partial", fullFlow.getSteps().get( 0 ).isPartialAggregation() );
+
+    partialFlow.complete();
+    fullFlow.complete();
+
+    validateLength( partialFlow, 131, 6 );
+
+    TupleEntryIterator partialIterator = partialFlow.openSink();
+    TupleEntryIterator fullIterator = fullFlow.openSink();
+
+    while( fullIterator.hasNext() )
+      assertEquals( "not equal", fullIterator.next().getTuple(), partialIterator.next().getTuple() );
+
+    assertFalse( "too many values", partialIterator.hasNext() );
+
+    partialIterator.close();
+    fullIterator.close();
+    }
+
+  private Hfs getSource200()
+    {
+    return new Hfs( new TextLine( new Fields( "offset", "line" ) ), inputFileApache200 );
+    }
+
+  private Hfs getSink( String path )
+    {
+    return new Hfs( new SequenceFile( Fields.ALL ), outputPath + path, true );
+    }
+
+  private Pipe getPartialPipe()
+    {
+    Pipe pipe = new Pipe( "partial" );
+
+    pipe = new Each( pipe, new Fields( "line" ), new RegexParser( new Fields( "ip" ), "^[^ ]*" ), new Fields( "ip", "offset" ) );
+
+    pipe = new GroupBy( pipe, new Fields( "ip" ) );
+
+    pipe = new Every( pipe, new Count() );
+    pipe = new Every( pipe, new Fields( "offset" ), new Sum( new Fields( "sum" ), long.class ) );
+    pipe = new Every( pipe, new Fields( "offset" ), new Average() );
+    pipe = new Every( pipe, new Fields( "offset" ), new Min() );
+    pipe = new Every( pipe, new Fields( "offset" ), new Max() );
+
+    return pipe;
+    }
+
+  public void testReuseTuples() throws Exception
+    {
+    if( !new File( inputFileApache200 ).exists() )
+      fail( "data file not found" );
+
+    copyFromLocal( inputFileApache200 );
+    copyFromLocal( inputFileLhs );
+    copyFromLocal( inputFileRhs );
+
+    Map<Object, Object> properties = getProperties();
+
+    Flow copyFlow = new FlowConnector( properties ).connect( getSource200(), getSink( "/reuse/copy" ), getReusePipe() );
+    Flow copyJoinFlow = new FlowConnector( properties ).connect( getReuseJoinSources(), getSink( "/reuse/copyjoin" ), getReuseJoinPipe() );
+
+    properties = getProperties();
+    Flow.setReuseTuples( properties, true );
+
+    Flow reuseFlow = new FlowConnector( properties ).connect( getSource200(), getSink( "/reuse/reuse" ), getReusePipe() );
+    Flow reuseJoinFlow = new FlowConnector( properties ).connect( getReuseJoinSources(), getSink( "/reuse/reusejoin" ), getReuseJoinPipe() );
+
+    copyFlow.complete();
+    copyJoinFlow.complete();
+    reuseFlow.complete();
+    reuseJoinFlow.complete();
+
+    validateLength( reuseFlow, 129 );
+    validateLength( reuseJoinFlow, 37 );
+
+    assertSinksEqual( copyFlow, reuseFlow );
+    assertSinksEqual( copyJoinFlow, reuseJoinFlow );
+    }
+
+  public void testLocalInProcess() throws Exception
+    {
+    if( !new File( inputFileApache200 ).exists() )
+      fail( "data file not found" );
+
+    copyFromLocal( inputFileApache200 );
+    copyFromLocal( inputFileLhs );
+    copyFromLocal( inputFileRhs );
+
+    Map<Object, Object> properties = getProperties();
+
+    Flow hadoopFlow = new FlowConnector( properties ).connect( getSource200(), getSink( "/inprocess/hadoop" ), getInProcessPipe() );
+    Flow hadoopJoinFlow = new FlowConnector( properties ).connect( getReuseJoinSources(), getSink( "/inprocess/hadoopjoin" ), getReuseJoinPipe() );
+
+    properties = getProperties();
+    Flow.setLocalInProcess( properties, true );
+    Flow.setLocalThreads( properties, 3 );
+
+    Flow localFlow = new FlowConnector( properties ).connect( getSource200(), getSink( "/inprocess/local" ), getInProcessPipe() );
+    Flow localJoinFlow = new FlowConnector( properties ).connect( getReuseJoinSources(), getSink( "/inprocess/localjoin" ), getReuseJoinPipe() );
+
+    Flow.setLocalSortBufferSize( properties, 512 ); // forces map output to spill
+
+    Flow spillFlow = new FlowConnector( properties ).connect( getSource200(), getSink( "/inprocess/spill" ), getInProcessPipe() );
+
+    hadoopFlow.complete();
+    hadoopJoinFlow.complete();
+    localFlow.complete();
+    localJoinFlow.complete();
+    spillFlow.complete();
+
+    validateLength( localFlow, 6 );
+    validateLength( localJoinFlow, 37 );
+
+    assertSinksEqual( hadoopFlow, localFlow );
+    assertSinksEqual( hadoopFlow, spillFlow );
+    assertEquals( getSinkLines( hadoopJoinFlow ), getSinkLines( localJoinFlow ) );
+    }
+
+  public void testLocalInProcessStop() throws Exception
+    {
+    if( !new File( inputFileApache200 ).exists() )
+      fail( "data file not found" );
+
+    copyFromLocal( inputFileApache200 );
+
+    Map<Object, Object> properties = getProperties();
+
+    // more splits than threads, so map tasks are queued when the flow is stopped
+    Flow.setLocalInProcess( properties, true );
+    Flow.setLocalThreads( properties, 1 );
+    properties.put( "mapred.map.tasks", "8" );
+
+    Pipe pipe = new Each( new Pipe( "stop" ), new Fields( "line" ), new SleepingFunction(), Fields.ALL );
+
+    final Flow flow = new FlowConnector( properties ).connect( getSource200(), getSink( "/inprocess/stop" ), pipe );
+
+    flow.start();
+
+    assertTrue( "did not start", SleepingFunction.started.tryAcquire( 60, TimeUnit.SECONDS ) );
+
+    Thread stopper = new Thread( new Runnable()
+    {
+    public void run()
+      {
+      flow.stop();
+      }
+    }, "stopper" );
+
+    stopper.setDaemon( true );
+    stopper.start();
+    stopper.join( 60 * 1000 );
+
+    assertFalse( "did not stop", stopper.isAlive() );
+    }
+
+  /** Sleeps on every Tuple, swallowing interrupts so a stopped task still completes. */
+  private static class SleepingFunction extends BaseOperation implements Function
+    {
+    static final Semaphore started = new Semaphore( 0 );
+
+    public SleepingFunction()
+      {
+      super( 1, new Fields( "copy" ) );
+      }
+
+    public void operate( FlowProcess flowProcess, FunctionCall functionCall )
+      {
+      started.release();
+
+      try
+        {
+        Thread.sleep( 100 );
+        }
+      catch( InterruptedException exception )
+        {
+        // ignore
+        }
+
+      functionCall.getOutputCollector().add( functionCall.getArguments() );
+      }
+    }
+
+  private Pipe getInProcessPipe()
+    {
+    Pipe pipe = getReusePipe();
+
+    // a second group in its own step
+    pipe = new GroupBy( pipe, new Fields( "total" ) );
+    pipe = new Every( pipe, new Fields( "total" ), new Count( new Fields( "addresses" ) ) );
+
+    return pipe;
+    }
+
+  private List<String> getSinkLines( Flow flow ) throws Exception
+    {
+    List<String> lines = new ArrayList<String>();
+    TupleEntryIterator iterator = flow.openSink();
+
+    while( iterator.hasNext() )
+      lines.add( iterator.next().getTuple().toString() );
+
+    iterator.close();
+
+    Collections.sort( lines );
+
+    return lines;
+    }
+
+  private void assertSinksEqual( Flow expectedFlow, Flow flow ) throws Exception
+    {
+    TupleEntryIterator expected = expectedFlow.openSink();
+    TupleEntryIterator actual = flow.openSink();
+
+    while( expected.hasNext() )
+      assertEquals( "not equal", expected.next().getTuple(), actual.next().getTuple() );
+
+    assertFalse( "too many values", actual.hasNext() );
+
+    expected.close();
+    actual.close();
+    }
+
+  private Pipe getReusePipe()
+    {
+    Pipe pipe = new Pipe( "reuse" );
+
+    // exercise every outgoing selector kind, the filter passes the recycled tuples through
+    pipe = new Each( pipe, new Fields( "line" ), new RegexParser( new Fields( "ip" ), "^[^ ]*" ), Fields.ALL );
+    pipe = new Each( pipe, new Fields( "ip" ), new RegexFilter( "^75\\.", true ) );
+    pipe = new Each( pipe, new Fields( "line" ), new RegexParser( new Fields( "method" ), "(GET|POST|HEAD)" ), Fields.SWAP );
+    pipe = new Each( pipe, new Fields( "offset" ), new Identity( Long.class ), Fields.REPLACE );
+    pipe = new Each( pipe, new Fields( "ip" ), new Identity( new Fields( "address" ) ), new Fields( "address", "offset", "method" ) );
+
+    // partially aggregated in the mapper, so must be handed copies
+    pipe = new GroupBy( pipe, new Fields( "address" ) );
+    pipe = new Every( pipe, new Count() );
+    pipe = new Every( pipe, new Fields( "offset" ), new Sum( new Fields( "sum" ), long.class ) );
+
+    pipe = new Each( pipe, new Fields( "count" ), new Identity( new Fields( "total" ) ), Fields.ALL );
+
+    return pipe;
+    }
+
+  private Map<String, Tap> getReuseJoinSources()
+    {
+    Map<String, Tap> sources = new HashMap<String, Tap>();
+
+    sources.put( "lhs", new Hfs( new TextLine(), inputFileLhs ) );
+    sources.put( "rhs", new Hfs( new TextLine(), inputFileRhs ) );
+
+    return sources;
+    }
+
+  private Pipe getReuseJoinPipe()
+    {
+    Pipe pipeLower = new Each( "lhs", new Fields( "line" ), new RegexSplitter( new Fields( "numLHS", "charLHS" ), " " ) );
+    Pipe pipeUpper = new Each( "rhs", new Fields( "line" ), new RegexSplitter( new Fields( "numRHS", "charRHS" ), " " ) );
+
+    Pipe pipe = new CoGroup( pipeLower, new Fields( "numLHS" ), pipeUpper, new Fields( "numRHS" ), new InnerJoin() );
+
+    pipe = new Each( pipe, new Fields( "charLHS", "charRHS" ), new Identity( new Fields( "lhs", "rhs" ) ), new Fields( "numLHS", "lhs", "rhs" ) );
+
+    return pipe;
+    }
+
   // also tests the RegexSplitter
   public void testNoGroup() throws Exception
     {
@@ -713,6 +1051,42 @@ public class FieldedPipesTest extends ClusterTestCase
     validateLength( flow, 10, "output2" );
     }
 
+  /** Each branch reads only some of the intermediate fields, the others are skipped when read */
+  public void testSplitSkipsUnreadFields() throws Exception
+    {
+    if( !new File( inputFileApache ).exists() )
+      fail( "data file not found" );
+
+    copyFromLocal( inputFileApache );
+
+    Tap source = new Hfs( new TextLine( new Fields( "offset", "line" ) ), inputFileApache );
+
+    Map sinks = new HashMap();
+
+    sinks.put( "ips", new Hfs( new TextLine(), outputPath + "/skipped/ips", true ) );
+    sinks.put( "counts", new Hfs( new TextLine(), outputPath + "/skipped/counts", true ) );
+
+    Pipe pipe = new Pipe( "test" );
+
+    pipe = new Each( pipe, new Fields( "line" ), new RegexSplitter( new Fields( "ip", "rest" ), " " ) );
+    pipe = new GroupBy( pipe, new Fields( "ip" ) );
+    pipe = new Every( pipe, new Fields( "rest" ), new Count(), new Fields( "ip", "count" ) );
+
+    Pipe ips = new Each( new Pipe( "ips", pipe ), new Fields( "ip" ), new Identity(), Fields.RESULTS );
+    Pipe counts = new Each( new Pipe( "counts", pipe ), new Fields( "count" ), new Identity(), Fields.RESULTS );
+
+    Map sources = new HashMap();
+
+    sources.put( "test", source );
+
+    Flow flow = new FlowConnector( getProperties() ).connect( sources, sinks, ips, counts );
+
+    flow.complete();
+
+    validateLength( flow, 8, 2, Pattern.compile( "^\\d+\\t\\d+\\.\\d+\\.\\d+\\.\\d+$" ), "ips" );
+    validateLength( flow, 8, 2, Pattern.compile( "^\\d+\\t\\d+$" ), "counts" );
+    }
+
   public void testSplitComplex() throws Exception
     {
     if( !new File( inputFileApache ).exists() )
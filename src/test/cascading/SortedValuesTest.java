@@ -21,9 +21,13 @@
 
 package cascading;
 
+import java.io.BufferedReader;
 import java.io.File;
+import java.io.FileReader;
+import java.io.FilenameFilter;
 import java.io.IOException;
 import java.text.ParseException;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
@@ -317,6 +321,109 @@ public class SortedValuesTest extends ClusterTestCase
     validateFile( sink, 199, 16, reverseSort, 5 );
     }
 
+  public void testTotalOrder() throws Exception
+    {
+    runTotalOrderTest( "totalorder", false );
+    }
+
+  public void testTotalOrderReversed() throws Exception
+    {
+    runTotalOrderTest( "totalorderreversed", true );
+    }
+
+  private void runTotalOrderTest( String path, boolean reverseOrder ) throws IOException, ParseException
+    {
+    if( !new File( inputFileApache ).exists() )
+      fail( "data file not found" );
+
+    Tap source = new Lfs( new TextLine(), inputFileApache );
+    Tap sink = new Lfs( new TextLine(), outputPath + path, true );
+
+    Pipe pipe = new Pipe( "apache" );
+
+    pipe = new Each( pipe, new Fields( "line" ), apacheCommonParser );
+    pipe = new Each( pipe, new Insert( new Fields( "col" ), 1 ), Fields.ALL );
+    pipe = new Each( pipe, new Fields( "ip" ), new RegexParser( new Fields( "octet" ), "^[^.]*" ), new Fields( "col", "status", "event", "octet", "size" ) );
+    pipe = new Each( pipe, new Fields( "octet" ), new Identity( long.class ), Fields.REPLACE );
+
+    Fields groupFields = new Fields( "octet" );
+    groupFields.setComparator( "octet", new TestLongComparator( false ) );
+
+    pipe = new GroupBy( pipe, groupFields, new Fields( "status" ), reverseOrder, true );
+
+    pipe = new Each( pipe, new Identity() ); // let's force the stack to be exercised
+
+    Map<Object, Object> properties = getProperties();
+
+    // local mode only supports many reducers when run in process
+    Flow.setLocalInProcess( properties, true );
+    properties.put( "mapred.reduce.tasks", "3" );
+
+    if( MultiMapReducePlanner.getJobConf( properties ) != null )
+      MultiMapReducePlanner.getJobConf( properties ).setNumReduceTasks( 3 );
+
+    Flow flow = new FlowConnector( properties ).connect( source, sink, pipe );
+
+    flow.complete();
+
+    validatePartFiles( outputPath + path, 200, 53, reverseOrder, 3 );
+    }
+
+  private void validatePartFiles( String path, int length, int uniqueValues, boolean isReversed, int comparePosition ) throws IOException
+    {
+    File[] files = new File( path ).listFiles( new FilenameFilter()
+    {
+    public boolean accept( File dir, String name )
+      {
+      return name.startsWith( "part-" );
+      }
+    } );
+
+    Arrays.sort( files ); // reducer order
+
+    Set<Long> values = new HashSet<Long>();
+
+    long lastValue = isReversed ? Long.MAX_VALUE : Long.MIN_VALUE;
+    int count = 0;
+    int nonEmptyFiles = 0;
+
+    for( File file : files )
+      {
+      BufferedReader reader = new BufferedReader( new FileReader( file ) );
+
+      try
+        {
+        String line = reader.readLine();
+
+        if( line != null )
+          nonEmptyFiles++;
+
+        for( ; line != null; line = reader.readLine() )
+          {
+          long value = Long.parseLong( line.split( "\t" )[ comparePosition ] );
+
+          values.add( value );
+          count++;
+
+          if( isReversed )
+            assertTrue( "out of order in " + file, lastValue >= value );
+          else
+            assertTrue( "out of order in " + file, lastValue <= value );
+
+          lastValue = value;
+          }
+        }
+      finally
+        {
+        reader.close();
+        }
+      }
+
+    assertTrue( "groupings not spread across reducers", nonEmptyFiles > 1 );
+    assertEquals( "length of " + path, length, count );
+    assertEquals( "unique values of " + path, uniqueValues, values.size() );
+    }
+
   public void testSortFails() throws Exception
     {
     String path = "fails";
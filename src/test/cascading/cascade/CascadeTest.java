@@ -22,13 +22,18 @@
 package cascading.cascade;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Callable;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import cascading.ClusterTestCase;
 import cascading.flow.Flow;
 import cascading.flow.FlowConnector;
+import cascading.flow.FlowListener;
 import cascading.flow.FlowSkipStrategy;
 import cascading.flow.FlowStepJob;
 import cascading.flow.LockingFlowListener;
@@ -238,6 +243,137 @@ public class CascadeTest extends ClusterTestCase
     assertTrue( "did not complete", listener.completed.tryAcquire( 60, TimeUnit.SECONDS ) );
     }
 
+  public void testBoundedCascade() throws IOException
+    {
+    copyFromLocal( inputFile );
+
+    String path = "bounded";
+
+    Flow other = previousMultiTapFlow( path, "other" );
+    Flow first = firstFlow( path );
+    Flow second = secondFlow( first.getSink(), path );
+    Flow third = thirdFlow( second.getSink(), path );
+    Flow fourth = fourthFlow( third.getSink(), path );
+
+    final List<Flow> started = new ArrayList<Flow>();
+    final AtomicInteger running = new AtomicInteger();
+    final AtomicInteger maxRunning = new AtomicInteger();
+
+    FlowListener listener = new FlowListener()
+    {
+    public void onStarting( Flow flow )
+      {
+      synchronized( started )
+        {
+        started.add( flow );
+        }
+
+      maxRunning.set( Math.max( maxRunning.get(), running.incrementAndGet() ) );
+      }
+
+    public void onStopping( Flow flow )
+      {
+      }
+
+    public void onCompleted( Flow flow )
+      {
+      running.decrementAndGet();
+      }
+
+    public boolean onThrowable( Flow flow, Throwable throwable )
+      {
+      return false;
+      }
+    };
+
+    for( Flow flow : new Flow[]{other, first, second, third, fourth} )
+      flow.addListener( listener );
+
+    Map<Object, Object> properties = new HashMap<Object, Object>();
+    Cascade.setMaxConcurrentFlows( properties, 1 );
+
+    Cascade cascade = new CascadeConnector( properties ).connect( other, first, second, third, fourth );
+
+    assertEquals( 1, cascade.getMaxConcurrentFlows() );
+
+    cascade.complete();
+
+    validateLength( fourth, 20 );
+    validateLength( other, 20 );
+
+    assertEquals( 1, maxRunning.get() );
+    assertEquals( 5, started.size() );
+
+    // the longest chain is started first, the independent flow is held back
+    assertEquals( first, started.get( 0 ) );
+    assertEquals( second, started.get( 1 ) );
+    assertEquals( third, started.get( 2 ) );
+    }
+
+  public void testBoundedCascadeFlowDurations() throws IOException
+    {
+    copyFromLocal( inputFile );
+
+    String path = "durations";
+
+    Flow other = previousMultiTapFlow( path, "other" );
+    Flow first = firstFlow( path );
+    Flow second = secondFlow( first.getSink(), path );
+    Flow third = thirdFlow( second.getSink(), path );
+    Flow fourth = fourthFlow( third.getSink(), path );
+
+    final List<Flow> started = new ArrayList<Flow>();
+
+    FlowListener listener = new FlowListener()
+    {
+    public void onStarting( Flow flow )
+      {
+      synchronized( started )
+        {
+        started.add( flow );
+        }
+      }
+
+    public void onStopping( Flow flow )
+      {
+      }
+
+    public void onCompleted( Flow flow )
+      {
+      }
+
+    public boolean onThrowable( Flow flow, Throwable throwable )
+      {
+      return false;
+      }
+    };
+
+    for( Flow flow : new Flow[]{other, first, second, third, fourth} )
+      flow.addListener( listener );
+
+    Map<Object, Object> properties = new HashMap<Object, Object>();
+    Cascade.setMaxConcurrentFlows( properties, 1 );
+
+    // the independent flow took longer than the whole chain when last run
+    Cascade.setFlowDuration( properties, other.getName(), 60 * 60 * 1000 );
+
+    for( Flow flow : new Flow[]{first, second, third, fourth} )
+      Cascade.setFlowDuration( properties, flow.getName(), 60 * 1000 );
+
+    assertEquals( 60 * 60 * 1000, Cascade.getFlowDuration( properties, other.getName() ) );
+
+    Cascade cascade = new CascadeConnector( properties ).connect( other, first, second, third, fourth );
+
+    cascade.complete();
+
+    validateLength( fourth, 20 );
+    validateLength( other, 20 );
+
+    assertEquals( 5, started.size() );
+    assertEquals( other, started.get( 0 ) );
+    assertEquals( first, started.get( 1 ) );
+    }
+
   public void testCascadeID() throws IOException
     {
     String path = "simple";
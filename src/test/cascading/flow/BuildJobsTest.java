@@ -22,6 +22,7 @@
 package cascading.flow;
 
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
@@ -47,6 +48,7 @@ import cascading.pipe.Every;
 import cascading.pipe.GroupBy;
 import cascading.pipe.Pipe;
 import cascading.pipe.cogroup.InnerJoin;
+import cascading.pipe.cogroup.RightJoin;
 import cascading.scheme.Scheme;
 import cascading.scheme.SequenceFile;
 import cascading.scheme.TextLine;
@@ -304,6 +306,178 @@ public class BuildJobsTest extends CascadingTestCase
       }
     }
 
+  /** Each pipes between two groups must run in the upstream reducer, not the downstream mapper */
+  public void testGroupEachChainGroup() throws IOException
+    {
+    Tap source = new Hfs( new TextLine( new Fields( "offset", "line" ) ), "input/path" );
+    Tap sink = new Hfs( new TextLine(), "output/path", true );
+
+    Pipe pipe = new Pipe( "test" );
+
+    pipe = new Each( pipe, new Fields( "line" ), new RegexSplitter( new Fields( "key", "value" ), "\t" ) );
+    pipe = new GroupBy( pipe, new Fields( "key" ) );
+    pipe = new Every( pipe, new Fields( "value" ), new Count(), new Fields( "key", "count" ) );
+
+    Pipe identity = new Each( pipe, new Identity() );
+    Pipe filter = new Each( identity, new Fields( "count" ), new RegexFilter( "1" ) );
+
+    pipe = new GroupBy( filter, new Fields( "count" ) );
+    pipe = new Every( pipe, new Fields( "key" ), new Count( new Fields( "num" ) ), new Fields( "count", "num" ) );
+
+    List<FlowStep> steps = new FlowConnector().connect( source, sink, pipe ).getSteps();
+
+    assertEquals( "wrong size", 2, steps.size() );
+
+    FlowStep first = steps.get( 0 );
+    FlowStep second = steps.get( 1 );
+
+    assertTrue( "not in reducer", first.graph.containsVertex( identity ) );
+    assertTrue( "not in reducer", first.graph.containsVertex( filter ) );
+    assertFalse( "in mapper", second.graph.containsVertex( identity ) );
+    assertFalse( "in mapper", second.graph.containsVertex( filter ) );
+
+    // the downstream mapper only reads the temp tap and feeds the group
+    FlowElement next = second.getNextFlowElement( second.getNextScope( first.sink ) );
+
+    assertTrue( "not a group", next instanceof GroupBy );
+    }
+
+  public void testUnreadIntermediateFields() throws IOException
+    {
+    Tap source = new Hfs( new TextLine( new Fields( "offset", "line" ) ), "input/path" );
+
+    Map sources = new HashMap();
+    Map sinks = new HashMap();
+
+    sources.put( "test", source );
+    sinks.put( "keys", new Hfs( new TextLine(), "output/keys", true ) );
+    sinks.put( "all", new Hfs( new TextLine(), "output/all", true ) );
+
+    Pipe pipe = new Pipe( "test" );
+
+    pipe = new Each( pipe, new Fields( "line" ), new RegexSplitter( new Fields( "key", "value" ), "\t" ) );
+    pipe = new GroupBy( pipe, new Fields( "key" ) );
+    pipe = new Every( pipe, new Fields( "value" ), new Count(), new Fields( "key", "count" ) );
+
+    Pipe keys = new Each( new Pipe( "keys", pipe ), new Fields( "key" ), new Identity(), Fields.RESULTS );
+    Pipe all = new Each( new Pipe( "all", pipe ), new Fields( "key" ), new Identity( new Fields( "copy" ) ), Fields.ALL );
+
+    List<FlowStep> steps = new FlowConnector().connect( sources, sinks, keys, all ).getSteps();
+
+    assertEquals( "wrong size", 3, steps.size() );
+
+    Tap temp = steps.get( 0 ).sink;
+
+    assertTrue( "not a temp", temp instanceof TempHfs );
+
+    for( FlowStep step : steps.subList( 1, 3 ) )
+      {
+      int[] unread = step.getUnreadSourcePositions( temp );
+
+      if( step.sink.getPath().getName().equals( "keys" ) )
+        assertTrue( "wrong positions", Arrays.equals( new int[]{1}, unread ) );
+      else
+        assertNull( "positions skipped", unread );
+      }
+    }
+
+  public void testUnusedFieldsPruned() throws IOException
+    {
+    Tap source = new Hfs( new TextLine( new Fields( "offset", "line" ) ), "input/path" );
+    Tap sink = new Hfs( new TextLine(), "output/path", true );
+
+    Pipe pipe = new Pipe( "test" );
+
+    pipe = new Each( pipe, new Fields( "line" ), new RegexSplitter( new Fields( "ip", "time", "method" ), "\t" ), Fields.ALL );
+    pipe = new GroupBy( pipe, new Fields( "ip" ) );
+    pipe = new Every( pipe, new Fields( "method" ), new Count(), new Fields( "ip", "count" ) );
+
+    List<FlowStep> steps = new FlowConnector().connect( source, sink, pipe ).getSteps();
+
+    assertEquals( "wrong size", 1, steps.size() );
+
+    FlowStep step = steps.get( 0 );
+    Scope scope = step.getPreviousScopes( step.group ).iterator().next();
+
+    assertTrue( "wrong positions", Arrays.equals( new int[]{0, 1, 3}, scope.getUnusedPositions() ) );
+
+    Properties properties = new Properties();
+
+    MultiMapReducePlanner.setPruneFields( properties, false );
+
+    step = new FlowConnector( properties ).connect( source, sink, pipe ).getSteps().get( 0 );
+    scope = step.getPreviousScopes( step.group ).iterator().next();
+
+    assertNull( "positions pruned", scope.getUnusedPositions() );
+    }
+
+  public void testFilterPushdown()
+    {
+    Tap source = new Hfs( new TextLine( new Fields( "offset", "line" ) ), "input/path" );
+    Tap sink = new Hfs( new TextLine(), "output/path", true );
+
+    Pipe pipe = new Pipe( "test" );
+
+    pipe = new Each( pipe, new Fields( "line" ), new RegexSplitter( new Fields( "ip", "time", "method" ), "\t" ) );
+    pipe = new GroupBy( pipe, new Fields( "ip" ) );
+    pipe = new Every( pipe, new Fields( "method" ), new Count(), new Fields( "ip", "count" ) );
+    pipe = new Each( pipe, new Fields( "count" ), new ExpressionFilter( "count < 2", Long.class ) );
+    pipe = new Each( pipe, new Fields( "ip" ), new RegexFilter( "^68" ) );
+
+    List<FlowStep> steps = new FlowConnector().connect( source, sink, pipe ).getSteps();
+
+    assertEquals( "wrong size", 1, steps.size() );
+
+    FlowStep step = steps.get( 0 );
+    Scope scope = step.getPreviousScopes( step.group ).iterator().next();
+    FlowElement previous = step.graph.getEdgeSource( scope );
+
+    assertTrue( "filter not pushed", previous instanceof Each && ( (Each) previous ).getOperation() instanceof RegexFilter );
+
+    FlowElement next = step.getNextFlowElement( step.getNextScope( step.getNextFlowElement( step.getNextScope( step.group ) ) ) );
+
+    assertTrue( "aggregate filter pushed", next instanceof Each && ( (Each) next ).getOperation() instanceof ExpressionFilter );
+    assertTrue( "wrong sink", step.getNextFlowElement( step.getNextScope( next ) ) == step.sink );
+    }
+
+  public void testFilterPushdownCoGroup()
+    {
+    Tap sourceLower = new Hfs( new TextLine( new Fields( "offset", "line" ) ), "lower" );
+    Tap sourceUpper = new Hfs( new TextLine( new Fields( "offset", "line" ) ), "upper" );
+    Tap sink = new Hfs( new TextLine(), "output/path", true );
+
+    Map sources = new HashMap();
+
+    sources.put( "lower", sourceLower );
+    sources.put( "upper", sourceUpper );
+
+    Pipe pipeLower = new Each( new Pipe( "lower" ), new Fields( "line" ), new RegexSplitter( new Fields( "num", "char" ), " " ) );
+    Pipe pipeUpper = new Each( new Pipe( "upper" ), new Fields( "line" ), new RegexSplitter( new Fields( "numUpper", "charUpper" ), " " ) );
+
+    // the lower values are outer joined, so may only be filtered after the join
+    Pipe splice = new CoGroup( pipeLower, new Fields( "num" ), pipeUpper, new Fields( "numUpper" ), new RightJoin() );
+
+    splice = new Each( splice, new Fields( "char" ), new RegexFilter( "[ab]" ) );
+    splice = new Each( splice, new Fields( "charUpper" ), new RegexFilter( "[AB]" ) );
+
+    FlowStep step = new FlowConnector().connect( sources, sink, splice ).getSteps().get( 0 );
+
+    for( Scope scope : step.getPreviousScopes( step.group ) )
+      {
+      FlowElement previous = step.graph.getEdgeSource( scope );
+
+      if( scope.getName().equals( "upper" ) )
+        assertTrue( "filter not pushed", previous instanceof Each && ( (Each) previous ).getOperation() instanceof RegexFilter );
+      else
+        assertTrue( "filter pushed", previous instanceof Each && ( (Each) previous ).getOperation() instanceof RegexSplitter );
+      }
+
+    FlowElement next = step.getNextFlowElement( step.getNextScope( step.group ) );
+
+    assertTrue( "filter pushed", next instanceof Each && ( (Each) next ).getOperation() instanceof RegexFilter );
+    assertTrue( "wrong sink", step.getNextFlowElement( step.getNextScope( next ) ) == step.sink );
+    }
+
   /** This should result in only two steps, one for each side */
   public void testSplit()
     {
@@ -431,7 +605,12 @@ public class BuildJobsTest extends CascadingTestCase
     sinks.put( "left", sink1 );
     sinks.put( "right", sink2 );
 
-    Flow flow = new FlowConnector().connect( sources, sinks, left, right );
+    // the filters after the group would otherwise be pushed ahead of it
+    Properties properties = new Properties();
+
+    MultiMapReducePlanner.setPushFilters( properties, false );
+
+    Flow flow = new FlowConnector( properties ).connect( sources, sinks, left, right );
 
 //    flow.writeDOT( "splitcomplex.dot" );
 
@@ -489,7 +668,12 @@ public class BuildJobsTest extends CascadingTestCase
     sinks.put( "left", sink1 );
     sinks.put( "right", sink2 );
 
-    Flow flow = new FlowConnector().connect( sources, sinks, left, right );
+    // the filters after the group would otherwise be pushed ahead of it
+    Properties properties = new Properties();
+
+    MultiMapReducePlanner.setPushFilters( properties, false );
+
+    Flow flow = new FlowConnector( properties ).connect( sources, sinks, left, right );
 
 //    flow.writeDOT( "splitcomplex.dot" );
 
@@ -693,6 +877,38 @@ public class BuildJobsTest extends CascadingTestCase
     assertEquals( "not equal: steps.size()", 1, steps.size() );
     }
 
+  /** Tests an intermediate file joined with a SequenceFile source is not normalized into an extra step */
+  public void testNormalizeSequenceFileWithIntermediate()
+    {
+    Tap source1 = new Hfs( new SequenceFile( new Fields( "num", "char" ) ), "foo/normalize1" );
+    Tap source2 = new Hfs( new SequenceFile( new Fields( "num", "char" ) ), "foo/normalize2" );
+
+    Tap sink = new Hfs( new TextLine(), "foo/normalize", true );
+
+    Pipe left = new GroupBy( new Pipe( "left" ), new Fields( "num" ) );
+    left = new Every( left, new Count(), new Fields( "num", "count" ) );
+
+    Pipe right = new Pipe( "right" );
+
+    Pipe join = new CoGroup( "join", left, new Fields( "num" ), right, new Fields( "num" ), new Fields( "num", "count", "num2", "char" ) );
+
+    Map sources = new HashMap();
+    sources.put( "left", source1 );
+    sources.put( "right", source2 );
+
+    Map sinks = new HashMap();
+    sinks.put( "join", sink );
+
+    Map<Object, Object> properties = new HashMap<Object, Object>();
+    MultiMapReducePlanner.setNormalizeHeterogeneousSources( properties, true );
+
+    Flow flow = new FlowConnector( properties ).connect( sources, sinks, join );
+
+    List<FlowStep> steps = flow.getSteps();
+
+    assertEquals( "not equal: steps.size()", 2, steps.size() );
+    }
+
   /** Tests the case where the same source is split, then re-merged */
   public void testMergeSameSourceSplit()
     {
@@ -1446,7 +1662,12 @@ public class BuildJobsTest extends CascadingTestCase
     if( !before )
       right = new Pipe( "right", right );
 
-    Flow flow = new FlowConnector().connect( "splitmiddle", sources, sinks, left, right );
+    // the filters after the group would otherwise be pushed ahead of it
+    Properties properties = new Properties();
+
+    MultiMapReducePlanner.setPushFilters( properties, false );
+
+    Flow flow = new FlowConnector( properties ).connect( "splitmiddle", sources, sinks, left, right );
 
 //    flow.writeDOT( "splitmiddle.dot" );
 //    flow.writeStepsDOT( "splitmiddlesteps.dot" );
@@ -1524,4 +1745,46 @@ public class BuildJobsTest extends CascadingTestCase
     {
     return DijkstraShortestPath.findPathBetween( graph, lhs, rhs ).size() - 1;
     }
+  
+  /**
+   * Plans an assembly of fifty chained units, each splitting and joining its own source, and joining the previous
+   * unit. Every unit adds head to tail paths through all units above it, so path based planning would not finish.
+   */
+  public void testLargeAssembly() throws Exception
+    {
+    Map<String, Tap> sources = new HashMap<String, Tap>();
+    Map<String, Tap> sinks = new HashMap<String, Tap>();
+    Pipe[] tails = new Pipe[50];
+    Pipe previous = null;
+
+    for( int i = 0; i < tails.length; i++ )
+      {
+      sources.put( "source" + i, new Hfs( new TextLine( new Fields( "offset", "line" ) ), "input/path" + i ) );
+      sinks.put( "sink" + i, new Hfs( new TextLine(), "output/path" + i, true ) );
+
+      Pipe pipe = new Each( new Pipe( "source" + i ), new Fields( "line" ), new RegexSplitter( new Fields( "key", "value" ), "\t" ) );
+
+      Pipe lhs = new Each( new Pipe( "lhs" + i, pipe ), new Identity() );
+      Pipe rhs = new GroupBy( new Pipe( "rhs" + i, pipe ), new Fields( "key" ) );
+
+      rhs = new Every( rhs, new Fields( "value" ), new Count() );
+
+      pipe = new CoGroup( "join" + i, lhs, new Fields( "key" ), rhs, new Fields( "key" ), new Fields( "key", "value", "key2", "count" ) );
+      pipe = new Each( pipe, new Fields( "key", "value" ), new Identity() );
+
+      if( previous != null )
+        {
+        pipe = new CoGroup( "chain" + i, pipe, new Fields( "key" ), previous, new Fields( "key" ), new Fields( "key", "value", "key2", "value2" ) );
+        pipe = new Each( pipe, new Fields( "key", "value" ), new Identity() );
+        }
+
+      previous = pipe;
+      tails[ i ] = new Pipe( "sink" + i, pipe );
+      }
+
+    List<FlowStep> steps = new FlowConnector().connect( sources, sinks, tails ).getSteps();
+
+    // four steps for the first unit, five for each following unit, less the sink step of the last unit
+    assertEquals( "wrong size", 4 + 5 * ( tails.length - 1 ) - 1, steps.size() );
+    }
   }
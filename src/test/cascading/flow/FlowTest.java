@@ -381,4 +381,15 @@ public class FlowTest extends ClusterTestCase
     assertTrue( "same id", !flow1.getID().equalsIgnoreCase( flow2.getID() ) );
     }
 
+  public void testJobPollingInitialInterval() throws Exception
+    {
+    Map<Object, Object> props = new HashMap<Object, Object>();
+
+    assertEquals( 100, Flow.getJobPollingInitialInterval( props ) );
+
+    Flow.setJobPollingInitialInterval( props, 50 );
+
+    assertEquals( 50, Flow.getJobPollingInitialInterval( props ) );
+    }
+
   }
@@ -22,9 +22,12 @@
 package cascading.operation.aggregator;
 
 import cascading.CascadingTestCase;
+import cascading.flow.FlowProcess;
 import cascading.operation.Aggregator;
+import cascading.operation.ConcreteCall;
 import cascading.tuple.Fields;
 import cascading.tuple.Tuple;
+import cascading.tuple.TupleEntry;
 import cascading.tuple.TupleListCollector;
 
 /**
@@ -142,4 +145,94 @@ public class AggregatorsTest extends CascadingTestCase
     assertEquals( "got expected value after aggregate", 5.0, tuple.getDouble( 0 ), 0.0d );
     }
 
+  public void testLongSum()
+    {
+    Tuple[] arguments = new Tuple[]{new Tuple( 1L ), new Tuple( "3" ), new Tuple( 2 ), new Tuple( 4L ), new Tuple( -5L )};
+
+    Tuple tuple = invokeAggregator( new LongSum(), arguments, new Fields( "field" ) ).iterator().next();
+
+    assertEquals( "got expected value after aggregate", 5L, tuple.get( 0 ) );
+    }
+
+  public void testDoubleSum()
+    {
+    Tuple[] arguments = new Tuple[]{new Tuple( 1.5D ), new Tuple( "3" ), new Tuple( 2 ), new Tuple( 4.0D ), new Tuple( -5.0D )};
+
+    Tuple tuple = invokeAggregator( new DoubleSum(), arguments, new Fields( "field" ) ).iterator().next();
+
+    assertEquals( "got expected value after aggregate", 5.5D, tuple.get( 0 ) );
+    }
+
+  public void testLongExtrema()
+    {
+    Tuple[] arguments = new Tuple[]{new Tuple( 1L ), new Tuple( "3" ), new Tuple( 2 ), new Tuple( 4L ), new Tuple( -5L )};
+
+    assertEquals( "got expected value after aggregate", -5L, invokeAggregator( new LongMin(), arguments, new Fields( "field" ) ).iterator().next().get( 0 ) );
+    assertEquals( "got expected value after aggregate", 4L, invokeAggregator( new LongMax(), arguments, new Fields( "field" ) ).iterator().next().get( 0 ) );
+    }
+
+  public void testDoubleExtrema()
+    {
+    Tuple[] arguments = new Tuple[]{new Tuple( 1.0D ), new Tuple( "3" ), new Tuple( 2 ), new Tuple( 4.5D ), new Tuple( -5.0D )};
+
+    assertEquals( "got expected value after aggregate", -5.0D, invokeAggregator( new DoubleMin(), arguments, new Fields( "field" ) ).iterator().next().get( 0 ) );
+    assertEquals( "got expected value after aggregate", 4.5D, invokeAggregator( new DoubleMax(), arguments, new Fields( "field" ) ).iterator().next().get( 0 ) );
+    }
+
+  public void testStatistics()
+    {
+    Aggregator aggregator = new Statistics();
+
+    Tuple[] arguments = new Tuple[]{new Tuple( new Double( 1.0 ) ), new Tuple( new Double( 3.0 ) ), new Tuple( new Double( 2.0 ) ), new Tuple( new Double( 4.0 ) ), new Tuple( new Double( -5.0 ) )};
+
+    Fields resultFields = new Fields( "count", "sum", "min", "max", "average" );
+
+    TupleListCollector resultEntryCollector = invokeAggregator( aggregator, arguments, resultFields );
+
+    Tuple tuple = resultEntryCollector.iterator().next();
+
+    assertEquals( "got expected value after aggregate", new Tuple( 5L, 5.0D, -5.0D, 4.0D, 1.0D ), tuple );
+
+    aggregator = new Statistics( new Fields( "a", "c" ), Statistics.Statistic.AVERAGE, Statistics.Statistic.COUNT );
+
+    tuple = invokeAggregator( aggregator, arguments, new Fields( "a", "c" ) ).iterator().next();
+
+    assertEquals( "got expected value after aggregate", new Tuple( 1.0D, 5L ), tuple );
+    }
+
+  public void testStatisticsPartial()
+    {
+    Statistics statistics = new Statistics();
+    ConcreteCall call = new ConcreteCall();
+    Tuple[] partials = new Tuple[2];
+
+    for( int i = 0; i < partials.length; i++ )
+      {
+      statistics.start( FlowProcess.NULL, call );
+
+      for( int j = 0; j < 3; j++ )
+        {
+        call.setArguments( new TupleEntry( new Tuple( (double) ( i * 3 + j ) ) ) );
+        statistics.aggregate( FlowProcess.NULL, call );
+        }
+
+      partials[ i ] = statistics.getPartial( FlowProcess.NULL, call );
+      }
+
+    statistics.start( FlowProcess.NULL, call );
+
+    for( Tuple partial : partials )
+      {
+      call.setArguments( new TupleEntry( partial ) );
+      statistics.merge( FlowProcess.NULL, call );
+      }
+
+    TupleListCollector collector = new TupleListCollector( new Fields( "count", "sum", "min", "max", "average" ) );
+    call.setOutputCollector( collector );
+
+    statistics.complete( FlowProcess.NULL, call );
+
+    assertEquals( "got expected value after merge", new Tuple( 6L, 15.0D, 0.0D, 5.0D, 2.5D ), collector.iterator().next() );
+    }
+
   }
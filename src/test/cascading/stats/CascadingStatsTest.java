@@ -38,6 +38,7 @@ import cascading.scheme.TextLine;
 import cascading.tap.Hfs;
 import cascading.tap.Tap;
 import cascading.tuple.Fields;
+import org.apache.hadoop.mapred.JobConf;
 
 /**
  *
@@ -117,6 +118,11 @@ public class CascadingStatsTest extends ClusterTestCase
       assertTrue( stats1.getTaskStats().get( 5 ).getCounterValue( TestEnum.FIRST ) > 0 ); // in reducer
       }
 
+    StepStats second1 = flowStats1.getStepStats().get( 1 );
+    assertEquals( stats1.getFinishedTime(), second1.getReadyTime() );
+    assertTrue( second1.getStartTime() >= second1.getReadyTime() );
+    assertTrue( second1.getStartLatency() < Flow.getJobPollingInterval( new JobConf() ) );
+
     HadoopStepStats stats2 = (HadoopStepStats) flowStats2.getStepStats().get( 0 );
     assertEquals( 2, stats2.getNumMapTasks() );
     assertEquals( 1, stats2.getNumReducerTasks() );
@@ -52,6 +52,7 @@ public class TapTest extends ClusterTestCase implements Serializable
   String inputFileCross = "build/test/data/lhs+rhs-cross.txt";
   String inputFileUpper = "build/test/data/upper.txt";
   String inputFileLower = "build/test/data/lower.txt";
+  String inputFileLhs = "build/test/data/lhs.txt";
 
   String outputPath = "build/test/output/tap/";
 
@@ -246,6 +247,45 @@ public class TapTest extends ClusterTestCase implements Serializable
     input.close();
     }
 
+  public void testTemplateTapEviction() throws IOException
+    {
+    if( !new File( inputFileLhs ).exists() )
+      fail( "data file not found" );
+
+    copyFromLocal( inputFileLhs );
+
+    Tap source = new Hfs( new TextLine( new Fields( "line" ) ), inputFileLhs );
+
+    Pipe pipe = new Pipe( "test" );
+
+    pipe = new Each( pipe, new RegexSplitter( new Fields( "num", "char" ), " " ) );
+
+    Tap sink = new Hfs( new TextLine( 1 ), outputPath + "/testtemplateseviction", true );
+
+    sink = new TemplateTap( (Hfs) sink, "%s", new Fields( "char" ), SinkMode.REPLACE, false, 1 );
+
+    Flow flow = new FlowConnector( getProperties() ).connect( source, sink, pipe );
+
+    flow.complete();
+
+    // a, b, c, b, c, d, c, b, c, d, a, b, e
+    assertEquals( "wrong opened", 13, flow.getFlowStats().getCounterValue( TemplateTapCounters.Collectors_Opened ) );
+    assertEquals( "wrong evicted", 12, flow.getFlowStats().getCounterValue( TemplateTapCounters.Collectors_Evicted ) );
+    assertEquals( "wrong reopened", 8, flow.getFlowStats().getCounterValue( TemplateTapCounters.Collectors_Reopened ) );
+
+    Tap test = new Hfs( new TextLine( 1 ), sink.getPath().toString() + "/a" );
+    validateLength( flow.openTapForRead( test ), 2 );
+
+    test = new Hfs( new TextLine( 1 ), sink.getPath().toString() + "/b" );
+    validateLength( flow.openTapForRead( test ), 4 );
+
+    test = new Hfs( new TextLine( 1 ), sink.getPath().toString() + "/c" );
+    validateLength( flow.openTapForRead( test ), 4 );
+
+    test = new Hfs( new TextLine( 1 ), sink.getPath().toString() + "/e" );
+    validateLength( flow.openTapForRead( test ), 1 );
+    }
+
   public void testSinkDeclaredFields() throws IOException
     {
     if( !new File( inputFileCross ).exists() )
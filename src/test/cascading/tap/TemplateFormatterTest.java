@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2007-2009 Concurrent, Inc. All Rights Reserved.
+ *
+ * Project and contact information: http://www.cascading.org/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Cascading is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Cascading is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cascading.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package cascading.tap;
+
+import java.util.MissingFormatArgumentException;
+
+import cascading.CascadingTestCase;
+import cascading.tuple.Tuple;
+
+/** Verifies TemplateFormatter renders the same paths as {@link Tuple#format(String)}. */
+public class TemplateFormatterTest extends CascadingTestCase
+  {
+  private static final String[] TEMPLATES = {"%s-%s", "%s/%s/part", "prefix", "%%%s%%", "%2$s/%1$s", "%s/%<s",
+                                             "%05d-%s", "%S_%s", "%-4s|%s", "%.1s%s", "%s%n%s"};
+
+  public TemplateFormatterTest()
+    {
+    super( "template formatter tests" );
+    }
+
+  public void testFormat()
+    {
+    Tuple[] tuples = {new Tuple( 1, "a" ), new Tuple( 42, "bcd" ), new Tuple( 7, null )};
+
+    for( String template : TEMPLATES )
+      {
+      TemplateFormatter formatter = new TemplateFormatter( template );
+
+      for( Tuple tuple : tuples )
+        assertEquals( "wrong path for: " + template, tuple.format( template ), formatter.format( tuple ) );
+      }
+    }
+
+  public void testMissingValue()
+    {
+    try
+      {
+      new TemplateFormatter( "%s-%s-%s" ).format( new Tuple( "a", "b" ) );
+      fail( "did not throw exception" );
+      }
+    catch( MissingFormatArgumentException exception )
+      {
+      // ignore
+      }
+    }
+  }
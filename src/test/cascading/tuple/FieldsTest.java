@@ -674,4 +674,57 @@ public class FieldsTest extends CascadingTestCase
       // ignore
       }
     }
+  
+  public void testTypes()
+    {
+    Fields fields = new Fields( "a", "b", "c" );
+
+    assertFalse( "has types", fields.hasTypes() );
+
+    fields.setTypes( String.class, Long.class, null );
+
+    assertTrue( "no types", fields.hasTypes() );
+    assertEquals( "not equal: ", Long.class, fields.getType( 1 ) );
+    assertNull( "not null: ", fields.getType( 2 ) );
+
+    Fields selected = fields.select( new Fields( "b", 0 ) );
+
+    assertEquals( "not equal: ", Long.class, selected.getType( 0 ) );
+    assertEquals( "not equal: ", String.class, selected.getType( 1 ) );
+
+    Fields other = new Fields( "d" );
+
+    other.setType( "d", Integer.class );
+
+    Fields appended = fields.append( other );
+
+    assertEquals( "not equal: ", 4, appended.size() );
+    assertEquals( "not equal: ", Long.class, appended.getType( 1 ) );
+    assertEquals( "not equal: ", Integer.class, appended.getType( 3 ) );
+
+    Fields subtracted = appended.subtract( new Fields( "a" ) );
+
+    assertEquals( "not equal: ", Long.class, subtracted.getType( 0 ) );
+    assertEquals( "not equal: ", Integer.class, subtracted.getType( 2 ) );
+
+    Fields resolved = Fields.resolve( new Fields( "d", "a" ), fields, other );
+
+    assertEquals( "not equal: ", Integer.class, resolved.getType( 0 ) );
+    assertEquals( "not equal: ", String.class, resolved.getType( 1 ) );
+
+    Fields replaced = Fields.resolve( Fields.REPLACE, fields, new Fields( "b" ) );
+
+    assertEquals( "not equal: ", String.class, replaced.getType( 0 ) );
+    assertNull( "not null: ", replaced.getType( 1 ) );
+
+    try
+      {
+      fields.setTypes( String.class );
+      fail( "did not throw exception" );
+      }
+    catch( IllegalArgumentException exception )
+      {
+      // ignore
+      }
+    }
   }
@@ -24,6 +24,7 @@ package cascading.tuple;
 import java.util.Iterator;
 
 import cascading.CascadingTestCase;
+import cascading.tuple.hadoop.FastBlockCodec;
 import org.apache.hadoop.io.Text;
 import org.apache.hadoop.io.compress.CompressionCodec;
 import org.apache.hadoop.io.compress.GzipCodec;
@@ -72,6 +73,80 @@ public class SpillableTupleTest extends CascadingTestCase
     System.out.println( "time = " + ( System.currentTimeMillis() - time ) );
     }
 
+  public void testSpillFastBlockCodec()
+    {
+    FastBlockCodec codec = new FastBlockCodec();
+
+    performSpillTest( 5, 50, codec );
+    performSpillTest( 51, 50, codec );
+    performSpillTest( 501, 50, codec );
+    }
+
+  public void testSpillMemory()
+    {
+    Tuple tuple = new Tuple( 0, "string", 0.0d, new Text( "string" ) );
+    long tupleSize = SpillableTupleList.estimateSize( tuple );
+
+    SpillableTupleList list = new SpillableTupleList( Long.MAX_VALUE, tupleSize * 10, null, null );
+
+    for( int i = 0; i < 105; i++ )
+      list.add( new Tuple( i, "string", Math.random(), new Text( "string" ) ) );
+
+    assertEquals( "not equal: list.size();", 105, list.size() );
+    assertEquals( "not equal: list.getNumFiles()", 9, list.getNumFiles() ); // spills once 11 tuples exceed the limit
+    assertTrue( "memory not bounded", list.getMemorySize() <= tupleSize * 10 );
+
+    int count = 0;
+
+    for( Tuple value : list )
+      assertEquals( "wrong value", count++, (int) value.getInteger( 0 ) );
+
+    assertEquals( "not equal: list.size();", 105, count );
+
+    list.clear();
+
+    assertEquals( "not equal: list.getNumFiles()", 0, list.getNumFiles() );
+    assertEquals( "not equal: list.getMemorySize()", 0, list.getMemorySize() );
+    assertFalse( "not empty", list.iterator().hasNext() );
+    }
+
+  public void testSpillCache()
+    {
+    Tuple tuple = new Tuple( 0, "string", 0.0d, new Text( "string" ) );
+    long tupleSize = SpillableTupleList.estimateSize( tuple );
+
+    // room for a little more than two spill files of 10
+    SpillableTupleList list = new SpillableTupleList( 10, Long.MAX_VALUE, tupleSize * 25, new JobConf(), null );
+
+    for( int i = 0; i < 55; i++ )
+      list.add( new Tuple( i, "string", Math.random(), new Text( "string" ) ) );
+
+    assertEquals( "not equal: list.getNumFiles()", 5, list.getNumFiles() );
+    assertEquals( "not equal: list.getNumCachedFiles()", 0, list.getNumCachedFiles() );
+
+    for( int pass = 0; pass < 3; pass++ )
+      {
+      int count = 0;
+
+      for( Tuple value : list )
+        assertEquals( "wrong value", count++, (int) value.getInteger( 0 ) );
+
+      assertEquals( "not equal: list.size();", 55, count );
+      assertEquals( "not equal: list.getNumCachedFiles()", 2, list.getNumCachedFiles() );
+      }
+
+    // a partial pass does not cache
+    Iterator<Tuple> iterator = list.iterator();
+
+    for( int i = 0; i < 25; i++ )
+      assertEquals( "wrong value", i, (int) iterator.next().getInteger( 0 ) );
+
+    list.clear();
+
+    assertEquals( "not equal: list.getNumCachedFiles()", 0, list.getNumCachedFiles() );
+    assertFalse( "not empty", list.iterator().hasNext() );
+    }
+
   private void performSpillTest( int size, int threshold, CompressionCodec codec )
     {
     SpillableTupleList list = new SpillableTupleList( threshold, null, codec );
@@ -139,6 +139,81 @@ public class TupleEntryTest extends CascadingTestCase
     assertEquals( "not equal: tuple.get(3)", "D", entryA.get( 3 ) );
     }
 
+  public void testCompiledSelect()
+    {
+    TupleSelector selector = new TupleSelector( new Fields( "d", 1 ) );
+
+    Fields fields = new Fields( "a", "b", "c", "d" );
+    TupleEntry entry = new TupleEntry( fields, new Tuple( "a", "b", "c", "d" ) );
+
+    Tuple tuple = selector.select( entry );
+
+    assertEquals( "wrong size", 2, tuple.size() );
+    assertEquals( "not equal: tuple.get(0)", "d", tuple.get( 0 ) );
+    assertEquals( "not equal: tuple.get(1)", "b", tuple.get( 1 ) );
+
+    Tuple result = new Tuple( "x" );
+
+    entry.setTuple( new Tuple( "A", "B", "C", "D" ) );
+
+    assertTrue( "not same result", result == selector.select( entry, result ) );
+    assertEquals( "wrong size", 2, result.size() );
+    assertEquals( "not equal: result.get(0)", "D", result.get( 0 ) );
+    assertEquals( "not equal: result.get(1)", "B", result.get( 1 ) );
+
+    // a new declarator must be resolved again
+    entry = new TupleEntry( new Fields( "d", "c", "b", "a" ), new Tuple( "d", "c", "b", "a" ) );
+
+    tuple = selector.select( entry );
+
+    assertEquals( "not equal: tuple.get(0)", "d", tuple.get( 0 ) );
+    assertEquals( "not equal: tuple.get(1)", "c", tuple.get( 1 ) );
+
+    try
+      {
+      selector.select( new TupleEntry( fields, new Tuple( "a", "b" ) ) );
+      fail( "did not fail" );
+      }
+    catch( TupleException exception )
+      {
+      // do nothing
+      }
+    }
+
+  public void testCompiledSelectEntries()
+    {
+    TupleSelector selector = new TupleSelector( new Fields( 1, "d" ) );
+
+    TupleEntry entryA = new TupleEntry( new Fields( "a", "b" ), new Tuple( "a", "b" ) );
+    TupleEntry entryB = new TupleEntry( new Fields( "c", "d" ), new Tuple( "c", "d" ) );
+
+    Tuple tuple = selector.select( null, entryA, entryB );
+
+    assertEquals( "wrong size", 2, tuple.size() );
+    assertEquals( "not equal: tuple.get(0)", "b", tuple.get( 0 ) );
+    assertEquals( "not equal: tuple.get(1)", "d", tuple.get( 1 ) );
+
+    entryB.setTuple( new Tuple( "C", "D" ) );
+
+    assertEquals( "not equal: selected", TupleEntry.select( selector.getSelector(), entryA, entryB ), selector.select( tuple, entryA, entryB ) );
+    assertEquals( "not equal: tuple.get(1)", "D", tuple.get( 1 ) );
+    }
+
+  public void testCompiledExtract()
+    {
+    TupleSelector selector = new TupleSelector( new Fields( "d", 1 ) );
+
+    TupleEntry entryA = new TupleEntry( new Fields( "a", "b", "c", "d" ), new Tuple( "a", "b", "c", "d" ) );
+
+    Tuple tuple = selector.extract( entryA );
+
+    assertEquals( "wrong size", 2, tuple.size() );
+    assertEquals( "not equal: tuple.get(0)", "d", tuple.get( 0 ) );
+    assertEquals( "not equal: tuple.get(1)", "b", tuple.get( 1 ) );
+    assertNull( "not null: entryA.get(1)", entryA.get( 1 ) );
+    assertNull( "not null: entryA.get(3)", entryA.get( 3 ) );
+    }
+
   public void testUnmodifiable()
     {
     TupleEntry entryA = new TupleEntry( new Fields( "a", "b" ), true );
@@ -25,8 +25,11 @@ import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.util.Date;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import cascading.CascadingTestCase;
+import org.apache.hadoop.io.Text;
 
 public class TupleTest extends CascadingTestCase
   {
@@ -319,4 +322,50 @@ public class TupleTest extends CascadingTestCase
     assertEquals( results.get( 2 ), date );
     assertEquals( results.get( 3 ), date.toString() );
     }
+  
+  public void testLazyText() throws IOException
+    {
+    LazyText ascii = new LazyText( new Text( "ip 1.2.3.4" ) );
+    LazyText utf8 = new LazyText( new Text( "caf\u00e9 au lait" ) );
+
+    assertEquals( 10, ascii.length() );
+    assertEquals( 'i', ascii.charAt( 0 ) );
+    assertEquals( "1.2", ascii.subSequence( 3, 6 ).toString() );
+    assertEquals( "ip 1.2.3.4".hashCode(), ascii.hashCode() );
+    assertEquals( 12, utf8.length() );
+    assertEquals( '\u00e9', utf8.charAt( 3 ) );
+    assertEquals( "caf\u00e9 au lait".hashCode(), utf8.hashCode() );
+
+    assertEquals( ascii, new LazyText( new Text( "ip 1.2.3.4" ) ) );
+    assertFalse( ascii.equals( "ip 1.2.3.4" ) );
+    assertTrue( ascii.compareTo( new LazyText( new Text( "ip 2" ) ) ) < 0 );
+    assertTrue( utf8.compareTo( "caf" ) > 0 );
+
+    Tuple lazyTuple = new Tuple( ascii, utf8 );
+    Tuple stringTuple = new Tuple( "ip 1.2.3.4", "caf\u00e9 au lait" );
+
+    assertEquals( lazyTuple, stringTuple );
+    assertEquals( stringTuple, lazyTuple );
+    assertEquals( lazyTuple.hashCode(), stringTuple.hashCode() );
+    assertEquals( 0, lazyTuple.compareTo( stringTuple ) );
+    assertEquals( 0, stringTuple.compareTo( lazyTuple ) );
+    assertTrue( new Tuple( "ip 2", "a" ).compareTo( lazyTuple ) > 0 );
+
+    Matcher matcher = Pattern.compile( "(\\d+)\\.\\d+$" ).matcher( ascii );
+
+    assertTrue( matcher.find() );
+    assertEquals( "3", matcher.group( 1 ) );
+
+    ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+    TupleOutputStream dataOutputStream = new TupleOutputStream( byteArrayOutputStream );
+
+    dataOutputStream.writeTuple( new Tuple( ascii, utf8, 1L ) );
+    dataOutputStream.writeTypedTuple( new Tuple( ascii, utf8 ), new int[]{1, 1} );
+    dataOutputStream.flush();
+
+    TupleInputStream dataInputStream = new TupleInputStream( new ByteArrayInputStream( byteArrayOutputStream.toByteArray() ), false );
+
+    assertEquals( new Tuple( "ip 1.2.3.4", "caf\u00e9 au lait", 1L ), dataInputStream.readTuple() );
+    assertEquals( new Tuple( "ip 1.2.3.4", "caf\u00e9 au lait" ), dataInputStream.readTypedTuple( new Tuple(), new int[]{1, 1} ) );
+    }
   }
@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2007-2009 Concurrent, Inc. All Rights Reserved.
+ *
+ * Project and contact information: http://www.cascading.org/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Cascading is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Cascading is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cascading.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package cascading.tuple.hadoop;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Random;
+
+import cascading.CascadingTestCase;
+
+/** Verifies bytes written through the FastBlockCodec are read back unchanged. */
+public class FastBlockCodecTest extends CascadingTestCase
+  {
+  private Random random = new Random( 1 );
+  private FastBlockCodec codec = new FastBlockCodec();
+
+  public FastBlockCodecTest()
+    {
+    super( "fast block codec test" );
+    }
+
+  public void testEmpty() throws IOException
+    {
+    assertRoundTrip( new byte[0], 1 );
+    }
+
+  public void testRandom() throws IOException
+    {
+    byte[] bytes = new byte[FastBlockCodec.BLOCK_SIZE * 3 + 17];
+
+    random.nextBytes( bytes );
+
+    byte[] compressed = assertRoundTrip( bytes, 1 );
+
+    assertTrue( "random blocks should be stored", compressed.length < bytes.length + 100 );
+
+    assertRoundTrip( bytes, 1000 );
+    }
+
+  public void testRepetitive() throws IOException
+    {
+    StringBuilder builder = new StringBuilder();
+
+    for( int i = 0; builder.length() < FastBlockCodec.BLOCK_SIZE * 4; i++ )
+      builder.append( "string number " ).append( i % 1000 ).append( '\t' ).append( i ).append( '\n' );
+
+    byte[] bytes = builder.toString().getBytes( "UTF-8" );
+    byte[] compressed = assertRoundTrip( bytes, 1 );
+
+    assertTrue( "did not compress: " + compressed.length, compressed.length < bytes.length / 2 );
+
+    assertRoundTrip( bytes, 7 );
+    }
+
+  public void testLongRuns() throws IOException
+    {
+    byte[] bytes = new byte[100000];
+
+    for( int i = 0; i < bytes.length; i++ )
+      bytes[ i ] = (byte) ( i / 1000 );
+
+    byte[] compressed = assertRoundTrip( bytes, 1 );
+
+    assertTrue( "did not compress: " + compressed.length, compressed.length < bytes.length / 20 );
+    }
+
+  public void testCorrupt() throws IOException
+    {
+    byte[] bytes = "aaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaa".getBytes( "UTF-8" );
+    byte[] compressed = write( bytes, 1 );
+
+    compressed[ compressed.length - 1 ] = (byte) 0x7f; // point the back reference out of the block
+
+    try
+      {
+      read( compressed );
+      fail( "did not fail on corrupt block" );
+      }
+    catch( IOException exception )
+      {
+      // ignore
+      }
+    }
+
+  /** Method assertRoundTrip writes the given bytes in chunks of the given size, and returns the compressed bytes. */
+  private byte[] assertRoundTrip( byte[] bytes, int chunkSize ) throws IOException
+    {
+    byte[] compressed = write( bytes, chunkSize );
+
+    assertTrue( "not equal", Arrays.equals( bytes, read( compressed ) ) );
+
+    return compressed;
+    }
+
+  private byte[] write( byte[] bytes, int chunkSize ) throws IOException
+    {
+    ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    OutputStream output = codec.createOutputStream( buffer );
+
+    for( int i = 0; i < bytes.length; i += chunkSize )
+      {
+      if( chunkSize == 1 )
+        output.write( bytes[ i ] );
+      else
+        output.write( bytes, i, Math.min( chunkSize, bytes.length - i ) );
+      }
+
+    output.close();
+
+    return buffer.toByteArray();
+    }
+
+  private byte[] read( byte[] compressed ) throws IOException
+    {
+    InputStream input = codec.createInputStream( new ByteArrayInputStream( compressed ) );
+    ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    byte[] chunk = new byte[1000];
+    int read;
+
+    while( ( read = input.read( chunk, 0, random.nextInt( chunk.length ) + 1 ) ) != -1 )
+      buffer.write( chunk, 0, read );
+
+    input.close();
+
+    return buffer.toByteArray();
+    }
+  }
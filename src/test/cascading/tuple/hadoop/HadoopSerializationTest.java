@@ -21,6 +21,8 @@
 
 package cascading.tuple.hadoop;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
@@ -30,6 +32,7 @@ import cascading.CascadingTestCase;
 import cascading.tuple.Tuple;
 import cascading.tuple.TupleInputStream;
 import cascading.tuple.TupleOutputStream;
+import cascading.tuple.TypedTuple;
 import org.apache.hadoop.io.BooleanWritable;
 import org.apache.hadoop.io.BytesWritable;
 import org.apache.hadoop.io.Text;
@@ -102,5 +105,89 @@ public class HadoopSerializationTest extends CascadingTestCase
     System.out.println( "time = " + ( System.currentTimeMillis() - time ) );
     }
 
+  public void testTypedTupleSerialization() throws IOException
+    {
+    JobConf jobConf = new JobConf();
+    Class[] types = new Class[]{String.class, Long.class, int.class, Double.class, null};
+
+    TupleSerialization.setTupleTypes( jobConf, types );
+
+    TupleSerialization tupleSerialization = new TupleSerialization( jobConf );
+    ByteArrayOutputStream untypedBytes = new ByteArrayOutputStream();
+    ByteArrayOutputStream typedBytes = new ByteArrayOutputStream();
+
+    TupleOutputStream untyped = new TupleOutputStream( untypedBytes, tupleSerialization.getElementWriter() );
+    TypedTupleSerializer serializer = (TypedTupleSerializer) tupleSerialization.getSerializer( TypedTuple.class );
+    TypedTuple typedTuple = new TypedTuple( types );
+
+    serializer.open( typedBytes );
+
+    for( int i = 0; i < 100; i++ )
+      {
+      Tuple tuple = new Tuple( i % 3 == 0 ? null : "value " + i, (long) i, i, i * 0.5d, new Tuple( "inner", i ) );
 
-  }
\ No newline at end of file
+      untyped.writeTuple( tuple );
+      serializer.serialize( typedTuple.reset( tuple ) );
+      }
+
+    // values are coerced to the declared types
+    serializer.serialize( typedTuple.reset( new Tuple( 1, 2, "3", 4, null ) ) );
+
+    untyped.close();
+    serializer.close();
+
+    assertTrue( "typed not smaller", typedBytes.size() + 100 * 3 < untypedBytes.size() );
+
+    TypedTupleDeserializer deserializer = (TypedTupleDeserializer) tupleSerialization.getDeserializer( TypedTuple.class );
+
+    deserializer.open( new ByteArrayInputStream( typedBytes.toByteArray() ) );
+
+    for( int i = 0; i < 100; i++ )
+      {
+      Tuple tuple = deserializer.deserialize( null );
+
+      assertEquals( "wrong size", 5, tuple.size() );
+      assertEquals( "wrong value", i % 3 == 0 ? null : "value " + i, tuple.get( 0 ) );
+      assertEquals( "wrong value", (long) i, tuple.get( 1 ) );
+      assertEquals( "wrong value", i, tuple.get( 2 ) );
+      assertEquals( "wrong value", i * 0.5d, tuple.get( 3 ) );
+      assertEquals( "wrong value", new Tuple( "inner", i ), tuple.get( 4 ) );
+      }
+
+    assertEquals( "wrong value", new Tuple( "1", 2L, 3, 4d, null ), deserializer.deserialize( new Tuple() ) );
+
+    deserializer.close();
+    }
+
+  public void testSkippedTypedTuplePositions() throws IOException
+    {
+    JobConf jobConf = new JobConf();
+    Class[] types = new Class[]{String.class, Long.class, null, Double.class, Short.class};
+
+    // a map task reading a typed file also holds the shuffle types of its step
+    TupleSerialization.setTupleTypes( jobConf, new Class[]{Integer.class, String.class} );
+    TupleSerialization.setSourceTupleTypes( jobConf, types );
+    TupleSerialization.setSkippedTuplePositions( jobConf, new int[]{0, 2, 3} );
+
+    TupleSerialization tupleSerialization = new TupleSerialization( jobConf );
+    ByteArrayOutputStream typedBytes = new ByteArrayOutputStream();
+    TypedTupleSerializer serializer = (TypedTupleSerializer) tupleSerialization.getSerializer( TypedTuple.class );
+    TypedTuple typedTuple = new TypedTuple( types );
+
+    serializer.open( typedBytes );
+
+    for( int i = 0; i < 100; i++ )
+      serializer.serialize( typedTuple.reset( new Tuple( i % 3 == 0 ? null : "value " + i, (long) i, new Tuple( "inner", i ), i * 0.5d, (short) i ) ) );
+
+    serializer.close();
+
+    TypedTupleDeserializer deserializer = (TypedTupleDeserializer) tupleSerialization.getDeserializer( TypedTuple.class );
+
+    deserializer.open( new ByteArrayInputStream( typedBytes.toByteArray() ) );
+
+    for( int i = 0; i < 100; i++ )
+      assertEquals( "wrong value", new Tuple( null, (long) i, null, null, (short) i ), deserializer.deserialize( null ) );
+
+    deserializer.close();
+    }
+  }
@@ -24,12 +24,14 @@ package cascading.tuple.hadoop;
 import java.io.File;
 import java.io.Serializable;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import cascading.ClusterTestCase;
 import cascading.flow.Flow;
 import cascading.flow.FlowConnector;
 import cascading.flow.FlowProcess;
+import cascading.flow.FlowStep;
 import cascading.flow.MultiMapReducePlanner;
 import cascading.operation.BaseOperation;
 import cascading.operation.Function;
@@ -155,6 +157,19 @@ public class SerializedPipesTest extends ClusterTestCase
       }
     }
 
+  public static class InsertTypeName extends BaseOperation implements Function
+    {
+    public InsertTypeName( Fields fieldDeclaration )
+      {
+      super( 1, fieldDeclaration );
+      }
+
+    public void operate( FlowProcess flowProcess, FunctionCall functionCall )
+      {
+      functionCall.getOutputCollector().add( new Tuple( functionCall.getArguments().get( 0 ).getClass().getSimpleName() ) );
+      }
+    }
+
   public SerializedPipesTest()
     {
     super( "serialized pipes", true ); // leave cluster testing enabled
@@ -388,4 +403,61 @@ public class SerializedPipesTest extends ClusterTestCase
     validateLength( countFlow, 25, null );
     }
 
-  }
\ No newline at end of file
+  public void testCoGroupTypedValues() throws Exception
+    {
+    if( !new File( inputFileLower ).exists() )
+      fail( "data file not found" );
+
+    copyFromLocal( inputFileLower );
+    copyFromLocal( inputFileUpper );
+
+    Tap sourceLower = new Hfs( new TextLine( new Fields( "offset", "line" ) ), inputFileLower );
+    Tap sourceUpper = new Hfs( new TextLine( new Fields( "offset", "line" ) ), inputFileUpper );
+
+    Map sources = new HashMap();
+
+    sources.put( "lower", sourceLower );
+    sources.put( "upper", sourceUpper );
+
+    Fields fields = new Fields( "num", "char" );
+
+    fields.setTypes( Integer.class, String.class );
+
+    Function splitter = new RegexSplitter( fields, " " );
+
+    Tap sink = new Hfs( new TextLine(), outputPath + "/hadoop/typedvalues", true );
+
+    Pipe pipeLower = new Each( new Pipe( "lower" ), new Fields( "line" ), splitter );
+    Pipe pipeUpper = new Each( new Pipe( "upper" ), new Fields( "line" ), splitter );
+
+    Fields declared = new Fields( "num1", "char1", "num2", "char2" );
+
+    declared.setTypes( Integer.class, String.class, Integer.class, String.class );
+
+    Pipe splice = new CoGroup( pipeLower, new Fields( "num" ), pipeUpper, new Fields( "num" ), declared );
+
+    // the second step reads the typed intermediate file
+    splice = new GroupBy( splice, new Fields( "char2" ) );
+
+    splice = new Each( splice, new Fields( "num2" ), new InsertTypeName( new Fields( "type" ) ), Fields.ALL );
+
+    Flow flow = new FlowConnector( getProperties() ).connect( sources, sink, splice );
+
+    List<FlowStep> steps = flow.getSteps();
+
+    assertEquals( "wrong num steps", 2, steps.size() );
+    assertNotNull( "values not typed", steps.get( 0 ).getGroupValueTypes() );
+    assertNotNull( "values not typed", steps.get( 1 ).getGroupValueTypes() );
+
+    flow.complete();
+
+    validateLength( flow, 5, null );
+
+    TupleEntryIterator iterator = flow.openSink();
+
+    // splitter values are coerced to the declared types when written
+    assertEquals( "not equal: tuple.get(1)", "1\ta\t1\tA\tInteger", iterator.next().get( 1 ) );
+
+    iterator.close();
+    }
+  }
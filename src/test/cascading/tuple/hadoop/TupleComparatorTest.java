@@ -0,0 +1,274 @@
+/*
+ * Copyright (c) 2007-2009 Concurrent, Inc. All Rights Reserved.
+ *
+ * Project and contact information: http://www.cascading.org/
+ *
+ * This file is part of the Cascading project.
+ *
+ * Cascading is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Cascading is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cascading.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package cascading.tuple.hadoop;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import cascading.CascadingTestCase;
+import cascading.tuple.Tuple;
+import cascading.tuple.TupleOutputStream;
+import cascading.tuple.TuplePair;
+import org.apache.hadoop.io.DataOutputBuffer;
+import org.apache.hadoop.io.serializer.WritableSerialization;
+import org.apache.hadoop.mapred.JobConf;
+
+/** Verifies the byte level comparators order keys exactly as the deserialized Tuples do. */
+public class TupleComparatorTest extends CascadingTestCase
+  {
+  private static final String[] STRINGS = {"", "a", "ab", "b", "\u00e9", "\u0800", "\ue000", "\uffff",
+                                           "\ud800\udc00", "a\ud83d\ude00", "a\uffff"};
+
+  private Random random = new Random( 1 );
+  private DataOutputBuffer buffer;
+  private TupleOutputStream output;
+
+  public TupleComparatorTest()
+    {
+    super( "tuple comparator test" );
+    }
+
+  private Object randomElement( int depth )
+    {
+    switch( random.nextInt( depth < 2 ? 10 : 9 ) )
+      {
+      case 0:
+        return null;
+      case 1:
+        return STRINGS[ random.nextInt( STRINGS.length ) ];
+      case 2:
+        return random.nextInt( 3 ) - 1 + ( random.nextBoolean() ? 0.5f : Float.NaN );
+      case 3:
+        return random.nextBoolean() ? random.nextInt( 3 ) - 1.0d : -0.0d;
+      case 4:
+        return random.nextBoolean() ? random.nextInt( 3 ) - 1 : random.nextInt();
+      case 5:
+        return random.nextBoolean() ? (long) random.nextInt( 3 ) - 1 : random.nextLong();
+      case 6:
+        return random.nextBoolean();
+      case 7:
+        return (short) ( random.nextInt( 3 ) - 1 );
+      case 8:
+        return random.nextBoolean() ? Short.MIN_VALUE : Short.MAX_VALUE;
+      default:
+        return randomTuple( depth + 1 );
+      }
+    }
+
+  private Tuple randomTuple( int depth )
+    {
+    Tuple tuple = new Tuple();
+    int size = random.nextInt( 3 ) + 1;
+
+    for( int i = 0; i < size; i++ )
+      {
+      Object element = null;
+
+      while( element == null )
+        element = randomElement( depth );
+
+      tuple.add( element );
+      }
+
+    return tuple;
+    }
+
+  /** returns a random value of the same type as the given prototype, or null */
+  private Object randomLike( Object prototype )
+    {
+    if( random.nextInt( 8 ) == 0 )
+      return null;
+
+    if( prototype instanceof Tuple )
+      return randomLike( (Tuple) prototype );
+
+    Object element = null;
+
+    while( element == null || element.getClass() != prototype.getClass() )
+      element = randomElement( 2 );
+
+    return element;
+    }
+
+  private Tuple randomLike( Tuple prototype )
+    {
+    Tuple tuple = new Tuple();
+
+    for( int i = 0; i < prototype.size(); i++ )
+      tuple.add( randomLike( prototype.get( i ) ) );
+
+    return tuple;
+    }
+
+  /** mimics the keys of a single grouping, each position always holding the same type or null */
+  private List<Tuple> typedTuples( int count )
+    {
+    Tuple prototype = randomTuple( 0 );
+    Tuple[] prototypes = {prototype, prototype.append( randomTuple( 0 ) )};
+    List<Tuple> tuples = new ArrayList<Tuple>();
+
+    while( tuples.size() < count )
+      tuples.add( randomLike( prototypes[ random.nextInt( prototypes.length ) ] ) );
+
+    return tuples;
+    }
+
+  private void open( TupleSerialization serialization )
+    {
+    buffer = new DataOutputBuffer();
+    output = new TupleOutputStream( buffer, serialization.getElementWriter() ); // custom serializers stay bound to buffer
+    }
+
+  private byte[] write( Object key ) throws IOException
+    {
+    buffer.reset();
+
+    if( key instanceof TuplePair )
+      output.writeTuplePair( (TuplePair) key );
+    else
+      output.writeTuple( (Tuple) key );
+
+    output.flush();
+
+    byte[] bytes = new byte[ buffer.getLength() + 3 ];
+
+    System.arraycopy( buffer.getData(), 0, bytes, 3, buffer.getLength() ); // offset the key in the array
+
+    return bytes;
+    }
+
+  private int compare( DeserializerComparator comparator, byte[] lhs, byte[] rhs )
+    {
+    return comparator.compare( lhs, 3, lhs.length - 3, rhs, 3, rhs.length - 3 );
+    }
+
+  private void assertSameOrder( String message, int expected, int actual )
+    {
+    assertEquals( message, (int) Math.signum( expected ), (int) Math.signum( actual ) );
+    }
+
+  public void testTupleComparator() throws IOException
+    {
+    JobConf jobConf = new JobConf();
+    open( new TupleSerialization( jobConf ) );
+
+    TupleComparator comparator = new TupleComparator();
+    comparator.setConf( jobConf );
+    ReverseTupleComparator reverseComparator = new ReverseTupleComparator();
+    reverseComparator.setConf( jobConf );
+
+    assertNotNull( "not comparing bytes", comparator.comparison );
+
+    for( int run = 0; run < 50; run++ )
+      {
+      List<Tuple> tuples = typedTuples( 40 );
+
+      for( Tuple lhs : tuples )
+        {
+        byte[] lhsBytes = write( lhs );
+
+        for( Tuple rhs : tuples )
+          {
+          byte[] rhsBytes = write( rhs );
+          String message = lhs.print() + " to " + rhs.print();
+
+          assertSameOrder( message, lhs.compareTo( rhs ), compare( comparator, lhsBytes, rhsBytes ) );
+          assertSameOrder( message, rhs.compareTo( lhs ), compare( reverseComparator, lhsBytes, rhsBytes ) );
+          }
+        }
+      }
+    }
+
+  public void testTuplePairComparator() throws IOException
+    {
+    JobConf jobConf = new JobConf();
+    open( new TupleSerialization( jobConf ) );
+
+    TuplePairComparator comparator = new TuplePairComparator();
+    comparator.setConf( jobConf );
+    GroupingComparator groupingComparator = new GroupingComparator();
+    groupingComparator.setConf( jobConf );
+
+    for( int run = 0; run < 20; run++ )
+      {
+      List<Tuple> groups = typedTuples( 10 );
+      List<Tuple> sorts = typedTuples( 10 );
+      List<TuplePair> pairs = new ArrayList<TuplePair>();
+
+      for( int i = 0; i < groups.size(); i++ )
+        {
+        pairs.add( new TuplePair( groups.get( i ), sorts.get( i ) ) );
+        pairs.add( new TuplePair( groups.get( i ), sorts.get( random.nextInt( sorts.size() ) ) ) );
+        }
+
+      for( TuplePair lhs : pairs )
+        {
+        byte[] lhsBytes = write( lhs );
+
+        for( TuplePair rhs : pairs )
+          {
+          byte[] rhsBytes = write( rhs );
+
+          assertSameOrder( lhs + " to " + rhs, lhs.compareTo( rhs ), compare( comparator, lhsBytes, rhsBytes ) );
+          assertSameOrder( lhs + " to " + rhs, lhs.getLhs().compareTo( rhs.getLhs() ), compare( groupingComparator, lhsBytes, rhsBytes ) );
+          }
+        }
+      }
+    }
+
+  public void testCustomTokens() throws IOException
+    {
+    JobConf jobConf = new JobConf();
+    jobConf.set( "io.serializations", TestSerialization.class.getName() + "," + WritableSerialization.class.getName() );
+    open( new TupleSerialization( jobConf ) );
+
+    TupleComparator comparator = new TupleComparator();
+    comparator.setConf( jobConf );
+
+    Tuple lhs = new Tuple( "a", new TestText( "a" ) );
+    Tuple rhs = new Tuple( "a", new TestText( "b" ) );
+
+    assertSameOrder( "wrong order", lhs.compareTo( rhs ), compare( comparator, write( lhs ), write( rhs ) ) );
+    assertSameOrder( "wrong order", rhs.compareTo( lhs ), compare( comparator, write( rhs ), write( lhs ) ) );
+    }
+
+  public void testMixedTypes() throws IOException
+    {
+    JobConf jobConf = new JobConf();
+    open( new TupleSerialization( jobConf ) );
+
+    TupleComparator comparator = new TupleComparator();
+    comparator.setConf( jobConf );
+
+    try
+      {
+      compare( comparator, write( new Tuple( "a" ) ), write( new Tuple( 1 ) ) );
+      fail( "did not fail on mixed types" );
+      }
+    catch( Exception exception )
+      {
+      // ignore
+      }
+    }
+  }